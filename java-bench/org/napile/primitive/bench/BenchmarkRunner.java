@@ -0,0 +1,366 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.bench;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.regex.Pattern;
+
+/**
+ * Throughput benchmark of all implementations from {@link Targets}, against boxed <tt>java.util</tt> collections.
+ * <p/>
+ * Works like JMH in <tt>thrpt</tt> mode: every benchmark has warmup iterations and measurement iterations of fixed time,
+ * in each iteration all threads execute operation in a loop, and the score is count of operations per millisecond.
+ * The results are written as JMH json file.
+ * <p/>
+ * Options:
+ * <pre>
+ *   -sizes 10,1000,100000,10000000   sizes of collections
+ *   -threads 1,4                      thread counts, by default 1 and count of processors
+ *   -ops get,put,remove,iterate       operations
+ *   -wi 3                             warmup iterations
+ *   -i 5                              measurement iterations
+ *   -t 1000                           time of one iteration, in milliseconds
+ *   -include regexp                   run only benchmarks with matched name, for example <tt>intLongMap\..*\.get</tt>
+ *   -o bench-results.json             json output file
+ * </pre>
+ * Size 10 000 000 with boxed collections needs about 2 GB of heap.
+ * <p/>
+ * Modifying operations are run by more than one thread only for concurrent collections.
+ *
+ * @author VISTALL
+ * @date 10:05/18.10.2026
+ */
+public class BenchmarkRunner
+{
+	private static final int MAX_PROBES = 1 << 20;
+
+	/**
+	 * Sink for results of all operations, so the JIT can not eliminate them.
+	 */
+	public static volatile long blackhole;
+
+	private final int[] sizes;
+	private final int[] threads;
+	private final List<Operation> operations;
+	private final int warmupIterations;
+	private final int iterations;
+	private final long iterationMillis;
+	private final Pattern include;
+
+	private volatile boolean stop;
+
+	public BenchmarkRunner(int[] sizes, int[] threads, List<Operation> operations, int warmupIterations, int iterations, long iterationMillis, Pattern include)
+	{
+		this.sizes = sizes;
+		this.threads = threads;
+		this.operations = operations;
+		this.warmupIterations = warmupIterations;
+		this.iterations = iterations;
+		this.iterationMillis = iterationMillis;
+		this.include = include;
+	}
+
+	public List<Result> run(List<Target> targets) throws InterruptedException
+	{
+		List<Result> results = new ArrayList<Result>();
+		for(Target target : targets)
+		{
+			for(int size : sizes)
+			{
+				boolean set = false;
+				for(Operation operation : operations)
+				{
+					String name = target.getBenchmarkName(operation);
+					if(include != null && !include.matcher(name).find())
+						continue;
+
+					if(!set)
+					{
+						try
+						{
+							target.setUp(keys(size));
+						}
+						catch(Throwable e)
+						{
+							System.out.println(String.format("%-60s failed to set up: %s", name, e));
+							break;
+						}
+						set = true;
+					}
+
+					int[] probeSpace = target.probeSpace(keys(size));
+					for(int threadCount : threads)
+					{
+						if(threadCount > 1 && operation.isMutator() && !target.isConcurrent())
+							continue;
+
+						double[] scores = new double[iterations];
+						try
+						{
+							for(int i = 0; i < warmupIterations; i++)
+								iteration(target, operation, probeSpace, threadCount);
+							for(int i = 0; i < iterations; i++)
+								scores[i] = iteration(target, operation, probeSpace, threadCount);
+						}
+						catch(IllegalStateException e)
+						{
+							System.out.println(String.format("%-60s %3d %9d failed: %s", name, threadCount, size, e.getCause()));
+							continue;
+						}
+
+						Result result = new Result(name, threadCount, size, warmupIterations, iterationMillis, scores);
+						results.add(result);
+						System.out.println(String.format("%-60s %3d %9d %16.3f +- %12.3f ops/ms", name, threadCount, size, result.getScore(), result.getScoreError()));
+					}
+				}
+
+				if(set)
+				{
+					target.tearDown();
+					System.gc();
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Runs one iteration.
+	 *
+	 * @return count of operations per millisecond
+	 * @throws IllegalStateException if the operation failed in one of threads
+	 */
+	private double iteration(Target target, Operation operation, int[] probeSpace, int threadCount) throws InterruptedException
+	{
+		stop = false;
+
+		CyclicBarrier barrier = new CyclicBarrier(threadCount + 1);
+		Worker[] workers = new Worker[threadCount];
+		for(int i = 0; i < threadCount; i++)
+		{
+			workers[i] = new Worker(target, operation, probes(probeSpace, i), barrier);
+			workers[i].start();
+		}
+
+		await(barrier);
+		long start = System.nanoTime();
+		Thread.sleep(iterationMillis);
+		stop = true;
+		long end = System.nanoTime();
+
+		long count = 0;
+		for(Worker worker : workers)
+		{
+			worker.join();
+			if(worker.failure != null)
+				throw new IllegalStateException(worker.failure);
+			count += worker.count;
+		}
+		return count / ((end - start) / 1000000D);
+	}
+
+	private final class Worker extends Thread
+	{
+		private final Target target;
+		private final Operation operation;
+		private final int[] probes;
+		private final CyclicBarrier barrier;
+
+		private long count;
+		private Throwable failure;
+
+		private Worker(Target target, Operation operation, int[] probes, CyclicBarrier barrier)
+		{
+			this.target = target;
+			this.operation = operation;
+			this.probes = probes;
+			this.barrier = barrier;
+		}
+
+		@Override
+		public void run()
+		{
+			await(barrier);
+
+			int mask = probes.length - 1;
+			int i = 0;
+			long count = 0;
+			long sink = 0;
+			try
+			{
+				while(!stop)
+				{
+					sink += operation.execute(target, probes[i++ & mask]);
+					count++;
+				}
+			}
+			catch(Throwable e)
+			{
+				failure = e;
+			}
+			this.count = count;
+			blackhole += sink;
+		}
+	}
+
+	private static void await(CyclicBarrier barrier)
+	{
+		try
+		{
+			barrier.await();
+		}
+		catch(InterruptedException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		catch(BrokenBarrierException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Returns distinct keys, spread over all range of <tt>int</tt>. Multiplication by odd constant is a bijection,
+	 * so keys are distinct and same for every run.
+	 */
+	private static int[] keys(int size)
+	{
+		int[] keys = new int[size];
+		for(int i = 0; i < size; i++)
+			keys[i] = i * 0x9E3779B9;
+		return keys;
+	}
+
+	/**
+	 * Returns random sequence of probe values (length is power of two) for thread with given index.
+	 */
+	private static int[] probes(int[] probeSpace, int threadIndex)
+	{
+		int length = 1024;
+		while(length < probeSpace.length && length < MAX_PROBES)
+			length <<= 1;
+
+		Random random = new Random(31L * threadIndex + probeSpace.length);
+		int[] probes = new int[length];
+		for(int i = 0; i < length; i++)
+			probes[i] = probeSpace[random.nextInt(probeSpace.length)];
+		return probes;
+	}
+
+	private static void writeJson(List<Result> results, String file) throws IOException
+	{
+		StringBuilder builder = new StringBuilder();
+		builder.append("[\n");
+		for(int i = 0; i < results.size(); i++)
+		{
+			if(i > 0)
+				builder.append(",\n");
+			results.get(i).toJson(builder);
+		}
+		builder.append("\n]\n");
+
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try
+		{
+			writer.write(builder.toString());
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+
+	private static int[] parseInts(String value)
+	{
+		String[] split = value.split(",");
+		int[] result = new int[split.length];
+		for(int i = 0; i < split.length; i++)
+			result[i] = Integer.parseInt(split[i].trim());
+		return result;
+	}
+
+	private static List<Operation> parseOperations(String value)
+	{
+		List<Operation> result = new ArrayList<Operation>();
+		for(String name : value.split(","))
+			result.add(Operation.valueOf(name.trim().toUpperCase()));
+		return result;
+	}
+
+	public static void main(String... args) throws Exception
+	{
+		int processors = Runtime.getRuntime().availableProcessors();
+
+		int[] sizes = {10, 1000, 100000, 10000000};
+		int[] threads = processors > 1 ? new int[]{1, processors} : new int[]{1};
+		List<Operation> operations = parseOperations("get,put,remove,iterate");
+		int warmupIterations = 3;
+		int iterations = 5;
+		long iterationMillis = 1000;
+		Pattern include = null;
+		String output = "bench-results.json";
+
+		for(int i = 0; i < args.length; i++)
+		{
+			String arg = args[i];
+			if(i + 1 >= args.length)
+				usage("missing value of " + arg);
+
+			String value = args[++i];
+			if(arg.equals("-sizes"))
+				sizes = parseInts(value);
+			else if(arg.equals("-threads"))
+				threads = parseInts(value);
+			else if(arg.equals("-ops"))
+				operations = parseOperations(value);
+			else if(arg.equals("-wi"))
+				warmupIterations = Integer.parseInt(value);
+			else if(arg.equals("-i"))
+				iterations = Integer.parseInt(value);
+			else if(arg.equals("-t"))
+				iterationMillis = Long.parseLong(value);
+			else if(arg.equals("-include"))
+				include = Pattern.compile(value);
+			else if(arg.equals("-o"))
+				output = value;
+			else
+				usage("unknown option " + arg);
+		}
+
+		BenchmarkRunner runner = new BenchmarkRunner(sizes, threads, operations, warmupIterations, iterations, iterationMillis, include);
+		List<Result> results = runner.run(Targets.all());
+		writeJson(results, output);
+		System.out.println("Results: " + results.size() + " benchmarks, written to " + output);
+	}
+
+	private static void usage(String message)
+	{
+		System.err.println(message);
+		System.err.println("Usage: BenchmarkRunner [-sizes 10,1000] [-threads 1,4] [-ops get,put,remove,iterate] [-wi 3] [-i 5] [-t 1000] [-include regexp] [-o file]");
+		System.exit(1);
+	}
+}
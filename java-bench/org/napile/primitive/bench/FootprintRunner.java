@@ -0,0 +1,596 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.bench;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.napile.primitive.Container;
+import org.napile.primitive.MemoryEstimator;
+import org.napile.primitive.lists.IntList;
+import org.napile.primitive.lists.LongList;
+import org.napile.primitive.lists.impl.ArrayIntList;
+import org.napile.primitive.lists.impl.ArrayLongList;
+import org.napile.primitive.lists.impl.CArrayIntList;
+import org.napile.primitive.maps.IntLongMap;
+import org.napile.primitive.maps.IntObjectMap;
+import org.napile.primitive.maps.LongObjectMap;
+import org.napile.primitive.maps.impl.BTreeIntObjectMap;
+import org.napile.primitive.maps.impl.CHashIntLongMap;
+import org.napile.primitive.maps.impl.CHashIntObjectMap;
+import org.napile.primitive.maps.impl.CHashIntObjectMapV8;
+import org.napile.primitive.maps.impl.CTreeIntObjectMap;
+import org.napile.primitive.maps.impl.CTreeLongObjectMap;
+import org.napile.primitive.maps.impl.HashIntLongMap;
+import org.napile.primitive.maps.impl.HashIntObjectMap;
+import org.napile.primitive.maps.impl.HashLongObjectMap;
+import org.napile.primitive.maps.impl.IntLongAdderMap;
+import org.napile.primitive.maps.impl.OpenHashIntLongMap;
+import org.napile.primitive.maps.impl.OpenHashIntObjectMap;
+import org.napile.primitive.maps.impl.OpenHashLongObjectMap;
+import org.napile.primitive.maps.impl.TreeIntObjectMap;
+import org.napile.primitive.sets.IntSet;
+import org.napile.primitive.sets.LongSet;
+import org.napile.primitive.sets.impl.CTreeIntSet;
+import org.napile.primitive.sets.impl.HashIntSet;
+import org.napile.primitive.sets.impl.HashLongSet;
+import org.napile.primitive.sets.impl.RoaringIntSet;
+import org.napile.primitive.sets.impl.TreeIntSet;
+
+/**
+ * Memory footprint of all implementations at several sizes and load factors.
+ * <p/>
+ * For every implementation two numbers are reported: the estimate of {@link Container#estimateMemoryBytes()} and
+ * the retained heap, measured as difference of used heap before and after creation of the collection (after full gc).
+ * Boxed <tt>java.util</tt> collections are not containers, for them only the measured value is reported.
+ * Measured values of small collections are not precise, use sizes from 100 000.
+ * <p/>
+ * Before the first estimate, compressed oops and class pointers are read from the HotSpot diagnostic bean
+ * and passed to {@link MemoryEstimator} by its system properties, if they are not set already.
+ * <p/>
+ * Options:
+ * <pre>
+ *   -sizes 1000,100000,1000000,10000000   sizes of collections
+ *   -loadFactors 0.5,0.75,0.9             load factors of hash implementations
+ *   -include regexp                       run only implementations with matched name, for example <tt>intLongMap\.</tt>
+ *   -o footprint-results.json             json output file
+ * </pre>
+ *
+ * @author VISTALL
+ * @date 12:30/18.10.2026
+ */
+public class FootprintRunner
+{
+	private static final Object VALUE = new Object();
+
+	private static Object retained;
+
+	private static abstract class Subject
+	{
+		private final String name;
+		private final boolean hashed;
+
+		private Subject(String family, String name, boolean hashed)
+		{
+			this.name = family + "." + name;
+			this.hashed = hashed;
+		}
+
+		protected abstract Object create(int[] keys, float loadFactor);
+	}
+
+	private static List<Subject> subjects()
+	{
+		List<Subject> list = new ArrayList<Subject>();
+		// int -> long
+		list.add(new Subject("intLongMap", "HashIntLongMap", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new HashIntLongMap(16, loadFactor), keys);
+			}
+		});
+		list.add(new Subject("intLongMap", "OpenHashIntLongMap", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new OpenHashIntLongMap(16, loadFactor), keys);
+			}
+		});
+		list.add(new Subject("intLongMap", "CHashIntLongMap", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new CHashIntLongMap(16, loadFactor), keys);
+			}
+		});
+		list.add(new Subject("intLongMap", "IntLongAdderMap", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new IntLongAdderMap(), keys);
+			}
+		});
+		list.add(new Subject("intLongMap", "HashMap", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				Map<Integer, Long> map = new HashMap<Integer, Long>(16, loadFactor);
+				for(int key : keys)
+					map.put(key, (long) key);
+				return map;
+			}
+		});
+		// int -> Object
+		list.add(new Subject("intObjectMap", "HashIntObjectMap", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new HashIntObjectMap<Object>(16, loadFactor), keys);
+			}
+		});
+		list.add(new Subject("intObjectMap", "OpenHashIntObjectMap", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new OpenHashIntObjectMap<Object>(16, loadFactor), keys);
+			}
+		});
+		list.add(new Subject("intObjectMap", "CHashIntObjectMap", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new CHashIntObjectMap<Object>(16, loadFactor), keys);
+			}
+		});
+		list.add(new Subject("intObjectMap", "CHashIntObjectMapV8", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new CHashIntObjectMapV8<Object>(16, loadFactor), keys);
+			}
+		});
+		list.add(new Subject("intObjectMap", "TreeIntObjectMap", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new TreeIntObjectMap<Object>(), keys);
+			}
+		});
+		list.add(new Subject("intObjectMap", "BTreeIntObjectMap", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new BTreeIntObjectMap<Object>(), keys);
+			}
+		});
+		list.add(new Subject("intObjectMap", "CTreeIntObjectMap", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new CTreeIntObjectMap<Object>(), keys);
+			}
+		});
+		list.add(new Subject("intObjectMap", "HashMap", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new HashMap<Integer, Object>(16, loadFactor), keys);
+			}
+		});
+		list.add(new Subject("intObjectMap", "TreeMap", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new TreeMap<Integer, Object>(), keys);
+			}
+		});
+		list.add(new Subject("intObjectMap", "ConcurrentSkipListMap", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new ConcurrentSkipListMap<Integer, Object>(), keys);
+			}
+		});
+		// long -> Object
+		list.add(new Subject("longObjectMap", "HashLongObjectMap", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new HashLongObjectMap<Object>(16, loadFactor), keys);
+			}
+		});
+		list.add(new Subject("longObjectMap", "OpenHashLongObjectMap", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new OpenHashLongObjectMap<Object>(16, loadFactor), keys);
+			}
+		});
+		list.add(new Subject("longObjectMap", "CTreeLongObjectMap", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new CTreeLongObjectMap<Object>(), keys);
+			}
+		});
+		list.add(new Subject("longObjectMap", "HashMap", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				Map<Long, Object> map = new HashMap<Long, Object>(16, loadFactor);
+				for(int key : keys)
+					map.put((long) key, VALUE);
+				return map;
+			}
+		});
+		// sets
+		list.add(new Subject("intSet", "HashIntSet", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new HashIntSet(16, loadFactor), keys);
+			}
+		});
+		list.add(new Subject("intSet", "TreeIntSet", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new TreeIntSet(), keys);
+			}
+		});
+		list.add(new Subject("intSet", "CTreeIntSet", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new CTreeIntSet(), keys);
+			}
+		});
+		list.add(new Subject("intSet", "RoaringIntSet", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new RoaringIntSet(), keys);
+			}
+		});
+		list.add(new Subject("intSet", "HashSet", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new HashSet<Integer>(16, loadFactor), keys);
+			}
+		});
+		list.add(new Subject("intSet", "TreeSet", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new TreeSet<Integer>(), keys);
+			}
+		});
+		list.add(new Subject("longSet", "HashLongSet", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				LongSet set = new HashLongSet(16, loadFactor);
+				for(int key : keys)
+					set.add(key);
+				return set;
+			}
+		});
+		list.add(new Subject("longSet", "HashSet", true)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				Set<Long> set = new HashSet<Long>(16, loadFactor);
+				for(int key : keys)
+					set.add((long) key);
+				return set;
+			}
+		});
+		// lists
+		list.add(new Subject("intList", "ArrayIntList", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return fill(new ArrayIntList(), keys);
+			}
+		});
+		list.add(new Subject("intList", "CArrayIntList", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				return new CArrayIntList(keys);
+			}
+		});
+		list.add(new Subject("intList", "ArrayList", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				List<Integer> list = new ArrayList<Integer>();
+				for(int key : keys)
+					list.add(key);
+				return list;
+			}
+		});
+		list.add(new Subject("longList", "ArrayLongList", false)
+		{
+			@Override
+			protected Object create(int[] keys, float loadFactor)
+			{
+				LongList list = new ArrayLongList();
+				for(int key : keys)
+					list.add(key);
+				return list;
+			}
+		});
+		return list;
+	}
+
+	private static IntLongMap fill(IntLongMap map, int[] keys)
+	{
+		for(int key : keys)
+			map.put(key, key);
+		return map;
+	}
+
+	private static IntObjectMap<Object> fill(IntObjectMap<Object> map, int[] keys)
+	{
+		for(int key : keys)
+			map.put(key, VALUE);
+		return map;
+	}
+
+	private static LongObjectMap<Object> fill(LongObjectMap<Object> map, int[] keys)
+	{
+		for(int key : keys)
+			map.put(key, VALUE);
+		return map;
+	}
+
+	private static Map<Integer, Object> fill(Map<Integer, Object> map, int[] keys)
+	{
+		for(int key : keys)
+			map.put(key, VALUE);
+		return map;
+	}
+
+	private static IntSet fill(IntSet set, int[] keys)
+	{
+		for(int key : keys)
+			set.add(key);
+		return set;
+	}
+
+	private static Set<Integer> fill(Set<Integer> set, int[] keys)
+	{
+		for(int key : keys)
+			set.add(key);
+		return set;
+	}
+
+	private static IntList fill(IntList list, int[] keys)
+	{
+		for(int key : keys)
+			list.add(key);
+		return list;
+	}
+
+	private static long usedMemory() throws InterruptedException
+	{
+		Runtime runtime = Runtime.getRuntime();
+		long used = Long.MAX_VALUE;
+		// several runs - finalization and concurrent collectors can free memory after first one
+		for(int i = 0; i < 5; i++)
+		{
+			System.gc();
+			Thread.sleep(20);
+			used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+		}
+		return used;
+	}
+
+	public static void main(String... args) throws Exception
+	{
+		int[] sizes = {1000, 100000, 1000000, 10000000};
+		float[] loadFactors = {0.5F, 0.75F, 0.9F};
+		Pattern include = null;
+		String output = "footprint-results.json";
+
+		for(int i = 0; i < args.length; i++)
+		{
+			String arg = args[i];
+			if(i + 1 >= args.length)
+				usage("missing value of " + arg);
+
+			String value = args[++i];
+			if(arg.equals("-sizes"))
+			{
+				String[] split = value.split(",");
+				sizes = new int[split.length];
+				for(int j = 0; j < split.length; j++)
+					sizes[j] = Integer.parseInt(split[j].trim());
+			}
+			else if(arg.equals("-loadFactors"))
+			{
+				String[] split = value.split(",");
+				loadFactors = new float[split.length];
+				for(int j = 0; j < split.length; j++)
+					loadFactors[j] = Float.parseFloat(split[j].trim());
+			}
+			else if(arg.equals("-include"))
+				include = Pattern.compile(value);
+			else if(arg.equals("-o"))
+				output = value;
+			else
+				usage("unknown option " + arg);
+		}
+
+		probeVMOption(MemoryEstimator.COMPRESSED_OOPS_PROPERTY, "UseCompressedOops");
+		probeVMOption(MemoryEstimator.COMPRESSED_CLASS_POINTERS_PROPERTY, "UseCompressedClassPointers");
+
+		System.out.println(String.format("object header %d, array header %d, reference %d bytes", MemoryEstimator.OBJECT_HEADER_SIZE, MemoryEstimator.ARRAY_HEADER_SIZE, MemoryEstimator.REFERENCE_SIZE));
+
+		StringBuilder json = new StringBuilder("[\n");
+		int count = 0;
+		for(Subject subject : subjects())
+		{
+			if(include != null && !include.matcher(subject.name).find())
+				continue;
+
+			for(int size : sizes)
+			{
+				int[] keys = new int[size];
+				for(int i = 0; i < size; i++)
+					keys[i] = i * 0x9E3779B9;
+
+				for(float loadFactor : subject.hashed ? loadFactors : new float[]{Float.NaN})
+				{
+					long estimated;
+					long measured;
+					try
+					{
+						long before = usedMemory();
+						retained = subject.create(keys, Float.isNaN(loadFactor) ? 0.75F : loadFactor);
+						measured = usedMemory() - before;
+						estimated = retained instanceof Container ? ((Container) retained).estimateMemoryBytes() : -1;
+					}
+					catch(Throwable e)
+					{
+						System.out.println(String.format("%-40s %9d failed: %s", subject.name, size, e));
+						continue;
+					}
+					finally
+					{
+						retained = null;
+					}
+
+					System.out.println(String.format(Locale.ROOT, "%-40s %9d %5s %14s %8s %14d %8.2f", subject.name, size, Float.isNaN(loadFactor) ? "-" : String.valueOf(loadFactor), estimated < 0 ? "-" : String.valueOf(estimated), estimated < 0 ? "-" : String.format(Locale.ROOT, "%.2f", (double) estimated / size), measured, (double) measured / size));
+
+					if(count++ > 0)
+						json.append(",\n");
+					json.append("\t{\n");
+					json.append("\t\t\"implementation\" : \"").append(subject.name).append("\",\n");
+					json.append("\t\t\"size\" : ").append(size).append(",\n");
+					json.append("\t\t\"loadFactor\" : ").append(Float.isNaN(loadFactor) ? "null" : String.valueOf(loadFactor)).append(",\n");
+					json.append("\t\t\"estimatedBytes\" : ").append(estimated < 0 ? "null" : String.valueOf(estimated)).append(",\n");
+					json.append("\t\t\"estimatedBytesPerElement\" : ").append(estimated < 0 ? "null" : String.format(Locale.ROOT, "%.3f", (double) estimated / size)).append(",\n");
+					json.append("\t\t\"measuredBytes\" : ").append(measured).append(",\n");
+					json.append("\t\t\"measuredBytesPerElement\" : ").append(String.format(Locale.ROOT, "%.3f", (double) measured / size)).append("\n");
+					json.append("\t}");
+				}
+			}
+		}
+		json.append("\n]\n");
+
+		write(json.toString(), output);
+		System.out.println("Results: " + count + " measurements, written to " + output);
+	}
+
+	private static void write(String text, String file) throws IOException
+	{
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try
+		{
+			writer.write(text);
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+
+	/**
+	 * Sets the system property to the value of the HotSpot VM option, if the property is not set and the option is known.
+	 */
+	private static void probeVMOption(String property, String option)
+	{
+		if(System.getProperty(property) != null)
+			return;
+
+		try
+		{
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName objectName = new ObjectName("com.sun.management:type=HotSpotDiagnostic");
+			CompositeData data = (CompositeData) server.invoke(objectName, "getVMOption", new Object[]{option}, new String[]{String.class.getName()});
+			System.setProperty(property, String.valueOf(data.get("value")));
+		}
+		catch(Exception e)
+		{
+			// not HotSpot or no such option - the estimator keeps its defaults
+		}
+		catch(LinkageError e)
+		{
+			// java.management is not available
+		}
+	}
+
+	private static void usage(String message)
+	{
+		System.err.println(message);
+		System.err.println("Usage: FootprintRunner [-sizes 1000,100000] [-loadFactors 0.5,0.75] [-include regexp] [-o file]");
+		System.exit(1);
+	}
+}
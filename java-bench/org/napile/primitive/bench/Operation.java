@@ -0,0 +1,100 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.bench;
+
+/**
+ * Operations measured by {@link BenchmarkRunner}. Each call of {@link #execute(Target, int)} is counted as one operation.
+ *
+ * @author VISTALL
+ * @date 10:05/18.10.2026
+ */
+public enum Operation
+{
+	/**
+	 * Lookup of a present key (or index for lists).
+	 */
+	GET(false)
+	{
+		@Override
+		public long execute(Target target, int key)
+		{
+			return target.get(key);
+		}
+	},
+	/**
+	 * Replace of the value of a present key, size of the collection is not changed.
+	 */
+	PUT(true)
+	{
+		@Override
+		public long execute(Target target, int key)
+		{
+			return target.put(key);
+		}
+	},
+	/**
+	 * Remove of a present key followed by reinsert of it, size of the collection is not changed.
+	 */
+	REMOVE(true)
+	{
+		@Override
+		public long execute(Target target, int key)
+		{
+			return target.remove(key);
+		}
+	},
+	/**
+	 * Full traversal of the collection by its iterator.
+	 */
+	ITERATE(false)
+	{
+		@Override
+		public long execute(Target target, int key)
+		{
+			return target.iterate();
+		}
+	};
+
+	private final boolean mutator;
+
+	Operation(boolean mutator)
+	{
+		this.mutator = mutator;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this operation modifies the collection, such operations are
+	 * run by more than one thread only on concurrent targets.
+	 *
+	 * @return <tt>true</tt> if this operation modifies the collection
+	 */
+	public boolean isMutator()
+	{
+		return mutator;
+	}
+
+	/**
+	 * Executes this operation once.
+	 *
+	 * @param target the target
+	 * @param key	the probe key
+	 * @return value, which must be consumed by caller
+	 */
+	public abstract long execute(Target target, int key);
+}
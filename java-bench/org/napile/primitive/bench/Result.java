@@ -0,0 +1,174 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.bench;
+
+import java.util.Locale;
+
+/**
+ * Result of one benchmark run, written in the format of JMH json result file, so existing tools for regression tracking
+ * can read it.
+ *
+ * @author VISTALL
+ * @date 10:05/18.10.2026
+ */
+public class Result
+{
+	/**
+	 * Quantile of the standard normal distribution for 99.9% confidence interval.
+	 */
+	private static final double Z_999 = 3.290527;
+
+	private final String benchmark;
+	private final int threads;
+	private final int size;
+	private final int warmupIterations;
+	private final long iterationMillis;
+	private final double[] scores;
+
+	public Result(String benchmark, int threads, int size, int warmupIterations, long iterationMillis, double[] scores)
+	{
+		this.benchmark = benchmark;
+		this.threads = threads;
+		this.size = size;
+		this.warmupIterations = warmupIterations;
+		this.iterationMillis = iterationMillis;
+		this.scores = scores;
+	}
+
+	public String getBenchmark()
+	{
+		return benchmark;
+	}
+
+	public int getThreads()
+	{
+		return threads;
+	}
+
+	public int getSize()
+	{
+		return size;
+	}
+
+	/**
+	 * Returns average throughput, in operations per millisecond.
+	 *
+	 * @return the score
+	 */
+	public double getScore()
+	{
+		double sum = 0;
+		for(double score : scores)
+			sum += score;
+		return sum / scores.length;
+	}
+
+	/**
+	 * Returns half-width of 99.9% confidence interval of score (normal approximation).
+	 *
+	 * @return the error, or <tt>NaN</tt> if there is only one measurement
+	 */
+	public double getScoreError()
+	{
+		if(scores.length < 2)
+			return Double.NaN;
+
+		double mean = getScore();
+		double sum = 0;
+		for(double score : scores)
+			sum += (score - mean) * (score - mean);
+		return Z_999 * Math.sqrt(sum / (scores.length - 1)) / Math.sqrt(scores.length);
+	}
+
+	public void toJson(StringBuilder builder)
+	{
+		builder.append("\t{\n");
+		builder.append("\t\t\"benchmark\" : ").append(quote(benchmark)).append(",\n");
+		builder.append("\t\t\"mode\" : \"thrpt\",\n");
+		builder.append("\t\t\"threads\" : ").append(threads).append(",\n");
+		builder.append("\t\t\"forks\" : 1,\n");
+		builder.append("\t\t\"jvm\" : ").append(quote(System.getProperty("java.home"))).append(",\n");
+		builder.append("\t\t\"jdkVersion\" : ").append(quote(System.getProperty("java.version"))).append(",\n");
+		builder.append("\t\t\"warmupIterations\" : ").append(warmupIterations).append(",\n");
+		builder.append("\t\t\"warmupTime\" : ").append(quote(iterationMillis + " ms")).append(",\n");
+		builder.append("\t\t\"measurementIterations\" : ").append(scores.length).append(",\n");
+		builder.append("\t\t\"measurementTime\" : ").append(quote(iterationMillis + " ms")).append(",\n");
+		builder.append("\t\t\"params\" : {\n");
+		builder.append("\t\t\t\"size\" : ").append(quote(String.valueOf(size))).append("\n");
+		builder.append("\t\t},\n");
+		builder.append("\t\t\"primaryMetric\" : {\n");
+		builder.append("\t\t\t\"score\" : ").append(number(getScore())).append(",\n");
+		builder.append("\t\t\t\"scoreError\" : ").append(number(getScoreError())).append(",\n");
+		builder.append("\t\t\t\"scoreUnit\" : \"ops/ms\",\n");
+		builder.append("\t\t\t\"rawData\" : [\n");
+		builder.append("\t\t\t\t[");
+		for(int i = 0; i < scores.length; i++)
+		{
+			if(i > 0)
+				builder.append(", ");
+			builder.append(number(scores[i]));
+		}
+		builder.append("]\n");
+		builder.append("\t\t\t]\n");
+		builder.append("\t\t}\n");
+		builder.append("\t}");
+	}
+
+	private static String number(double value)
+	{
+		// json has no NaN, JMH writes it as a string
+		if(Double.isNaN(value) || Double.isInfinite(value))
+			return "\"NaN\"";
+		return String.format(Locale.ROOT, "%.3f", value);
+	}
+
+	private static String quote(String value)
+	{
+		StringBuilder builder = new StringBuilder(value.length() + 2);
+		builder.append('"');
+		for(int i = 0; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+			switch(c)
+			{
+				case '"':
+					builder.append("\\\"");
+					break;
+				case '\\':
+					builder.append("\\\\");
+					break;
+				case '\n':
+					builder.append("\\n");
+					break;
+				case '\r':
+					builder.append("\\r");
+					break;
+				case '\t':
+					builder.append("\\t");
+					break;
+				default:
+					if(c < 0x20)
+						builder.append(String.format("\\u%04x", (int) c));
+					else
+						builder.append(c);
+			}
+		}
+		return builder.append('"').toString();
+	}
+}
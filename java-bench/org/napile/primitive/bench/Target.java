@@ -0,0 +1,91 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.bench;
+
+/**
+ * Adapter of one collection implementation for {@link BenchmarkRunner}.
+ * <p/>
+ * All operations return a value derived from the collection, so the JIT can not eliminate them.
+ *
+ * @author VISTALL
+ * @date 10:05/18.10.2026
+ */
+public abstract class Target
+{
+	private final String family;
+	private final String name;
+	private final boolean concurrent;
+
+	protected Target(String family, String name, boolean concurrent)
+	{
+		this.family = family;
+		this.name = name;
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Creates a new collection and fills it by keys.
+	 *
+	 * @param keys distinct keys
+	 */
+	public abstract void setUp(int[] keys);
+
+	/**
+	 * Releases the collection, created by {@link #setUp(int[])}.
+	 */
+	public abstract void tearDown();
+
+	public abstract long get(int key);
+
+	public abstract long put(int key);
+
+	public abstract long remove(int key);
+
+	public abstract long iterate();
+
+	/**
+	 * Returns the values, which are passed to operations as probe keys.
+	 * By default - keys of the collection, list targets return indexes.
+	 *
+	 * @param keys keys of the collection
+	 * @return the probe values
+	 */
+	public int[] probeSpace(int[] keys)
+	{
+		return keys;
+	}
+
+	/**
+	 * Returns the name of the benchmark of given operation.
+	 * Implementations of one family are compared with each other, for example <tt>intLongMap.HashIntLongMap.get</tt>
+	 * and <tt>intLongMap.HashMap.get</tt>
+	 *
+	 * @param operation the operation
+	 * @return the benchmark name
+	 */
+	public String getBenchmarkName(Operation operation)
+	{
+		return family + "." + name + "." + operation.name().toLowerCase();
+	}
+
+	public boolean isConcurrent()
+	{
+		return concurrent;
+	}
+}
@@ -0,0 +1,1039 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.napile.pair.primitive.IntLongPair;
+import org.napile.pair.primitive.IntObjectPair;
+import org.napile.pair.primitive.LongObjectPair;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.LongIterator;
+import org.napile.primitive.lists.IntList;
+import org.napile.primitive.lists.impl.ArrayIntList;
+import org.napile.primitive.maps.IntLongMap;
+import org.napile.primitive.maps.IntObjectMap;
+import org.napile.primitive.maps.LongObjectMap;
+import org.napile.primitive.maps.impl.BTreeIntObjectMap;
+import org.napile.primitive.maps.impl.CHashIntLongMap;
+import org.napile.primitive.maps.impl.CHashIntObjectMap;
+import org.napile.primitive.maps.impl.CHashIntObjectMapV8;
+import org.napile.primitive.maps.impl.CTreeIntObjectMap;
+import org.napile.primitive.maps.impl.CTreeLongObjectMap;
+import org.napile.primitive.maps.impl.HashIntLongMap;
+import org.napile.primitive.maps.impl.HashIntObjectMap;
+import org.napile.primitive.maps.impl.HashLongObjectMap;
+import org.napile.primitive.maps.impl.OpenHashIntLongMap;
+import org.napile.primitive.maps.impl.OpenHashIntObjectMap;
+import org.napile.primitive.maps.impl.OpenHashLongObjectMap;
+import org.napile.primitive.maps.impl.TreeIntObjectMap;
+import org.napile.primitive.sets.IntSet;
+import org.napile.primitive.sets.LongSet;
+import org.napile.primitive.sets.impl.CTreeIntSet;
+import org.napile.primitive.sets.impl.CTreeLongSet;
+import org.napile.primitive.sets.impl.HashIntSet;
+import org.napile.primitive.sets.impl.HashLongSet;
+import org.napile.primitive.sets.impl.RoaringIntSet;
+import org.napile.primitive.sets.impl.TreeIntSet;
+
+/**
+ * Registry of all benchmarked implementations and their boxed <tt>java.util</tt> counterparts.
+ *
+ * @author VISTALL
+ * @date 10:05/18.10.2026
+ */
+public class Targets
+{
+	private static final Object VALUE = new Object();
+
+	public static List<Target> all()
+	{
+		List<Target> list = new ArrayList<Target>();
+		// int -> long
+		list.add(new IntLongMapTarget("HashIntLongMap", false)
+		{
+			@Override
+			protected IntLongMap create()
+			{
+				return new HashIntLongMap();
+			}
+		});
+		list.add(new IntLongMapTarget("OpenHashIntLongMap", false)
+		{
+			@Override
+			protected IntLongMap create()
+			{
+				return new OpenHashIntLongMap();
+			}
+		});
+		list.add(new IntLongMapTarget("CHashIntLongMap", true)
+		{
+			@Override
+			protected IntLongMap create()
+			{
+				return new CHashIntLongMap();
+			}
+		});
+		list.add(new BoxedIntLongMapTarget("HashMap", false)
+		{
+			@Override
+			protected Map<Integer, Long> create()
+			{
+				return new HashMap<Integer, Long>();
+			}
+		});
+		list.add(new BoxedIntLongMapTarget("ConcurrentHashMap", true)
+		{
+			@Override
+			protected Map<Integer, Long> create()
+			{
+				return new ConcurrentHashMap<Integer, Long>();
+			}
+		});
+		// int -> Object
+		list.add(new IntObjectMapTarget("HashIntObjectMap", false)
+		{
+			@Override
+			protected IntObjectMap<Object> create()
+			{
+				return new HashIntObjectMap<Object>();
+			}
+		});
+		list.add(new IntObjectMapTarget("OpenHashIntObjectMap", false)
+		{
+			@Override
+			protected IntObjectMap<Object> create()
+			{
+				return new OpenHashIntObjectMap<Object>();
+			}
+		});
+		list.add(new IntObjectMapTarget("CHashIntObjectMap", true)
+		{
+			@Override
+			protected IntObjectMap<Object> create()
+			{
+				return new CHashIntObjectMap<Object>();
+			}
+		});
+		list.add(new IntObjectMapTarget("CHashIntObjectMapV8", true)
+		{
+			@Override
+			protected IntObjectMap<Object> create()
+			{
+				return new CHashIntObjectMapV8<Object>();
+			}
+		});
+		list.add(new IntObjectMapTarget("TreeIntObjectMap", false)
+		{
+			@Override
+			protected IntObjectMap<Object> create()
+			{
+				return new TreeIntObjectMap<Object>();
+			}
+		});
+		list.add(new IntObjectMapTarget("BTreeIntObjectMap", false)
+		{
+			@Override
+			protected IntObjectMap<Object> create()
+			{
+				return new BTreeIntObjectMap<Object>();
+			}
+		});
+		list.add(new IntObjectMapTarget("CTreeIntObjectMap", true)
+		{
+			@Override
+			protected IntObjectMap<Object> create()
+			{
+				return new CTreeIntObjectMap<Object>();
+			}
+		});
+		list.add(new BoxedIntObjectMapTarget("HashMap", false)
+		{
+			@Override
+			protected Map<Integer, Object> create()
+			{
+				return new HashMap<Integer, Object>();
+			}
+		});
+		list.add(new BoxedIntObjectMapTarget("ConcurrentHashMap", true)
+		{
+			@Override
+			protected Map<Integer, Object> create()
+			{
+				return new ConcurrentHashMap<Integer, Object>();
+			}
+		});
+		list.add(new BoxedIntObjectMapTarget("TreeMap", false)
+		{
+			@Override
+			protected Map<Integer, Object> create()
+			{
+				return new TreeMap<Integer, Object>();
+			}
+		});
+		list.add(new BoxedIntObjectMapTarget("ConcurrentSkipListMap", true)
+		{
+			@Override
+			protected Map<Integer, Object> create()
+			{
+				return new ConcurrentSkipListMap<Integer, Object>();
+			}
+		});
+		// long -> Object
+		list.add(new LongObjectMapTarget("HashLongObjectMap", false)
+		{
+			@Override
+			protected LongObjectMap<Object> create()
+			{
+				return new HashLongObjectMap<Object>();
+			}
+		});
+		list.add(new LongObjectMapTarget("OpenHashLongObjectMap", false)
+		{
+			@Override
+			protected LongObjectMap<Object> create()
+			{
+				return new OpenHashLongObjectMap<Object>();
+			}
+		});
+		list.add(new BoxedLongObjectMapTarget("HashMap", false)
+		{
+			@Override
+			protected Map<Long, Object> create()
+			{
+				return new HashMap<Long, Object>();
+			}
+		});
+		list.add(new LongObjectMapTarget("CTreeLongObjectMap", true)
+		{
+			@Override
+			protected LongObjectMap<Object> create()
+			{
+				return new CTreeLongObjectMap<Object>();
+			}
+		});
+		list.add(new BoxedLongObjectMapTarget("ConcurrentSkipListMap", true)
+		{
+			@Override
+			protected Map<Long, Object> create()
+			{
+				return new ConcurrentSkipListMap<Long, Object>();
+			}
+		});
+		// int sets
+		list.add(new IntSetTarget("HashIntSet", false)
+		{
+			@Override
+			protected IntSet create()
+			{
+				return new HashIntSet();
+			}
+		});
+		list.add(new IntSetTarget("TreeIntSet", false)
+		{
+			@Override
+			protected IntSet create()
+			{
+				return new TreeIntSet();
+			}
+		});
+		list.add(new IntSetTarget("CTreeIntSet", true)
+		{
+			@Override
+			protected IntSet create()
+			{
+				return new CTreeIntSet();
+			}
+		});
+		list.add(new IntSetTarget("RoaringIntSet", false)
+		{
+			@Override
+			protected IntSet create()
+			{
+				return new RoaringIntSet();
+			}
+		});
+		list.add(new BoxedIntSetTarget("HashSet", false)
+		{
+			@Override
+			protected Set<Integer> create()
+			{
+				return new HashSet<Integer>();
+			}
+		});
+		list.add(new BoxedIntSetTarget("TreeSet", false)
+		{
+			@Override
+			protected Set<Integer> create()
+			{
+				return new TreeSet<Integer>();
+			}
+		});
+		list.add(new BoxedIntSetTarget("ConcurrentSkipListSet", true)
+		{
+			@Override
+			protected Set<Integer> create()
+			{
+				return new ConcurrentSkipListSet<Integer>();
+			}
+		});
+		// long sets
+		list.add(new LongSetTarget("HashLongSet", false)
+		{
+			@Override
+			protected LongSet create()
+			{
+				return new HashLongSet();
+			}
+		});
+		list.add(new BoxedLongSetTarget("HashSet", false)
+		{
+			@Override
+			protected Set<Long> create()
+			{
+				return new HashSet<Long>();
+			}
+		});
+		list.add(new LongSetTarget("CTreeLongSet", true)
+		{
+			@Override
+			protected LongSet create()
+			{
+				return new CTreeLongSet();
+			}
+		});
+		list.add(new BoxedLongSetTarget("ConcurrentSkipListSet", true)
+		{
+			@Override
+			protected Set<Long> create()
+			{
+				return new ConcurrentSkipListSet<Long>();
+			}
+		});
+		// int lists
+		list.add(new IntListTarget("ArrayIntList", false)
+		{
+			@Override
+			protected IntList create()
+			{
+				return new ArrayIntList();
+			}
+		});
+		list.add(new BoxedIntListTarget("ArrayList", false)
+		{
+			@Override
+			protected List<Integer> create()
+			{
+				return new ArrayList<Integer>();
+			}
+		});
+		return Collections.unmodifiableList(list);
+	}
+
+	private static abstract class IntLongMapTarget extends Target
+	{
+		private IntLongMap map;
+
+		protected IntLongMapTarget(String name, boolean concurrent)
+		{
+			super("intLongMap", name, concurrent);
+		}
+
+		protected abstract IntLongMap create();
+
+		@Override
+		public void setUp(int[] keys)
+		{
+			map = create();
+			for(int key : keys)
+				map.put(key, key);
+		}
+
+		@Override
+		public void tearDown()
+		{
+			map = null;
+		}
+
+		@Override
+		public long get(int key)
+		{
+			return map.get(key);
+		}
+
+		@Override
+		public long put(int key)
+		{
+			return map.put(key, key);
+		}
+
+		@Override
+		public long remove(int key)
+		{
+			long value = map.remove(key);
+			map.put(key, key);
+			return value;
+		}
+
+		@Override
+		public long iterate()
+		{
+			long sum = 0;
+			for(IntLongPair entry : map.entrySet())
+				sum += entry.getKey() + entry.getValue();
+			return sum;
+		}
+	}
+
+	private static abstract class BoxedIntLongMapTarget extends Target
+	{
+		private Map<Integer, Long> map;
+
+		protected BoxedIntLongMapTarget(String name, boolean concurrent)
+		{
+			super("intLongMap", name, concurrent);
+		}
+
+		protected abstract Map<Integer, Long> create();
+
+		@Override
+		public void setUp(int[] keys)
+		{
+			map = create();
+			for(int key : keys)
+				map.put(key, (long) key);
+		}
+
+		@Override
+		public void tearDown()
+		{
+			map = null;
+		}
+
+		@Override
+		public long get(int key)
+		{
+			return map.get(key);
+		}
+
+		@Override
+		public long put(int key)
+		{
+			return map.put(key, (long) key);
+		}
+
+		@Override
+		public long remove(int key)
+		{
+			Long value = map.remove(key);
+			map.put(key, (long) key);
+			return value == null ? 0 : value;
+		}
+
+		@Override
+		public long iterate()
+		{
+			long sum = 0;
+			for(Map.Entry<Integer, Long> entry : map.entrySet())
+				sum += entry.getKey() + entry.getValue();
+			return sum;
+		}
+	}
+
+	private static abstract class IntObjectMapTarget extends Target
+	{
+		private IntObjectMap<Object> map;
+
+		protected IntObjectMapTarget(String name, boolean concurrent)
+		{
+			super("intObjectMap", name, concurrent);
+		}
+
+		protected abstract IntObjectMap<Object> create();
+
+		@Override
+		public void setUp(int[] keys)
+		{
+			map = create();
+			for(int key : keys)
+				map.put(key, VALUE);
+		}
+
+		@Override
+		public void tearDown()
+		{
+			map = null;
+		}
+
+		@Override
+		public long get(int key)
+		{
+			return map.get(key) == VALUE ? 1 : 0;
+		}
+
+		@Override
+		public long put(int key)
+		{
+			return map.put(key, VALUE) == VALUE ? 1 : 0;
+		}
+
+		@Override
+		public long remove(int key)
+		{
+			Object value = map.remove(key);
+			map.put(key, VALUE);
+			return value == VALUE ? 1 : 0;
+		}
+
+		@Override
+		public long iterate()
+		{
+			long sum = 0;
+			for(IntObjectPair<Object> entry : map.entrySet())
+				sum += entry.getKey();
+			return sum;
+		}
+	}
+
+	private static abstract class BoxedIntObjectMapTarget extends Target
+	{
+		private Map<Integer, Object> map;
+
+		protected BoxedIntObjectMapTarget(String name, boolean concurrent)
+		{
+			super("intObjectMap", name, concurrent);
+		}
+
+		protected abstract Map<Integer, Object> create();
+
+		@Override
+		public void setUp(int[] keys)
+		{
+			map = create();
+			for(int key : keys)
+				map.put(key, VALUE);
+		}
+
+		@Override
+		public void tearDown()
+		{
+			map = null;
+		}
+
+		@Override
+		public long get(int key)
+		{
+			return map.get(key) == VALUE ? 1 : 0;
+		}
+
+		@Override
+		public long put(int key)
+		{
+			return map.put(key, VALUE) == VALUE ? 1 : 0;
+		}
+
+		@Override
+		public long remove(int key)
+		{
+			Object value = map.remove(key);
+			map.put(key, VALUE);
+			return value == VALUE ? 1 : 0;
+		}
+
+		@Override
+		public long iterate()
+		{
+			long sum = 0;
+			for(Map.Entry<Integer, Object> entry : map.entrySet())
+				sum += entry.getKey();
+			return sum;
+		}
+	}
+
+	private static abstract class LongObjectMapTarget extends Target
+	{
+		private LongObjectMap<Object> map;
+
+		protected LongObjectMapTarget(String name, boolean concurrent)
+		{
+			super("longObjectMap", name, concurrent);
+		}
+
+		protected abstract LongObjectMap<Object> create();
+
+		@Override
+		public void setUp(int[] keys)
+		{
+			map = create();
+			for(int key : keys)
+				map.put(key, VALUE);
+		}
+
+		@Override
+		public void tearDown()
+		{
+			map = null;
+		}
+
+		@Override
+		public long get(int key)
+		{
+			return map.get(key) == VALUE ? 1 : 0;
+		}
+
+		@Override
+		public long put(int key)
+		{
+			return map.put(key, VALUE) == VALUE ? 1 : 0;
+		}
+
+		@Override
+		public long remove(int key)
+		{
+			Object value = map.remove(key);
+			map.put(key, VALUE);
+			return value == VALUE ? 1 : 0;
+		}
+
+		@Override
+		public long iterate()
+		{
+			long sum = 0;
+			for(LongObjectPair<Object> entry : map.entrySet())
+				sum += entry.getKey();
+			return sum;
+		}
+	}
+
+	private static abstract class BoxedLongObjectMapTarget extends Target
+	{
+		private Map<Long, Object> map;
+
+		protected BoxedLongObjectMapTarget(String name, boolean concurrent)
+		{
+			super("longObjectMap", name, concurrent);
+		}
+
+		protected abstract Map<Long, Object> create();
+
+		@Override
+		public void setUp(int[] keys)
+		{
+			map = create();
+			for(int key : keys)
+				map.put((long) key, VALUE);
+		}
+
+		@Override
+		public void tearDown()
+		{
+			map = null;
+		}
+
+		@Override
+		public long get(int key)
+		{
+			return map.get((long) key) == VALUE ? 1 : 0;
+		}
+
+		@Override
+		public long put(int key)
+		{
+			return map.put((long) key, VALUE) == VALUE ? 1 : 0;
+		}
+
+		@Override
+		public long remove(int key)
+		{
+			Object value = map.remove((long) key);
+			map.put((long) key, VALUE);
+			return value == VALUE ? 1 : 0;
+		}
+
+		@Override
+		public long iterate()
+		{
+			long sum = 0;
+			for(Map.Entry<Long, Object> entry : map.entrySet())
+				sum += entry.getKey();
+			return sum;
+		}
+	}
+
+	private static abstract class IntSetTarget extends Target
+	{
+		private IntSet set;
+
+		protected IntSetTarget(String name, boolean concurrent)
+		{
+			super("intSet", name, concurrent);
+		}
+
+		protected abstract IntSet create();
+
+		@Override
+		public void setUp(int[] keys)
+		{
+			set = create();
+			for(int key : keys)
+				set.add(key);
+		}
+
+		@Override
+		public void tearDown()
+		{
+			set = null;
+		}
+
+		@Override
+		public long get(int key)
+		{
+			return set.contains(key) ? 1 : 0;
+		}
+
+		@Override
+		public long put(int key)
+		{
+			return set.add(key) ? 1 : 0;
+		}
+
+		@Override
+		public long remove(int key)
+		{
+			boolean removed = set.remove(key);
+			set.add(key);
+			return removed ? 1 : 0;
+		}
+
+		@Override
+		public long iterate()
+		{
+			long sum = 0;
+			for(IntIterator iterator = set.iterator(); iterator.hasNext();)
+				sum += iterator.next();
+			return sum;
+		}
+	}
+
+	private static abstract class BoxedIntSetTarget extends Target
+	{
+		private Set<Integer> set;
+
+		protected BoxedIntSetTarget(String name, boolean concurrent)
+		{
+			super("intSet", name, concurrent);
+		}
+
+		protected abstract Set<Integer> create();
+
+		@Override
+		public void setUp(int[] keys)
+		{
+			set = create();
+			for(int key : keys)
+				set.add(key);
+		}
+
+		@Override
+		public void tearDown()
+		{
+			set = null;
+		}
+
+		@Override
+		public long get(int key)
+		{
+			return set.contains(key) ? 1 : 0;
+		}
+
+		@Override
+		public long put(int key)
+		{
+			return set.add(key) ? 1 : 0;
+		}
+
+		@Override
+		public long remove(int key)
+		{
+			boolean removed = set.remove(key);
+			set.add(key);
+			return removed ? 1 : 0;
+		}
+
+		@Override
+		public long iterate()
+		{
+			long sum = 0;
+			for(Integer value : set)
+				sum += value;
+			return sum;
+		}
+	}
+
+	private static abstract class LongSetTarget extends Target
+	{
+		private LongSet set;
+
+		protected LongSetTarget(String name, boolean concurrent)
+		{
+			super("longSet", name, concurrent);
+		}
+
+		protected abstract LongSet create();
+
+		@Override
+		public void setUp(int[] keys)
+		{
+			set = create();
+			for(int key : keys)
+				set.add(key);
+		}
+
+		@Override
+		public void tearDown()
+		{
+			set = null;
+		}
+
+		@Override
+		public long get(int key)
+		{
+			return set.contains(key) ? 1 : 0;
+		}
+
+		@Override
+		public long put(int key)
+		{
+			return set.add(key) ? 1 : 0;
+		}
+
+		@Override
+		public long remove(int key)
+		{
+			boolean removed = set.remove(key);
+			set.add(key);
+			return removed ? 1 : 0;
+		}
+
+		@Override
+		public long iterate()
+		{
+			long sum = 0;
+			for(LongIterator iterator = set.iterator(); iterator.hasNext();)
+				sum += iterator.next();
+			return sum;
+		}
+	}
+
+	private static abstract class BoxedLongSetTarget extends Target
+	{
+		private Set<Long> set;
+
+		protected BoxedLongSetTarget(String name, boolean concurrent)
+		{
+			super("longSet", name, concurrent);
+		}
+
+		protected abstract Set<Long> create();
+
+		@Override
+		public void setUp(int[] keys)
+		{
+			set = create();
+			for(int key : keys)
+				set.add((long) key);
+		}
+
+		@Override
+		public void tearDown()
+		{
+			set = null;
+		}
+
+		@Override
+		public long get(int key)
+		{
+			return set.contains((long) key) ? 1 : 0;
+		}
+
+		@Override
+		public long put(int key)
+		{
+			return set.add((long) key) ? 1 : 0;
+		}
+
+		@Override
+		public long remove(int key)
+		{
+			boolean removed = set.remove((long) key);
+			set.add((long) key);
+			return removed ? 1 : 0;
+		}
+
+		@Override
+		public long iterate()
+		{
+			long sum = 0;
+			for(Long value : set)
+				sum += value;
+			return sum;
+		}
+	}
+
+	private static abstract class IntListTarget extends Target
+	{
+		private IntList list;
+
+		protected IntListTarget(String name, boolean concurrent)
+		{
+			super("intList", name, concurrent);
+		}
+
+		protected abstract IntList create();
+
+		@Override
+		public void setUp(int[] keys)
+		{
+			list = create();
+			for(int key : keys)
+				list.add(key);
+		}
+
+		@Override
+		public void tearDown()
+		{
+			list = null;
+		}
+
+		@Override
+		public int[] probeSpace(int[] keys)
+		{
+			return indexes(keys.length);
+		}
+
+		@Override
+		public long get(int index)
+		{
+			return list.get(index);
+		}
+
+		@Override
+		public long put(int index)
+		{
+			return list.set(index, index);
+		}
+
+		@Override
+		public long remove(int index)
+		{
+			int value = list.removeByIndex(index);
+			list.add(index, value);
+			return value;
+		}
+
+		@Override
+		public long iterate()
+		{
+			long sum = 0;
+			for(IntIterator iterator = list.iterator(); iterator.hasNext();)
+				sum += iterator.next();
+			return sum;
+		}
+	}
+
+	private static abstract class BoxedIntListTarget extends Target
+	{
+		private List<Integer> list;
+
+		protected BoxedIntListTarget(String name, boolean concurrent)
+		{
+			super("intList", name, concurrent);
+		}
+
+		protected abstract List<Integer> create();
+
+		@Override
+		public void setUp(int[] keys)
+		{
+			list = create();
+			for(int key : keys)
+				list.add(key);
+		}
+
+		@Override
+		public void tearDown()
+		{
+			list = null;
+		}
+
+		@Override
+		public int[] probeSpace(int[] keys)
+		{
+			return indexes(keys.length);
+		}
+
+		@Override
+		public long get(int index)
+		{
+			return list.get(index);
+		}
+
+		@Override
+		public long put(int index)
+		{
+			return list.set(index, index);
+		}
+
+		@Override
+		public long remove(int index)
+		{
+			int value = list.remove(index);
+			list.add(index, value);
+			return value;
+		}
+
+		@Override
+		public long iterate()
+		{
+			long sum = 0;
+			for(Integer value : list)
+				sum += value;
+			return sum;
+		}
+	}
+
+	private static int[] indexes(int size)
+	{
+		int[] indexes = new int[size];
+		for(int i = 0; i < size; i++)
+			indexes[i] = i;
+		return indexes;
+	}
+}
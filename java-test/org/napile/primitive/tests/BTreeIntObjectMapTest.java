@@ -0,0 +1,484 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package org.napile.primitive.tests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.napile.pair.primitive.IntObjectPair;
+import org.napile.primitive.Comparators;
+import org.napile.primitive.functions.IntObjectProcedure;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.maps.NavigableIntObjectMap;
+import org.napile.primitive.maps.impl.BTreeIntObjectMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Leaves keep up to 64 mappings and inner nodes up to 64 children, so several thousands of keys
+ * are enough to split inner nodes, and removing them again borrows from siblings and merges nodes.
+ *
+ * @author VISTALL
+ * @date 19:10/18.10.2026
+ */
+public class BTreeIntObjectMapTest
+{
+	private static final int LEAF_CAPACITY = 64;
+	private static final int INNER_CAPACITY = 64;
+
+	private static void put(BTreeIntObjectMap<String> map, NavigableMap<Integer, String> check, int key)
+	{
+		String value = String.valueOf(key);
+		Assert.assertEquals(map.put(key, value), check.put(key, value));
+	}
+
+	private static void remove(BTreeIntObjectMap<String> map, NavigableMap<Integer, String> check, int key)
+	{
+		Assert.assertEquals(map.remove(key), check.remove(key));
+	}
+
+	/**
+	 * Compares the whole map with the reference map: iteration in both directions, lookups and navigation
+	 * around every key.
+	 */
+	private static void verify(NavigableIntObjectMap<String> map, NavigableMap<Integer, String> check)
+	{
+		Assert.assertEquals(map.size(), check.size());
+		Assert.assertEquals(map.isEmpty(), check.isEmpty());
+
+		Iterator<IntObjectPair<String>> entries = map.entrySet().iterator();
+		for(Map.Entry<Integer, String> e : check.entrySet())
+		{
+			Assert.assertTrue(entries.hasNext());
+			IntObjectPair<String> pair = entries.next();
+			Assert.assertEquals(pair.getKey(), e.getKey().intValue());
+			Assert.assertEquals(pair.getValue(), e.getValue());
+		}
+		Assert.assertFalse(entries.hasNext());
+
+		IntIterator descending = map.descendingKeySet().iterator();
+		for(Integer key : check.descendingKeySet())
+		{
+			Assert.assertEquals(descending.next(), key.intValue());
+		}
+		Assert.assertFalse(descending.hasNext());
+
+		if(check.isEmpty())
+		{
+			return;
+		}
+		Assert.assertEquals(map.firstKey(), check.firstKey().intValue());
+		Assert.assertEquals(map.lastKey(), check.lastKey().intValue());
+		for(Integer key : check.keySet())
+		{
+			for(int probe = key - 1; probe <= key + 1; probe++)
+			{
+				Assert.assertEquals(map.get(probe), check.get(probe));
+				Assert.assertEquals(map.containsKey(probe), check.containsKey(probe));
+				assertKey(map.ceilingEntry(probe), check.ceilingKey(probe));
+				assertKey(map.higherEntry(probe), check.higherKey(probe));
+				assertKey(map.floorEntry(probe), check.floorKey(probe));
+				assertKey(map.lowerEntry(probe), check.lowerKey(probe));
+			}
+		}
+	}
+
+	private static void assertKey(IntObjectPair<String> pair, Integer key)
+	{
+		if(key == null)
+		{
+			Assert.assertNull(pair);
+		}
+		else
+		{
+			Assert.assertNotNull(pair, "no entry for " + key);
+			Assert.assertEquals(pair.getKey(), key.intValue());
+		}
+	}
+
+	@Test
+	public void testAscendingSplits() throws Exception
+	{
+		BTreeIntObjectMap<String> map = new BTreeIntObjectMap<String>();
+		NavigableMap<Integer, String> check = new TreeMap<Integer, String>();
+
+		// the first leaf split, then the first inner split, then a third level
+		int[] checkpoints = {LEAF_CAPACITY, LEAF_CAPACITY + 1, LEAF_CAPACITY * INNER_CAPACITY, LEAF_CAPACITY * INNER_CAPACITY + 1, LEAF_CAPACITY * INNER_CAPACITY * 2 + 1};
+		int key = -LEAF_CAPACITY * INNER_CAPACITY;
+		for(int checkpoint : checkpoints)
+		{
+			while(check.size() < checkpoint)
+			{
+				put(map, check, key++);
+			}
+			verify(map, check);
+		}
+	}
+
+	@Test
+	public void testDescendingAndRandomSplits() throws Exception
+	{
+		BTreeIntObjectMap<String> map = new BTreeIntObjectMap<String>();
+		NavigableMap<Integer, String> check = new TreeMap<Integer, String>();
+		for(int key = 5000; key > -5000; key--)
+		{
+			put(map, check, key);
+		}
+		verify(map, check);
+
+		Random random = new Random(12);
+		for(int i = 0; i < 20000; i++)
+		{
+			put(map, check, random.nextInt(100000) - 50000);
+		}
+		verify(map, check);
+	}
+
+	@Test
+	public void testRemoveMergesAndBorrows() throws Exception
+	{
+		int count = LEAF_CAPACITY * INNER_CAPACITY * 3;
+		List<Integer> keys = new ArrayList<Integer>();
+		for(int i = 0; i < count; i++)
+		{
+			keys.add(i * 3);
+		}
+
+		// every other key first: leaves fall to the minimum together, then borrow and merge
+		List<List<Integer>> orders = new ArrayList<List<Integer>>();
+		orders.add(keys);
+		List<Integer> reversed = new ArrayList<Integer>(keys);
+		Collections.reverse(reversed);
+		orders.add(reversed);
+		List<Integer> alternate = new ArrayList<Integer>();
+		for(int i = 0; i < count; i += 2)
+		{
+			alternate.add(keys.get(i));
+		}
+		for(int i = 1; i < count; i += 2)
+		{
+			alternate.add(keys.get(i));
+		}
+		orders.add(alternate);
+		List<Integer> shuffled = new ArrayList<Integer>(keys);
+		Collections.shuffle(shuffled, new Random(7));
+		orders.add(shuffled);
+
+		for(List<Integer> order : orders)
+		{
+			BTreeIntObjectMap<String> map = new BTreeIntObjectMap<String>();
+			NavigableMap<Integer, String> check = new TreeMap<Integer, String>();
+			for(int key : shuffled)
+			{
+				put(map, check, key);
+			}
+
+			int removed = 0;
+			for(int key : order)
+			{
+				remove(map, check, key);
+				remove(map, check, key + 1);
+				if(++removed % 1531 == 0 || check.size() < LEAF_CAPACITY * 2)
+				{
+					verify(map, check);
+				}
+			}
+			Assert.assertTrue(map.isEmpty());
+			verify(map, check);
+
+			// the emptied map is still usable
+			put(map, check, 1);
+			verify(map, check);
+		}
+	}
+
+	@Test
+	public void testMixedOperations() throws Exception
+	{
+		BTreeIntObjectMap<String> map = new BTreeIntObjectMap<String>(Comparators.REVERSE_INT_COMPARATOR);
+		NavigableMap<Integer, String> check = new TreeMap<Integer, String>(Collections.<Integer>reverseOrder());
+		Random random = new Random(3);
+		for(int round = 0; round < 10; round++)
+		{
+			for(int i = 0; i < 3000; i++)
+			{
+				int key = random.nextInt(6000);
+				if(random.nextInt(3) == 0)
+				{
+					remove(map, check, key);
+				}
+				else
+				{
+					put(map, check, key);
+				}
+			}
+			verify(map, check);
+		}
+
+		@SuppressWarnings("unchecked")
+		BTreeIntObjectMap<String> clone = (BTreeIntObjectMap<String>) map.clone();
+		verify(clone, check);
+		Assert.assertEquals(clone, map);
+	}
+
+	@Test
+	public void testNavigationThrows() throws Exception
+	{
+		BTreeIntObjectMap<String> map = new BTreeIntObjectMap<String>();
+		assertNoSuchElement(map);
+
+		for(int i = 0; i < 200; i++)
+		{
+			map.put(i, String.valueOf(i));
+		}
+		Assert.assertEquals(map.lowerKey(1), 0);
+		Assert.assertEquals(map.higherKey(198), 199);
+		try
+		{
+			map.lowerKey(0);
+			Assert.fail();
+		}
+		catch(NoSuchElementException e)
+		{
+		}
+		try
+		{
+			map.floorKey(-1);
+			Assert.fail();
+		}
+		catch(NoSuchElementException e)
+		{
+		}
+		try
+		{
+			map.ceilingKey(200);
+			Assert.fail();
+		}
+		catch(NoSuchElementException e)
+		{
+		}
+		try
+		{
+			map.higherKey(199);
+			Assert.fail();
+		}
+		catch(NoSuchElementException e)
+		{
+		}
+		Assert.assertNull(map.lowerEntry(0));
+		Assert.assertNull(map.higherEntry(199));
+
+		// an empty range of a non empty map
+		assertNoSuchElement(map.subMap(50, false, 51, false));
+		assertNoSuchElement(map.tailMap(199, false));
+		assertNoSuchElement(map.headMap(0, false).descendingMap());
+	}
+
+	private static void assertNoSuchElement(NavigableIntObjectMap<String> map)
+	{
+		Assert.assertNull(map.firstEntry());
+		Assert.assertNull(map.lastEntry());
+		Assert.assertNull(map.pollFirstEntry());
+		Assert.assertNull(map.pollLastEntry());
+		try
+		{
+			map.firstKey();
+			Assert.fail();
+		}
+		catch(NoSuchElementException e)
+		{
+		}
+		try
+		{
+			map.lastKey();
+			Assert.fail();
+		}
+		catch(NoSuchElementException e)
+		{
+		}
+		try
+		{
+			map.ceilingKey(0);
+			Assert.fail();
+		}
+		catch(NoSuchElementException e)
+		{
+		}
+		try
+		{
+			map.floorKey(0);
+			Assert.fail();
+		}
+		catch(NoSuchElementException e)
+		{
+		}
+		try
+		{
+			map.navigableKeySet().first();
+			Assert.fail();
+		}
+		catch(NoSuchElementException e)
+		{
+		}
+		try
+		{
+			map.keySet().iterator().next();
+			Assert.fail();
+		}
+		catch(NoSuchElementException e)
+		{
+		}
+	}
+
+	@Test
+	public void testFailFastIterators() throws Exception
+	{
+		final BTreeIntObjectMap<String> map = new BTreeIntObjectMap<String>();
+		for(int i = 0; i < 1000; i++)
+		{
+			map.put(i, String.valueOf(i));
+		}
+
+		IntIterator keys = map.keySet().iterator();
+		keys.next();
+		map.put(5000, "new");
+		try
+		{
+			keys.next();
+			Assert.fail();
+		}
+		catch(ConcurrentModificationException e)
+		{
+		}
+
+		// replacing a value is not a structural modification
+		Iterator<String> values = map.values().iterator();
+		values.next();
+		map.put(10, "ten");
+		values.next();
+
+		Iterator<IntObjectPair<String>> entries = map.subMap(100, true, 900, true).entrySet().iterator();
+		entries.next();
+		map.remove(500);
+		try
+		{
+			entries.next();
+			Assert.fail();
+		}
+		catch(ConcurrentModificationException e)
+		{
+		}
+
+		IntIterator descending = map.descendingKeySet().iterator();
+		descending.next();
+		map.pollFirstEntry();
+		try
+		{
+			descending.remove();
+			Assert.fail();
+		}
+		catch(ConcurrentModificationException e)
+		{
+		}
+
+		try
+		{
+			map.forEachEntry(new IntObjectProcedure<String>()
+			{
+				@Override
+				public boolean execute(int key, String value)
+				{
+					if(key == 700)
+					{
+						map.remove(key);
+					}
+					return true;
+				}
+			});
+			Assert.fail();
+		}
+		catch(ConcurrentModificationException e)
+		{
+		}
+	}
+
+	@Test
+	public void testIteratorRemove() throws Exception
+	{
+		BTreeIntObjectMap<String> map = new BTreeIntObjectMap<String>();
+		NavigableMap<Integer, String> check = new TreeMap<Integer, String>();
+		for(int i = 0; i < LEAF_CAPACITY * INNER_CAPACITY + 100; i++)
+		{
+			put(map, check, i);
+		}
+
+		// removal through the iterator borrows and merges leaves under it
+		for(IntIterator iterator = map.keySet().iterator(); iterator.hasNext();)
+		{
+			int key = iterator.next();
+			if(key % 3 != 0)
+			{
+				iterator.remove();
+				check.remove(key);
+			}
+		}
+		verify(map, check);
+
+		for(IntIterator iterator = map.descendingKeySet().iterator(); iterator.hasNext();)
+		{
+			int key = iterator.next();
+			if(key % 2 == 0)
+			{
+				iterator.remove();
+				check.remove(key);
+			}
+		}
+		verify(map, check);
+
+		IntIterator iterator = map.keySet().iterator();
+		try
+		{
+			iterator.remove();
+			Assert.fail();
+		}
+		catch(IllegalStateException e)
+		{
+		}
+		iterator.next();
+		iterator.remove();
+		try
+		{
+			iterator.remove();
+			Assert.fail();
+		}
+		catch(IllegalStateException e)
+		{
+		}
+	}
+}
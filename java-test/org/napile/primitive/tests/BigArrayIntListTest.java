@@ -0,0 +1,402 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package org.napile.primitive.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.lists.impl.ArrayIntList;
+import org.napile.primitive.lists.impl.BigArrayIntList;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Elements are stored in chunks, so the tests shift, copy and remove ranges across chunk boundaries and
+ * compare the list with an {@link ArrayIntList}.
+ *
+ * @author VISTALL
+ * @date 22:40/18.10.2026
+ */
+public class BigArrayIntListTest
+{
+	private static final int CHUNK = 1 << 16;
+
+	private static void verify(BigArrayIntList list, ArrayIntList check)
+	{
+		Assert.assertEquals(list.sizeAsLong(), (long) check.size());
+		Assert.assertEquals(list.size(), check.size());
+		Assert.assertEquals(list.isEmpty(), check.isEmpty());
+		Assert.assertEquals(list.toArray(), check.toArray());
+		Assert.assertEquals(list, check);
+		Assert.assertEquals(list.hashCode(), check.hashCode());
+
+		int i = 0;
+		for(IntIterator iterator = list.iterator(); iterator.hasNext(); i++)
+		{
+			Assert.assertEquals(iterator.next(), check.get(i));
+		}
+		Assert.assertEquals(i, check.size());
+	}
+
+	@Test
+	public void testAddAndGetAcrossChunks()
+	{
+		BigArrayIntList list = new BigArrayIntList();
+		ArrayIntList check = new ArrayIntList();
+		verify(list, check);
+		for(int i = 0; i < 3 * CHUNK + 17; i++)
+		{
+			list.add(i * 7);
+			check.add(i * 7);
+		}
+		verify(list, check);
+
+		for(long index : new long[]{0, CHUNK - 1, CHUNK, 2 * CHUNK, 3 * CHUNK + 16})
+		{
+			Assert.assertEquals(list.get(index), (int) index * 7);
+			Assert.assertEquals(list.get((int) index), (int) index * 7);
+			Assert.assertEquals(list.set(index, -1), (int) index * 7);
+			Assert.assertEquals(list.get(index), -1);
+			check.set((int) index, -1);
+		}
+		verify(list, check);
+		Assert.assertTrue(list.contains(-1));
+		Assert.assertTrue(list.contains(3 * 7 * CHUNK));
+		Assert.assertFalse(list.contains(-2));
+		Assert.assertEquals(list.indexOf(7 * (CHUNK + 1)), CHUNK + 1);
+
+		for(long index : new long[]{-1, 3 * CHUNK + 17, Long.MAX_VALUE})
+		{
+			try
+			{
+				list.get(index);
+				Assert.fail(String.valueOf(index));
+			}
+			catch(IndexOutOfBoundsException e)
+			{
+				// ok
+			}
+		}
+	}
+
+	@Test
+	public void testInsertAndRemoveAcrossChunks()
+	{
+		Random random = new Random(24);
+		BigArrayIntList list = new BigArrayIntList();
+		ArrayIntList check = new ArrayIntList();
+		for(int i = 0; i < 2 * CHUNK + 100; i++)
+		{
+			list.add(i);
+			check.add(i);
+		}
+
+		// near the chunk boundaries, the shifts move elements from one chunk to the next
+		int[] indices = {0, 1, CHUNK - 1, CHUNK, CHUNK + 1, 2 * CHUNK - 1, 2 * CHUNK};
+		for(int round = 0; round < 3; round++)
+		{
+			for(int index : indices)
+			{
+				int e = random.nextInt();
+				list.add(index, e);
+				check.add(index, e);
+			}
+			verify(list, check);
+			for(int index : indices)
+			{
+				Assert.assertEquals(list.removeByIndex(index), check.removeByIndex(index));
+			}
+			verify(list, check);
+		}
+
+		Assert.assertEquals(list.removeByIndex((long) CHUNK), check.removeByIndex(CHUNK));
+		list.add(list.size(), 5);
+		check.add(check.size(), 5);
+		verify(list, check);
+
+		try
+		{
+			list.add(list.size() + 1, 1);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+		try
+		{
+			list.removeByIndex(-1L);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+	}
+
+	@Test
+	public void testBulkOperations()
+	{
+		Random random = new Random(25);
+		BigArrayIntList list = new BigArrayIntList();
+		ArrayIntList check = new ArrayIntList();
+
+		// an array longer than a chunk, copied into several chunks from a middle offset
+		int[] a = new int[CHUNK + CHUNK / 2];
+		for(int i = 0; i < a.length; i++)
+		{
+			a[i] = random.nextInt();
+		}
+		Assert.assertTrue(list.addAll(a));
+		Assert.assertTrue(list.addAll(a, 100, CHUNK));
+		Assert.assertFalse(list.addAll(a, 5, 0));
+		check.addAll(a, 0, a.length);
+		check.addAll(a, 100, CHUNK);
+		verify(list, check);
+
+		int[] range = new int[CHUNK + 10];
+		list.getElements(CHUNK - 5L, range, 3, CHUNK + 7);
+		int[] expected = new int[CHUNK + 10];
+		check.getElements(CHUNK - 5, expected, 3, CHUNK + 7);
+		Assert.assertEquals(range, expected);
+
+		list.setElements(2L * CHUNK - 3, a, 7, 20);
+		check.setElements(2 * CHUNK - 3, a, 7, 20);
+		list.setElements(1, a, 0, 3);
+		check.setElements(1, a, 0, 3);
+		verify(list, check);
+
+		ArrayIntList inserted = new ArrayIntList();
+		inserted.addAll(a, 0, CHUNK + 3);
+		Assert.assertTrue(list.addAll(CHUNK - 1, inserted));
+		check.addAll(CHUNK - 1, inserted);
+		Assert.assertFalse(list.addAll(0, new ArrayIntList()));
+		verify(list, check);
+
+		list.removeRange(CHUNK - 2, 2 * CHUNK + 5);
+		check.removeRange(CHUNK - 2, 2 * CHUNK + 5);
+		list.removeRange(10, 10);
+		check.removeRange(10, 10);
+		verify(list, check);
+		list.removeRange(0, list.size());
+		Assert.assertTrue(list.isEmpty());
+
+		try
+		{
+			list.getElements(0L, range, 0, 1);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+		list.addAll(a);
+		try
+		{
+			list.setElements(0L, a, a.length - 2, 3);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+		try
+		{
+			list.addAll(a, -1, 1);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+		try
+		{
+			list.removeRange(5, 4);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+		Assert.assertEquals(list.sizeAsLong(), (long) a.length);
+	}
+
+	@Test
+	public void testCapacity()
+	{
+		// the first chunk grows until it is full, then chunks are added
+		BigArrayIntList list = new BigArrayIntList(3);
+		long small = list.estimateMemoryBytes();
+		for(int i = 0; i < CHUNK - 1; i++)
+		{
+			list.add(i);
+		}
+		Assert.assertTrue(list.estimateMemoryBytes() > small);
+		list.add(CHUNK - 1);
+		list.add(CHUNK);
+		list.ensureCapacity(5L * CHUNK);
+		long large = list.estimateMemoryBytes();
+		Assert.assertTrue(large > 5L * CHUNK * 4, String.valueOf(large));
+
+		list.trimToSize();
+		Assert.assertTrue(list.estimateMemoryBytes() < 3L * CHUNK * 4);
+		Assert.assertEquals(list.sizeAsLong(), CHUNK + 1L);
+		Assert.assertEquals(list.get(CHUNK), CHUNK);
+		list.add(-1);
+		Assert.assertEquals(list.get(CHUNK + 1L), -1);
+
+		list.removeRange(10, list.size());
+		list.trimToSize();
+		Assert.assertEquals(list.toArray(), new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+		list.add(10);
+		Assert.assertEquals(list.get(10L), 10);
+
+		list.clear();
+		list.trimToSize();
+		Assert.assertTrue(list.isEmpty());
+		list.add(1);
+		Assert.assertEquals(list.toArray(), new int[]{1});
+
+		try
+		{
+			new BigArrayIntList(-1);
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+			// ok
+		}
+	}
+
+	@Test
+	public void testIterator()
+	{
+		BigArrayIntList list = new BigArrayIntList();
+		for(int i = 0; i < CHUNK + 10; i++)
+		{
+			list.add(i);
+		}
+
+		// removes every odd element through the iterator, across the chunk boundary
+		IntIterator iterator = list.iterator();
+		try
+		{
+			iterator.remove();
+			Assert.fail();
+		}
+		catch(IllegalStateException e)
+		{
+			// ok
+		}
+		while(iterator.hasNext())
+		{
+			if((iterator.next() & 1) != 0)
+			{
+				iterator.remove();
+			}
+		}
+		Assert.assertEquals(list.size(), CHUNK / 2 + 5);
+		for(int i = 0; i < list.size(); i++)
+		{
+			Assert.assertEquals(list.get(i), i * 2);
+		}
+		try
+		{
+			iterator.next();
+			Assert.fail();
+		}
+		catch(NoSuchElementException e)
+		{
+			// ok
+		}
+
+		iterator = list.iterator();
+		iterator.next();
+		list.add(1);
+		try
+		{
+			iterator.next();
+			Assert.fail();
+		}
+		catch(ConcurrentModificationException e)
+		{
+			// ok
+		}
+
+		final int[] sum = new int[1];
+		Assert.assertTrue(list.forEach(new IntProcedure()
+		{
+			@Override
+			public boolean execute(int value)
+			{
+				sum[0] += value;
+				return true;
+			}
+		}));
+		int expected = 0;
+		for(int i = 0; i < list.size(); i++)
+		{
+			expected += list.get(i);
+		}
+		Assert.assertEquals(sum[0], expected);
+	}
+
+	@Test
+	public void testCloneAndSerialization() throws Exception
+	{
+		BigArrayIntList list = new BigArrayIntList();
+		ArrayIntList check = new ArrayIntList();
+		for(int i = 0; i < 2 * CHUNK + 3; i++)
+		{
+			list.add(-i);
+			check.add(-i);
+		}
+
+		BigArrayIntList clone = (BigArrayIntList) list.clone();
+		verify(clone, check);
+		clone.set(CHUNK + 1L, 42);
+		clone.add(43);
+		verify(list, check);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(list);
+		out.writeObject(new BigArrayIntList());
+		out.close();
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		BigArrayIntList copy = (BigArrayIntList) in.readObject();
+		verify(copy, check);
+		copy.add(7);
+		Assert.assertEquals(copy.get(2L * CHUNK + 3), 7);
+
+		BigArrayIntList empty = (BigArrayIntList) in.readObject();
+		Assert.assertTrue(empty.isEmpty());
+		empty.add(5);
+		Assert.assertEquals(empty.toArray(), new int[]{5});
+	}
+}
@@ -0,0 +1,489 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package org.napile.primitive.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.napile.primitive.collections.IntCollection;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.sets.NavigableIntSet;
+import org.napile.primitive.sets.impl.BitIntSet;
+import org.napile.primitive.sets.impl.HashIntSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Elements are bits of <tt>long</tt> words, so the tests put elements at the word boundaries and compare
+ * the set with a {@link TreeSet}.
+ *
+ * @author VISTALL
+ * @date 21:40/18.10.2026
+ */
+public class BitIntSetTest
+{
+	private static final int[] BOUNDARIES = {0, 1, 62, 63, 64, 65, 127, 128, 191, 192, 1023, 1024};
+
+	private static void add(BitIntSet set, NavigableSet<Integer> check, int e)
+	{
+		Assert.assertEquals(set.add(e), check.add(e), String.valueOf(e));
+	}
+
+	private static void remove(BitIntSet set, NavigableSet<Integer> check, int e)
+	{
+		Assert.assertEquals(set.remove(e), check.remove(e), String.valueOf(e));
+	}
+
+	/**
+	 * Returns <tt>null</tt> if the navigation method throws {@link NoSuchElementException}.
+	 */
+	private static Integer navigate(NavigableIntSet set, int method, int e)
+	{
+		try
+		{
+			switch(method)
+			{
+				case 0:
+					return set.lower(e);
+				case 1:
+					return set.floor(e);
+				case 2:
+					return set.ceiling(e);
+				default:
+					return set.higher(e);
+			}
+		}
+		catch(NoSuchElementException ex)
+		{
+			return null;
+		}
+	}
+
+	private static Integer navigate(NavigableSet<Integer> set, int method, int e)
+	{
+		switch(method)
+		{
+			case 0:
+				return set.lower(e);
+			case 1:
+				return set.floor(e);
+			case 2:
+				return set.ceiling(e);
+			default:
+				return set.higher(e);
+		}
+	}
+
+	private static void verifyNavigation(NavigableIntSet set, NavigableSet<Integer> check, int e)
+	{
+		for(int method = 0; method < 4; method++)
+		{
+			Assert.assertEquals(navigate(set, method, e), navigate(check, method, e), "method " + method + " of " + e);
+		}
+	}
+
+	/**
+	 * Compares the set with the reference set: iteration in both directions, lookups and navigation
+	 * around a sample of elements, around word boundaries and outside of the range.
+	 */
+	private static void verify(NavigableIntSet set, NavigableSet<Integer> check)
+	{
+		Assert.assertEquals(set.size(), check.size());
+		Assert.assertEquals(set.isEmpty(), check.isEmpty());
+
+		IntIterator iterator = set.iterator();
+		for(Integer e : check)
+		{
+			Assert.assertTrue(iterator.hasNext());
+			Assert.assertEquals(iterator.next(), e.intValue());
+		}
+		Assert.assertFalse(iterator.hasNext());
+
+		iterator = set.descendingIterator();
+		for(Iterator<Integer> it = check.descendingIterator(); it.hasNext();)
+		{
+			Assert.assertTrue(iterator.hasNext());
+			Assert.assertEquals(iterator.next(), it.next().intValue());
+		}
+		Assert.assertFalse(iterator.hasNext());
+
+		int[] array = set.toArray();
+		Assert.assertEquals(array.length, check.size());
+		if(!check.isEmpty())
+		{
+			Assert.assertEquals(set.first(), check.first().intValue());
+			Assert.assertEquals(set.last(), check.last().intValue());
+		}
+
+		int step = Math.max(1, check.size() / 300);
+		for(int i = 0; i < array.length; i += step)
+		{
+			int e = array[i];
+			Assert.assertTrue(set.contains(e));
+			verifyNavigation(set, check, e);
+			verifyNavigation(set, check, e - 1);
+			verifyNavigation(set, check, e + 1);
+			verifyNavigation(set, check, e & ~63);
+			verifyNavigation(set, check, e | 63);
+		}
+		for(int e : BOUNDARIES)
+		{
+			Assert.assertEquals(set.contains(e), check.contains(e));
+			verifyNavigation(set, check, e);
+		}
+		for(int e : new int[]{Integer.MIN_VALUE, -64, -1, 1 << 20, Integer.MAX_VALUE})
+		{
+			Assert.assertFalse(set.contains(e));
+			verifyNavigation(set, check, e);
+		}
+	}
+
+	@Test
+	public void testAgainstTreeSet() throws Exception
+	{
+		Random random = new Random(5);
+		BitIntSet set = new BitIntSet();
+		NavigableSet<Integer> check = new TreeSet<Integer>();
+		verify(set, check);
+		for(int e : BOUNDARIES)
+		{
+			add(set, check, e);
+			verify(set, check);
+		}
+		for(int i = 0; i < 20000; i++)
+		{
+			int e = random.nextInt(10000);
+			if(random.nextInt(3) == 0)
+			{
+				remove(set, check, e);
+			}
+			else
+			{
+				add(set, check, e);
+			}
+		}
+		verify(set, check);
+		verify(set.descendingSet(), check.descendingSet());
+		verify(set.subSet(63, false, 4097, true), check.subSet(63, false, 4097, true));
+		verify(set.headSet(128, true), check.headSet(128, true));
+		verify(set.tailSet(9000, false).descendingSet(), check.tailSet(9000, false).descendingSet());
+
+		for(int e : BOUNDARIES)
+		{
+			remove(set, check, e);
+			verify(set, check);
+		}
+		while(!check.isEmpty())
+		{
+			Assert.assertEquals(set.pollLast(), check.pollLast().intValue());
+			if(!check.isEmpty())
+			{
+				Assert.assertEquals(set.pollFirst(), check.pollFirst().intValue());
+			}
+		}
+		verify(set, check);
+	}
+
+	@Test
+	public void testNegativeElements() throws Exception
+	{
+		BitIntSet set = new BitIntSet();
+		set.add(5);
+		for(int e : new int[]{-1, -64, Integer.MIN_VALUE})
+		{
+			try
+			{
+				set.add(e);
+				Assert.fail();
+			}
+			catch(IllegalArgumentException ex)
+			{
+				// ok
+			}
+			Assert.assertFalse(set.contains(e));
+			Assert.assertFalse(set.remove(e));
+		}
+		Assert.assertEquals(set.size(), 1);
+		Assert.assertEquals(set.ceiling(Integer.MIN_VALUE), 5);
+		Assert.assertEquals(set.previousSetBit(-1), -1);
+		try
+		{
+			set.nextSetBit(-1);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+
+		try
+		{
+			new BitIntSet(-1);
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+			// ok
+		}
+
+		HashIntSet negative = new HashIntSet();
+		negative.add(3);
+		negative.add(-3);
+		try
+		{
+			new BitIntSet(negative);
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+			// ok
+		}
+	}
+
+	@Test
+	public void testGrowthAndBits() throws Exception
+	{
+		BitIntSet set = new BitIntSet(0);
+		NavigableSet<Integer> check = new TreeSet<Integer>();
+		verify(set, check);
+		Assert.assertEquals(set.nextSetBit(0), -1);
+		Assert.assertEquals(set.previousSetBit(Integer.MAX_VALUE), -1);
+
+		add(set, check, 1000000);
+		add(set, check, 0);
+		add(set, check, 64);
+		verify(set, check);
+		Assert.assertEquals(set.nextSetBit(1), 64);
+		Assert.assertEquals(set.nextSetBit(65), 1000000);
+		Assert.assertEquals(set.nextSetBit(1000001), -1);
+		Assert.assertEquals(set.nextSetBit(Integer.MAX_VALUE), -1);
+		Assert.assertEquals(set.previousSetBit(999999), 64);
+		Assert.assertEquals(set.previousSetBit(64), 64);
+		Assert.assertEquals(set.previousSetBit(63), 0);
+		Assert.assertEquals(set.previousSetBit(Integer.MAX_VALUE), 1000000);
+
+		// the words are kept, so the set is reused without growing
+		long memory = set.estimateMemoryBytes();
+		set.clear();
+		check.clear();
+		verify(set, check);
+		Assert.assertEquals(set.estimateMemoryBytes(), memory);
+		add(set, check, 999999);
+		verify(set, check);
+	}
+
+	@Test
+	public void testBulkOperations() throws Exception
+	{
+		Random random = new Random(9);
+		BitIntSet small = new BitIntSet();
+		BitIntSet large = new BitIntSet();
+		NavigableSet<Integer> checkSmall = new TreeSet<Integer>();
+		NavigableSet<Integer> checkLarge = new TreeSet<Integer>();
+		for(int i = 0; i < 3000; i++)
+		{
+			add(small, checkSmall, random.nextInt(500));
+			add(large, checkLarge, random.nextInt(20000));
+		}
+
+		// other sets of another length, with and without the word by word path
+		for(boolean bitmap : new boolean[]{true, false})
+		{
+			for(int order = 0; order < 2; order++)
+			{
+				BitIntSet a = (BitIntSet) (order == 0 ? small : large).clone();
+				NavigableSet<Integer> checkA = order == 0 ? checkSmall : checkLarge;
+				BitIntSet b = order == 0 ? large : small;
+				NavigableSet<Integer> checkB = order == 0 ? checkLarge : checkSmall;
+				IntCollection other = bitmap ? b : new HashIntSet(b);
+
+				BitIntSet union = (BitIntSet) a.clone();
+				NavigableSet<Integer> checkUnion = new TreeSet<Integer>(checkA);
+				Assert.assertEquals(union.addAll(other), checkUnion.addAll(checkB));
+				verify(union, checkUnion);
+				Assert.assertTrue(union.containsAll(other));
+				Assert.assertTrue(union.containsAll(a));
+				Assert.assertFalse(union.addAll(other));
+
+				BitIntSet intersection = (BitIntSet) a.clone();
+				NavigableSet<Integer> checkIntersection = new TreeSet<Integer>(checkA);
+				Assert.assertEquals(intersection.retainAll(other), checkIntersection.retainAll(checkB));
+				verify(intersection, checkIntersection);
+				Assert.assertFalse(intersection.retainAll(other));
+
+				BitIntSet difference = (BitIntSet) a.clone();
+				NavigableSet<Integer> checkDifference = new TreeSet<Integer>(checkA);
+				Assert.assertEquals(difference.removeAll(other), checkDifference.removeAll(checkB));
+				verify(difference, checkDifference);
+				Assert.assertFalse(difference.removeAll(other));
+				Assert.assertEquals(difference.containsAll(other), checkDifference.containsAll(checkB));
+			}
+		}
+
+		// trailing empty words of the other set do not matter
+		BitIntSet sparse = new BitIntSet(100000);
+		sparse.add(3);
+		BitIntSet dense = new BitIntSet();
+		dense.add(3);
+		dense.add(4);
+		Assert.assertTrue(dense.containsAll(sparse));
+		Assert.assertFalse(sparse.containsAll(dense));
+	}
+
+	@Test
+	public void testIterators() throws Exception
+	{
+		final BitIntSet set = new BitIntSet();
+		NavigableSet<Integer> check = new TreeSet<Integer>();
+		for(int i = 0; i < 2000; i += 3)
+		{
+			add(set, check, i);
+		}
+
+		for(IntIterator iterator = set.iterator(); iterator.hasNext();)
+		{
+			int e = iterator.next();
+			if(e % 2 == 0)
+			{
+				iterator.remove();
+				check.remove(e);
+			}
+		}
+		verify(set, check);
+		for(IntIterator iterator = set.descendingIterator(); iterator.hasNext();)
+		{
+			int e = iterator.next();
+			if(e % 5 == 0)
+			{
+				iterator.remove();
+				check.remove(e);
+			}
+		}
+		verify(set, check);
+
+		IntIterator iterator = set.iterator();
+		try
+		{
+			iterator.remove();
+			Assert.fail();
+		}
+		catch(IllegalStateException e)
+		{
+			// ok
+		}
+		iterator.next();
+		iterator.remove();
+		try
+		{
+			iterator.remove();
+			Assert.fail();
+		}
+		catch(IllegalStateException e)
+		{
+			// ok
+		}
+		set.add(100000);
+		try
+		{
+			iterator.next();
+			Assert.fail();
+		}
+		catch(ConcurrentModificationException e)
+		{
+			// ok
+		}
+
+		final int[] count = new int[1];
+		Assert.assertFalse(set.forEach(new IntProcedure()
+		{
+			@Override
+			public boolean execute(int value)
+			{
+				return ++count[0] < 10;
+			}
+		}));
+		Assert.assertEquals(count[0], 10);
+		try
+		{
+			set.forEach(new IntProcedure()
+			{
+				@Override
+				public boolean execute(int value)
+				{
+					return set.remove(value);
+				}
+			});
+			Assert.fail();
+		}
+		catch(ConcurrentModificationException e)
+		{
+			// ok
+		}
+	}
+
+	@Test
+	public void testCloneAndSerialization() throws Exception
+	{
+		BitIntSet set = new BitIntSet(100000);
+		NavigableSet<Integer> check = new TreeSet<Integer>();
+		for(int e : BOUNDARIES)
+		{
+			add(set, check, e);
+		}
+
+		BitIntSet clone = (BitIntSet) set.clone();
+		clone.add(5000);
+		clone.remove(0);
+		verify(set, check);
+		Assert.assertEquals(clone.size(), set.size());
+
+		byte[] bytes = serialize(set);
+		// only the words up to the last element are written
+		Assert.assertTrue(bytes.length < 1000);
+		BitIntSet copy = (BitIntSet) new ObjectInputStream(new ByteArrayInputStream(bytes)).readObject();
+		verify(copy, check);
+		Assert.assertEquals(copy, set);
+		add(copy, check, 70000);
+		verify(copy, check);
+
+		BitIntSet empty = (BitIntSet) new ObjectInputStream(new ByteArrayInputStream(serialize(new BitIntSet(0)))).readObject();
+		Assert.assertTrue(empty.isEmpty());
+		Assert.assertTrue(empty.add(1));
+	}
+
+	private static byte[] serialize(Object o) throws Exception
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(o);
+		out.close();
+		return bytes.toByteArray();
+	}
+}
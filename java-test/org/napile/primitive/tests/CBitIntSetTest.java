@@ -0,0 +1,325 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package org.napile.primitive.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.sets.impl.CBitIntSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Threads share words and segments of the set: they add and remove interleaved elements, so that every
+ * compare-and-set of a word races with the other threads, and elements of not yet allocated segments.
+ *
+ * @author VISTALL
+ * @date 21:55/18.10.2026
+ */
+public class CBitIntSetTest
+{
+	private static final int SEGMENT = 1 << 16;
+
+	@Test(timeOut = 60000)
+	public void testConcurrentAddRemoveContains() throws Throwable
+	{
+		final int threads = 4;
+		final int range = 3 * SEGMENT + 1000;
+		final CBitIntSet set = new CBitIntSet(0);
+		ConcurrentRunner.run(threads, new ConcurrentRunner.Task()
+		{
+			@Override
+			public void run(int index)
+			{
+				// the elements of a thread are every threads-th ones, so each word is shared by all threads
+				for(int e = index; e < range; e += threads)
+				{
+					Assert.assertTrue(set.add(e));
+					Assert.assertFalse(set.add(e));
+					Assert.assertTrue(set.contains(e));
+				}
+				for(int e = index; e < range; e += threads)
+				{
+					if(e % 3 == 0)
+					{
+						Assert.assertTrue(set.remove(e));
+						Assert.assertFalse(set.remove(e));
+						Assert.assertFalse(set.contains(e));
+					}
+					else
+					{
+						Assert.assertTrue(set.contains(e));
+					}
+				}
+			}
+		});
+
+		int expected = 0;
+		for(int e = 0; e < range; e++)
+		{
+			boolean present = e % 3 != 0;
+			Assert.assertEquals(set.contains(e), present, String.valueOf(e));
+			if(present)
+			{
+				expected++;
+			}
+		}
+		Assert.assertEquals(set.size(), expected);
+		Assert.assertFalse(set.isEmpty());
+
+		int previous = -1;
+		int count = 0;
+		for(IntIterator iterator = set.iterator(); iterator.hasNext();)
+		{
+			int e = iterator.next();
+			Assert.assertTrue(e > previous);
+			Assert.assertTrue(e % 3 != 0);
+			previous = e;
+			count++;
+		}
+		Assert.assertEquals(count, expected);
+	}
+
+	@Test(timeOut = 60000)
+	public void testConcurrentSameElements() throws Throwable
+	{
+		final int threads = 4;
+		final int range = 2 * SEGMENT;
+		final CBitIntSet set = new CBitIntSet(0);
+		final AtomicInteger added = new AtomicInteger();
+		final AtomicInteger removed = new AtomicInteger();
+		ConcurrentRunner.run(threads, new ConcurrentRunner.Task()
+		{
+			@Override
+			public void run(int index)
+			{
+				// every thread goes over all the elements, from another start
+				int count = 0;
+				for(int i = 0; i < range; i++)
+				{
+					if(set.add((i + index * (range / threads)) % range))
+					{
+						count++;
+					}
+				}
+				added.addAndGet(count);
+			}
+		});
+		// exactly one thread added each element
+		Assert.assertEquals(added.get(), range);
+		Assert.assertEquals(set.size(), range);
+
+		ConcurrentRunner.run(threads, new ConcurrentRunner.Task()
+		{
+			@Override
+			public void run(int index)
+			{
+				int count = 0;
+				for(int i = range - 1; i >= 0; i--)
+				{
+					if(set.remove((i + index * 7919) % range))
+					{
+						count++;
+					}
+				}
+				removed.addAndGet(count);
+			}
+		});
+		Assert.assertEquals(removed.get(), range);
+		Assert.assertEquals(set.size(), 0);
+		Assert.assertTrue(set.isEmpty());
+		Assert.assertFalse(set.iterator().hasNext());
+	}
+
+	@Test(timeOut = 60000)
+	public void testConcurrentSegmentAllocation() throws Throwable
+	{
+		final int threads = 4;
+		final int segments = 64;
+		final CBitIntSet set = new CBitIntSet(0);
+		ConcurrentRunner.run(threads, new ConcurrentRunner.Task()
+		{
+			@Override
+			public void run(int index)
+			{
+				// all threads add to every segment, from the far ones, so the table grows while others install segments
+				for(int s = segments - 1; s >= 0; s--)
+				{
+					int e = (s * 3 + 1) * SEGMENT + index;
+					Assert.assertTrue(set.add(e));
+					Assert.assertTrue(set.contains(e));
+				}
+				Assert.assertTrue(set.add(Integer.MAX_VALUE - index));
+			}
+		});
+
+		Assert.assertEquals(set.size(), (segments + 1) * threads);
+		for(int s = 0; s < segments; s++)
+		{
+			for(int index = 0; index < threads; index++)
+			{
+				Assert.assertTrue(set.contains((s * 3 + 1) * SEGMENT + index));
+			}
+		}
+		for(int index = 0; index < threads; index++)
+		{
+			Assert.assertTrue(set.contains(Integer.MAX_VALUE - index));
+		}
+	}
+
+	@Test(timeOut = 60000)
+	public void testReadersDuringMutation() throws Throwable
+	{
+		final int threads = 4;
+		final int range = SEGMENT + 5000;
+		final CBitIntSet set = new CBitIntSet();
+		// even elements stay in the set, odd ones come and go
+		for(int e = 0; e < range; e += 2)
+		{
+			set.add(e);
+		}
+		final AtomicBoolean done = new AtomicBoolean();
+		ConcurrentRunner.run(threads, new ConcurrentRunner.Task()
+		{
+			@Override
+			public void run(int index)
+			{
+				if(index == 0)
+				{
+					for(int round = 0; round < 5; round++)
+					{
+						for(int e = 1; e < range; e += 2)
+						{
+							set.add(e);
+						}
+						for(int e = 1; e < range; e += 2)
+						{
+							set.remove(e);
+						}
+					}
+					done.set(true);
+					return;
+				}
+
+				do
+				{
+					// weakly consistent iteration still sees every stable element, in ascending order
+					int stable = 0;
+					int previous = -1;
+					for(IntIterator iterator = set.iterator(); iterator.hasNext();)
+					{
+						int e = iterator.next();
+						Assert.assertTrue(e > previous);
+						Assert.assertTrue(e < range);
+						previous = e;
+						if(e % 2 == 0)
+						{
+							Assert.assertEquals(e, stable);
+							stable += 2;
+						}
+					}
+					Assert.assertEquals(stable, range);
+					int size = set.size();
+					Assert.assertTrue(size >= range / 2 && size <= range, String.valueOf(size));
+					Assert.assertTrue(set.contains(index * 2));
+				}
+				while(!done.get());
+			}
+		});
+
+		Assert.assertEquals(set.size(), range / 2);
+		for(int e = 0; e < range; e++)
+		{
+			Assert.assertEquals(set.contains(e), e % 2 == 0);
+		}
+	}
+
+	@Test
+	public void testSingleThread() throws Exception
+	{
+		CBitIntSet set = new CBitIntSet();
+		try
+		{
+			set.add(-1);
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+			// ok
+		}
+		Assert.assertFalse(set.contains(-1));
+		Assert.assertFalse(set.remove(Integer.MIN_VALUE));
+		Assert.assertTrue(set.isEmpty());
+		Assert.assertEquals(set.nextSetBit(0), -1);
+
+		set.add(Integer.MAX_VALUE);
+		set.add(0);
+		set.add(SEGMENT);
+		Assert.assertEquals(set.toArray(), new int[]{0, SEGMENT, Integer.MAX_VALUE});
+		Assert.assertEquals(set.nextSetBit(1), SEGMENT);
+		Assert.assertEquals(set.nextSetBit(SEGMENT + 1), Integer.MAX_VALUE);
+
+		IntIterator iterator = set.iterator();
+		try
+		{
+			iterator.remove();
+			Assert.fail();
+		}
+		catch(IllegalStateException e)
+		{
+			// ok
+		}
+		Assert.assertEquals(iterator.next(), 0);
+		iterator.remove();
+		Assert.assertEquals(iterator.next(), SEGMENT);
+		Assert.assertEquals(iterator.next(), Integer.MAX_VALUE);
+		Assert.assertFalse(iterator.hasNext());
+		try
+		{
+			iterator.next();
+			Assert.fail();
+		}
+		catch(NoSuchElementException e)
+		{
+			// ok
+		}
+		Assert.assertEquals(set.size(), 2);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(set);
+		out.close();
+		CBitIntSet copy = (CBitIntSet) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+		Assert.assertEquals(copy.toArray(), new int[]{SEGMENT, Integer.MAX_VALUE});
+		Assert.assertEquals(copy, set);
+
+		set.clear();
+		Assert.assertTrue(set.isEmpty());
+		Assert.assertEquals(set.size(), 0);
+		Assert.assertTrue(set.add(SEGMENT));
+	}
+}
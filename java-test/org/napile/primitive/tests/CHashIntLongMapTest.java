@@ -19,8 +19,15 @@
 
 package org.napile.primitive.tests;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.napile.primitive.functions.LongBinaryOperator;
 import org.napile.primitive.maps.IntLongMap;
 import org.napile.primitive.maps.impl.CHashIntLongMap;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 /**
@@ -43,4 +50,159 @@ public class CHashIntLongMapTest
 		System.out.println("containsKey(268480666): " + map.containsKey(268480666));
 		System.out.println("containsValue(Long.MAX_VALUE: " + map.containsValue(Long.MAX_VALUE));
 	}
+
+	@Test
+	public void testAddAndGet() throws Exception
+	{
+		CHashIntLongMap map = new CHashIntLongMap();
+
+		// absent key is added as if its previous value was zero
+		Assert.assertEquals(map.addAndGet(5, 3), 3);
+		Assert.assertEquals(map.get(5), 3);
+		Assert.assertEquals(map.addAndGet(5, -10), -7);
+		Assert.assertEquals(map.get(5), -7);
+
+		Assert.assertEquals(map.getAndAdd(6, 4), 0);
+		Assert.assertEquals(map.get(6), 4);
+		Assert.assertEquals(map.getAndAdd(6, 4), 4);
+		Assert.assertEquals(map.get(6), 8);
+
+		Assert.assertEquals(map.incrementAndGet(7), 1);
+		Assert.assertEquals(map.incrementAndGet(7), 2);
+		Assert.assertEquals(map.decrementAndGet(8), -1);
+		Assert.assertEquals(map.decrementAndGet(7), 1);
+
+		Assert.assertEquals(map.addAndGet(9, Long.MAX_VALUE), Long.MAX_VALUE);
+		Assert.assertEquals(map.incrementAndGet(9), Long.MIN_VALUE);
+		Assert.assertEquals(map.size(), 5);
+	}
+
+	@Test
+	public void testMerge() throws Exception
+	{
+		CHashIntLongMap map = new CHashIntLongMap();
+		LongBinaryOperator max = new LongBinaryOperator()
+		{
+			@Override
+			public long applyAsLong(long left, long right)
+			{
+				return Math.max(left, right);
+			}
+		};
+
+		// absent key is mapped to the given value, the function is not called
+		Assert.assertEquals(map.merge(1, 10, max), 10);
+		Assert.assertEquals(map.get(1), 10);
+		Assert.assertEquals(map.merge(1, 5, max), 10);
+		Assert.assertEquals(map.merge(1, 20, max), 20);
+		Assert.assertEquals(map.get(1), 20);
+		Assert.assertEquals(map.size(), 1);
+	}
+
+	@Test(expectedExceptions = NullPointerException.class)
+	public void testMergeNullFunction() throws Exception
+	{
+		CHashIntLongMap map = new CHashIntLongMap();
+		map.put(1, 1);
+		map.merge(1, 1, null);
+	}
+
+	@Test(timeOut = 60000)
+	public void testConcurrentIncrement() throws Throwable
+	{
+		final int threads = 8;
+		final int keys = 64;
+		final int perThread = 50000;
+		final CHashIntLongMap map = new CHashIntLongMap(2);
+		ConcurrentRunner.run(threads, new ConcurrentRunner.Task()
+		{
+			@Override
+			public void run(int index)
+			{
+				for(int i = 0; i < perThread; i++)
+				{
+					int key = (i * 31 + index) % keys;
+					switch(i & 3)
+					{
+						case 0:
+							map.incrementAndGet(key);
+							break;
+						case 1:
+							map.addAndGet(key, 2);
+							break;
+						case 2:
+							map.getAndAdd(key, 3);
+							break;
+						default:
+							map.decrementAndGet(key);
+							break;
+					}
+				}
+			}
+		});
+
+		long sum = 0;
+		for(int key = 0; key < keys; key++)
+		{
+			sum += map.get(key);
+		}
+		Assert.assertEquals(map.size(), keys);
+		Assert.assertEquals(sum, (long) threads * perThread / 4 * (1 + 2 + 3 - 1));
+	}
+
+	@Test
+	public void testNoEntryValue() throws Exception
+	{
+		CHashIntLongMap map = new CHashIntLongMap(16, 0.75f, 16, -1);
+		Assert.assertEquals(map.getNoEntryValue(), -1);
+		Assert.assertEquals(map.get(5), -1);
+		Assert.assertEquals(map.remove(5), -1);
+		Assert.assertEquals(map.replace(5, 10), -1);
+		Assert.assertFalse(map.containsKey(5));
+		Assert.assertEquals(map.getOrDefault(5, 7), 7);
+
+		Assert.assertEquals(map.put(5, 10), -1);
+		Assert.assertEquals(map.putIfAbsent(6, 0), -1);
+		Assert.assertEquals(map.putIfAbsent(6, 1), 0);
+		Assert.assertEquals(map.getOrDefault(5, 7), 10);
+		Assert.assertEquals(map.getOrDefault(6, 7), 0);
+
+		// a stored value equal to the no entry value is still a mapping
+		Assert.assertEquals(map.put(8, -1), -1);
+		Assert.assertTrue(map.containsKey(8));
+		Assert.assertEquals(map.getOrDefault(8, 7), -1);
+		Assert.assertEquals(map.remove(8), -1);
+		Assert.assertFalse(map.containsKey(8));
+
+		Assert.assertEquals(map.remove(5), 10);
+		Assert.assertEquals(map.get(5), -1);
+		Assert.assertEquals(map.size(), 1);
+	}
+
+	@Test
+	public void testSerialization() throws Exception
+	{
+		CHashIntLongMap map = new CHashIntLongMap(16, 0.75f, 4, Long.MIN_VALUE);
+		for(int i = -1000; i < 1000; i++)
+		{
+			map.put(i * 7919, (long) i << 33);
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(map);
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		CHashIntLongMap copy = (CHashIntLongMap) in.readObject();
+		Assert.assertEquals(copy, map);
+		Assert.assertEquals(copy.size(), 2000);
+		Assert.assertEquals(copy.getNoEntryValue(), Long.MIN_VALUE);
+		Assert.assertEquals(copy.get(1), Long.MIN_VALUE);
+
+		// the copy is fully usable
+		Assert.assertEquals(copy.addAndGet(1, 1), 1);
+		Assert.assertEquals(copy.remove(7919), 1L << 33);
+		Assert.assertEquals(copy.size(), 2000);
+	}
 }
@@ -1,7 +1,19 @@
 package org.napile.primitive.tests;
 
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.napile.pair.primitive.IntObjectPair;
+import org.napile.primitive.functions.IntObjectFunction;
+import org.napile.primitive.functions.IntObjectProcedure;
+import org.napile.primitive.functions.IntToLongFunction;
+import org.napile.primitive.functions.LongBinaryOperator;
+import org.napile.primitive.functions.ObjectBinaryOperator;
 import org.napile.primitive.maps.IntObjectMap;
 import org.napile.primitive.maps.impl.CHashIntObjectMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
 
 /**
  * @author VISTALL
@@ -17,7 +29,7 @@ public class CHashIntObjectMapTest
 		_map.put(268480666, Long.MAX_VALUE);
 
 		Long val = _map.get(-1);
-		for(IntObjectMap.Entry a : _map.entrySet())
+		for(IntObjectPair<Long> a : _map.entrySet())
 			System.out.println(a.toString());
 
 		_map.clear();
@@ -36,4 +48,192 @@ public class CHashIntObjectMapTest
 		Assert.assertNull(v2);
 		Assert.assertNotNull(v);
 	} */
+
+	private static final int SIZE = 20000;
+
+	/**
+	 * Lower than the size of any segment, so the bulk operations split the work in many tasks
+	 */
+	private static final long THRESHOLD = 1;
+
+	private static final ObjectBinaryOperator<Long> SUM = new ObjectBinaryOperator<Long>()
+	{
+		@Override
+		public Long apply(Long left, Long right)
+		{
+			return left + right;
+		}
+	};
+
+	private static CHashIntObjectMap<Long> newMap()
+	{
+		CHashIntObjectMap<Long> map = new CHashIntObjectMap<Long>();
+		for(int i = 0; i < SIZE; i++)
+		{
+			map.put(i - SIZE / 2, (long) i);
+		}
+		return map;
+	}
+
+	@Test
+	public void testForEach() throws Exception
+	{
+		CHashIntObjectMap<Long> map = newMap();
+		final AtomicIntegerArray visits = new AtomicIntegerArray(SIZE);
+		final AtomicBoolean forked = new AtomicBoolean();
+		IntObjectProcedure<Long> procedure = new IntObjectProcedure<Long>()
+		{
+			@Override
+			public boolean execute(int key, Long value)
+			{
+				Assert.assertEquals(value.longValue(), key + SIZE / 2);
+				visits.incrementAndGet(key + SIZE / 2);
+				if(Thread.currentThread() instanceof ForkJoinWorkerThread)
+				{
+					forked.set(true);
+				}
+				return true;
+			}
+		};
+
+		Assert.assertTrue(map.forEach(THRESHOLD, procedure));
+		Assert.assertTrue(forked.get());
+		for(int i = 0; i < SIZE; i++)
+		{
+			Assert.assertEquals(visits.get(i), 1, "visits of " + (i - SIZE / 2));
+		}
+
+		// over the threshold the traversal stays in the calling thread
+		forked.set(false);
+		Assert.assertTrue(map.forEach(Long.MAX_VALUE, procedure));
+		Assert.assertFalse(forked.get());
+		for(int i = 0; i < SIZE; i++)
+		{
+			Assert.assertEquals(visits.get(i), 2);
+		}
+	}
+
+	@Test
+	public void testForEachStop() throws Exception
+	{
+		CHashIntObjectMap<Long> map = newMap();
+		IntObjectProcedure<Long> stopAtZero = new IntObjectProcedure<Long>()
+		{
+			@Override
+			public boolean execute(int key, Long value)
+			{
+				return key != 0;
+			}
+		};
+		Assert.assertFalse(map.forEach(THRESHOLD, stopAtZero));
+		Assert.assertFalse(map.forEach(Long.MAX_VALUE, stopAtZero));
+
+		map.remove(0);
+		Assert.assertTrue(map.forEach(THRESHOLD, stopAtZero));
+	}
+
+	@Test
+	public void testReduce() throws Exception
+	{
+		CHashIntObjectMap<Long> map = newMap();
+		long sum = (long) SIZE * (SIZE - 1) / 2;
+		Assert.assertEquals(map.reduceValues(THRESHOLD, SUM), Long.valueOf(sum));
+		Assert.assertEquals(map.reduceValues(Long.MAX_VALUE, SUM), Long.valueOf(sum));
+
+		IntToLongFunction square = new IntToLongFunction()
+		{
+			@Override
+			public long applyAsLong(int value)
+			{
+				return (long) value * value;
+			}
+		};
+		LongBinaryOperator plus = new LongBinaryOperator()
+		{
+			@Override
+			public long applyAsLong(long left, long right)
+			{
+				return left + right;
+			}
+		};
+		LongBinaryOperator min = new LongBinaryOperator()
+		{
+			@Override
+			public long applyAsLong(long left, long right)
+			{
+				return Math.min(left, right);
+			}
+		};
+		long squares = 0;
+		for(int i = 0; i < SIZE; i++)
+		{
+			squares += (long) (i - SIZE / 2) * (i - SIZE / 2);
+		}
+		Assert.assertEquals(map.reduceKeysToLong(THRESHOLD, square, 0, plus), squares);
+		Assert.assertEquals(map.reduceKeysToLong(Long.MAX_VALUE, square, 0, plus), squares);
+		// the basis takes part once per task, so it must be the identity of the reducer
+		Assert.assertEquals(map.reduceKeysToLong(THRESHOLD, square, Long.MAX_VALUE, min), 0);
+
+		CHashIntObjectMap<Long> empty = new CHashIntObjectMap<Long>();
+		Assert.assertNull(empty.reduceValues(THRESHOLD, SUM));
+		Assert.assertEquals(empty.reduceKeysToLong(THRESHOLD, square, 7, plus), 7);
+	}
+
+	@Test
+	public void testSearch() throws Exception
+	{
+		CHashIntObjectMap<Long> map = newMap();
+		final int wanted = SIZE / 2 - 1;
+		IntObjectFunction<Long, String> function = new IntObjectFunction<Long, String>()
+		{
+			@Override
+			public String apply(int key, Long value)
+			{
+				return key == wanted ? "found " + value : null;
+			}
+		};
+		Assert.assertEquals(map.search(THRESHOLD, function), "found " + (SIZE - 1));
+		Assert.assertEquals(map.search(Long.MAX_VALUE, function), "found " + (SIZE - 1));
+
+		map.remove(wanted);
+		Assert.assertNull(map.search(THRESHOLD, function));
+	}
+
+	@Test
+	public void testNullArguments() throws Exception
+	{
+		CHashIntObjectMap<Long> map = newMap();
+		try
+		{
+			map.forEach(THRESHOLD, null);
+			Assert.fail();
+		}
+		catch(NullPointerException e)
+		{
+		}
+		try
+		{
+			map.reduceValues(THRESHOLD, null);
+			Assert.fail();
+		}
+		catch(NullPointerException e)
+		{
+		}
+		try
+		{
+			map.reduceKeysToLong(THRESHOLD, null, 0, null);
+			Assert.fail();
+		}
+		catch(NullPointerException e)
+		{
+		}
+		try
+		{
+			map.search(THRESHOLD, null);
+			Assert.fail();
+		}
+		catch(NullPointerException e)
+		{
+		}
+	}
 }
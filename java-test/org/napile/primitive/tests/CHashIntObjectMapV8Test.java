@@ -0,0 +1,181 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.napile.primitive.tests;
+
+import org.napile.primitive.maps.CIntObjectMap;
+import org.napile.primitive.maps.impl.CHashIntObjectMapV8;
+import org.napile.primitive.maps.impl.HashIntObjectMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author VISTALL
+ * @date 17:25/18.10.2026
+ */
+public class CHashIntObjectMapV8Test
+{
+	private static final int THREADS = 8;
+
+	@Test
+	public void test() throws Exception
+	{
+		CIntObjectMap<String> map = new CHashIntObjectMapV8<String>();
+		Assert.assertNull(map.put(268480666, "a"));
+		Assert.assertNull(map.put(0, "zero"));
+		Assert.assertNull(map.put(Integer.MIN_VALUE, "min"));
+		Assert.assertEquals(map.put(268480666, "b"), "a");
+
+		Assert.assertEquals(map.get(268480666), "b");
+		Assert.assertEquals(map.get(0), "zero");
+		Assert.assertEquals(map.get(Integer.MIN_VALUE), "min");
+		Assert.assertNull(map.get(Integer.MAX_VALUE));
+		Assert.assertTrue(map.containsKey(0));
+		Assert.assertFalse(map.containsKey(-1));
+		Assert.assertTrue(map.containsValue("min"));
+		Assert.assertEquals(map.size(), 3);
+
+		Assert.assertEquals(map.putIfAbsent(0, "other"), "zero");
+		Assert.assertNull(map.putIfAbsent(1, "one"));
+		Assert.assertEquals(map.get(1), "one");
+
+		Assert.assertEquals(map.replace(1, "uno"), "one");
+		Assert.assertNull(map.replace(2, "two"));
+		Assert.assertFalse(map.containsKey(2));
+		Assert.assertFalse(map.replace(1, "one", "ein"));
+		Assert.assertTrue(map.replace(1, "uno", "ein"));
+		Assert.assertEquals(map.get(1), "ein");
+
+		Assert.assertFalse(map.remove(1, "uno"));
+		Assert.assertTrue(map.remove(1, "ein"));
+		Assert.assertEquals(map.remove(0), "zero");
+		Assert.assertNull(map.remove(0));
+		Assert.assertEquals(map.size(), 2);
+
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertEquals(map.size(), 0);
+	}
+
+	@Test(expectedExceptions = NullPointerException.class)
+	public void testNullValue() throws Exception
+	{
+		new CHashIntObjectMapV8<String>().put(1, null);
+	}
+
+	@Test
+	public void testEqualsHashIntObjectMap() throws Exception
+	{
+		CIntObjectMap<Integer> map = new CHashIntObjectMapV8<Integer>();
+		HashIntObjectMap<Integer> check = new HashIntObjectMap<Integer>();
+		for(int i = -5000; i < 5000; i++)
+		{
+			map.put(i * 7919, i);
+			check.put(i * 7919, i);
+		}
+		for(int i = -5000; i < 5000; i += 3)
+		{
+			Assert.assertEquals(map.remove(i * 7919), check.remove(i * 7919));
+		}
+
+		Assert.assertEquals(map, check);
+		Assert.assertEquals(check, map);
+		Assert.assertEquals(map.hashCode(), check.hashCode());
+	}
+
+	@Test(timeOut = 60000)
+	public void testResizeUnderConcurrentWriters() throws Throwable
+	{
+		final int perThread = 50000;
+		final CIntObjectMap<Integer> map = new CHashIntObjectMapV8<Integer>(2);
+		ConcurrentRunner.run(THREADS, new ConcurrentRunner.Task()
+		{
+			@Override
+			public void run(int index)
+			{
+				for(int i = 0; i < perThread; i++)
+				{
+					int key = i * THREADS + index;
+					Assert.assertNull(map.put(key, key));
+				}
+			}
+		});
+
+		Assert.assertEquals(map.size(), THREADS * perThread);
+		for(int key = 0; key < THREADS * perThread; key++)
+		{
+			Assert.assertEquals(map.get(key), Integer.valueOf(key));
+		}
+
+		int count = 0;
+		for(Integer value : map.values())
+		{
+			Assert.assertTrue(value >= 0 && value < THREADS * perThread);
+			count++;
+		}
+		Assert.assertEquals(count, THREADS * perThread);
+	}
+
+	@Test(timeOut = 60000)
+	public void testSizeAfterConcurrentMutation() throws Throwable
+	{
+		final int perThread = 20000;
+		final CIntObjectMap<Integer> map = new CHashIntObjectMapV8<Integer>();
+		ConcurrentRunner.run(THREADS * 2, new ConcurrentRunner.Task()
+		{
+			@Override
+			public void run(int index)
+			{
+				// every thread adds its own keys and removes every other one, the
+				// shared keys are added and removed by all threads
+				for(int i = 0; i < perThread; i++)
+				{
+					int key = -(i * THREADS * 2 + index) - 1;
+					map.put(key, i);
+					map.putIfAbsent(i, i);
+					if((i & 1) == 0)
+					{
+						Assert.assertEquals(map.remove(key), Integer.valueOf(i));
+					}
+					map.remove(i);
+				}
+			}
+		});
+
+		int expected = THREADS * 2 * perThread / 2;
+		for(int i = 0; i < perThread; i++)
+		{
+			Assert.assertFalse(map.containsKey(i));
+		}
+		Assert.assertEquals(map.size(), expected);
+		Assert.assertEquals(map.keySet().size(), expected);
+
+		int count = 0;
+		for(Integer value : map.values())
+		{
+			Assert.assertTrue((value & 1) == 1);
+			count++;
+		}
+		Assert.assertEquals(count, expected);
+
+		map.clear();
+		Assert.assertEquals(map.size(), 0);
+		Assert.assertTrue(map.isEmpty());
+	}
+}
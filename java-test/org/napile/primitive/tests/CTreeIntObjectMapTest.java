@@ -0,0 +1,441 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package org.napile.primitive.tests;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.napile.pair.primitive.IntObjectPair;
+import org.napile.primitive.Comparators;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.maps.NavigableIntObjectMap;
+import org.napile.primitive.maps.impl.CTreeIntObjectMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests of the bulk load of sorted mappings: {@link CTreeIntObjectMap#putAllSorted(int[], Object[])}
+ * and the constructor from sorted arrays. An empty map is built aside and published at once, a non
+ * empty map gets the mappings merged into it.
+ *
+ * @author VISTALL
+ * @date 23:55/18.10.2026
+ */
+public class CTreeIntObjectMapTest
+{
+	/**
+	 * Compares the map (or its view) with the reference map: iteration in both directions, lookups
+	 * and navigation around every key.
+	 */
+	private static void verify(NavigableIntObjectMap<String> map, NavigableMap<Integer, String> check)
+	{
+		Assert.assertEquals(map.size(), check.size());
+		Assert.assertEquals(map.isEmpty(), check.isEmpty());
+
+		Iterator<IntObjectPair<String>> entries = map.entrySet().iterator();
+		for(Map.Entry<Integer, String> e : check.entrySet())
+		{
+			Assert.assertTrue(entries.hasNext());
+			IntObjectPair<String> pair = entries.next();
+			Assert.assertEquals(pair.getKey(), e.getKey().intValue());
+			Assert.assertEquals(pair.getValue(), e.getValue());
+		}
+		Assert.assertFalse(entries.hasNext());
+
+		IntIterator descending = map.descendingKeySet().iterator();
+		for(Integer key : check.descendingKeySet())
+		{
+			Assert.assertEquals(descending.next(), key.intValue());
+		}
+		Assert.assertFalse(descending.hasNext());
+
+		if(check.isEmpty())
+		{
+			Assert.assertNull(map.firstEntry());
+			Assert.assertNull(map.lastEntry());
+			return;
+		}
+		Assert.assertEquals(map.firstKey(), check.firstKey().intValue());
+		Assert.assertEquals(map.lastKey(), check.lastKey().intValue());
+		for(int key : check.keySet())
+		{
+			for(long p = key - 1L; p <= key + 1L; p++)
+			{
+				if(p < Integer.MIN_VALUE || p > Integer.MAX_VALUE)
+				{
+					continue;
+				}
+				int probe = (int) p;
+				Assert.assertEquals(map.get(probe), check.get(probe));
+				Assert.assertEquals(map.containsKey(probe), check.containsKey(probe));
+				assertKey(map.ceilingEntry(probe), check.ceilingKey(probe));
+				assertKey(map.higherEntry(probe), check.higherKey(probe));
+				assertKey(map.floorEntry(probe), check.floorKey(probe));
+				assertKey(map.lowerEntry(probe), check.lowerKey(probe));
+			}
+		}
+	}
+
+	private static void verifyViews(NavigableIntObjectMap<String> map, NavigableMap<Integer, String> check)
+	{
+		verify(map, check);
+		verify(map.descendingMap(), check.descendingMap());
+		int[][] bounds = {{-500, 500}, {-5, 0}, {Integer.MIN_VALUE, -1}, {1, Integer.MAX_VALUE}, {7, 7}};
+		for(int[] bound : bounds)
+		{
+			int from = bound[0];
+			int to = bound[1];
+			if(check.comparator() != null)
+			{
+				from = bound[1];
+				to = bound[0];
+			}
+			verify(map.subMap(from, true, to, false), check.subMap(from, true, to, false));
+			verify(map.subMap(from, false, to, true).descendingMap(), check.subMap(from, false, to, true).descendingMap());
+			verify(map.headMap(from, true), check.headMap(from, true));
+			verify(map.tailMap(to, false), check.tailMap(to, false));
+		}
+	}
+
+	private static void assertKey(IntObjectPair<String> pair, Integer key)
+	{
+		if(key == null)
+		{
+			Assert.assertNull(pair);
+		}
+		else
+		{
+			Assert.assertNotNull(pair, "no entry for " + key);
+			Assert.assertEquals(pair.getKey(), key.intValue());
+		}
+	}
+
+	/**
+	 * @return count distinct random keys with the extreme ones, in ascending order
+	 */
+	private static int[] sortedKeys(int count, long seed)
+	{
+		Random random = new Random(seed);
+		TreeMap<Integer, String> keys = new TreeMap<Integer, String>();
+		keys.put(Integer.MIN_VALUE, "");
+		keys.put(Integer.MAX_VALUE, "");
+		keys.put(0, "");
+		while(keys.size() < count)
+		{
+			keys.put(random.nextBoolean() ? random.nextInt(4000) - 2000 : random.nextInt(), "");
+		}
+		int[] array = new int[count];
+		int i = 0;
+		for(int key : keys.keySet())
+		{
+			array[i++] = key;
+		}
+		return array;
+	}
+
+	private static String[] values(int[] keys, String suffix)
+	{
+		String[] values = new String[keys.length];
+		for(int i = 0; i < keys.length; i++)
+		{
+			values[i] = keys[i] + suffix;
+		}
+		return values;
+	}
+
+	private static void put(NavigableMap<Integer, String> check, int[] keys, String[] values)
+	{
+		for(int i = 0; i < keys.length; i++)
+		{
+			check.put(keys[i], values[i]);
+		}
+	}
+
+	/**
+	 * Modifies the map after the bulk load, so the index nodes built by it are searched and unlinked.
+	 */
+	private static void mutate(CTreeIntObjectMap<String> map, NavigableMap<Integer, String> check, long seed)
+	{
+		Random random = new Random(seed);
+		for(int i = 0; i < 3000; i++)
+		{
+			int key = random.nextInt(4000) - 2000;
+			if(random.nextBoolean())
+			{
+				Assert.assertEquals(map.put(key, "m" + key), check.put(key, "m" + key));
+			}
+			else
+			{
+				Assert.assertEquals(map.remove(key), check.remove(key));
+			}
+		}
+		verify(map, check);
+	}
+
+	@Test
+	public void testBulkLoad() throws Exception
+	{
+		int[] keys = sortedKeys(5000, 1);
+		String[] values = values(keys, "");
+		NavigableMap<Integer, String> check = new TreeMap<Integer, String>();
+		put(check, keys, values);
+
+		CTreeIntObjectMap<String> map = new CTreeIntObjectMap<String>(keys, values);
+		verifyViews(map, check);
+		mutate(map, check, 2);
+
+		map = new CTreeIntObjectMap<String>();
+		map.putAllSorted(keys, values);
+		check.clear();
+		put(check, keys, values);
+		verifyViews(map, check);
+
+		// a single mapping and no mappings
+		map = new CTreeIntObjectMap<String>(new int[]{5}, new String[]{"5"});
+		check.clear();
+		check.put(5, "5");
+		verifyViews(map, check);
+		map.putAllSorted(new int[0], new String[0]);
+		verify(map, check);
+		map = new CTreeIntObjectMap<String>(new int[0], new String[0]);
+		Assert.assertTrue(map.isEmpty());
+		map.put(1, "1");
+		Assert.assertEquals(map.get(1), "1");
+	}
+
+	@Test
+	public void testMerge() throws Exception
+	{
+		// existing keys are interleaved with the loaded ones, and some of them are replaced
+		CTreeIntObjectMap<String> map = new CTreeIntObjectMap<String>();
+		NavigableMap<Integer, String> check = new TreeMap<Integer, String>();
+		Random random = new Random(3);
+		for(int i = 0; i < 2000; i++)
+		{
+			int key = random.nextInt(4000) - 2000;
+			Assert.assertEquals(map.put(key, "old"), check.put(key, "old"));
+		}
+		int[] keys = sortedKeys(3000, 4);
+		String[] values = values(keys, "new");
+		map.putAllSorted(keys, values);
+		put(check, keys, values);
+		verifyViews(map, check);
+		mutate(map, check, 5);
+
+		// a map emptied by removals
+		for(int key : keys)
+		{
+			map.remove(key);
+			check.remove(key);
+		}
+		while(!check.isEmpty())
+		{
+			Assert.assertEquals(map.pollFirstEntry().getKey(), check.pollFirstEntry().getKey().intValue());
+		}
+		Assert.assertTrue(map.isEmpty());
+		keys = sortedKeys(1000, 6);
+		values = values(keys, "again");
+		map.putAllSorted(keys, values);
+		put(check, keys, values);
+		verifyViews(map, check);
+		mutate(map, check, 7);
+
+		// and by clear
+		map.clear();
+		check.clear();
+		map.putAllSorted(keys, values);
+		put(check, keys, values);
+		verifyViews(map, check);
+	}
+
+	@Test
+	public void testComparator() throws Exception
+	{
+		int[] ascending = sortedKeys(2000, 8);
+		int[] keys = new int[ascending.length];
+		for(int i = 0; i < keys.length; i++)
+		{
+			keys[i] = ascending[keys.length - 1 - i];
+		}
+		String[] values = values(keys, "");
+
+		CTreeIntObjectMap<String> map = new CTreeIntObjectMap<String>(Comparators.REVERSE_INT_COMPARATOR);
+		NavigableMap<Integer, String> check = new TreeMap<Integer, String>(Collections.<Integer>reverseOrder());
+		map.putAllSorted(keys, values);
+		put(check, keys, values);
+		verifyViews(map, check);
+
+		// merged into the non empty map
+		int[] more = {3000, 2999, -2999, -3000};
+		String[] moreValues = values(more, "more");
+		map.putAllSorted(more, moreValues);
+		put(check, more, moreValues);
+		verifyViews(map, check);
+
+		// ascending keys are not sorted for this map
+		try
+		{
+			map.putAllSorted(new int[]{1, 2}, new String[]{"1", "2"});
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+			// ok
+		}
+		verify(map, check);
+	}
+
+	@Test
+	public void testValidation() throws Exception
+	{
+		CTreeIntObjectMap<String> map = new CTreeIntObjectMap<String>();
+		NavigableMap<Integer, String> check = new TreeMap<Integer, String>();
+
+		int[][] keys = {{1, 2, 3}, {1, 3, 2}, {1, 2, 2}, {1, 2, 3}};
+		String[][] values = {{"1", "2"}, {"1", "3", "2"}, {"1", "2", "2"}, {"1", null, "3"}};
+		for(int round = 0; round < 2; round++)
+		{
+			// the same arguments are rejected by an empty and by a non empty map, which stays unchanged
+			for(int i = 0; i < keys.length; i++)
+			{
+				try
+				{
+					map.putAllSorted(keys[i], values[i]);
+					Assert.fail(String.valueOf(i));
+				}
+				catch(IllegalArgumentException e)
+				{
+					Assert.assertTrue(i < 3, String.valueOf(i));
+				}
+				catch(NullPointerException e)
+				{
+					Assert.assertEquals(i, 3);
+				}
+				verify(map, check);
+			}
+			try
+			{
+				map.putAllSorted(null, new String[0]);
+				Assert.fail();
+			}
+			catch(NullPointerException e)
+			{
+				// ok
+			}
+			try
+			{
+				map.putAllSorted(new int[0], null);
+				Assert.fail();
+			}
+			catch(NullPointerException e)
+			{
+				// ok
+			}
+			map.put(10, "10");
+			check.put(10, "10");
+		}
+
+		for(int i = 0; i < keys.length; i++)
+		{
+			try
+			{
+				new CTreeIntObjectMap<String>(keys[i], values[i]);
+				Assert.fail(String.valueOf(i));
+			}
+			catch(IllegalArgumentException e)
+			{
+				Assert.assertTrue(i < 3, String.valueOf(i));
+			}
+			catch(NullPointerException e)
+			{
+				Assert.assertEquals(i, 3);
+			}
+		}
+	}
+
+	@Test(timeOut = 60000)
+	public void testConcurrentPutsDuringBulkLoad() throws Throwable
+	{
+		// the bulk load races the puts for the empty base level: either it is published
+		// at once, or it is merged into the mappings already put
+		final int threads = 4;
+		final int perThread = 300;
+		for(int round = 0; round < 100; round++)
+		{
+			final CTreeIntObjectMap<String> map = new CTreeIntObjectMap<String>();
+			final int[] keys = new int[2000];
+			for(int i = 0; i < keys.length; i++)
+			{
+				keys[i] = i * threads * 2 - 5000;
+			}
+			final String[] values = values(keys, "");
+			ConcurrentRunner.run(threads, new ConcurrentRunner.Task()
+			{
+				@Override
+				public void run(int index) throws Exception
+				{
+					if(index == 0)
+					{
+						map.putAllSorted(keys, values);
+						return;
+					}
+					// odd keys, never loaded in bulk
+					for(int i = 0; i < perThread; i++)
+					{
+						int key = (i * threads + index) * 2 + 1 - 5000;
+						Assert.assertNull(map.put(key, String.valueOf(key)));
+					}
+				}
+			});
+
+			NavigableMap<Integer, String> check = new TreeMap<Integer, String>();
+			put(check, keys, values);
+			for(int index = 1; index < threads; index++)
+			{
+				for(int i = 0; i < perThread; i++)
+				{
+					int key = (i * threads + index) * 2 + 1 - 5000;
+					check.put(key, String.valueOf(key));
+				}
+			}
+			if(round % 10 == 0)
+			{
+				verifyViews(map, check);
+				mutate(map, check, round);
+			}
+			else
+			{
+				Assert.assertEquals(map.size(), check.size());
+				IntIterator iterator = map.keySet().iterator();
+				for(int key : check.keySet())
+				{
+					Assert.assertEquals(iterator.next(), key);
+					Assert.assertEquals(map.get(key), check.get(key));
+				}
+				Assert.assertFalse(iterator.hasNext());
+			}
+		}
+	}
+}
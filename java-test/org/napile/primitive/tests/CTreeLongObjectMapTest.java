@@ -0,0 +1,332 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package org.napile.primitive.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.napile.pair.primitive.LongObjectPair;
+import org.napile.primitive.Comparators;
+import org.napile.primitive.iterators.LongIterator;
+import org.napile.primitive.maps.CNavigableLongObjectMap;
+import org.napile.primitive.maps.NavigableLongObjectMap;
+import org.napile.primitive.maps.impl.CTreeLongObjectMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author VISTALL
+ * @date 20:10/18.10.2026
+ */
+public class CTreeLongObjectMapTest
+{
+	private static final long[] SPECIAL_KEYS = {Long.MIN_VALUE, Long.MIN_VALUE + 1, Integer.MIN_VALUE - 1L, -1, 0, 1, Integer.MAX_VALUE + 1L, Long.MAX_VALUE - 1, Long.MAX_VALUE};
+
+	private static long randomKey(Random random)
+	{
+		switch(random.nextInt(3))
+		{
+			case 0:
+				return SPECIAL_KEYS[random.nextInt(SPECIAL_KEYS.length)];
+			case 1:
+				return random.nextInt(2000) - 1000;
+			default:
+				return (random.nextLong() >> 20) * 1000;
+		}
+	}
+
+	/**
+	 * Compares the map (or its view) with the reference map: iteration in both directions, lookups
+	 * and navigation around every key.
+	 */
+	private static void verify(NavigableLongObjectMap<String> map, NavigableMap<Long, String> check)
+	{
+		Assert.assertEquals(map.size(), check.size());
+		Assert.assertEquals(map.isEmpty(), check.isEmpty());
+
+		Iterator<LongObjectPair<String>> entries = map.entrySet().iterator();
+		for(Map.Entry<Long, String> e : check.entrySet())
+		{
+			Assert.assertTrue(entries.hasNext());
+			LongObjectPair<String> pair = entries.next();
+			Assert.assertEquals(pair.getKey(), e.getKey().longValue());
+			Assert.assertEquals(pair.getValue(), e.getValue());
+		}
+		Assert.assertFalse(entries.hasNext());
+
+		LongIterator descending = map.descendingKeySet().iterator();
+		for(Long key : check.descendingKeySet())
+		{
+			Assert.assertEquals(descending.next(), key.longValue());
+		}
+		Assert.assertFalse(descending.hasNext());
+
+		if(check.isEmpty())
+		{
+			Assert.assertNull(map.firstEntry());
+			Assert.assertNull(map.lastEntry());
+			return;
+		}
+		Assert.assertEquals(map.firstKey(), check.firstKey().longValue());
+		Assert.assertEquals(map.lastKey(), check.lastKey().longValue());
+		Assert.assertEquals(map.firstEntry().getKey(), check.firstKey().longValue());
+		Assert.assertEquals(map.lastEntry().getKey(), check.lastKey().longValue());
+		for(long key : check.keySet())
+		{
+			for(long probe = key - 1; probe != key + 2; probe++)
+			{
+				Assert.assertEquals(map.get(probe), check.get(probe));
+				Assert.assertEquals(map.containsKey(probe), check.containsKey(probe));
+				assertKey(map.ceilingEntry(probe), check.ceilingKey(probe));
+				assertKey(map.higherEntry(probe), check.higherKey(probe));
+				assertKey(map.floorEntry(probe), check.floorKey(probe));
+				assertKey(map.lowerEntry(probe), check.lowerKey(probe));
+			}
+			Assert.assertEquals(map.ceilingKey(key), key);
+			Assert.assertEquals(map.floorKey(key), key);
+		}
+	}
+
+	private static void assertKey(LongObjectPair<String> pair, Long key)
+	{
+		if(key == null)
+		{
+			Assert.assertNull(pair);
+		}
+		else
+		{
+			Assert.assertNotNull(pair, "no entry for " + key);
+			Assert.assertEquals(pair.getKey(), key.longValue());
+		}
+	}
+
+	private static void fill(CTreeLongObjectMap<String> map, NavigableMap<Long, String> check, int count, long seed)
+	{
+		Random random = new Random(seed);
+		for(int i = 0; i < count; i++)
+		{
+			long key = randomKey(random);
+			Assert.assertEquals(map.put(key, String.valueOf(key)), check.put(key, String.valueOf(key)));
+		}
+	}
+
+	@Test
+	public void testAgainstTreeMap() throws Exception
+	{
+		CTreeLongObjectMap<String> map = new CTreeLongObjectMap<String>();
+		NavigableMap<Long, String> check = new TreeMap<Long, String>();
+		verify(map, check);
+
+		Random random = new Random(1);
+		for(int round = 0; round < 10; round++)
+		{
+			for(int i = 0; i < 1000; i++)
+			{
+				long key = randomKey(random);
+				String value = String.valueOf(random.nextInt(10));
+				switch(random.nextInt(5))
+				{
+					case 0:
+						Assert.assertEquals(map.remove(key), check.remove(key));
+						break;
+					case 1:
+						String old = check.get(key);
+						if(old == null)
+						{
+							check.put(key, value);
+						}
+						Assert.assertEquals(map.putIfAbsent(key, value), old);
+						break;
+					case 2:
+						boolean replaced = value.equals(check.get(key));
+						if(replaced)
+						{
+							check.put(key, value + "r");
+						}
+						Assert.assertEquals(map.replace(key, value, value + "r"), replaced);
+						break;
+					case 3:
+						boolean removed = value.equals(check.get(key));
+						if(removed)
+						{
+							check.remove(key);
+						}
+						Assert.assertEquals(map.remove(key, value), removed);
+						break;
+					default:
+						Assert.assertEquals(map.put(key, value), check.put(key, value));
+						break;
+				}
+			}
+			verify(map, check);
+		}
+
+		while(!check.isEmpty())
+		{
+			Map.Entry<Long, String> first = check.pollFirstEntry();
+			LongObjectPair<String> pair = map.pollFirstEntry();
+			Assert.assertEquals(pair.getKey(), first.getKey().longValue());
+			Assert.assertEquals(pair.getValue(), first.getValue());
+
+			Map.Entry<Long, String> last = check.pollLastEntry();
+			pair = map.pollLastEntry();
+			if(last == null)
+			{
+				Assert.assertNull(pair);
+			}
+			else
+			{
+				Assert.assertEquals(pair.getKey(), last.getKey().longValue());
+			}
+		}
+		verify(map, check);
+		Assert.assertNull(map.pollFirstEntry());
+	}
+
+	@Test
+	public void testSubMaps() throws Exception
+	{
+		CTreeLongObjectMap<String> map = new CTreeLongObjectMap<String>();
+		NavigableMap<Long, String> check = new TreeMap<Long, String>();
+		fill(map, check, 3000, 2);
+
+		long[][] bounds = {{-500, 500}, {-5, 0}, {0, 5}, {Long.MIN_VALUE, -1}, {1, Long.MAX_VALUE}, {Integer.MIN_VALUE - 1L, Integer.MAX_VALUE + 1L}, {7, 7}};
+		for(long[] bound : bounds)
+		{
+			for(int inclusive = 0; inclusive < 4; inclusive++)
+			{
+				boolean fromInclusive = (inclusive & 1) != 0;
+				boolean toInclusive = (inclusive & 2) != 0;
+				CNavigableLongObjectMap<String> subMap = map.subMap(bound[0], fromInclusive, bound[1], toInclusive);
+				NavigableMap<Long, String> subCheck = check.subMap(bound[0], fromInclusive, bound[1], toInclusive);
+				verify(subMap, subCheck);
+				verify(subMap.descendingMap(), subCheck.descendingMap());
+			}
+			verify(map.headMap(bound[0], true), check.headMap(bound[0], true));
+			verify(map.tailMap(bound[1], false), check.tailMap(bound[1], false));
+			verify(map.descendingMap().headMap(bound[1], false), check.descendingMap().headMap(bound[1], false));
+		}
+
+		// views write through and reject keys out of their range
+		CNavigableLongObjectMap<String> subMap = map.subMap(-100, true, 100, false);
+		NavigableMap<Long, String> subCheck = check.subMap(-100L, true, 100L, false);
+		Assert.assertEquals(subMap.put(99, "a"), check.put(99L, "a"));
+		Assert.assertEquals(subMap.remove(-100), check.remove(-100L));
+		Assert.assertNull(subMap.get(100));
+		try
+		{
+			subMap.put(100, "b");
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+		}
+		verify(subMap, subCheck);
+		verify(map, check);
+
+		subMap.clear();
+		subCheck.clear();
+		verify(map, check);
+		Assert.assertTrue(subMap.isEmpty());
+	}
+
+	@Test
+	public void testComparator() throws Exception
+	{
+		CTreeLongObjectMap<String> map = new CTreeLongObjectMap<String>(Comparators.REVERSE_LONG_COMPARATOR);
+		NavigableMap<Long, String> check = new TreeMap<Long, String>(Collections.<Long>reverseOrder());
+		fill(map, check, 2000, 3);
+		verify(map, check);
+		verify(map.subMap(500, true, -500, true), check.subMap(500L, true, -500L, true));
+		verify(map.descendingMap(), check.descendingMap());
+	}
+
+	@Test
+	public void testCloneAndSerialization() throws Exception
+	{
+		CTreeLongObjectMap<String> map = new CTreeLongObjectMap<String>();
+		NavigableMap<Long, String> check = new TreeMap<Long, String>();
+		fill(map, check, 2000, 4);
+
+		CTreeLongObjectMap<String> clone = map.clone();
+		verify(clone, check);
+		clone.put(Long.MIN_VALUE + 5, "x");
+		Assert.assertFalse(map.containsKey(Long.MIN_VALUE + 5));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(map);
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		@SuppressWarnings("unchecked")
+		CTreeLongObjectMap<String> copy = (CTreeLongObjectMap<String>) in.readObject();
+		verify(copy, check);
+		Assert.assertEquals(copy, map);
+	}
+
+	@Test
+	public void testConcurrentPutRemove() throws Throwable
+	{
+		final CTreeLongObjectMap<String> map = new CTreeLongObjectMap<String>();
+		final int threads = 8;
+		final int perThread = 5000;
+		ConcurrentRunner.run(threads, new ConcurrentRunner.Task()
+		{
+			@Override
+			public void run(int index) throws Exception
+			{
+				// threads share the key space: key i belongs to thread i % threads
+				for(int i = 0; i < perThread; i++)
+				{
+					long key = ((long) (i * threads + index) << 32) - (1L << 40);
+					Assert.assertNull(map.put(key, String.valueOf(key)));
+					if(i % 3 == 0)
+					{
+						Assert.assertEquals(map.remove(key), String.valueOf(key));
+					}
+				}
+			}
+		});
+
+		NavigableMap<Long, String> check = new TreeMap<Long, String>();
+		for(int index = 0; index < threads; index++)
+		{
+			for(int i = 0; i < perThread; i++)
+			{
+				if(i % 3 != 0)
+				{
+					long key = ((long) (i * threads + index) << 32) - (1L << 40);
+					check.put(key, String.valueOf(key));
+				}
+			}
+		}
+		verify(map, check);
+	}
+}
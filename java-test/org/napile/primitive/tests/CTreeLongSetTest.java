@@ -0,0 +1,216 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package org.napile.primitive.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.napile.primitive.iterators.LongIterator;
+import org.napile.primitive.sets.NavigableLongSet;
+import org.napile.primitive.sets.impl.CTreeLongSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author VISTALL
+ * @date 20:40/18.10.2026
+ */
+public class CTreeLongSetTest
+{
+	private static void verify(NavigableLongSet set, NavigableSet<Long> check)
+	{
+		Assert.assertEquals(set.size(), check.size());
+
+		LongIterator iterator = set.iterator();
+		for(long e : check)
+		{
+			Assert.assertEquals(iterator.next(), e);
+		}
+		Assert.assertFalse(iterator.hasNext());
+
+		LongIterator descending = set.descendingIterator();
+		for(long e : check.descendingSet())
+		{
+			Assert.assertEquals(descending.next(), e);
+		}
+		Assert.assertFalse(descending.hasNext());
+
+		if(check.isEmpty())
+		{
+			return;
+		}
+		Assert.assertEquals(set.first(), check.first().longValue());
+		Assert.assertEquals(set.last(), check.last().longValue());
+		for(long e : check)
+		{
+			Assert.assertTrue(set.contains(e));
+			Assert.assertEquals(set.floor(e), e);
+			Assert.assertEquals(set.ceiling(e), e);
+			Long lower = check.lower(e);
+			if(lower != null)
+			{
+				Assert.assertEquals(set.lower(e), lower.longValue());
+			}
+			Long higher = check.higher(e);
+			if(higher != null)
+			{
+				Assert.assertEquals(set.higher(e), higher.longValue());
+			}
+			Long floor = check.floor(e - 1);
+			if(floor != null)
+			{
+				Assert.assertEquals(set.floor(e - 1), floor.longValue());
+			}
+			Long ceiling = check.ceiling(e + 1);
+			if(ceiling != null)
+			{
+				Assert.assertEquals(set.ceiling(e + 1), ceiling.longValue());
+			}
+			Assert.assertEquals(set.contains(e + 1), check.contains(e + 1));
+		}
+	}
+
+	private static CTreeLongSet newSet(NavigableSet<Long> check, int count, long seed)
+	{
+		CTreeLongSet set = new CTreeLongSet();
+		Random random = new Random(seed);
+		for(int i = 0; i < count; i++)
+		{
+			long e = random.nextBoolean() ? random.nextInt(1000) - 500 : random.nextLong() >> 3;
+			Assert.assertEquals(set.add(e), check.add(e));
+		}
+		Assert.assertEquals(set.add(Long.MIN_VALUE), check.add(Long.MIN_VALUE));
+		Assert.assertEquals(set.add(Long.MAX_VALUE), check.add(Long.MAX_VALUE));
+		return set;
+	}
+
+	@Test
+	public void testAgainstTreeSet() throws Exception
+	{
+		NavigableSet<Long> check = new TreeSet<Long>();
+		CTreeLongSet set = newSet(check, 3000, 1);
+		verify(set, check);
+
+		Random random = new Random(2);
+		for(int i = 0; i < 3000; i++)
+		{
+			long e = random.nextInt(1000) - 500;
+			Assert.assertEquals(set.remove(e), check.remove(e));
+		}
+		verify(set, check);
+
+		Assert.assertEquals(set.pollFirst(), check.pollFirst().longValue());
+		Assert.assertEquals(set.pollLast(), check.pollLast().longValue());
+		verify(set, check);
+	}
+
+	@Test
+	public void testViews() throws Exception
+	{
+		NavigableSet<Long> check = new TreeSet<Long>();
+		CTreeLongSet set = newSet(check, 3000, 3);
+
+		verify(set.descendingSet(), check.descendingSet());
+		verify(set.subSet(-100, true, 100, false), check.subSet(-100L, true, 100L, false));
+		verify(set.subSet(-100, false, 100, true).descendingSet(), check.subSet(-100L, false, 100L, true).descendingSet());
+		verify(set.headSet(0, false), check.headSet(0L, false));
+		verify(set.tailSet(0, true), check.tailSet(0L, true));
+		verify(set.descendingSet().headSet(-1, true), check.descendingSet().headSet(-1L, true));
+
+		NavigableLongSet subSet = set.subSet(-10, true, 10, true);
+		Assert.assertEquals(subSet.add(5), check.add(5L));
+		try
+		{
+			subSet.add(11);
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+		}
+		subSet.clear();
+		check.subSet(-10L, true, 10L, true).clear();
+		verify(set, check);
+	}
+
+	@Test
+	public void testCloneAndSerialization() throws Exception
+	{
+		NavigableSet<Long> check = new TreeSet<Long>();
+		CTreeLongSet set = newSet(check, 1000, 4);
+
+		CTreeLongSet clone = set.clone();
+		verify(clone, check);
+		clone.add(Long.MIN_VALUE + 1);
+		Assert.assertFalse(set.contains(Long.MIN_VALUE + 1));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(set);
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		CTreeLongSet copy = (CTreeLongSet) in.readObject();
+		verify(copy, check);
+		Assert.assertEquals(copy, set);
+	}
+
+	@Test
+	public void testConcurrentAddRemove() throws Throwable
+	{
+		final CTreeLongSet set = new CTreeLongSet();
+		final int threads = 8;
+		final int perThread = 5000;
+		ConcurrentRunner.run(threads, new ConcurrentRunner.Task()
+		{
+			@Override
+			public void run(int index) throws Exception
+			{
+				// all threads add the same elements, only one of them wins every element
+				for(int i = 0; i < perThread; i++)
+				{
+					set.add(i * 1000003L);
+					if(i % 4 == index % 4)
+					{
+						set.remove((i - 1) * 1000003L);
+					}
+				}
+			}
+		});
+
+		int size = 0;
+		long previous = Long.MIN_VALUE;
+		for(LongIterator iterator = set.iterator(); iterator.hasNext();)
+		{
+			long e = iterator.next();
+			Assert.assertTrue(e > previous || size == 0);
+			Assert.assertEquals(e % 1000003L, 0);
+			previous = e;
+			size++;
+		}
+		Assert.assertEquals(set.size(), size);
+		Assert.assertTrue(set.contains((perThread - 1) * 1000003L));
+	}
+}
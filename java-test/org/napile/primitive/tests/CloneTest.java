@@ -0,0 +1,207 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package org.napile.primitive.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.napile.primitive.lists.impl.CArrayIntList;
+import org.napile.primitive.lists.impl.CArrayLongList;
+import org.napile.primitive.sets.impl.CTreeIntSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Copies of the concurrent collections, made by <tt>clone</tt> and by serialization, must not share
+ * the lock or the backing map with the original: the copy is usable while the lock of the original
+ * is held, and changes of the copy are not seen by the original.
+ *
+ * @author VISTALL
+ * @date 00:20/19.10.2026
+ */
+public class CloneTest
+{
+	@SuppressWarnings("unchecked")
+	private static <T> T copy(T object) throws Exception
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(object);
+		out.close();
+		return (T) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+	}
+
+	private static ReentrantLock lockOf(Object list) throws Exception
+	{
+		Field field = list.getClass().getDeclaredField("lock");
+		field.setAccessible(true);
+		return (ReentrantLock) field.get(list);
+	}
+
+	/**
+	 * Runs the task in another thread, while this thread holds the lock of the original.
+	 */
+	private static void runLocked(Object original, Object copy, Runnable task) throws Throwable
+	{
+		ReentrantLock lock = lockOf(original);
+		ReentrantLock copyLock = lockOf(copy);
+		Assert.assertNotNull(copyLock);
+		Assert.assertTrue(lock != copyLock);
+		Assert.assertFalse(copyLock.isLocked());
+
+		lock.lock();
+		try
+		{
+			final Throwable[] error = new Throwable[1];
+			final Runnable r = task;
+			Thread thread = new Thread()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						r.run();
+					}
+					catch(Throwable e)
+					{
+						error[0] = e;
+					}
+				}
+			};
+			thread.start();
+			thread.join(10000);
+			Assert.assertFalse(thread.isAlive(), "the copy waits for the lock of the original");
+			if(error[0] != null)
+			{
+				throw error[0];
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private static void checkIntList(CArrayIntList list, final CArrayIntList copy) throws Throwable
+	{
+		Assert.assertEquals(copy, list);
+		runLocked(list, copy, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				copy.add(100);
+				copy.set(0, -1);
+				copy.removeByIndex(1);
+			}
+		});
+		Assert.assertEquals(list.toArray(), new int[]{1, 2, 3});
+		Assert.assertEquals(copy.toArray(), new int[]{-1, 3, 100});
+
+		list.add(4);
+		Assert.assertEquals(copy.toArray(), new int[]{-1, 3, 100});
+	}
+
+	private static void checkLongList(CArrayLongList list, final CArrayLongList copy) throws Throwable
+	{
+		Assert.assertEquals(copy, list);
+		runLocked(list, copy, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				copy.add(100);
+				copy.set(0, -1);
+				copy.removeByIndex(1);
+			}
+		});
+		Assert.assertEquals(list.toArray(), new long[]{1, 2, 3});
+		Assert.assertEquals(copy.toArray(), new long[]{-1, 3, 100});
+
+		list.add(4);
+		Assert.assertEquals(copy.toArray(), new long[]{-1, 3, 100});
+	}
+
+	@Test(timeOut = 60000)
+	public void testCArrayIntList() throws Throwable
+	{
+		CArrayIntList list = new CArrayIntList();
+		list.add(1);
+		list.add(2);
+		list.add(3);
+		checkIntList(list, (CArrayIntList) list.clone());
+
+		list.removeByIndex(3);
+		checkIntList(list, copy(list));
+	}
+
+	@Test(timeOut = 60000)
+	public void testCArrayLongList() throws Throwable
+	{
+		CArrayLongList list = new CArrayLongList();
+		list.add(1);
+		list.add(2);
+		list.add(3);
+		checkLongList(list, (CArrayLongList) list.clone());
+
+		list.removeByIndex(3);
+		checkLongList(list, copy(list));
+	}
+
+	private static void checkSet(CTreeIntSet set, CTreeIntSet copy)
+	{
+		Assert.assertEquals(copy, set);
+		Assert.assertTrue(copy.add(-1));
+		Assert.assertTrue(copy.remove(5));
+		Assert.assertEquals(set.toArray(), new int[]{0, 5, 10});
+		Assert.assertEquals(copy.toArray(), new int[]{-1, 0, 10});
+
+		Assert.assertTrue(set.add(7));
+		Assert.assertFalse(copy.contains(7));
+		Assert.assertEquals(copy.first(), -1);
+		Assert.assertEquals(copy.descendingSet().first(), 10);
+	}
+
+	@Test
+	public void testCTreeIntSet() throws Exception
+	{
+		CTreeIntSet set = new CTreeIntSet();
+		set.add(0);
+		set.add(5);
+		set.add(10);
+		checkSet(set, set.clone());
+
+		set.remove(7);
+		checkSet(set, copy(set));
+
+		// the clone of a view is a set of the elements in the view
+		CTreeIntSet view = (CTreeIntSet) set.headSet(5, true);
+		CTreeIntSet clone = view.clone();
+		Assert.assertEquals(clone.toArray(), new int[]{0, 5});
+		clone.add(100);
+		Assert.assertFalse(set.contains(100));
+	}
+}
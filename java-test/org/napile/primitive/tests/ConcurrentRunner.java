@@ -0,0 +1,79 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.napile.primitive.tests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Runs a task in several threads, which start together, for the tests of concurrent collections.
+ *
+ * @author VISTALL
+ * @date 17:25/18.10.2026
+ */
+public class ConcurrentRunner
+{
+	public interface Task
+	{
+		void run(int index) throws Exception;
+	}
+
+	/**
+	 * Runs the task in the given count of threads, waits for all of them, and rethrows the first failure.
+	 */
+	public static void run(int threads, final Task task) throws Throwable
+	{
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+		Thread[] array = new Thread[threads];
+		for(int i = 0; i < threads; i++)
+		{
+			final int index = i;
+			array[i] = new Thread()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						start.await();
+						task.run(index);
+					}
+					catch(Throwable e)
+					{
+						errors.add(e);
+					}
+				}
+			};
+			array[i].start();
+		}
+		start.countDown();
+		for(Thread thread : array)
+		{
+			thread.join();
+		}
+		if(!errors.isEmpty())
+		{
+			throw errors.get(0);
+		}
+	}
+}
@@ -0,0 +1,611 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package org.napile.primitive.tests;
+
+import java.util.ConcurrentModificationException;
+
+import org.napile.primitive.collections.IntCollection;
+import org.napile.primitive.collections.LongCollection;
+import org.napile.primitive.functions.IntLongProcedure;
+import org.napile.primitive.functions.IntObjectProcedure;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.LongObjectProcedure;
+import org.napile.primitive.functions.LongProcedure;
+import org.napile.primitive.functions.ObjectProcedure;
+import org.napile.primitive.lists.impl.ArrayIntList;
+import org.napile.primitive.lists.impl.ArrayLongList;
+import org.napile.primitive.lists.impl.BigArrayIntList;
+import org.napile.primitive.lists.impl.CArrayIntList;
+import org.napile.primitive.lists.impl.CArrayLongList;
+import org.napile.primitive.maps.IntLongMap;
+import org.napile.primitive.maps.IntObjectMap;
+import org.napile.primitive.maps.LongObjectMap;
+import org.napile.primitive.maps.impl.BTreeIntObjectMap;
+import org.napile.primitive.maps.impl.CHashIntLongMap;
+import org.napile.primitive.maps.impl.CHashIntObjectMap;
+import org.napile.primitive.maps.impl.CHashIntObjectMapV8;
+import org.napile.primitive.maps.impl.CTreeIntObjectMap;
+import org.napile.primitive.maps.impl.CTreeLongObjectMap;
+import org.napile.primitive.maps.impl.HashIntLongMap;
+import org.napile.primitive.maps.impl.HashIntObjectMap;
+import org.napile.primitive.maps.impl.HashLongObjectMap;
+import org.napile.primitive.maps.impl.IntLongAdderMap;
+import org.napile.primitive.maps.impl.OpenHashIntLongMap;
+import org.napile.primitive.maps.impl.OpenHashIntObjectMap;
+import org.napile.primitive.maps.impl.OpenHashLongObjectMap;
+import org.napile.primitive.maps.impl.TreeIntObjectMap;
+import org.napile.primitive.sets.impl.BitIntSet;
+import org.napile.primitive.sets.impl.CArrayIntSet;
+import org.napile.primitive.sets.impl.CArrayLongSet;
+import org.napile.primitive.sets.impl.CBitIntSet;
+import org.napile.primitive.sets.impl.CTreeIntSet;
+import org.napile.primitive.sets.impl.CTreeLongSet;
+import org.napile.primitive.sets.impl.HashIntSet;
+import org.napile.primitive.sets.impl.HashLongSet;
+import org.napile.primitive.sets.impl.RoaringIntSet;
+import org.napile.primitive.sets.impl.TreeIntSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Runs <tt>forEach</tt>, <tt>forEachEntry</tt>, <tt>forEachKey</tt> and <tt>forEachValue</tt> of every
+ * implementation: each element must be visited once, the visit must stop when the procedure returns
+ * <tt>false</tt>, and a structural modification from the procedure must be reported by the fail-fast
+ * implementations, tolerated by the weakly consistent ones, and not seen by the copy-on-write ones.
+ * <p/>
+ * Every visit is reduced to the int keys it reports: values are derived from the keys, and long keys
+ * carry the int key in their low bits.
+ *
+ * @author VISTALL
+ * @date 23:30/18.10.2026
+ */
+public class ForEachTest
+{
+	/**
+	 * A modification from the procedure throws {@link ConcurrentModificationException}.
+	 */
+	private static final int FAIL_FAST = 0;
+	/**
+	 * Removed elements may be missed, but the others are visited once, and nothing is thrown.
+	 */
+	private static final int WEAK = 1;
+	/**
+	 * The visit walks the elements of the moment it started.
+	 */
+	private static final int SNAPSHOT = 2;
+
+	private static final int SIZE = 300;
+
+	private static final int ADDED = 3 * SIZE + 1;
+
+	private static final long HIGH = 5L << 40;
+
+	private static int key(int i)
+	{
+		return 3 * i + 1;
+	}
+
+	private static long longKey(int key)
+	{
+		return HIGH | key;
+	}
+
+	private static int intKey(long key)
+	{
+		Assert.assertEquals(key & ~0xFFFFFFFFL, HIGH);
+		return (int) key;
+	}
+
+	private static abstract class Case<T>
+	{
+		final String name;
+		final int mode;
+		final boolean ordered;
+
+		Case(String name, int mode, boolean ordered)
+		{
+			this.name = name;
+			this.mode = mode;
+			this.ordered = ordered;
+		}
+
+		/**
+		 * @return a new instance holding the keys <tt>key(0)</tt> to <tt>key(SIZE - 1)</tt>, added in ascending order
+		 */
+		abstract T create();
+
+		abstract boolean visit(T t, IntProcedure procedure);
+
+		abstract void add(T t, int key);
+
+		abstract void remove(T t, int key);
+	}
+
+	private static <T> void check(final Case<T> c)
+	{
+		// every element
+		final ArrayIntList seen = new ArrayIntList();
+		Assert.assertTrue(c.visit(c.create(), new IntProcedure()
+		{
+			@Override
+			public boolean execute(int value)
+			{
+				seen.add(value);
+				return true;
+			}
+		}), c.name);
+		int[] expected = new int[SIZE];
+		for(int i = 0; i < SIZE; i++)
+		{
+			expected[i] = key(i);
+		}
+		if(!c.ordered)
+		{
+			seen.sort();
+		}
+		Assert.assertEquals(seen.toArray(), expected, c.name);
+
+		// stops at the first false
+		final int[] count = new int[1];
+		Assert.assertFalse(c.visit(c.create(), new IntProcedure()
+		{
+			@Override
+			public boolean execute(int value)
+			{
+				return ++count[0] < 5;
+			}
+		}), c.name);
+		Assert.assertEquals(count[0], 5, c.name);
+
+		// structural modification from the procedure
+		final T t = c.create();
+		seen.clear();
+		IntProcedure modifying = new IntProcedure()
+		{
+			@Override
+			public boolean execute(int value)
+			{
+				if(seen.isEmpty())
+				{
+					if(c.mode == FAIL_FAST)
+					{
+						c.add(t, ADDED);
+					}
+					else
+					{
+						for(int i = 1; i < SIZE; i += 2)
+						{
+							c.remove(t, key(i));
+						}
+						c.add(t, ADDED);
+					}
+				}
+				seen.add(value);
+				return true;
+			}
+		};
+		if(c.mode == FAIL_FAST)
+		{
+			try
+			{
+				c.visit(t, modifying);
+				Assert.fail(c.name);
+			}
+			catch(ConcurrentModificationException e)
+			{
+				// ok
+			}
+			return;
+		}
+
+		Assert.assertTrue(c.visit(t, modifying), c.name);
+		seen.sort();
+		if(c.mode == SNAPSHOT)
+		{
+			Assert.assertEquals(seen.toArray(), expected, c.name);
+			return;
+		}
+		for(int i = 0; i < seen.size(); i++)
+		{
+			int value = seen.get(i);
+			Assert.assertTrue(i == 0 || value != seen.get(i - 1), c.name + " visited twice " + value);
+			Assert.assertTrue(value == ADDED || (value - 1) % 3 == 0 && value < 3 * SIZE, c.name + " " + value);
+		}
+		for(int i = 0; i < SIZE; i += 2)
+		{
+			Assert.assertTrue(seen.contains(key(i)), c.name + " missed " + key(i));
+		}
+	}
+
+	private static <T> T newInstance(Class<T> clazz)
+	{
+		try
+		{
+			return clazz.getConstructor().newInstance();
+		}
+		catch(Exception e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void checkIntObjectMap(final Class<?> clazz, final int mapMode, final boolean mapOrdered)
+	{
+		abstract class MapCase extends Case<IntObjectMap<String>>
+		{
+			MapCase(String procedure)
+			{
+				super(clazz.getSimpleName() + "." + procedure, mapMode, mapOrdered);
+			}
+
+			@Override
+			IntObjectMap<String> create()
+			{
+				IntObjectMap<String> map = (IntObjectMap<String>) newInstance(clazz);
+				for(int i = 0; i < SIZE; i++)
+				{
+					map.put(key(i), String.valueOf(key(i)));
+				}
+				return map;
+			}
+
+			@Override
+			void add(IntObjectMap<String> map, int key)
+			{
+				map.put(key, String.valueOf(key));
+			}
+
+			@Override
+			void remove(IntObjectMap<String> map, int key)
+			{
+				map.remove(key);
+			}
+		}
+
+		check(new MapCase("forEachEntry")
+		{
+			@Override
+			boolean visit(IntObjectMap<String> map, final IntProcedure procedure)
+			{
+				return map.forEachEntry(new IntObjectProcedure<String>()
+				{
+					@Override
+					public boolean execute(int key, String value)
+					{
+						Assert.assertEquals(value, String.valueOf(key));
+						return procedure.execute(key);
+					}
+				});
+			}
+		});
+		check(new MapCase("forEachKey")
+		{
+			@Override
+			boolean visit(IntObjectMap<String> map, IntProcedure procedure)
+			{
+				return map.forEachKey(procedure);
+			}
+		});
+		check(new MapCase("forEachValue")
+		{
+			@Override
+			boolean visit(IntObjectMap<String> map, final IntProcedure procedure)
+			{
+				return map.forEachValue(new ObjectProcedure<String>()
+				{
+					@Override
+					public boolean execute(String value)
+					{
+						return procedure.execute(Integer.parseInt(value));
+					}
+				});
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void checkLongObjectMap(final Class<?> clazz, final int mapMode, final boolean mapOrdered)
+	{
+		abstract class MapCase extends Case<LongObjectMap<String>>
+		{
+			MapCase(String procedure)
+			{
+				super(clazz.getSimpleName() + "." + procedure, mapMode, mapOrdered);
+			}
+
+			@Override
+			LongObjectMap<String> create()
+			{
+				LongObjectMap<String> map = (LongObjectMap<String>) newInstance(clazz);
+				for(int i = 0; i < SIZE; i++)
+				{
+					map.put(longKey(key(i)), String.valueOf(key(i)));
+				}
+				return map;
+			}
+
+			@Override
+			void add(LongObjectMap<String> map, int key)
+			{
+				map.put(longKey(key), String.valueOf(key));
+			}
+
+			@Override
+			void remove(LongObjectMap<String> map, int key)
+			{
+				map.remove(longKey(key));
+			}
+		}
+
+		check(new MapCase("forEachEntry")
+		{
+			@Override
+			boolean visit(LongObjectMap<String> map, final IntProcedure procedure)
+			{
+				return map.forEachEntry(new LongObjectProcedure<String>()
+				{
+					@Override
+					public boolean execute(long key, String value)
+					{
+						Assert.assertEquals(value, String.valueOf(intKey(key)));
+						return procedure.execute(intKey(key));
+					}
+				});
+			}
+		});
+		check(new MapCase("forEachKey")
+		{
+			@Override
+			boolean visit(LongObjectMap<String> map, final IntProcedure procedure)
+			{
+				return map.forEachKey(new LongProcedure()
+				{
+					@Override
+					public boolean execute(long value)
+					{
+						return procedure.execute(intKey(value));
+					}
+				});
+			}
+		});
+		check(new MapCase("forEachValue")
+		{
+			@Override
+			boolean visit(LongObjectMap<String> map, final IntProcedure procedure)
+			{
+				return map.forEachValue(new ObjectProcedure<String>()
+				{
+					@Override
+					public boolean execute(String value)
+					{
+						return procedure.execute(Integer.parseInt(value));
+					}
+				});
+			}
+		});
+	}
+
+	private static void checkIntLongMap(final Class<? extends IntLongMap> clazz, final int mapMode, final boolean mapOrdered)
+	{
+		abstract class MapCase extends Case<IntLongMap>
+		{
+			MapCase(String procedure)
+			{
+				super(clazz.getSimpleName() + "." + procedure, mapMode, mapOrdered);
+			}
+
+			@Override
+			IntLongMap create()
+			{
+				IntLongMap map = newInstance(clazz);
+				for(int i = 0; i < SIZE; i++)
+				{
+					map.put(key(i), longKey(key(i)));
+				}
+				return map;
+			}
+
+			@Override
+			void add(IntLongMap map, int key)
+			{
+				map.put(key, longKey(key));
+			}
+
+			@Override
+			void remove(IntLongMap map, int key)
+			{
+				map.remove(key);
+			}
+		}
+
+		check(new MapCase("forEachEntry")
+		{
+			@Override
+			boolean visit(IntLongMap map, final IntProcedure procedure)
+			{
+				return map.forEachEntry(new IntLongProcedure()
+				{
+					@Override
+					public boolean execute(int key, long value)
+					{
+						Assert.assertEquals(intKey(value), key);
+						return procedure.execute(key);
+					}
+				});
+			}
+		});
+		check(new MapCase("forEachKey")
+		{
+			@Override
+			boolean visit(IntLongMap map, IntProcedure procedure)
+			{
+				return map.forEachKey(procedure);
+			}
+		});
+		check(new MapCase("forEachValue")
+		{
+			@Override
+			boolean visit(IntLongMap map, final IntProcedure procedure)
+			{
+				return map.forEachValue(new LongProcedure()
+				{
+					@Override
+					public boolean execute(long value)
+					{
+						return procedure.execute(intKey(value));
+					}
+				});
+			}
+		});
+	}
+
+	private static void checkIntCollection(final Class<? extends IntCollection> clazz, int mode, boolean ordered)
+	{
+		check(new Case<IntCollection>(clazz.getSimpleName() + ".forEach", mode, ordered)
+		{
+			@Override
+			IntCollection create()
+			{
+				IntCollection collection = newInstance(clazz);
+				for(int i = 0; i < SIZE; i++)
+				{
+					collection.add(key(i));
+				}
+				return collection;
+			}
+
+			@Override
+			boolean visit(IntCollection collection, IntProcedure procedure)
+			{
+				return collection.forEach(procedure);
+			}
+
+			@Override
+			void add(IntCollection collection, int key)
+			{
+				collection.add(key);
+			}
+
+			@Override
+			void remove(IntCollection collection, int key)
+			{
+				collection.remove(key);
+			}
+		});
+	}
+
+	private static void checkLongCollection(final Class<? extends LongCollection> clazz, int mode, boolean ordered)
+	{
+		check(new Case<LongCollection>(clazz.getSimpleName() + ".forEach", mode, ordered)
+		{
+			@Override
+			LongCollection create()
+			{
+				LongCollection collection = newInstance(clazz);
+				for(int i = 0; i < SIZE; i++)
+				{
+					collection.add(longKey(key(i)));
+				}
+				return collection;
+			}
+
+			@Override
+			boolean visit(LongCollection collection, final IntProcedure procedure)
+			{
+				return collection.forEach(new LongProcedure()
+				{
+					@Override
+					public boolean execute(long value)
+					{
+						return procedure.execute(intKey(value));
+					}
+				});
+			}
+
+			@Override
+			void add(LongCollection collection, int key)
+			{
+				collection.add(longKey(key));
+			}
+
+			@Override
+			void remove(LongCollection collection, int key)
+			{
+				collection.remove(longKey(key));
+			}
+		});
+	}
+
+	@Test
+	public void testIntObjectMaps()
+	{
+		checkIntObjectMap(HashIntObjectMap.class, FAIL_FAST, false);
+		checkIntObjectMap(OpenHashIntObjectMap.class, FAIL_FAST, false);
+		checkIntObjectMap(TreeIntObjectMap.class, FAIL_FAST, true);
+		checkIntObjectMap(BTreeIntObjectMap.class, FAIL_FAST, true);
+		checkIntObjectMap(CHashIntObjectMap.class, WEAK, false);
+		checkIntObjectMap(CHashIntObjectMapV8.class, WEAK, false);
+		checkIntObjectMap(CTreeIntObjectMap.class, WEAK, true);
+	}
+
+	@Test
+	public void testLongObjectMaps()
+	{
+		checkLongObjectMap(HashLongObjectMap.class, FAIL_FAST, false);
+		checkLongObjectMap(OpenHashLongObjectMap.class, FAIL_FAST, false);
+		checkLongObjectMap(CTreeLongObjectMap.class, WEAK, true);
+	}
+
+	@Test
+	public void testIntLongMaps()
+	{
+		checkIntLongMap(HashIntLongMap.class, FAIL_FAST, false);
+		checkIntLongMap(OpenHashIntLongMap.class, FAIL_FAST, false);
+		checkIntLongMap(CHashIntLongMap.class, WEAK, false);
+		checkIntLongMap(IntLongAdderMap.class, WEAK, false);
+	}
+
+	@Test
+	public void testIntCollections()
+	{
+		checkIntCollection(ArrayIntList.class, FAIL_FAST, true);
+		checkIntCollection(BigArrayIntList.class, FAIL_FAST, true);
+		checkIntCollection(HashIntSet.class, FAIL_FAST, false);
+		checkIntCollection(TreeIntSet.class, FAIL_FAST, true);
+		checkIntCollection(BitIntSet.class, FAIL_FAST, true);
+		checkIntCollection(RoaringIntSet.class, FAIL_FAST, true);
+		checkIntCollection(CTreeIntSet.class, WEAK, true);
+		checkIntCollection(CBitIntSet.class, WEAK, true);
+		checkIntCollection(CArrayIntList.class, SNAPSHOT, true);
+		checkIntCollection(CArrayIntSet.class, SNAPSHOT, true);
+	}
+
+	@Test
+	public void testLongCollections()
+	{
+		checkLongCollection(ArrayLongList.class, FAIL_FAST, true);
+		checkLongCollection(HashLongSet.class, FAIL_FAST, false);
+		checkLongCollection(CTreeLongSet.class, WEAK, true);
+		checkLongCollection(CArrayLongList.class, SNAPSHOT, true);
+		checkLongCollection(CArrayLongSet.class, SNAPSHOT, true);
+	}
+}
@@ -19,8 +19,15 @@
 
 package org.napile.primitive.tests;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import org.napile.primitive.maps.IntLongMap;
 import org.napile.primitive.maps.impl.HashIntLongMap;
+import org.napile.primitive.maps.impl.OpenHashIntLongMap;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 /**
@@ -42,4 +49,74 @@ public class HashIntLongMapTest
 		System.out.println("containsKey(268480666): " + map.containsKey(268480666));
 		System.out.println("containsValue(Long.MAX_VALUE: " + map.containsValue(Long.MAX_VALUE));
 	}
+
+	@Test
+	public void testNoEntryValue() throws Exception
+	{
+		IntLongMap map = new HashIntLongMap(16, 0.75f, Long.MAX_VALUE);
+		Assert.assertEquals(map.getNoEntryValue(), Long.MAX_VALUE);
+		Assert.assertEquals(map.get(-1), Long.MAX_VALUE);
+		Assert.assertEquals(map.remove(-1), Long.MAX_VALUE);
+		Assert.assertEquals(map.getOrDefault(-1, 0), 0);
+
+		Assert.assertEquals(map.put(-1, 0), Long.MAX_VALUE);
+		Assert.assertEquals(map.getOrDefault(-1, 5), 0);
+		Assert.assertEquals(map.put(-1, 2), 0);
+		Assert.assertEquals(map.remove(-1), 2);
+		Assert.assertEquals(map.get(-1), Long.MAX_VALUE);
+		Assert.assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void testEquals() throws Exception
+	{
+		// a key mapped to the no-entry value must not match a missing key
+		IntLongMap a = new HashIntLongMap(16, 0.75f, 0);
+		a.put(1, 0);
+		a.put(2, 5);
+		IntLongMap b = new HashIntLongMap(16, 0.75f, 0);
+		b.put(3, 0);
+		b.put(2, 5);
+		Assert.assertFalse(a.equals(b));
+		Assert.assertFalse(b.equals(a));
+
+		b.remove(3);
+		b.put(1, 0);
+		Assert.assertTrue(a.equals(b));
+		Assert.assertTrue(b.equals(a));
+		Assert.assertEquals(a.hashCode(), b.hashCode());
+
+		// the no-entry values of the two maps differ
+		IntLongMap c = new OpenHashIntLongMap(16, 0.75f, 5);
+		c.put(1, 0);
+		c.put(2, 5);
+		Assert.assertTrue(a.equals(c));
+		Assert.assertTrue(c.equals(a));
+		c.remove(2);
+		c.put(4, 5);
+		Assert.assertFalse(a.equals(c));
+		Assert.assertFalse(c.equals(a));
+	}
+
+	@Test
+	public void testSerialization() throws Exception
+	{
+		HashIntLongMap map = new HashIntLongMap(16, 0.75f, -5);
+		for(int i = 0; i < 500; i++)
+		{
+			map.put(Integer.MAX_VALUE - i, Long.MIN_VALUE + i);
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(map);
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		HashIntLongMap copy = (HashIntLongMap) in.readObject();
+		Assert.assertEquals(copy, map);
+		Assert.assertEquals(copy.getNoEntryValue(), -5);
+		Assert.assertEquals(copy.get(0), -5);
+		Assert.assertEquals(copy.get(Integer.MAX_VALUE), Long.MIN_VALUE);
+	}
 }
@@ -0,0 +1,81 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.napile.primitive.tests;
+
+import org.napile.primitive.sets.IntSet;
+import org.napile.primitive.sets.impl.HashIntSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author VISTALL
+ * @date 17:10/18.10.2026
+ */
+public class HashIntSetTest
+{
+	@Test
+	public void test() throws Exception
+	{
+		IntSet set = new HashIntSet();
+		Assert.assertTrue(set.add(0));
+		Assert.assertTrue(set.add(Integer.MIN_VALUE));
+		Assert.assertTrue(set.add(Integer.MAX_VALUE));
+		Assert.assertFalse(set.add(0));
+		Assert.assertEquals(set.size(), 3);
+
+		Assert.assertTrue(set.contains(0));
+		Assert.assertFalse(set.contains(1));
+		Assert.assertTrue(set.remove(0));
+		Assert.assertFalse(set.remove(0));
+		Assert.assertFalse(set.contains(0));
+		Assert.assertEquals(set.size(), 2);
+	}
+
+	@Test
+	public void testLoadFactor() throws Exception
+	{
+		HashIntSet set = new HashIntSet(4, 2f);
+		Assert.assertEquals(set.loadFactor(), 0.9f);
+		for(int i = 0; i < 10000; i++)
+		{
+			Assert.assertTrue(set.add(i << 12));
+		}
+		Assert.assertEquals(set.size(), 10000);
+		for(int i = 0; i < 10000; i++)
+		{
+			Assert.assertTrue(set.contains(i << 12));
+		}
+		Assert.assertTrue(set.size() < set.capacity());
+
+		Assert.assertEquals(new HashIntSet(4, 0.5f).loadFactor(), 0.5f);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testZeroLoadFactor() throws Exception
+	{
+		new HashIntSet(4, 0f);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testNaNLoadFactor() throws Exception
+	{
+		new HashIntSet(4, Float.NaN);
+	}
+}
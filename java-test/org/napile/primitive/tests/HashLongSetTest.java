@@ -0,0 +1,99 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.napile.primitive.tests;
+
+import org.napile.primitive.sets.LongSet;
+import org.napile.primitive.sets.impl.HashIntSet;
+import org.napile.primitive.sets.impl.HashLongSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author VISTALL
+ * @date 16:05/18.10.2026
+ */
+public class HashLongSetTest
+{
+	@Test
+	public void testEquals() throws Exception
+	{
+		LongSet set = new HashLongSet();
+		LongSet other = new HashLongSet();
+		for(long i = -100; i <= 100; i++)
+		{
+			set.add(i * Integer.MAX_VALUE);
+			other.add(-i * Integer.MAX_VALUE);
+		}
+
+		Assert.assertTrue(set.equals(other));
+		Assert.assertTrue(other.equals(set));
+		Assert.assertEquals(set.hashCode(), other.hashCode());
+
+		other.remove(0);
+		other.add(1);
+		Assert.assertFalse(set.equals(other));
+		Assert.assertFalse(other.equals(set));
+	}
+
+	@Test
+	public void testNotEqualToIntSet() throws Exception
+	{
+		LongSet set = new HashLongSet();
+		HashIntSet intSet = new HashIntSet();
+		for(int i = 0; i < 10; i++)
+		{
+			set.add(i);
+			intSet.add(i);
+		}
+
+		Assert.assertFalse(set.equals(intSet));
+	}
+
+	@Test
+	public void testLoadFactor() throws Exception
+	{
+		HashLongSet set = new HashLongSet(4, 2f);
+		Assert.assertEquals(set.loadFactor(), 0.9f);
+		for(long i = 0; i < 10000; i++)
+		{
+			Assert.assertTrue(set.add(i << 32));
+		}
+		Assert.assertEquals(set.size(), 10000);
+		for(long i = 0; i < 10000; i++)
+		{
+			Assert.assertTrue(set.contains(i << 32));
+		}
+		Assert.assertTrue(set.size() < set.capacity());
+
+		Assert.assertEquals(new HashLongSet(4, 0.5f).loadFactor(), 0.5f);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testZeroLoadFactor() throws Exception
+	{
+		new HashLongSet(4, 0f);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testNaNLoadFactor() throws Exception
+	{
+		new HashLongSet(4, Float.NaN);
+	}
+}
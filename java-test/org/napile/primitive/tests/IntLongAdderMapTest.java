@@ -0,0 +1,241 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.napile.primitive.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.napile.pair.primitive.IntLongPair;
+import org.napile.primitive.maps.impl.HashIntLongMap;
+import org.napile.primitive.maps.impl.IntLongAdderMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author VISTALL
+ * @date 17:50/18.10.2026
+ */
+public class IntLongAdderMapTest
+{
+	private static final int WRITERS = 8;
+	private static final int KEYS = 32;
+	private static final int PER_THREAD = 50000;
+
+	@Test
+	public void test() throws Exception
+	{
+		IntLongAdderMap map = new IntLongAdderMap();
+		Assert.assertEquals(map.sum(1), 0);
+		Assert.assertFalse(map.containsKey(1));
+
+		map.increment(1);
+		map.add(1, 10);
+		map.decrement(2);
+		Assert.assertEquals(map.sum(1), 11);
+		Assert.assertEquals(map.get(1), 11);
+		Assert.assertEquals(map.sum(2), -1);
+		Assert.assertEquals(map.size(), 2);
+
+		HashIntLongMap snapshot = map.snapshot();
+		Assert.assertEquals(snapshot.size(), 2);
+		Assert.assertEquals(snapshot.get(1), 11);
+		Assert.assertEquals(snapshot.get(2), -1);
+		// snapshot is a copy
+		map.increment(1);
+		Assert.assertEquals(snapshot.get(1), 11);
+
+		Assert.assertEquals(map.sumThenReset(1), 12);
+		Assert.assertEquals(map.sum(1), 0);
+		Assert.assertTrue(map.containsKey(1));
+		Assert.assertEquals(map.sumThenReset(3), 0);
+		Assert.assertFalse(map.containsKey(3));
+
+		map.add(1, 5);
+		snapshot = map.snapshotThenReset();
+		Assert.assertEquals(snapshot.get(1), 5);
+		Assert.assertEquals(snapshot.get(2), -1);
+		Assert.assertEquals(map.sum(1), 0);
+		Assert.assertEquals(map.sum(2), 0);
+		Assert.assertEquals(map.size(), 2);
+	}
+
+	@Test
+	public void testNoEntryValue() throws Exception
+	{
+		IntLongAdderMap map = new IntLongAdderMap(16, -7);
+		Assert.assertEquals(map.getNoEntryValue(), -7);
+		Assert.assertEquals(map.get(1), -7);
+		Assert.assertEquals(map.put(1, 3), -7);
+		Assert.assertEquals(map.remove(2), -7);
+		Assert.assertEquals(map.putIfAbsent(2, 4), -7);
+		Assert.assertEquals(map.replace(3, 5), -7);
+		Assert.assertFalse(map.containsKey(3));
+		Assert.assertEquals(map.getOrDefault(3, 9), 9);
+		Assert.assertEquals(map.sum(3), 0);
+		Assert.assertEquals(map.put(1, 6), 3);
+		Assert.assertEquals(map.replace(2, 8), 4);
+		Assert.assertEquals(map.remove(2), 8);
+
+		Assert.assertEquals(map.snapshot().get(2), -7);
+		Assert.assertEquals(new IntLongAdderMap(map).get(2), -7);
+		Assert.assertEquals(new IntLongAdderMap().getNoEntryValue(), new HashIntLongMap().getNoEntryValue());
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(map);
+		out.close();
+		IntLongAdderMap copy = (IntLongAdderMap) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+		Assert.assertEquals(copy.get(1), 6);
+		Assert.assertEquals(copy.get(2), -7);
+	}
+
+	@Test(timeOut = 60000)
+	public void testConcurrentIncrement() throws Throwable
+	{
+		final IntLongAdderMap map = new IntLongAdderMap();
+		ConcurrentRunner.run(WRITERS, new ConcurrentRunner.Task()
+		{
+			@Override
+			public void run(int index)
+			{
+				for(int i = 0; i < PER_THREAD; i++)
+				{
+					int key = (i + index) % KEYS;
+					if((i & 1) == 0)
+					{
+						map.increment(key);
+					}
+					else
+					{
+						map.add(key, 2);
+					}
+				}
+			}
+		});
+
+		long expected = (long) WRITERS * PER_THREAD / 2 * 3;
+		long sum = 0;
+		for(int key = 0; key < KEYS; key++)
+		{
+			sum += map.sum(key);
+		}
+		Assert.assertEquals(sum, expected);
+
+		sum = 0;
+		for(IntLongPair entry : map.snapshot().entrySet())
+		{
+			Assert.assertEquals(entry.getValue(), map.sum(entry.getKey()));
+			sum += entry.getValue();
+		}
+		Assert.assertEquals(sum, expected);
+	}
+
+	@Test(timeOut = 60000)
+	public void testSnapshotThenResetUnderConcurrentIncrements() throws Throwable
+	{
+		final IntLongAdderMap map = new IntLongAdderMap();
+		final AtomicInteger finished = new AtomicInteger();
+		final AtomicLong collected = new AtomicLong();
+		ConcurrentRunner.run(WRITERS + 1, new ConcurrentRunner.Task()
+		{
+			@Override
+			public void run(int index)
+			{
+				if(index == WRITERS)
+				{
+					// every increment must be collected exactly once by one of the resets
+					while(finished.get() < WRITERS)
+					{
+						collected.addAndGet(sum(map.snapshotThenReset()));
+						Thread.yield();
+					}
+					collected.addAndGet(sum(map.snapshotThenReset()));
+					return;
+				}
+
+				for(int i = 0; i < PER_THREAD; i++)
+				{
+					map.increment((i + index) % KEYS);
+				}
+				finished.incrementAndGet();
+			}
+		});
+
+		Assert.assertEquals(collected.get(), (long) WRITERS * PER_THREAD);
+		Assert.assertEquals(sum(map.snapshot()), 0);
+	}
+
+	@Test(timeOut = 60000)
+	public void testSumThenResetUnderConcurrentIncrements() throws Throwable
+	{
+		final IntLongAdderMap map = new IntLongAdderMap();
+		final AtomicInteger finished = new AtomicInteger();
+		final AtomicLong collected = new AtomicLong();
+		ConcurrentRunner.run(WRITERS + 1, new ConcurrentRunner.Task()
+		{
+			@Override
+			public void run(int index)
+			{
+				if(index == WRITERS)
+				{
+					while(finished.get() < WRITERS)
+					{
+						for(int key = 0; key < KEYS; key++)
+						{
+							collected.addAndGet(map.sumThenReset(key));
+						}
+						Thread.yield();
+					}
+					for(int key = 0; key < KEYS; key++)
+					{
+						collected.addAndGet(map.sumThenReset(key));
+					}
+					return;
+				}
+
+				for(int i = 0; i < PER_THREAD; i++)
+				{
+					map.add((i * 7 + index) % KEYS, 3);
+				}
+				finished.incrementAndGet();
+			}
+		});
+
+		Assert.assertEquals(collected.get(), 3L * WRITERS * PER_THREAD);
+		for(int key = 0; key < KEYS; key++)
+		{
+			Assert.assertEquals(map.sum(key), 0);
+		}
+	}
+
+	private static long sum(HashIntLongMap map)
+	{
+		long sum = 0;
+		for(IntLongPair entry : map.entrySet())
+		{
+			sum += entry.getValue();
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,500 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package org.napile.primitive.tests;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+import org.napile.primitive.Containers;
+import org.napile.primitive.collections.IntCollection;
+import org.napile.primitive.collections.LongCollection;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.LongIterator;
+import org.napile.primitive.lists.IntList;
+import org.napile.primitive.lists.LongList;
+import org.napile.primitive.lists.impl.ArrayIntList;
+import org.napile.primitive.lists.impl.ArrayLongList;
+import org.napile.primitive.lists.impl.BigArrayIntList;
+import org.napile.primitive.lists.impl.CArrayIntList;
+import org.napile.primitive.lists.impl.CArrayLongList;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * The array-level operations of every list implementation, and of their sub-lists, are compared with an
+ * {@link ArrayList}. A failed call must leave the list unchanged.
+ *
+ * @author VISTALL
+ * @date 23:05/18.10.2026
+ */
+public class ListBulkOperationsTest
+{
+	private static final int[] SOURCE = {100, 101, 102, 103, 104, 105, 106, 107, 108, 109};
+
+	private static final long[] LONG_SOURCE = {1L << 40, -1, 0, Long.MAX_VALUE, Long.MIN_VALUE, 5, 6, 7, 8, 9};
+
+	private static void verify(IntList list, List<Integer> check)
+	{
+		Assert.assertEquals(list.size(), check.size());
+		for(int i = 0; i < check.size(); i++)
+		{
+			Assert.assertEquals(list.get(i), check.get(i).intValue(), String.valueOf(i));
+		}
+		int[] a = new int[check.size() + 2];
+		list.getElements(0, a, 1, check.size());
+		for(int i = 0; i < check.size(); i++)
+		{
+			Assert.assertEquals(a[i + 1], check.get(i).intValue(), String.valueOf(i));
+		}
+		Assert.assertEquals(a[0], 0);
+		Assert.assertEquals(a[a.length - 1], 0);
+	}
+
+	private static void verify(LongList list, List<Long> check)
+	{
+		Assert.assertEquals(list.size(), check.size());
+		for(int i = 0; i < check.size(); i++)
+		{
+			Assert.assertEquals(list.get(i), check.get(i).longValue(), String.valueOf(i));
+		}
+		long[] a = new long[check.size() + 2];
+		list.getElements(0, a, 1, check.size());
+		for(int i = 0; i < check.size(); i++)
+		{
+			Assert.assertEquals(a[i + 1], check.get(i).longValue(), String.valueOf(i));
+		}
+		Assert.assertEquals(a[0], 0L);
+		Assert.assertEquals(a[a.length - 1], 0L);
+	}
+
+	/**
+	 * Runs every operation on the list, which must be empty, and returns the final contents of the list.
+	 */
+	private static List<Integer> run(IntList list)
+	{
+		List<Integer> check = new ArrayList<Integer>();
+		Assert.assertFalse(list.addAll(SOURCE, 3, 0));
+		Assert.assertFalse(list.addAll(SOURCE, SOURCE.length, 0));
+		list.removeRange(0, 0);
+		verify(list, check);
+
+		Assert.assertTrue(list.addAll(SOURCE, 0, SOURCE.length));
+		Assert.assertTrue(list.addAll(SOURCE, 2, 5));
+		for(int e : SOURCE)
+		{
+			check.add(e);
+		}
+		for(int i = 2; i < 7; i++)
+		{
+			check.add(SOURCE[i]);
+		}
+		verify(list, check);
+
+		int[] a = new int[4];
+		list.getElements(9, a, 1, 3);
+		Assert.assertEquals(a, new int[]{0, 109, 102, 103});
+
+		list.setElements(8, SOURCE, 6, 4);
+		for(int i = 0; i < 4; i++)
+		{
+			check.set(8 + i, SOURCE[6 + i]);
+		}
+		list.setElements(0, SOURCE, 0, 0);
+		verify(list, check);
+
+		list.removeRange(3, 7);
+		check.subList(3, 7).clear();
+		list.removeRange(list.size(), list.size());
+		list.removeRange(list.size() - 2, list.size());
+		check.subList(check.size() - 2, check.size()).clear();
+		verify(list, check);
+
+		// the sub-list writes through, at its own offsets
+		IntList sub = list.subList(2, 6);
+		List<Integer> checkSub = check.subList(2, 6);
+		Assert.assertTrue(sub.addAll(SOURCE, 0, 3));
+		for(int i = 0; i < 3; i++)
+		{
+			checkSub.add(SOURCE[i]);
+		}
+		sub.setElements(1, SOURCE, 9, 1);
+		checkSub.set(1, SOURCE[9]);
+		sub.removeRange(0, 1);
+		checkSub.remove(0);
+		verify(sub, checkSub);
+		verify(list, check);
+
+		for(int[] range : new int[][]{{-1, 1}, {0, check.size() + 1}, {check.size(), 1}, {1, -1}})
+		{
+			try
+			{
+				list.getElements(range[0], new int[20], 0, range[1]);
+				Assert.fail(range[0] + ", " + range[1]);
+			}
+			catch(IndexOutOfBoundsException e)
+			{
+				// ok
+			}
+			try
+			{
+				list.setElements(range[0], new int[20], 0, range[1]);
+				Assert.fail(range[0] + ", " + range[1]);
+			}
+			catch(IndexOutOfBoundsException e)
+			{
+				// ok
+			}
+			verify(list, check);
+		}
+		for(int[] range : new int[][]{{-1, 1}, {0, SOURCE.length + 1}, {SOURCE.length, 1}, {1, -1}})
+		{
+			try
+			{
+				list.addAll(SOURCE, range[0], range[1]);
+				Assert.fail(range[0] + ", " + range[1]);
+			}
+			catch(IndexOutOfBoundsException e)
+			{
+				// ok
+			}
+			try
+			{
+				list.setElements(0, SOURCE, range[0], range[1]);
+				Assert.fail(range[0] + ", " + range[1]);
+			}
+			catch(IndexOutOfBoundsException e)
+			{
+				// ok
+			}
+			verify(list, check);
+		}
+		for(int[] range : new int[][]{{-1, 1}, {0, check.size() + 1}, {2, 1}})
+		{
+			try
+			{
+				list.removeRange(range[0], range[1]);
+				Assert.fail(range[0] + ", " + range[1]);
+			}
+			catch(IndexOutOfBoundsException e)
+			{
+				// ok
+			}
+			verify(list, check);
+		}
+		try
+		{
+			list.getElements(0, new int[2], 1, 2);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+		try
+		{
+			sub.removeRange(0, sub.size() + 1);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+		verify(list, check);
+		return check;
+	}
+
+	private static List<Long> run(LongList list)
+	{
+		List<Long> check = new ArrayList<Long>();
+		Assert.assertFalse(list.addAll(LONG_SOURCE, 3, 0));
+		list.removeRange(0, 0);
+		verify(list, check);
+
+		Assert.assertTrue(list.addAll(LONG_SOURCE, 0, LONG_SOURCE.length));
+		Assert.assertTrue(list.addAll(LONG_SOURCE, 2, 5));
+		for(long e : LONG_SOURCE)
+		{
+			check.add(e);
+		}
+		for(int i = 2; i < 7; i++)
+		{
+			check.add(LONG_SOURCE[i]);
+		}
+		verify(list, check);
+
+		list.setElements(8, LONG_SOURCE, 6, 4);
+		for(int i = 0; i < 4; i++)
+		{
+			check.set(8 + i, LONG_SOURCE[6 + i]);
+		}
+		verify(list, check);
+
+		list.removeRange(3, 7);
+		check.subList(3, 7).clear();
+		list.removeRange(list.size() - 2, list.size());
+		check.subList(check.size() - 2, check.size()).clear();
+		verify(list, check);
+
+		LongList sub = list.subList(2, 6);
+		List<Long> checkSub = check.subList(2, 6);
+		Assert.assertTrue(sub.addAll(LONG_SOURCE, 0, 3));
+		for(int i = 0; i < 3; i++)
+		{
+			checkSub.add(LONG_SOURCE[i]);
+		}
+		sub.setElements(1, LONG_SOURCE, 9, 1);
+		checkSub.set(1, LONG_SOURCE[9]);
+		sub.removeRange(0, 1);
+		checkSub.remove(0);
+		verify(sub, checkSub);
+		verify(list, check);
+
+		try
+		{
+			list.getElements(0, new long[20], 0, check.size() + 1);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+		try
+		{
+			list.setElements(check.size() - 1, new long[20], 0, 2);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+		try
+		{
+			list.addAll(LONG_SOURCE, 5, LONG_SOURCE.length);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+		try
+		{
+			list.removeRange(1, 0);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+		verify(list, check);
+		return check;
+	}
+
+	@Test
+	public void testIntLists()
+	{
+		run(new ArrayIntList());
+		run(new BigArrayIntList());
+		run(new CArrayIntList());
+	}
+
+	@Test
+	public void testLongLists()
+	{
+		run(new ArrayLongList());
+		run(new CArrayLongList());
+	}
+
+	@Test
+	public void testSubListComodification()
+	{
+		ArrayIntList list = new ArrayIntList();
+		list.addAll(SOURCE, 0, SOURCE.length);
+		IntList sub = list.subList(1, 4);
+		list.addAll(SOURCE, 0, 1);
+		try
+		{
+			sub.getElements(0, new int[3], 0, 3);
+			Assert.fail();
+		}
+		catch(ConcurrentModificationException e)
+		{
+			// ok
+		}
+
+		CArrayIntList cList = new CArrayIntList(SOURCE);
+		sub = cList.subList(1, 4);
+		cList.removeRange(8, 10);
+		try
+		{
+			sub.setElements(0, SOURCE, 0, 1);
+			Assert.fail();
+		}
+		catch(ConcurrentModificationException e)
+		{
+			// ok
+		}
+	}
+
+	@Test
+	public void testSubListAddAllInsertsOnce()
+	{
+		// the range is inserted into the backing list by one call, not element by element
+		final int[] calls = new int[2];
+		ArrayIntList list = new ArrayIntList()
+		{
+			@Override
+			public void add(int index, int element)
+			{
+				calls[0]++;
+				super.add(index, element);
+			}
+
+			@Override
+			public boolean addAll(int index, IntCollection c)
+			{
+				calls[1]++;
+				return super.addAll(index, c);
+			}
+		};
+		list.addAll(SOURCE, 0, SOURCE.length);
+		IntList sub = list.subList(2, 5);
+		IntList subSub = sub.subList(1, 2);
+		Assert.assertTrue(subSub.addAll(SOURCE, 7, 3));
+		Assert.assertFalse(subSub.addAll(SOURCE, 0, 0));
+		Assert.assertEquals(calls, new int[]{0, 1});
+		Assert.assertEquals(subSub.toArray(), new int[]{103, 107, 108, 109});
+		Assert.assertEquals(sub.toArray(), new int[]{102, 103, 107, 108, 109, 104});
+		Assert.assertEquals(list.size(), SOURCE.length + 3);
+		Assert.assertEquals(list.get(7), 104);
+
+		try
+		{
+			sub.addAll(SOURCE, 8, 3);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+		list.add(1);
+		try
+		{
+			sub.addAll(SOURCE, 0, 1);
+			Assert.fail();
+		}
+		catch(ConcurrentModificationException e)
+		{
+			// ok
+		}
+
+		final int[] longCalls = new int[2];
+		ArrayLongList longList = new ArrayLongList()
+		{
+			@Override
+			public void add(int index, long element)
+			{
+				longCalls[0]++;
+				super.add(index, element);
+			}
+
+			@Override
+			public boolean addAll(int index, LongCollection c)
+			{
+				longCalls[1]++;
+				return super.addAll(index, c);
+			}
+		};
+		longList.addAll(LONG_SOURCE, 0, LONG_SOURCE.length);
+		LongList longSub = longList.subList(0, 1);
+		Assert.assertTrue(longSub.addAll(LONG_SOURCE, 3, 2));
+		Assert.assertEquals(longCalls, new int[]{0, 1});
+		Assert.assertEquals(longSub.toArray(), new long[]{1L << 40, Long.MAX_VALUE, Long.MIN_VALUE});
+		Assert.assertEquals(longList.get(3), -1L);
+		Assert.assertEquals(longList.size(), LONG_SOURCE.length + 2);
+	}
+
+	@Test
+	public void testCopyOnWrite()
+	{
+		// every write is one new array, so an iterator keeps the elements it started with
+		CArrayIntList list = new CArrayIntList(SOURCE);
+		IntIterator iterator = list.iterator();
+		list.setElements(0, new int[]{1, 2, 3}, 0, 3);
+		list.addAll(SOURCE, 0, 2);
+		list.removeRange(5, 7);
+		for(int e : SOURCE)
+		{
+			Assert.assertEquals(iterator.next(), e);
+		}
+		Assert.assertFalse(iterator.hasNext());
+		Assert.assertEquals(list.toArray(), new int[]{1, 2, 3, 103, 104, 107, 108, 109, 100, 101});
+
+		CArrayLongList longList = new CArrayLongList(LONG_SOURCE);
+		LongIterator longIterator = longList.iterator();
+		longList.removeRange(0, longList.size());
+		Assert.assertTrue(longList.isEmpty());
+		for(long e : LONG_SOURCE)
+		{
+			Assert.assertEquals(longIterator.next(), e);
+		}
+	}
+
+	@Test
+	public void testContainers()
+	{
+		IntList singleton = Containers.singletonIntList(5);
+		int[] a = new int[2];
+		singleton.getElements(0, a, 1, 1);
+		Assert.assertEquals(a, new int[]{0, 5});
+		singleton.removeRange(1, 1);
+		try
+		{
+			singleton.setElements(0, a, 0, 1);
+			Assert.fail();
+		}
+		catch(UnsupportedOperationException e)
+		{
+			// ok
+		}
+		try
+		{
+			singleton.addAll(a, 0, 1);
+			Assert.fail();
+		}
+		catch(UnsupportedOperationException e)
+		{
+			// ok
+		}
+
+		Containers.EMPTY_INT_LIST.getElements(0, a, 0, 0);
+		Containers.EMPTY_LONG_LIST.removeRange(0, 0);
+		try
+		{
+			Containers.EMPTY_LONG_LIST.getElements(0, new long[1], 0, 1);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+			// ok
+		}
+	}
+}
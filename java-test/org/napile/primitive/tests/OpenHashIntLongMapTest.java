@@ -0,0 +1,120 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.napile.primitive.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.maps.IntLongMap;
+import org.napile.primitive.maps.impl.HashIntLongMap;
+import org.napile.primitive.maps.impl.OpenHashIntLongMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author VISTALL
+ * @date 11:40/18.10.2026
+ */
+public class OpenHashIntLongMapTest
+{
+	@Test
+	public void test() throws Exception
+	{
+		IntLongMap map = new OpenHashIntLongMap();
+		map.put(268480666, Long.MAX_VALUE);
+		map.put(0, 1);
+
+		Assert.assertEquals(map.get(268480666), Long.MAX_VALUE);
+		Assert.assertEquals(map.get(0), 1);
+		Assert.assertFalse(map.containsKey(-1));
+		Assert.assertTrue(map.containsValue(Long.MAX_VALUE));
+		Assert.assertEquals(map.size(), 2);
+	}
+
+	@Test
+	public void testRemoveWhileIterate() throws Exception
+	{
+		IntLongMap map = new OpenHashIntLongMap();
+		IntLongMap check = new HashIntLongMap();
+		for(int i = -5000; i < 5000; i++)
+		{
+			map.put(i, i);
+			check.put(i, i);
+		}
+
+		for(IntIterator iterator = map.keySet().iterator(); iterator.hasNext();)
+		{
+			int key = iterator.next();
+			if((key & 1) == 0)
+			{
+				iterator.remove();
+				check.remove(key);
+			}
+		}
+
+		Assert.assertEquals(map, check);
+	}
+
+	@Test
+	public void testNoEntryValue() throws Exception
+	{
+		IntLongMap map = new OpenHashIntLongMap(16, 0.5f, -1);
+		Assert.assertEquals(map.getNoEntryValue(), -1);
+		Assert.assertEquals(map.get(0), -1);
+		Assert.assertEquals(map.remove(0), -1);
+		Assert.assertEquals(map.getOrDefault(0, 7), 7);
+
+		Assert.assertEquals(map.put(0, 3), -1);
+		Assert.assertEquals(map.put(0, 4), 3);
+		Assert.assertEquals(map.put(1, -1), -1);
+		Assert.assertEquals(map.getOrDefault(1, 7), -1);
+		Assert.assertEquals(map.getOrDefault(2, 7), 7);
+		Assert.assertEquals(map.remove(0), 4);
+		Assert.assertEquals(map.get(0), -1);
+		Assert.assertEquals(map.size(), 1);
+	}
+
+	@Test
+	public void testSerialization() throws Exception
+	{
+		OpenHashIntLongMap map = new OpenHashIntLongMap(4, 0.5f, 42);
+		for(int i = 0; i < 1000; i++)
+		{
+			map.put(i * -31, i);
+		}
+		map.remove(-31);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(map);
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		IntLongMap copy = (IntLongMap) in.readObject();
+		Assert.assertEquals(copy, map);
+		Assert.assertEquals(copy.size(), 999);
+		Assert.assertEquals(copy.getNoEntryValue(), 42);
+		Assert.assertEquals(copy.get(-31), 42);
+		Assert.assertEquals(copy.get(0), 0);
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.napile.primitive.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+import org.napile.pair.primitive.IntObjectPair;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.maps.IntObjectMap;
+import org.napile.primitive.maps.impl.HashIntObjectMap;
+import org.napile.primitive.maps.impl.OpenHashIntObjectMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author VISTALL
+ * @date 16:40/18.10.2026
+ */
+public class OpenHashIntObjectMapTest
+{
+	@Test
+	public void test() throws Exception
+	{
+		IntObjectMap<String> map = new OpenHashIntObjectMap<String>();
+		Assert.assertNull(map.put(268480666, "a"));
+		Assert.assertNull(map.put(0, "zero"));
+		Assert.assertNull(map.put(Integer.MIN_VALUE, "min"));
+		Assert.assertNull(map.put(Integer.MAX_VALUE, null));
+		Assert.assertEquals(map.put(268480666, "b"), "a");
+
+		Assert.assertEquals(map.get(268480666), "b");
+		Assert.assertEquals(map.get(0), "zero");
+		Assert.assertEquals(map.get(Integer.MIN_VALUE), "min");
+		Assert.assertNull(map.get(Integer.MAX_VALUE));
+		Assert.assertTrue(map.containsKey(Integer.MAX_VALUE));
+		Assert.assertFalse(map.containsKey(-1));
+		Assert.assertTrue(map.containsValue(null));
+		Assert.assertTrue(map.containsValue("zero"));
+		Assert.assertFalse(map.containsValue("a"));
+		Assert.assertEquals(map.size(), 4);
+
+		Assert.assertEquals(map.remove(0), "zero");
+		Assert.assertNull(map.remove(0));
+		Assert.assertFalse(map.containsKey(0));
+		Assert.assertEquals(map.size(), 3);
+
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertNull(map.get(268480666));
+	}
+
+	@Test
+	public void testResizeAndRemove() throws Exception
+	{
+		IntObjectMap<Integer> map = new OpenHashIntObjectMap<Integer>(2);
+		IntObjectMap<Integer> check = new HashIntObjectMap<Integer>();
+		Random random = new Random(2);
+		for(int i = 0; i < 20000; i++)
+		{
+			int key = (i & 1) == 0 ? random.nextInt() : random.nextInt(100) << 16;
+			Assert.assertEquals(map.put(key, i), check.put(key, i));
+		}
+		Assert.assertEquals(map, check);
+
+		for(int i = 0; i < 20000; i++)
+		{
+			int key = random.nextInt(100) << 16;
+			Assert.assertEquals(map.remove(key), check.remove(key));
+		}
+		Assert.assertEquals(map.size(), check.size());
+		Assert.assertEquals(map, check);
+		Assert.assertEquals(map.hashCode(), check.hashCode());
+	}
+
+	@Test
+	public void testRemoveWhileIterate() throws Exception
+	{
+		IntObjectMap<Integer> map = new OpenHashIntObjectMap<Integer>();
+		IntObjectMap<Integer> check = new HashIntObjectMap<Integer>();
+		for(int i = -5000; i < 5000; i++)
+		{
+			map.put(i, i);
+			check.put(i, i);
+		}
+
+		for(IntIterator iterator = map.keySet().iterator(); iterator.hasNext();)
+		{
+			int key = iterator.next();
+			if((key & 1) == 0)
+			{
+				iterator.remove();
+				check.remove(key);
+			}
+		}
+
+		Assert.assertEquals(map, check);
+	}
+
+	@Test
+	public void testEntrySetValue() throws Exception
+	{
+		IntObjectMap<Integer> map = new OpenHashIntObjectMap<Integer>();
+		for(int i = -100; i <= 100; i++)
+		{
+			map.put(i, i);
+		}
+
+		for(IntObjectPair<Integer> entry : map.entrySet())
+		{
+			Assert.assertEquals(entry.setValue(-entry.getKey()), Integer.valueOf(entry.getKey()));
+		}
+
+		for(int i = -100; i <= 100; i++)
+		{
+			Assert.assertEquals(map.get(i), Integer.valueOf(-i));
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testCloneAndSerialize() throws Exception
+	{
+		OpenHashIntObjectMap<String> map = new OpenHashIntObjectMap<String>();
+		for(int i = -100; i <= 100; i++)
+		{
+			map.put(i * 31, String.valueOf(i));
+		}
+
+		OpenHashIntObjectMap<String> clone = (OpenHashIntObjectMap<String>) map.clone();
+		Assert.assertEquals(clone, map);
+		clone.remove(0);
+		Assert.assertTrue(map.containsKey(0));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(map);
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		Object copy = in.readObject();
+		Assert.assertEquals(copy, map);
+	}
+}
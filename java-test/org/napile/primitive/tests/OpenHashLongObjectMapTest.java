@@ -0,0 +1,164 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.napile.primitive.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+import org.napile.pair.primitive.LongObjectPair;
+import org.napile.primitive.iterators.LongIterator;
+import org.napile.primitive.maps.LongObjectMap;
+import org.napile.primitive.maps.impl.HashLongObjectMap;
+import org.napile.primitive.maps.impl.OpenHashLongObjectMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author VISTALL
+ * @date 16:55/18.10.2026
+ */
+public class OpenHashLongObjectMapTest
+{
+	@Test
+	public void test() throws Exception
+	{
+		LongObjectMap<String> map = new OpenHashLongObjectMap<String>();
+		Assert.assertNull(map.put(268480666L << 20, "a"));
+		Assert.assertNull(map.put(0, "zero"));
+		Assert.assertNull(map.put(Long.MIN_VALUE, "min"));
+		Assert.assertNull(map.put(Long.MAX_VALUE, null));
+		Assert.assertEquals(map.put(268480666L << 20, "b"), "a");
+
+		Assert.assertEquals(map.get(268480666L << 20), "b");
+		Assert.assertEquals(map.get(0), "zero");
+		Assert.assertEquals(map.get(Long.MIN_VALUE), "min");
+		Assert.assertNull(map.get(Long.MAX_VALUE));
+		Assert.assertTrue(map.containsKey(Long.MAX_VALUE));
+		Assert.assertFalse(map.containsKey(-1));
+		Assert.assertTrue(map.containsValue(null));
+		Assert.assertTrue(map.containsValue("zero"));
+		Assert.assertFalse(map.containsValue("a"));
+		Assert.assertEquals(map.size(), 4);
+
+		Assert.assertEquals(map.remove(0), "zero");
+		Assert.assertNull(map.remove(0));
+		Assert.assertFalse(map.containsKey(0));
+		Assert.assertEquals(map.size(), 3);
+
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertNull(map.get(268480666L << 20));
+	}
+
+	@Test
+	public void testResizeAndRemove() throws Exception
+	{
+		LongObjectMap<Integer> map = new OpenHashLongObjectMap<Integer>(2);
+		LongObjectMap<Integer> check = new HashLongObjectMap<Integer>();
+		Random random = new Random(2);
+		for(int i = 0; i < 20000; i++)
+		{
+			long key = (i & 1) == 0 ? random.nextLong() : (long) random.nextInt(100) << 40;
+			Assert.assertEquals(map.put(key, i), check.put(key, i));
+		}
+		Assert.assertEquals(map, check);
+
+		for(int i = 0; i < 20000; i++)
+		{
+			long key = (long) random.nextInt(100) << 40;
+			Assert.assertEquals(map.remove(key), check.remove(key));
+		}
+		Assert.assertEquals(map.size(), check.size());
+		Assert.assertEquals(map, check);
+		Assert.assertEquals(map.hashCode(), check.hashCode());
+	}
+
+	@Test
+	public void testRemoveWhileIterate() throws Exception
+	{
+		LongObjectMap<Long> map = new OpenHashLongObjectMap<Long>();
+		LongObjectMap<Long> check = new HashLongObjectMap<Long>();
+		for(long i = -5000; i < 5000; i++)
+		{
+			map.put(i, i);
+			check.put(i, i);
+		}
+
+		for(LongIterator iterator = map.keySet().iterator(); iterator.hasNext();)
+		{
+			long key = iterator.next();
+			if((key & 1) == 0)
+			{
+				iterator.remove();
+				check.remove(key);
+			}
+		}
+
+		Assert.assertEquals(map, check);
+	}
+
+	@Test
+	public void testEntrySetValue() throws Exception
+	{
+		LongObjectMap<Long> map = new OpenHashLongObjectMap<Long>();
+		for(long i = -100; i <= 100; i++)
+		{
+			map.put(i, i);
+		}
+
+		for(LongObjectPair<Long> entry : map.entrySet())
+		{
+			Assert.assertEquals(entry.setValue(-entry.getKey()), Long.valueOf(entry.getKey()));
+		}
+
+		for(long i = -100; i <= 100; i++)
+		{
+			Assert.assertEquals(map.get(i), Long.valueOf(-i));
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testCloneAndSerialize() throws Exception
+	{
+		OpenHashLongObjectMap<String> map = new OpenHashLongObjectMap<String>();
+		for(int i = -100; i <= 100; i++)
+		{
+			map.put(i * 31L << 32, String.valueOf(i));
+		}
+
+		OpenHashLongObjectMap<String> clone = (OpenHashLongObjectMap<String>) map.clone();
+		Assert.assertEquals(clone, map);
+		clone.remove(0);
+		Assert.assertTrue(map.containsKey(0));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(map);
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		Object copy = in.readObject();
+		Assert.assertEquals(copy, map);
+	}
+}
@@ -0,0 +1,481 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package org.napile.primitive.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.sets.NavigableIntSet;
+import org.napile.primitive.sets.impl.RoaringIntSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Elements are kept in chunks of <tt>65536</tt> values with the same high bits; a chunk is a sorted array while
+ * it holds up to <tt>4096</tt> elements and a bitmap above that, or runs after {@link RoaringIntSet#runOptimize()}.
+ * Every test compares the set with a {@link TreeSet}.
+ *
+ * @author VISTALL
+ * @date 21:20/18.10.2026
+ */
+public class RoaringIntSetTest
+{
+	private static final int CHUNK = 1 << 16;
+	private static final int ARRAY_MAX = 4096;
+
+	private static final int[] EXTREMES = {
+			Integer.MIN_VALUE,
+			Integer.MIN_VALUE + 1,
+			-CHUNK - 1,
+			-CHUNK,
+			-CHUNK + 1,
+			-2,
+			-1,
+			0,
+			1,
+			CHUNK - 1,
+			CHUNK,
+			Integer.MAX_VALUE - 1,
+			Integer.MAX_VALUE
+	};
+
+	private static void add(RoaringIntSet set, NavigableSet<Integer> check, int e)
+	{
+		Assert.assertEquals(set.add(e), check.add(e), String.valueOf(e));
+	}
+
+	private static void remove(RoaringIntSet set, NavigableSet<Integer> check, int e)
+	{
+		Assert.assertEquals(set.remove(e), check.remove(e), String.valueOf(e));
+	}
+
+	/**
+	 * Returns <tt>null</tt> if the navigation method throws {@link NoSuchElementException}.
+	 */
+	private static Integer navigate(NavigableIntSet set, int method, int e)
+	{
+		try
+		{
+			switch(method)
+			{
+				case 0:
+					return set.lower(e);
+				case 1:
+					return set.floor(e);
+				case 2:
+					return set.ceiling(e);
+				default:
+					return set.higher(e);
+			}
+		}
+		catch(NoSuchElementException ex)
+		{
+			return null;
+		}
+	}
+
+	private static Integer navigate(NavigableSet<Integer> set, int method, int e)
+	{
+		switch(method)
+		{
+			case 0:
+				return set.lower(e);
+			case 1:
+				return set.floor(e);
+			case 2:
+				return set.ceiling(e);
+			default:
+				return set.higher(e);
+		}
+	}
+
+	private static void verifyNavigation(NavigableIntSet set, NavigableSet<Integer> check, int e)
+	{
+		for(int method = 0; method < 4; method++)
+		{
+			Assert.assertEquals(navigate(set, method, e), navigate(check, method, e), "method " + method + " of " + e);
+		}
+	}
+
+	/**
+	 * Compares the set with the reference set: iteration in both directions, lookups and navigation
+	 * around a sample of elements and around the chunk boundaries of the elements.
+	 */
+	private static void verify(NavigableIntSet set, NavigableSet<Integer> check)
+	{
+		Assert.assertEquals(set.size(), check.size());
+		Assert.assertEquals(set.isEmpty(), check.isEmpty());
+
+		IntIterator iterator = set.iterator();
+		for(Integer e : check)
+		{
+			Assert.assertTrue(iterator.hasNext());
+			Assert.assertEquals(iterator.next(), e.intValue());
+		}
+		Assert.assertFalse(iterator.hasNext());
+
+		iterator = set.descendingIterator();
+		for(Iterator<Integer> it = check.descendingIterator(); it.hasNext();)
+		{
+			Assert.assertTrue(iterator.hasNext());
+			Assert.assertEquals(iterator.next(), it.next().intValue());
+		}
+		Assert.assertFalse(iterator.hasNext());
+
+		int[] array = set.toArray();
+		Assert.assertEquals(array.length, check.size());
+
+		if(check.isEmpty())
+		{
+			try
+			{
+				set.first();
+				Assert.fail();
+			}
+			catch(NoSuchElementException e)
+			{
+				// ok
+			}
+		}
+		else
+		{
+			Assert.assertEquals(set.first(), check.first().intValue());
+			Assert.assertEquals(set.last(), check.last().intValue());
+		}
+
+		int step = Math.max(1, check.size() / 300);
+		for(int i = 0; i < array.length; i += step)
+		{
+			int e = array[i];
+			Assert.assertTrue(set.contains(e));
+			verifyNavigation(set, check, e);
+			verifyNavigation(set, check, e - 1);
+			verifyNavigation(set, check, e + 1);
+			int base = e & ~(CHUNK - 1);
+			verifyNavigation(set, check, base);
+			verifyNavigation(set, check, base - 1);
+			verifyNavigation(set, check, base + CHUNK - 1);
+			Assert.assertEquals(set.contains(e + 1), check.contains(e + 1));
+		}
+		for(int e : EXTREMES)
+		{
+			Assert.assertEquals(set.contains(e), check.contains(e));
+			verifyNavigation(set, check, e);
+		}
+	}
+
+	@Test
+	public void testArrayBitmapThreshold() throws Exception
+	{
+		// one chunk above zero and one below, filled in a scattered order
+		for(int base : new int[]{3 * CHUNK, -5 * CHUNK})
+		{
+			RoaringIntSet set = new RoaringIntSet();
+			NavigableSet<Integer> check = new TreeSet<Integer>();
+			for(int i = 0; i < ARRAY_MAX + 100; i++)
+			{
+				add(set, check, base + (i * 13 & CHUNK - 1));
+				add(set, check, base + (i * 13 & CHUNK - 1));
+				if(i >= ARRAY_MAX - 2 && i <= ARRAY_MAX + 1)
+				{
+					verify(set, check);
+				}
+			}
+			verify(set, check);
+
+			// back to an array, and over the threshold again
+			for(int i = ARRAY_MAX + 99; i >= ARRAY_MAX - 100; i--)
+			{
+				remove(set, check, base + (i * 13 & CHUNK - 1));
+				remove(set, check, base + (i * 13 & CHUNK - 1));
+				if(i >= ARRAY_MAX - 2 && i <= ARRAY_MAX + 1)
+				{
+					verify(set, check);
+				}
+			}
+			verify(set, check);
+			for(int i = ARRAY_MAX - 100; i < ARRAY_MAX; i++)
+			{
+				add(set, check, base + (i * 13 & CHUNK - 1));
+			}
+			Assert.assertEquals(set.size(), ARRAY_MAX);
+			for(int i = 0; i < 10; i++)
+			{
+				int e = base + ((ARRAY_MAX + i) * 13 & CHUNK - 1);
+				add(set, check, e);
+				verify(set, check);
+				remove(set, check, e);
+				verify(set, check);
+			}
+		}
+	}
+
+	@Test
+	public void testRemoveUntilEmpty() throws Exception
+	{
+		RoaringIntSet set = new RoaringIntSet();
+		NavigableSet<Integer> check = new TreeSet<Integer>();
+		// an array chunk, a bitmap chunk, a run chunk and another array chunk
+		for(int i = 0; i < 100; i++)
+		{
+			add(set, check, -CHUNK + i * 7);
+		}
+		for(int i = 0; i < ARRAY_MAX * 2; i++)
+		{
+			add(set, check, i * 3);
+		}
+		for(int i = 0; i < 3000; i++)
+		{
+			add(set, check, 2 * CHUNK + 1000 + i);
+		}
+		for(int i = 0; i < 10; i++)
+		{
+			add(set, check, 3 * CHUNK + i * 100);
+		}
+		Assert.assertTrue(set.runOptimize());
+		verify(set, check);
+
+		// empty the bitmap chunk in the middle
+		for(int i = 0; i < ARRAY_MAX * 2; i++)
+		{
+			remove(set, check, i * 3);
+		}
+		verify(set, check);
+		Assert.assertEquals(set.higher(-1), 2 * CHUNK + 1000);
+		Assert.assertEquals(set.lower(2 * CHUNK), -CHUNK + 99 * 7);
+
+		// empty the run chunk through an iterator
+		for(IntIterator iterator = set.iterator(); iterator.hasNext();)
+		{
+			int e = iterator.next();
+			if(e >= 2 * CHUNK && e < 3 * CHUNK)
+			{
+				iterator.remove();
+				check.remove(e);
+			}
+		}
+		verify(set, check);
+
+		// empty the others from both ends
+		while(!check.isEmpty())
+		{
+			Assert.assertEquals(set.pollFirst(), check.pollFirst().intValue());
+			if(!check.isEmpty())
+			{
+				Assert.assertEquals(set.pollLast(), check.pollLast().intValue());
+			}
+		}
+		verify(set, check);
+		try
+		{
+			set.pollFirst();
+			Assert.fail();
+		}
+		catch(NoSuchElementException e)
+		{
+			// ok
+		}
+
+		add(set, check, 5);
+		verify(set, check);
+	}
+
+	@Test
+	public void testNegativeAndExtremeElements() throws Exception
+	{
+		RoaringIntSet set = new RoaringIntSet();
+		NavigableSet<Integer> check = new TreeSet<Integer>();
+		for(int i = EXTREMES.length - 1; i >= 0; i--)
+		{
+			add(set, check, EXTREMES[i]);
+			verify(set, check);
+		}
+		Assert.assertEquals(set.toArray(), EXTREMES);
+		Assert.assertEquals(set.first(), Integer.MIN_VALUE);
+		Assert.assertEquals(set.last(), Integer.MAX_VALUE);
+		Assert.assertEquals(set.lower(0), -1);
+		Assert.assertEquals(set.higher(-1), 0);
+
+		verify(set.subSet(-CHUNK, true, CHUNK, false), check.subSet(-CHUNK, true, CHUNK, false));
+		verify(set.headSet(0, false), check.headSet(0, false));
+		verify(set.tailSet(Integer.MAX_VALUE, true), check.tailSet(Integer.MAX_VALUE, true));
+		verify(set.descendingSet(), check.descendingSet());
+
+		// full chunks at both ends of the range
+		for(int i = 0; i < CHUNK; i += 2)
+		{
+			add(set, check, Integer.MIN_VALUE + i);
+			add(set, check, Integer.MAX_VALUE - i);
+		}
+		verify(set, check);
+		set.runOptimize();
+		verify(set, check);
+		for(int e : EXTREMES)
+		{
+			remove(set, check, e);
+		}
+		verify(set, check);
+	}
+
+	@Test
+	public void testIteratorOrder() throws Exception
+	{
+		Random random = new Random(17);
+		RoaringIntSet set = new RoaringIntSet();
+		NavigableSet<Integer> check = new TreeSet<Integer>();
+		for(int i = 0; i < 20000; i++)
+		{
+			// clustered values, so that chunks hold more than one element
+			int e = random.nextBoolean() ? random.nextInt() : random.nextInt(CHUNK * 4) - CHUNK * 2;
+			add(set, check, e);
+		}
+		verify(set, check);
+		verify(set.descendingSet(), check.descendingSet());
+		verify(set.subSet(-CHUNK - 5, false, CHUNK + 5, true), check.subSet(-CHUNK - 5, false, CHUNK + 5, true));
+		verify(set.headSet(-7, true).descendingSet(), check.headSet(-7, true).descendingSet());
+
+		// remove every other element while iterating in both directions
+		boolean odd = false;
+		for(IntIterator iterator = set.iterator(); iterator.hasNext();)
+		{
+			int e = iterator.next();
+			if(odd = !odd)
+			{
+				iterator.remove();
+				check.remove(e);
+			}
+		}
+		verify(set, check);
+		for(IntIterator iterator = set.descendingIterator(); iterator.hasNext();)
+		{
+			int e = iterator.next();
+			if(odd = !odd)
+			{
+				iterator.remove();
+				check.remove(e);
+			}
+		}
+		verify(set, check);
+
+		IntIterator iterator = set.iterator();
+		try
+		{
+			iterator.remove();
+			Assert.fail();
+		}
+		catch(IllegalStateException e)
+		{
+			// ok
+		}
+		iterator.next();
+		set.add(CHUNK * 100 + 1);
+		try
+		{
+			iterator.next();
+			Assert.fail();
+		}
+		catch(ConcurrentModificationException e)
+		{
+			// ok
+		}
+	}
+
+	@Test
+	public void testBulkOperations() throws Exception
+	{
+		Random random = new Random(31);
+		RoaringIntSet a = new RoaringIntSet();
+		RoaringIntSet b = new RoaringIntSet();
+		NavigableSet<Integer> checkA = new TreeSet<Integer>();
+		NavigableSet<Integer> checkB = new TreeSet<Integer>();
+		// sparse, dense and run chunks, which overlap in different kinds
+		for(int i = 0; i < 6000; i++)
+		{
+			add(a, checkA, random.nextInt(CHUNK));
+			add(b, checkB, random.nextInt(CHUNK * 2));
+			add(a, checkA, -CHUNK + random.nextInt(CHUNK / 16));
+			add(b, checkB, 5 * CHUNK + i);
+		}
+		for(int i = 0; i < 100; i++)
+		{
+			add(a, checkA, 5 * CHUNK + random.nextInt(CHUNK));
+			add(b, checkB, -CHUNK + random.nextInt(CHUNK));
+		}
+		b.runOptimize();
+
+		RoaringIntSet union = (RoaringIntSet) a.clone();
+		NavigableSet<Integer> checkUnion = new TreeSet<Integer>(checkA);
+		Assert.assertEquals(union.addAll(b), checkUnion.addAll(checkB));
+		verify(union, checkUnion);
+		verify(a, checkA);
+
+		RoaringIntSet intersection = (RoaringIntSet) a.clone();
+		NavigableSet<Integer> checkIntersection = new TreeSet<Integer>(checkA);
+		Assert.assertEquals(intersection.retainAll(b), checkIntersection.retainAll(checkB));
+		verify(intersection, checkIntersection);
+
+		RoaringIntSet difference = (RoaringIntSet) b.clone();
+		NavigableSet<Integer> checkDifference = new TreeSet<Integer>(checkB);
+		Assert.assertEquals(difference.removeAll(a), checkDifference.removeAll(checkA));
+		verify(difference, checkDifference);
+		verify(b, checkB);
+
+		Assert.assertFalse(union.addAll(a));
+		Assert.assertFalse(intersection.retainAll(a));
+		Assert.assertFalse(difference.removeAll(intersection));
+		Assert.assertTrue(difference.removeAll((RoaringIntSet) difference.clone()));
+		Assert.assertTrue(difference.isEmpty());
+	}
+
+	@Test
+	public void testSerialization() throws Exception
+	{
+		RoaringIntSet set = new RoaringIntSet();
+		NavigableSet<Integer> check = new TreeSet<Integer>();
+		for(int i = 0; i < ARRAY_MAX + 10; i++)
+		{
+			add(set, check, i * 5);
+			add(set, check, -3 * CHUNK + i);
+			add(set, check, Integer.MIN_VALUE + i * 17);
+		}
+		set.runOptimize();
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(set);
+		out.close();
+		RoaringIntSet copy = (RoaringIntSet) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+		verify(copy, check);
+		Assert.assertEquals(copy, set);
+
+		add(copy, check, 7);
+		verify(copy, check);
+	}
+}
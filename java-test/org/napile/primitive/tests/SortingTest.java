@@ -0,0 +1,735 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package org.napile.primitive.tests;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import org.napile.primitive.Pools;
+import org.napile.primitive.Sorting;
+import org.napile.primitive.comparators.IntComparator;
+import org.napile.primitive.comparators.LongComparator;
+import org.napile.primitive.lists.impl.ArrayIntList;
+import org.napile.primitive.lists.impl.ArrayLongList;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * The comparator sort is compared with the stable sort of boxed values. The comparators look at the high
+ * bits only, so equal elements differ in the low bits, and a lost stability shows in the result. The
+ * parallel sort runs in a pool of several threads, so it splits and merges even on a single processor.
+ *
+ * @author VISTALL
+ * @date 22:10/18.10.2026
+ */
+public class SortingTest
+{
+	private static final int[] SIZES = {0, 1, 2, 31, 32, 33, 64, 100, 1000, 5000};
+
+	private static final int PATTERNS = 7;
+
+	private static final int RADIX_KINDS = 6;
+
+	private static final int[] RADIX_SIZES = {0, 1, Sorting.RADIX_THRESHOLD - 1, Sorting.RADIX_THRESHOLD, 3000, 20000};
+
+	private static final IntComparator BY_HIGH_BITS = new IntComparator()
+	{
+		@Override
+		public int compare(int o1, int o2)
+		{
+			int h1 = o1 >> 8;
+			int h2 = o2 >> 8;
+			return h1 < h2 ? -1 : h1 == h2 ? 0 : 1;
+		}
+	};
+
+	private static final IntComparator DESCENDING = new IntComparator()
+	{
+		@Override
+		public int compare(int o1, int o2)
+		{
+			return o1 > o2 ? -1 : o1 == o2 ? 0 : 1;
+		}
+	};
+
+	private static final LongComparator LONG_BY_HIGH_BITS = new LongComparator()
+	{
+		@Override
+		public int compare(long o1, long o2)
+		{
+			long h1 = o1 >> 32;
+			long h2 = o2 >> 32;
+			return h1 < h2 ? -1 : h1 == h2 ? 0 : 1;
+		}
+	};
+
+	/**
+	 * Random values, ascending and descending runs of several lengths, and few distinct high bits. The low
+	 * 8 bits of every value are its position, so equal elements by {@link #BY_HIGH_BITS} are distinct.
+	 */
+	private static int[] pattern(int pattern, int size, Random random)
+	{
+		int[] a = new int[size];
+		for(int i = 0; i < size; i++)
+		{
+			int high;
+			switch(pattern)
+			{
+				case 0:
+					high = random.nextInt();
+					break;
+				case 1:
+					high = i;
+					break;
+				case 2:
+					high = size - i;
+					break;
+				case 3:
+					// saw, ascending runs of 40
+					high = i % 40;
+					break;
+				case 4:
+					// descending runs of 7, shorter than the minimal run
+					high = -(i % 7);
+					break;
+				case 5:
+					high = random.nextInt(4);
+					break;
+				default:
+					// sorted with a few random elements
+					high = random.nextInt(50) == 0 ? random.nextInt() : i;
+					break;
+			}
+			a[i] = (high << 8) | (i & 0xFF);
+		}
+		return a;
+	}
+
+	private static long[] toLong(int[] a)
+	{
+		long[] result = new long[a.length];
+		for(int i = 0; i < a.length; i++)
+		{
+			// the high bits keep the order of the int high bits, the low ones distinguish the equal ones
+			result[i] = ((long) (a[i] >> 8) << 32) | (i & 0xFFFFFFFFL);
+		}
+		return result;
+	}
+
+	private static int[] stableSort(int[] a, final IntComparator comparator)
+	{
+		Integer[] boxed = new Integer[a.length];
+		for(int i = 0; i < a.length; i++)
+		{
+			boxed[i] = a[i];
+		}
+		Arrays.sort(boxed, new Comparator<Integer>()
+		{
+			@Override
+			public int compare(Integer o1, Integer o2)
+			{
+				return comparator.compare(o1, o2);
+			}
+		});
+		int[] result = new int[a.length];
+		for(int i = 0; i < a.length; i++)
+		{
+			result[i] = boxed[i];
+		}
+		return result;
+	}
+
+	private static long[] stableSort(long[] a, final LongComparator comparator)
+	{
+		Long[] boxed = new Long[a.length];
+		for(int i = 0; i < a.length; i++)
+		{
+			boxed[i] = a[i];
+		}
+		Arrays.sort(boxed, new Comparator<Long>()
+		{
+			@Override
+			public int compare(Long o1, Long o2)
+			{
+				return comparator.compare(o1, o2);
+			}
+		});
+		long[] result = new long[a.length];
+		for(int i = 0; i < a.length; i++)
+		{
+			result[i] = boxed[i];
+		}
+		return result;
+	}
+
+	@Test
+	public void testComparatorSortIsStable()
+	{
+		Random random = new Random(22);
+		for(int pattern = 0; pattern < PATTERNS; pattern++)
+		{
+			for(int size : SIZES)
+			{
+				int[] a = pattern(pattern, size, random);
+				int[] copy = a.clone();
+				Sorting.sort(copy, 0, size, BY_HIGH_BITS);
+				Assert.assertEquals(copy, stableSort(a, BY_HIGH_BITS), "pattern " + pattern + ", size " + size);
+
+				copy = a.clone();
+				Sorting.sort(copy, 0, size, DESCENDING);
+				Assert.assertEquals(copy, stableSort(a, DESCENDING), "pattern " + pattern + ", size " + size);
+
+				long[] b = toLong(a);
+				long[] longCopy = b.clone();
+				Sorting.sort(longCopy, 0, size, LONG_BY_HIGH_BITS);
+				Assert.assertEquals(longCopy, stableSort(b, LONG_BY_HIGH_BITS), "pattern " + pattern + ", size " + size);
+			}
+		}
+	}
+
+	@Test
+	public void testComparatorSortOfRange()
+	{
+		Random random = new Random(23);
+		int[] a = pattern(0, 3000, random);
+		int[] copy = a.clone();
+		Sorting.sort(copy, 1000, 2000, BY_HIGH_BITS);
+
+		int[] expected = a.clone();
+		System.arraycopy(stableSort(Arrays.copyOfRange(a, 1000, 2000), BY_HIGH_BITS), 0, expected, 1000, 1000);
+		Assert.assertEquals(copy, expected);
+
+		// a null comparator is the natural order
+		copy = a.clone();
+		Sorting.sort(copy, 10, 2990, null);
+		expected = a.clone();
+		Arrays.sort(expected, 10, 2990);
+		Assert.assertEquals(copy, expected);
+
+		long[] b = toLong(a);
+		long[] longCopy = b.clone();
+		Sorting.sort(longCopy, 10, 2990, null);
+		long[] longExpected = b.clone();
+		Arrays.sort(longExpected, 10, 2990);
+		Assert.assertEquals(longCopy, longExpected);
+	}
+
+	@Test
+	public void testRangeCheck()
+	{
+		int[] a = new int[10];
+		try
+		{
+			Sorting.sort(a, 6, 5, BY_HIGH_BITS);
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+			// ok
+		}
+		try
+		{
+			Sorting.sort(a, -1, 5, BY_HIGH_BITS);
+			Assert.fail();
+		}
+		catch(ArrayIndexOutOfBoundsException e)
+		{
+			// ok
+		}
+		try
+		{
+			Sorting.parallelSort(new long[10], 0, 11);
+			Assert.fail();
+		}
+		catch(ArrayIndexOutOfBoundsException e)
+		{
+			// ok
+		}
+		try
+		{
+			Sorting.binarySearch(a, 0, 11, 0, null);
+			Assert.fail();
+		}
+		catch(ArrayIndexOutOfBoundsException e)
+		{
+			// ok
+		}
+	}
+
+	@Test(timeOut = 60000)
+	public void testParallelSort() throws Exception
+	{
+		final Random random = new Random(24);
+		final int[] sizes = {Sorting.PARALLEL_THRESHOLD, Sorting.PARALLEL_THRESHOLD + 1, 5 * Sorting.PARALLEL_THRESHOLD + 3, 300000};
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try
+		{
+			// in a pool, the sort uses that pool, whatever count of processors the machine has
+			final ForkJoinPool caller = pool;
+			pool.submit(new Callable<Void>()
+			{
+				@Override
+				public Void call() throws Exception
+				{
+					Assert.assertSame(Pools.current(), caller);
+					for(int pattern = 0; pattern < PATTERNS; pattern++)
+					{
+						for(int size : sizes)
+						{
+							int[] a = pattern(pattern, size + 20, random);
+							int[] copy = a.clone();
+							Sorting.parallelSort(copy, 10, size + 10);
+							int[] expected = a.clone();
+							Arrays.sort(expected, 10, size + 10);
+							Assert.assertEquals(copy, expected, "pattern " + pattern + ", size " + size);
+
+							long[] b = toLong(a);
+							for(int i = 0; i < b.length; i++)
+							{
+								// negative values too
+								b[i] = random.nextBoolean() ? b[i] : -b[i];
+							}
+							long[] longCopy = b.clone();
+							Sorting.parallelSort(longCopy, 10, size + 10);
+							long[] longExpected = b.clone();
+							Arrays.sort(longExpected, 10, size + 10);
+							Assert.assertEquals(longCopy, longExpected, "pattern " + pattern + ", size " + size);
+						}
+					}
+					return null;
+				}
+			}).get();
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+
+		// outside a pool, on the pool shared by the library
+		Assert.assertSame(Pools.current(), Pools.current());
+		Assert.assertNotSame(Pools.current(), pool);
+		int[] a = pattern(0, 100000, random);
+		int[] expected = a.clone();
+		Arrays.sort(expected);
+		Sorting.parallelSort(a, 0, a.length);
+		Assert.assertEquals(a, expected);
+	}
+
+	@Test
+	public void testBinarySearch()
+	{
+		int[] a = {-10, -3, 0, 0, 4, 9, 100};
+		for(int key = -12; key <= 102; key++)
+		{
+			int index = Sorting.binarySearch(a, 0, a.length, key, null);
+			int expected = Arrays.binarySearch(a, 0, a.length, key);
+			if(expected >= 0)
+			{
+				Assert.assertEquals(a[index], key);
+			}
+			else
+			{
+				Assert.assertEquals(index, expected, String.valueOf(key));
+			}
+		}
+
+		// descending, by the comparator
+		int[] d = {100, 9, 4, 0, -3, -10};
+		Assert.assertEquals(Sorting.binarySearch(d, 0, d.length, 4, DESCENDING), 2);
+		Assert.assertEquals(Sorting.binarySearch(d, 0, d.length, 101, DESCENDING), -1);
+		Assert.assertEquals(Sorting.binarySearch(d, 0, d.length, 5, DESCENDING), -3);
+		Assert.assertEquals(Sorting.binarySearch(d, 0, d.length, -11, DESCENDING), -7);
+		// the insertion point is relative to the array, not to the range
+		Assert.assertEquals(Sorting.binarySearch(d, 2, 5, 50, DESCENDING), -3);
+		Assert.assertEquals(Sorting.binarySearch(d, 2, 2, 50, DESCENDING), -3);
+
+		long[] b = {Long.MIN_VALUE, -1, 1L << 40, Long.MAX_VALUE};
+		Assert.assertEquals(Sorting.binarySearch(b, 0, b.length, 1L << 40, null), 2);
+		Assert.assertEquals(Sorting.binarySearch(b, 0, b.length, 0, null), -3);
+		Assert.assertEquals(Sorting.binarySearch(b, 0, b.length, Long.MAX_VALUE, null), 3);
+		Assert.assertEquals(Sorting.binarySearch(b, 0, b.length, 5L << 32, LONG_BY_HIGH_BITS), -3);
+	}
+
+	@Test
+	public void testArrayIntList()
+	{
+		Random random = new Random(25);
+		int[] a = pattern(0, 2000, random);
+		ArrayIntList list = new ArrayIntList();
+		for(int e : a)
+		{
+			list.add(e);
+		}
+		// a spare capacity must stay out of the sort
+		list.ensureCapacity(5000);
+
+		list.sort(BY_HIGH_BITS);
+		Assert.assertEquals(list.toArray(), stableSort(a, BY_HIGH_BITS));
+
+		list.sort(DESCENDING);
+		int[] expected = a.clone();
+		Arrays.sort(expected);
+		for(int i = 0; i < expected.length; i++)
+		{
+			Assert.assertEquals(list.get(i), expected[expected.length - 1 - i]);
+			Assert.assertEquals(list.binarySearch(expected[i], DESCENDING), expected.length - 1 - i);
+		}
+
+		list.sort();
+		Assert.assertEquals(list.toArray(), expected);
+		list.sort(DESCENDING);
+		list.parallelSort();
+		Assert.assertEquals(list.toArray(), expected);
+		for(int i = 0; i < expected.length; i++)
+		{
+			Assert.assertEquals(list.binarySearch(expected[i]), i);
+		}
+		Assert.assertEquals(list.binarySearch(Integer.MIN_VALUE), expected[0] == Integer.MIN_VALUE ? 0 : -1);
+		Assert.assertEquals(list.size(), a.length);
+
+		ArrayIntList empty = new ArrayIntList();
+		empty.sort();
+		empty.sort(BY_HIGH_BITS);
+		empty.parallelSort();
+		Assert.assertEquals(empty.binarySearch(5), -1);
+	}
+
+	@Test
+	public void testArrayLongList()
+	{
+		Random random = new Random(26);
+		long[] a = toLong(pattern(5, 3000, random));
+		ArrayLongList list = new ArrayLongList();
+		for(long e : a)
+		{
+			list.add(e);
+		}
+		list.ensureCapacity(10000);
+
+		list.sort(LONG_BY_HIGH_BITS);
+		Assert.assertEquals(list.toArray(), stableSort(a, LONG_BY_HIGH_BITS));
+
+		long[] expected = a.clone();
+		Arrays.sort(expected);
+		list.parallelSort();
+		Assert.assertEquals(list.toArray(), expected);
+		list.sort();
+		Assert.assertEquals(list.toArray(), expected);
+		for(int i = 0; i < expected.length; i++)
+		{
+			Assert.assertEquals(list.binarySearch(expected[i]), i);
+		}
+		// high bits 0..3 only
+		Assert.assertEquals(list.binarySearch(4L << 32, LONG_BY_HIGH_BITS), -a.length - 1);
+		Assert.assertEquals(list.binarySearch(-1L, LONG_BY_HIGH_BITS), -1);
+	}
+	/**
+	 * Random keys of several widths: all bytes, only the low byte, only the high byte, with many equal keys,
+	 * and the extreme values, so that passes are skipped and the sign byte is used.
+	 */
+	private static long[] radixKeys(int kind, int size, Random random)
+	{
+		long[] a = new long[size];
+		for(int i = 0; i < size; i++)
+		{
+			switch(kind)
+			{
+				case 0:
+					a[i] = random.nextLong();
+					break;
+				case 1:
+					a[i] = random.nextInt(256);
+					break;
+				case 2:
+					a[i] = (long) (random.nextInt(256) - 128) << 56;
+					break;
+				case 3:
+					a[i] = random.nextInt(10) - 5;
+					break;
+				case 4:
+					a[i] = 42;
+					break;
+				default:
+					int r = random.nextInt(4);
+					a[i] = r == 0 ? Long.MIN_VALUE : r == 1 ? Long.MAX_VALUE : r == 2 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+					break;
+			}
+		}
+		return a;
+	}
+
+	private static int[] toInt(long[] a)
+	{
+		int[] result = new int[a.length];
+		for(int i = 0; i < a.length; i++)
+		{
+			// the high bits of the long go to the high bits of the int
+			result[i] = (int) (a[i] >> 32) ^ (int) a[i];
+		}
+		return result;
+	}
+
+	@Test
+	public void testRadixSort()
+	{
+		Random random = new Random(27);
+		for(int kind = 0; kind < RADIX_KINDS; kind++)
+		{
+			for(int size : RADIX_SIZES)
+			{
+				long[] b = radixKeys(kind, size + 20, random);
+				long[] longCopy = b.clone();
+				Sorting.radixSort(longCopy, 10, size + 10);
+				long[] longExpected = b.clone();
+				Arrays.sort(longExpected, 10, size + 10);
+				Assert.assertEquals(longCopy, longExpected, "kind " + kind + ", size " + size);
+
+				int[] a = toInt(b);
+				int[] copy = a.clone();
+				Sorting.radixSort(copy, 10, size + 10);
+				int[] expected = a.clone();
+				Arrays.sort(expected, 10, size + 10);
+				Assert.assertEquals(copy, expected, "kind " + kind + ", size " + size);
+			}
+		}
+	}
+
+	@Test(timeOut = 60000)
+	public void testParallelRadixSort() throws Exception
+	{
+		final Random random = new Random(28);
+		final int[] sizes = {Sorting.PARALLEL_THRESHOLD, Sorting.PARALLEL_THRESHOLD + 1, 7 * Sorting.PARALLEL_THRESHOLD + 5, 300000};
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try
+		{
+			pool.submit(new Callable<Void>()
+			{
+				@Override
+				public Void call() throws Exception
+				{
+					for(int kind = 0; kind < RADIX_KINDS; kind++)
+					{
+						for(int size : sizes)
+						{
+							long[] b = radixKeys(kind, size + 20, random);
+							long[] longCopy = b.clone();
+							Sorting.parallelRadixSort(longCopy, 10, size + 10);
+							long[] longExpected = b.clone();
+							Arrays.sort(longExpected, 10, size + 10);
+							Assert.assertEquals(longCopy, longExpected, "kind " + kind + ", size " + size);
+
+							int[] a = toInt(b);
+							int[] copy = a.clone();
+							Sorting.parallelRadixSort(copy, 10, size + 10);
+							int[] expected = a.clone();
+							Arrays.sort(expected, 10, size + 10);
+							Assert.assertEquals(copy, expected, "kind " + kind + ", size " + size);
+						}
+					}
+					return null;
+				}
+			}).get();
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * The values are the original indices of the keys, so each value must point to its key, and the values
+	 * of equal keys must stay ascending.
+	 */
+	private static void verifyLockStep(long[] keys, long[] sorted, long[] values, int fromIndex, int toIndex)
+	{
+		long[] expected = keys.clone();
+		Arrays.sort(expected, fromIndex, toIndex);
+		Assert.assertEquals(sorted, expected);
+		for(int i = 0; i < keys.length; i++)
+		{
+			Assert.assertEquals(keys[(int) values[i]], sorted[i], String.valueOf(i));
+			if(i > fromIndex && i < toIndex && sorted[i - 1] == sorted[i])
+			{
+				Assert.assertTrue(values[i - 1] < values[i], String.valueOf(i));
+			}
+		}
+	}
+
+	@Test
+	public void testRadixSortWithValues()
+	{
+		Random random = new Random(29);
+		for(int kind = 0; kind < RADIX_KINDS; kind++)
+		{
+			for(int size : RADIX_SIZES)
+			{
+				long[] b = radixKeys(kind, size + 20, random);
+				int[] a = toInt(b);
+
+				long[] longKeys = b.clone();
+				long[] longValues = new long[b.length];
+				int[] intValues = new int[b.length];
+				for(int i = 0; i < b.length; i++)
+				{
+					longValues[i] = i;
+					intValues[i] = i;
+				}
+				Sorting.radixSort(longKeys, longValues, 10, size + 10);
+				verifyLockStep(b, longKeys, longValues, 10, size + 10);
+
+				longKeys = b.clone();
+				Sorting.radixSort(longKeys, intValues, 10, size + 10);
+				verifyLockStep(b, longKeys, toLongValues(intValues), 10, size + 10);
+
+				long[] widened = new long[a.length];
+				for(int i = 0; i < a.length; i++)
+				{
+					widened[i] = a[i];
+					longValues[i] = i;
+					intValues[i] = i;
+				}
+				int[] intKeys = a.clone();
+				Sorting.radixSort(intKeys, intValues, 10, size + 10);
+				verifyLockStep(widened, toLongValues(intKeys), toLongValues(intValues), 10, size + 10);
+
+				intKeys = a.clone();
+				Sorting.radixSort(intKeys, longValues, 10, size + 10);
+				verifyLockStep(widened, toLongValues(intKeys), longValues, 10, size + 10);
+			}
+		}
+
+		try
+		{
+			Sorting.radixSort(new int[10], new long[9], 0, 10);
+			Assert.fail();
+		}
+		catch(ArrayIndexOutOfBoundsException e)
+		{
+			// ok
+		}
+	}
+
+	private static long[] toLongValues(int[] a)
+	{
+		long[] result = new long[a.length];
+		for(int i = 0; i < a.length; i++)
+		{
+			result[i] = a[i];
+		}
+		return result;
+	}
+
+	@Test
+	public void testListRadixSort()
+	{
+		Random random = new Random(30);
+		long[] b = radixKeys(3, 5000, random);
+		ArrayLongList keys = new ArrayLongList();
+		ArrayIntList values = new ArrayIntList();
+		ArrayLongList longValues = new ArrayLongList();
+		for(int i = 0; i < b.length; i++)
+		{
+			keys.add(b[i]);
+			values.add(i);
+			longValues.add(i);
+		}
+		keys.ensureCapacity(20000);
+		values.ensureCapacity(20000);
+
+		ArrayLongList copy = new ArrayLongList(keys);
+		copy.radixSort(longValues);
+		keys.radixSort(values);
+		Assert.assertEquals(keys.toArray(), copy.toArray());
+		verifyLockStep(b, keys.toArray(), toLongValues(values.toArray()), 0, b.length);
+		verifyLockStep(b, copy.toArray(), longValues.toArray(), 0, b.length);
+
+		ArrayIntList intKeys = new ArrayIntList();
+		for(int e : toInt(radixKeys(0, 3000, random)))
+		{
+			intKeys.add(e);
+		}
+		int[] expected = intKeys.toArray();
+		Arrays.sort(expected);
+		ArrayIntList intCopy = new ArrayIntList(intKeys);
+		intKeys.radixSort();
+		Assert.assertEquals(intKeys.toArray(), expected);
+		intCopy.parallelRadixSort();
+		Assert.assertEquals(intCopy.toArray(), expected);
+
+		values.add(1);
+		try
+		{
+			keys.radixSort(values);
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+			// ok
+		}
+
+		// a list can not be the values of itself, nor an array of its own keys
+		long[] unsorted = copy.toArray();
+		copy.set(0, Long.MAX_VALUE);
+		unsorted[0] = Long.MAX_VALUE;
+		try
+		{
+			copy.radixSort(copy);
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+			// ok
+		}
+		Assert.assertEquals(copy.toArray(), unsorted);
+		int[] intUnsorted = intCopy.toArray();
+		try
+		{
+			intCopy.radixSort(intCopy);
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+			// ok
+		}
+		Assert.assertEquals(intCopy.toArray(), intUnsorted);
+		try
+		{
+			Sorting.radixSort(intUnsorted, intUnsorted, 0, intUnsorted.length);
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+			// ok
+		}
+		try
+		{
+			Sorting.radixSort(unsorted, unsorted, 0, unsorted.length);
+			Assert.fail();
+		}
+		catch(IllegalArgumentException e)
+		{
+			// ok
+		}
+	}
+}
@@ -0,0 +1,297 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+
+package org.napile.primitive.tests;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.napile.primitive.collections.IntCollection;
+import org.napile.primitive.collections.LongCollection;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.LongProcedure;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.IntSpliterator;
+import org.napile.primitive.iterators.LongIterator;
+import org.napile.primitive.iterators.LongSpliterator;
+import org.napile.primitive.lists.impl.ArrayIntList;
+import org.napile.primitive.lists.impl.ArrayLongList;
+import org.napile.primitive.lists.impl.CArrayIntList;
+import org.napile.primitive.lists.impl.CArrayLongList;
+import org.napile.primitive.maps.impl.BTreeIntObjectMap;
+import org.napile.primitive.maps.impl.CHashIntObjectMapV8;
+import org.napile.primitive.maps.impl.TreeIntObjectMap;
+import org.napile.primitive.sets.impl.BitIntSet;
+import org.napile.primitive.sets.impl.CBitIntSet;
+import org.napile.primitive.sets.impl.CTreeIntSet;
+import org.napile.primitive.sets.impl.CTreeLongSet;
+import org.napile.primitive.sets.impl.HashIntSet;
+import org.napile.primitive.sets.impl.HashLongSet;
+import org.napile.primitive.sets.impl.RoaringIntSet;
+import org.napile.primitive.sets.impl.TreeIntSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Splits spliterators of every collection down to single elements and checks that the parts together
+ * visit every element exactly once, in the iteration order when the spliterator is <tt>ORDERED</tt>.
+ *
+ * @author VISTALL
+ * @date 21:05/18.10.2026
+ */
+public class SpliteratorTest
+{
+	private static final int SIZE = 5000;
+
+	private static int[] elements(IntCollection c)
+	{
+		ArrayIntList list = new ArrayIntList(c.size());
+		for(IntIterator iterator = c.iterator(); iterator.hasNext();)
+		{
+			list.add(iterator.next());
+		}
+		return list.toArray();
+	}
+
+	private static long[] elements(LongCollection c)
+	{
+		ArrayLongList list = new ArrayLongList(c.size());
+		for(LongIterator iterator = c.iterator(); iterator.hasNext();)
+		{
+			list.add(iterator.next());
+		}
+		return list.toArray();
+	}
+
+	/**
+	 * Splits the spliterator until it can not be split any more, collects the parts in the order
+	 * prefix first, and checks the estimates of sized parts.
+	 */
+	private static void split(IntSpliterator spliterator, final ArrayIntList out)
+	{
+		long estimate = spliterator.estimateSize();
+		IntSpliterator prefix = spliterator.trySplit();
+		if(prefix == null)
+		{
+			spliterator.forEachRemaining(new IntProcedure()
+			{
+				@Override
+				public boolean execute(int value)
+				{
+					out.add(value);
+					return true;
+				}
+			});
+			return;
+		}
+
+		if((spliterator.characteristics() & IntSpliterator.SUBSIZED) != 0)
+		{
+			Assert.assertEquals(prefix.estimateSize() + spliterator.estimateSize(), estimate);
+		}
+		split(prefix, out);
+		split(spliterator, out);
+	}
+
+	private static void split(LongSpliterator spliterator, final ArrayLongList out)
+	{
+		long estimate = spliterator.estimateSize();
+		LongSpliterator prefix = spliterator.trySplit();
+		if(prefix == null)
+		{
+			spliterator.forEachRemaining(new LongProcedure()
+			{
+				@Override
+				public boolean execute(long value)
+				{
+					out.add(value);
+					return true;
+				}
+			});
+			return;
+		}
+
+		if((spliterator.characteristics() & LongSpliterator.SUBSIZED) != 0)
+		{
+			Assert.assertEquals(prefix.estimateSize() + spliterator.estimateSize(), estimate);
+		}
+		split(prefix, out);
+		split(spliterator, out);
+	}
+
+	private static void check(IntCollection c)
+	{
+		int[] expected = elements(c);
+		Assert.assertEquals(expected.length, c.size());
+
+		IntSpliterator spliterator = c.spliterator();
+		if((spliterator.characteristics() & IntSpliterator.SIZED) != 0)
+		{
+			Assert.assertEquals(spliterator.estimateSize(), c.size());
+		}
+
+		// a few elements are consumed before the first split
+		final ArrayIntList out = new ArrayIntList();
+		for(int i = 0; i < 3; i++)
+		{
+			Assert.assertTrue(spliterator.tryAdvance(new IntProcedure()
+			{
+				@Override
+				public boolean execute(int value)
+				{
+					out.add(value);
+					return true;
+				}
+			}));
+		}
+		split(spliterator, out);
+
+		int[] actual = out.toArray();
+		if((spliterator.characteristics() & IntSpliterator.ORDERED) != 0)
+		{
+			Assert.assertEquals(actual, expected, c.getClass().getName());
+		}
+		Arrays.sort(actual);
+		Arrays.sort(expected);
+		Assert.assertEquals(actual, expected, c.getClass().getName());
+	}
+
+	private static void check(LongCollection c)
+	{
+		long[] expected = elements(c);
+		Assert.assertEquals(expected.length, c.size());
+
+		LongSpliterator spliterator = c.spliterator();
+		if((spliterator.characteristics() & LongSpliterator.SIZED) != 0)
+		{
+			Assert.assertEquals(spliterator.estimateSize(), c.size());
+		}
+
+		final ArrayLongList out = new ArrayLongList();
+		for(int i = 0; i < 3; i++)
+		{
+			Assert.assertTrue(spliterator.tryAdvance(new LongProcedure()
+			{
+				@Override
+				public boolean execute(long value)
+				{
+					out.add(value);
+					return true;
+				}
+			}));
+		}
+		split(spliterator, out);
+
+		long[] actual = out.toArray();
+		if((spliterator.characteristics() & LongSpliterator.ORDERED) != 0)
+		{
+			Assert.assertEquals(actual, expected, c.getClass().getName());
+		}
+		Arrays.sort(actual);
+		Arrays.sort(expected);
+		Assert.assertEquals(actual, expected, c.getClass().getName());
+	}
+
+	private static <C extends IntCollection> C fill(C c, boolean negative)
+	{
+		Random random = new Random(c.getClass().getName().hashCode());
+		while(c.size() < SIZE)
+		{
+			int value = random.nextInt(SIZE * 10);
+			c.add(negative && random.nextBoolean() ? -value : value);
+		}
+		return c;
+	}
+
+	private static <C extends LongCollection> C fill(C c)
+	{
+		Random random = new Random(c.getClass().getName().hashCode());
+		while(c.size() < SIZE)
+		{
+			c.add(random.nextLong() >> random.nextInt(64));
+		}
+		return c;
+	}
+
+	@Test
+	public void testIntLists() throws Exception
+	{
+		check(fill(new ArrayIntList(), true));
+		check(fill(new CArrayIntList(), true));
+		check(fill(new ArrayIntList(), true).subList(100, 4000));
+	}
+
+	@Test
+	public void testIntSets() throws Exception
+	{
+		check(fill(new HashIntSet(), true));
+		check(fill(new TreeIntSet(), true));
+		check(fill(new CTreeIntSet(), true));
+		check(fill(new RoaringIntSet(), true));
+		check(fill(new BitIntSet(), false));
+		check(fill(new CBitIntSet(), false));
+		check(fill(new TreeIntSet(), true).subSet(-1000, true, 30000, false));
+		check(fill(new RoaringIntSet(), true).descendingSet());
+	}
+
+	@Test
+	public void testIntMapKeys() throws Exception
+	{
+		TreeIntObjectMap<String> tree = new TreeIntObjectMap<String>();
+		BTreeIntObjectMap<String> bTree = new BTreeIntObjectMap<String>();
+		CHashIntObjectMapV8<String> hash = new CHashIntObjectMapV8<String>();
+		for(int key : elements(fill(new HashIntSet(), true)))
+		{
+			tree.put(key, "v");
+			bTree.put(key, "v");
+			hash.put(key, "v");
+		}
+		check(tree.keySet());
+		check(tree.subMap(-20000, true, 20000, true).keySet());
+		check(bTree.keySet());
+		check(bTree.descendingKeySet());
+		check(hash.keySet());
+	}
+
+	@Test
+	public void testLongCollections() throws Exception
+	{
+		check(fill(new ArrayLongList()));
+		check(fill(new CArrayLongList()));
+		check(fill(new HashLongSet()));
+		check(fill(new CTreeLongSet()));
+	}
+
+	@Test
+	public void testSplitEmptyAndSingle() throws Exception
+	{
+		IntCollection[] collections = {new ArrayIntList(), new HashIntSet(), new TreeIntSet(), new RoaringIntSet(), new CBitIntSet()};
+		for(IntCollection c : collections)
+		{
+			ArrayIntList out = new ArrayIntList();
+			split(c.spliterator(), out);
+			Assert.assertEquals(out.size(), 0, c.getClass().getName());
+
+			c.add(42);
+			split(c.spliterator(), out);
+			Assert.assertEquals(out.toArray(), new int[]{42}, c.getClass().getName());
+		}
+	}
+}
@@ -0,0 +1,282 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package org.napile.primitive.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.napile.pair.primitive.IntObjectPair;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.maps.IndexedNavigableIntObjectMap;
+import org.napile.primitive.maps.NavigableIntObjectMap;
+import org.napile.primitive.maps.impl.BTreeIntObjectMap;
+import org.napile.primitive.maps.impl.TreeIntObjectMap;
+import org.napile.primitive.sets.NavigableIntSet;
+import org.napile.primitive.sets.impl.TreeIntSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author VISTALL
+ * @date 16:20/18.10.2026
+ */
+public class TreeIntObjectMapTest
+{
+	private static NavigableIntObjectMap<String> newMap(int from, int to)
+	{
+		NavigableIntObjectMap<String> map = new TreeIntObjectMap<String>();
+		for(int i = from; i <= to; i++)
+		{
+			map.put(i, String.valueOf(i));
+		}
+		return map;
+	}
+
+	private static int[] range(int from, int to)
+	{
+		int step = from <= to ? 1 : -1;
+		int[] a = new int[Math.abs(to - from) + 1];
+		for(int i = 0; i < a.length; i++)
+		{
+			a[i] = from + i * step;
+		}
+		return a;
+	}
+
+	private static int[] keys(IntIterator iterator)
+	{
+		int[] a = new int[0];
+		while(iterator.hasNext())
+		{
+			a = Arrays.copyOf(a, a.length + 1);
+			a[a.length - 1] = iterator.next();
+		}
+		return a;
+	}
+
+	@Test
+	public void testUnboundedSubMapIteratesPastZero() throws Exception
+	{
+		NavigableIntObjectMap<String> map = newMap(-5, 5);
+
+		Assert.assertEquals(keys(map.tailMap(-3, true).keySet().iterator()), range(-3, 5));
+		Assert.assertEquals(keys(map.subMap(-3, true, 100, true).keySet().iterator()), range(-3, 5));
+		Assert.assertEquals(keys(map.headMap(3, true).descendingMap().keySet().iterator()), range(3, -5));
+		Assert.assertEquals(keys(map.subMap(-100, true, 3, true).descendingKeySet().iterator()), range(3, -5));
+
+		Assert.assertEquals(map.tailMap(-3, true).values().size(), 9);
+		int count = 0;
+		for(IntObjectPair<String> entry : map.tailMap(-3, true).entrySet())
+		{
+			Assert.assertEquals(entry.getValue(), String.valueOf(entry.getKey()));
+			count++;
+		}
+		Assert.assertEquals(count, 9);
+	}
+
+	@Test
+	public void testBoundedSubMapStopsAtFence() throws Exception
+	{
+		NavigableIntObjectMap<String> map = newMap(-5, 5);
+
+		Assert.assertEquals(keys(map.subMap(-3, true, 0, false).keySet().iterator()), range(-3, -1));
+		Assert.assertEquals(keys(map.subMap(0, true, 2, true).keySet().iterator()), range(0, 2));
+		Assert.assertEquals(keys(map.subMap(-2, false, 2, false).descendingKeySet().iterator()), range(1, -1));
+	}
+
+	/**
+	 * Checks rank, select and size of the map (or its view) against the keys of the reference map,
+	 * which has the same order.
+	 */
+	private static void verifyOrderStatistics(NavigableIntObjectMap<String> view, NavigableMap<Integer, String> check)
+	{
+		Assert.assertTrue(view instanceof IndexedNavigableIntObjectMap);
+		IndexedNavigableIntObjectMap<String> map = (IndexedNavigableIntObjectMap<String>) view;
+		List<Integer> keys = new ArrayList<Integer>(check.keySet());
+		Assert.assertEquals(map.size(), keys.size());
+
+		for(int i = 0; i < keys.size(); i++)
+		{
+			int key = keys.get(i);
+			Assert.assertEquals(map.select(i), key);
+			Assert.assertEquals(map.selectEntry(i).getKey(), key);
+			Assert.assertEquals(map.selectEntry(i).getValue(), check.get(key));
+			Assert.assertEquals(map.rank(key), i);
+		}
+
+		// absent keys rank at their insertion point, keys outside of the view at its ends
+		for(int probe = -1200; probe <= 1200; probe += 7)
+		{
+			int expected = 0;
+			for(int key : keys)
+			{
+				if(check.comparator() == null ? key < probe : check.comparator().compare(key, probe) < 0)
+				{
+					expected++;
+				}
+			}
+			Assert.assertEquals(map.rank(probe), expected, "rank(" + probe + ")");
+		}
+
+		try
+		{
+			map.select(-1);
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+		}
+		try
+		{
+			map.select(keys.size());
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+		}
+	}
+
+	@Test
+	public void testRankAndSelect() throws Exception
+	{
+		TreeIntObjectMap<String> map = new TreeIntObjectMap<String>();
+		NavigableMap<Integer, String> check = new TreeMap<Integer, String>();
+		Random random = new Random(5);
+		for(int i = 0; i < 600; i++)
+		{
+			int key = random.nextInt(2000) - 1000;
+			map.put(key, String.valueOf(key));
+			check.put(key, String.valueOf(key));
+		}
+		for(int i = 0; i < 100; i++)
+		{
+			int key = random.nextInt(2000) - 1000;
+			map.remove(key);
+			check.remove(key);
+		}
+
+		verifyOrderStatistics(map, check);
+		verifyOrderStatistics(map.descendingMap(), check.descendingMap());
+
+		int[][] bounds = {{-500, 500}, {-1000, -999}, {3, 3}, {-2000, 2000}, {999, 1000}};
+		for(int[] bound : bounds)
+		{
+			for(int inclusive = 0; inclusive < 4; inclusive++)
+			{
+				boolean fromInclusive = (inclusive & 1) != 0;
+				boolean toInclusive = (inclusive & 2) != 0;
+				NavigableIntObjectMap<String> subMap = map.subMap(bound[0], fromInclusive, bound[1], toInclusive);
+				NavigableMap<Integer, String> subCheck = check.subMap(bound[0], fromInclusive, bound[1], toInclusive);
+				verifyOrderStatistics(subMap, subCheck);
+				verifyOrderStatistics(subMap.descendingMap(), subCheck.descendingMap());
+				if(bound[1] - bound[0] > 2)
+				{
+					int middle = (bound[0] + bound[1]) / 2;
+					verifyOrderStatistics(subMap.descendingMap().headMap(middle, true), subCheck.descendingMap().headMap(middle, true));
+				}
+			}
+			verifyOrderStatistics(map.headMap(bound[0], true), check.headMap(bound[0], true));
+			verifyOrderStatistics(map.tailMap(bound[1], false), check.tailMap(bound[1], false));
+			verifyOrderStatistics(map.descendingMap().tailMap(bound[0], true), check.descendingMap().tailMap(bound[0], true));
+		}
+
+		// views follow changes of the map
+		NavigableIntObjectMap<String> view = map.subMap(-100, true, 100, true);
+		NavigableMap<Integer, String> viewCheck = check.subMap(-100, true, 100, true);
+		for(int key = -150; key <= 150; key += 3)
+		{
+			map.put(key, String.valueOf(key));
+			check.put(key, String.valueOf(key));
+		}
+		verifyOrderStatistics(view, viewCheck);
+		map.clear();
+		check.clear();
+		verifyOrderStatistics(view, viewCheck);
+		verifyOrderStatistics(map, check);
+	}
+
+	@Test
+	public void testTreeSetRankAndSelect() throws Exception
+	{
+		TreeIntSet set = new TreeIntSet();
+		List<Integer> keys = new ArrayList<Integer>();
+		for(int i = -50; i < 50; i++)
+		{
+			set.add(i * 5);
+			keys.add(i * 5);
+		}
+
+		for(int i = 0; i < keys.size(); i++)
+		{
+			Assert.assertEquals(set.select(i), keys.get(i).intValue());
+			Assert.assertEquals(set.rank(keys.get(i)), i);
+			Assert.assertEquals(set.rank(keys.get(i) + 1), i + 1);
+		}
+
+		TreeIntSet subSet = (TreeIntSet) set.subSet(-20, true, 20, false);
+		Assert.assertEquals(subSet.size(), 8);
+		Assert.assertEquals(subSet.select(0), -20);
+		Assert.assertEquals(subSet.select(7), 15);
+		Assert.assertEquals(subSet.rank(-1000), 0);
+		Assert.assertEquals(subSet.rank(0), 4);
+		Assert.assertEquals(subSet.rank(1000), 8);
+
+		NavigableIntSet descending = set.descendingSet();
+		Collections.reverse(keys);
+		for(int i = 0; i < keys.size(); i++)
+		{
+			Assert.assertEquals(((TreeIntSet) descending).select(i), keys.get(i).intValue());
+			Assert.assertEquals(((TreeIntSet) descending).rank(keys.get(i)), i);
+		}
+		try
+		{
+			((TreeIntSet) descending).select(keys.size());
+			Assert.fail();
+		}
+		catch(IndexOutOfBoundsException e)
+		{
+		}
+
+		// a set over a map without order statistics
+		TreeIntSet other = new TreeIntSet(new BTreeIntObjectMap<Object>());
+		other.add(1);
+		try
+		{
+			other.rank(1);
+			Assert.fail();
+		}
+		catch(UnsupportedOperationException e)
+		{
+		}
+		try
+		{
+			other.select(0);
+			Assert.fail();
+		}
+		catch(UnsupportedOperationException e)
+		{
+		}
+	}
+}
@@ -39,4 +39,63 @@ public class HashUtils
 	{
 		return val == null ? 0 : val.hashCode();
 	}
+
+	/**
+	 * Scrambles bits of int value, used by open addressing tables.
+	 * Sequential keys are spread over the whole table, so linear probing does
+	 * not create long runs
+	 */
+	public static int mix(int val)
+	{
+		final int h = val * INT_PHI;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Scrambles all 64 bits of long value, and return 32 bit hash.
+	 * Unlike {@link #hashCode(long)}, values which differ only in high word
+	 * have different hash codes
+	 */
+	public static int mix(long val)
+	{
+		long h = val * LONG_PHI;
+		h ^= h >>> 32;
+		return (int) (h ^ (h >>> 16));
+	}
+
+	/**
+	 * Return power of two table size, which can hold expected elements
+	 * with load factor
+	 */
+	public static int arraySize(int expected, float loadFactor)
+	{
+		final long s = Math.max(2, nextPowerOfTwo((long) Math.ceil(expected / loadFactor)));
+		if(s > (1 << 30))
+			throw new IllegalArgumentException("Too large (" + expected + " expected elements with load factor " + loadFactor + ")");
+		return (int) s;
+	}
+
+	/**
+	 * Return max count of elements, which table with this size can hold (always less than size - one slot must stay free)
+	 */
+	public static int maxFill(int n, float loadFactor)
+	{
+		return Math.min((int) Math.ceil(n * loadFactor), n - 1);
+	}
+
+	public static long nextPowerOfTwo(long val)
+	{
+		if(val == 0)
+			return 1;
+		val--;
+		val |= val >> 1;
+		val |= val >> 2;
+		val |= val >> 4;
+		val |= val >> 8;
+		val |= val >> 16;
+		return (val | val >> 32) + 1;
+	}
+
+	private static final int INT_PHI = 0x9E3779B9;
+	private static final long LONG_PHI = 0x9E3779B97F4A7C15L;
 }
@@ -39,4 +39,14 @@ public interface Container
 	 * @return true if container if size is equal zero
 	 */
 	boolean isEmpty();
+
+	/**
+	 * Returns an estimate of heap size, retained by this container: the container object and its arrays, entries
+	 * and nodes. Objects stored as values are not counted. Views (like key set of a map) return only size of the view
+	 * object, because the data is retained by backing container.
+	 *
+	 * @return estimated size in bytes
+	 * @see MemoryEstimator
+	 */
+	long estimateMemoryBytes();
 }
@@ -449,6 +449,12 @@ public class Containers
 		{
 			return false;
 		}
+
+		@Override
+		public long estimateMemoryBytes()
+		{
+			return MemoryEstimator.shallowSizeOf(this);
+		}
 	}
 
 	private static class EmptyIntSet extends AbstractIntSet implements Serializable
@@ -0,0 +1,221 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Estimates of heap size of objects, used by {@link Container#estimateMemoryBytes()}.
+ * <p/>
+ * Object layout is computed from field declarations, by HotSpot rules: object header, fields, alignment
+ * to {@link #OBJECT_ALIGNMENT}. Sizes of the header and references are detected for current JVM
+ * (32 or 64 bit, compressed oops or not) from system properties only: the data model is read from
+ * <tt>sun.arch.data.model</tt>, compressed oops are assumed for heaps less than 32 GB unless
+ * {@link #COMPRESSED_OOPS_PROPERTY} or {@link #COMPRESSED_CLASS_POINTERS_PROPERTY} tell otherwise.
+ * Padding between fields is not counted, so the result can be a bit less than real size.
+ *
+ * @author VISTALL
+ * @date 11:40/18.10.2026
+ */
+public class MemoryEstimator
+{
+	/**
+	 * System property, <tt>true</tt> or <tt>false</tt>, overriding the guess whether the JVM uses compressed oops.
+	 */
+	public static final String COMPRESSED_OOPS_PROPERTY = "org.napile.primitive.compressedOops";
+	/**
+	 * System property, <tt>true</tt> or <tt>false</tt>, overriding the guess whether the JVM uses compressed class pointers.
+	 */
+	public static final String COMPRESSED_CLASS_POINTERS_PROPERTY = "org.napile.primitive.compressedClassPointers";
+
+	public static final int OBJECT_ALIGNMENT = 8;
+	public static final int REFERENCE_SIZE;
+	public static final int OBJECT_HEADER_SIZE;
+	public static final int ARRAY_HEADER_SIZE;
+
+	private static final ConcurrentMap<Class<?>, Long> INSTANCE_SIZES = new ConcurrentHashMap<Class<?>, Long>();
+
+	static
+	{
+		String dataModel = getProperty("sun.arch.data.model");
+		boolean is64 = dataModel != null ? dataModel.equals("64") : String.valueOf(getProperty("os.arch")).contains("64");
+		if(is64)
+		{
+			// compressed oops are enabled by default for heaps less than 32 GB
+			boolean compressedOops = getBooleanProperty(COMPRESSED_OOPS_PROPERTY, Runtime.getRuntime().maxMemory() < (32L << 30));
+			boolean compressedClassPointers = getBooleanProperty(COMPRESSED_CLASS_POINTERS_PROPERTY, compressedOops);
+
+			REFERENCE_SIZE = compressedOops ? 4 : 8;
+			OBJECT_HEADER_SIZE = compressedClassPointers ? 12 : 16;
+			ARRAY_HEADER_SIZE = compressedClassPointers ? 16 : 24;
+		}
+		else
+		{
+			REFERENCE_SIZE = 4;
+			OBJECT_HEADER_SIZE = 8;
+			ARRAY_HEADER_SIZE = 12;
+		}
+	}
+
+	private MemoryEstimator()
+	{
+	}
+
+	/**
+	 * Returns size of instance of the class, without objects referenced by it.
+	 *
+	 * @param clazz the class, not an array class
+	 * @return size in bytes
+	 */
+	public static long instanceSize(Class<?> clazz)
+	{
+		Long size = INSTANCE_SIZES.get(clazz);
+		if(size == null)
+		{
+			long fields = 0;
+			for(Class<?> c = clazz; c != null; c = c.getSuperclass())
+				for(Field field : c.getDeclaredFields())
+					if(!Modifier.isStatic(field.getModifiers()))
+						fields += fieldSize(field.getType());
+
+			size = align(OBJECT_HEADER_SIZE + fields);
+			INSTANCE_SIZES.putIfAbsent(clazz, size);
+		}
+		return size;
+	}
+
+	/**
+	 * Returns size of the object, without objects referenced by it. For arrays - size of array with its elements
+	 * (but not of objects referenced by elements).
+	 *
+	 * @param o the object, can be <tt>null</tt>
+	 * @return size in bytes, <tt>0</tt> for <tt>null</tt>
+	 */
+	public static long shallowSizeOf(Object o)
+	{
+		if(o == null)
+			return 0;
+
+		Class<?> clazz = o.getClass();
+		if(clazz.isArray())
+			return arraySize(java.lang.reflect.Array.getLength(o), fieldSize(clazz.getComponentType()));
+		return instanceSize(clazz);
+	}
+
+	public static long sizeOf(int[] a)
+	{
+		return a == null ? 0 : arraySize(a.length, 4);
+	}
+
+	public static long sizeOf(long[] a)
+	{
+		return a == null ? 0 : arraySize(a.length, 8);
+	}
+
+	public static long sizeOf(char[] a)
+	{
+		return a == null ? 0 : arraySize(a.length, 2);
+	}
+
+	public static long sizeOf(byte[] a)
+	{
+		return a == null ? 0 : arraySize(a.length, 1);
+	}
+
+	public static long sizeOf(boolean[] a)
+	{
+		return a == null ? 0 : arraySize(a.length, 1);
+	}
+
+	/**
+	 * Returns size of the array of references, without objects referenced by elements.
+	 *
+	 * @param a the array, can be <tt>null</tt>
+	 * @return size in bytes, <tt>0</tt> for <tt>null</tt>
+	 */
+	public static long sizeOf(Object[] a)
+	{
+		return a == null ? 0 : arraySize(a.length, REFERENCE_SIZE);
+	}
+
+	/**
+	 * Returns size of the lock (or its subclass) with its synchronizer.
+	 *
+	 * @param lock the lock, can be <tt>null</tt>
+	 * @return size in bytes, <tt>0</tt> for <tt>null</tt>
+	 */
+	public static long sizeOf(ReentrantLock lock)
+	{
+		return lock == null ? 0 : shallowSizeOf(lock) + instanceSize(AbstractQueuedSynchronizer.class);
+	}
+
+	/**
+	 * Returns size of array.
+	 *
+	 * @param length	  length of the array
+	 * @param elementSize size of one element in bytes
+	 * @return size in bytes
+	 */
+	public static long arraySize(int length, int elementSize)
+	{
+		return align(ARRAY_HEADER_SIZE + (long) length * elementSize);
+	}
+
+	public static long align(long size)
+	{
+		return (size + OBJECT_ALIGNMENT - 1) & -OBJECT_ALIGNMENT;
+	}
+
+	private static int fieldSize(Class<?> type)
+	{
+		if(type == long.class || type == double.class)
+			return 8;
+		else if(type == int.class || type == float.class)
+			return 4;
+		else if(type == short.class || type == char.class)
+			return 2;
+		else if(type == byte.class || type == boolean.class)
+			return 1;
+		else
+			return REFERENCE_SIZE;
+	}
+
+	private static boolean getBooleanProperty(String name, boolean defaultValue)
+	{
+		String value = getProperty(name);
+		return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+	}
+
+	private static String getProperty(String name)
+	{
+		try
+		{
+			return System.getProperty(name);
+		}
+		catch(SecurityException e)
+		{
+			return null;
+		}
+	}
+}
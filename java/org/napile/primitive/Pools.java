@@ -0,0 +1,56 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The {@link ForkJoinPool} used by the parallel operations of this library:
+ * {@link Sorting#parallelSort(int[], int, int)} and the parallel bulk operations of
+ * {@link org.napile.primitive.maps.impl.CHashIntObjectMap}. Java versions before 8
+ * have no common pool, so the library creates one pool, on first use, and all
+ * operations share it.
+ *
+ * @author VISTALL
+ * @date 00:45/19.10.2026
+ */
+public class Pools
+{
+	/**
+	 * Returns the pool of the current task, if called from inside a {@link ForkJoinPool},
+	 * so that nested operations do not block its workers on another pool, or the shared
+	 * pool of this library otherwise. Workers of the shared pool are daemon threads.
+	 *
+	 * @return the pool for a parallel operation started by the current thread
+	 */
+	public static ForkJoinPool current()
+	{
+		return ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : Shared.POOL;
+	}
+
+	private static final class Shared
+	{
+		static final ForkJoinPool POOL = new ForkJoinPool();
+	}
+
+	private Pools()
+	{
+	}
+}
@@ -0,0 +1,2025 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.napile.primitive.comparators.IntComparator;
+import org.napile.primitive.comparators.LongComparator;
+
+/**
+ * Sorting and searching of ranges of <tt>int</tt> and <tt>long</tt> arrays,
+ * which {@link java.util.Arrays} lacks: sort by a primitive comparator,
+ * without boxing, parallel sort for Java versions before 8, and radix sort,
+ * which takes linear time and can move an array of values with the keys.
+ * The array-backed lists use these methods for their <tt>sort</tt> and
+ * <tt>binarySearch</tt>.
+ *
+ * @author VISTALL
+ * @date 19:20/18.10.2026
+ * @see org.napile.primitive.lists.impl.ArrayIntList#sort(IntComparator)
+ * @see org.napile.primitive.lists.impl.ArrayLongList#sort(LongComparator)
+ */
+public class Sorting
+{
+	/**
+	 * Ranges of at most this size are sorted by {@link #parallelSort(int[], int, int)} in the caller thread.
+	 */
+	public static final int PARALLEL_THRESHOLD = 1 << 13;
+
+	/**
+	 * Shorter ranges are sorted by {@link #radixSort(int[], int, int)} with {@link java.util.Arrays#sort(int[], int, int)}.
+	 */
+	public static final int RADIX_THRESHOLD = 1 << 9;
+
+	/**
+	 * Shorter ranges are sorted by binary insertion, without merges.
+	 */
+	private static final int MIN_MERGE = 32;
+
+	private static final int INITIAL_TMP_LENGTH = 256;
+
+	/**
+	 * Max count of pending runs; the TimSort invariants keep it below 49 for any int length.
+	 */
+	private static final int MAX_RUNS = 49;
+
+	private Sorting()
+	{
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending numerical order.
+	 * A synonym of {@link java.util.Arrays#sort(int[], int, int)}, kept for
+	 * symmetry with the other methods of this class.
+	 *
+	 * @param a         the array to be sorted
+	 * @param fromIndex the index of the first element, inclusive, to be sorted
+	 * @param toIndex   the index of the last element, exclusive, to be sorted
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt> or <tt>toIndex &gt; a.length</tt>
+	 */
+	public static void sort(int[] a, int fromIndex, int toIndex)
+	{
+		Arrays.sort(a, fromIndex, toIndex);
+	}
+
+	/**
+	 * Sorts the specified range of the array according to the order induced
+	 * by the specified comparator. The sort is a TimSort working on the
+	 * primitive values: it is stable, takes linear time on presorted input,
+	 * and needs a buffer of at most half of the range.
+	 *
+	 * @param a          the array to be sorted
+	 * @param fromIndex  the index of the first element, inclusive, to be sorted
+	 * @param toIndex    the index of the last element, exclusive, to be sorted
+	 * @param comparator the comparator to determine the order, <tt>null</tt> for natural ordering
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt> or <tt>toIndex &gt; a.length</tt>
+	 */
+	public static void sort(int[] a, int fromIndex, int toIndex, IntComparator comparator)
+	{
+		if(comparator == null)
+		{
+			Arrays.sort(a, fromIndex, toIndex);
+			return;
+		}
+		rangeCheck(a.length, fromIndex, toIndex);
+		IntTimSort.sort(a, fromIndex, toIndex, comparator);
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending numerical order,
+	 * on {@link Pools#current()}. Ranges up to {@value #PARALLEL_THRESHOLD}
+	 * elements, or with a pool of one thread, are sorted in the caller thread.
+	 * Otherwise the range is split, the parts are sorted in parallel, and
+	 * then merged in parallel through a buffer as large as the range.
+	 *
+	 * @param a         the array to be sorted
+	 * @param fromIndex the index of the first element, inclusive, to be sorted
+	 * @param toIndex   the index of the last element, exclusive, to be sorted
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt> or <tt>toIndex &gt; a.length</tt>
+	 */
+	public static void parallelSort(int[] a, int fromIndex, int toIndex)
+	{
+		rangeCheck(a.length, fromIndex, toIndex);
+		final int n = toIndex - fromIndex;
+		final ForkJoinPool pool = Pools.current();
+		final int parallelism = pool.getParallelism();
+		if(n <= PARALLEL_THRESHOLD || parallelism == 1)
+		{
+			Arrays.sort(a, fromIndex, toIndex);
+			return;
+		}
+		int grain = Math.max(n / (parallelism << 2), PARALLEL_THRESHOLD);
+		pool.invoke(new IntSortTask(a, new int[n], fromIndex, toIndex, fromIndex, grain));
+	}
+
+	/**
+	 * Searches the specified range of the array, sorted according to the
+	 * specified comparator, for the specified value.
+	 *
+	 * @param a          the array to be searched
+	 * @param fromIndex  the index of the first element, inclusive, to be searched
+	 * @param toIndex    the index of the last element, exclusive, to be searched
+	 * @param key        the value to be searched for
+	 * @param comparator the comparator by which the range is ordered, <tt>null</tt> for natural ordering
+	 * @return index of the search key, if it is contained in the range;
+	 *         otherwise, <tt>(-(<i>insertion point</i>) - 1)</tt>
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt> or <tt>toIndex &gt; a.length</tt>
+	 */
+	public static int binarySearch(int[] a, int fromIndex, int toIndex, int key, IntComparator comparator)
+	{
+		if(comparator == null)
+		{
+			return Arrays.binarySearch(a, fromIndex, toIndex, key);
+		}
+		rangeCheck(a.length, fromIndex, toIndex);
+		int low = fromIndex;
+		int high = toIndex - 1;
+		while(low <= high)
+		{
+			int mid = (low + high) >>> 1;
+			int cmp = comparator.compare(a[mid], key);
+			if(cmp < 0)
+			{
+				low = mid + 1;
+			}
+			else if(cmp > 0)
+			{
+				high = mid - 1;
+			}
+			else
+			{
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending numerical order.
+	 * A synonym of {@link java.util.Arrays#sort(long[], int, int)}, kept for
+	 * symmetry with the other methods of this class.
+	 *
+	 * @param a         the array to be sorted
+	 * @param fromIndex the index of the first element, inclusive, to be sorted
+	 * @param toIndex   the index of the last element, exclusive, to be sorted
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt> or <tt>toIndex &gt; a.length</tt>
+	 */
+	public static void sort(long[] a, int fromIndex, int toIndex)
+	{
+		Arrays.sort(a, fromIndex, toIndex);
+	}
+
+	/**
+	 * Sorts the specified range of the array according to the order induced
+	 * by the specified comparator. The sort is a TimSort working on the
+	 * primitive values: it is stable, takes linear time on presorted input,
+	 * and needs a buffer of at most half of the range.
+	 *
+	 * @param a          the array to be sorted
+	 * @param fromIndex  the index of the first element, inclusive, to be sorted
+	 * @param toIndex    the index of the last element, exclusive, to be sorted
+	 * @param comparator the comparator to determine the order, <tt>null</tt> for natural ordering
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt> or <tt>toIndex &gt; a.length</tt>
+	 */
+	public static void sort(long[] a, int fromIndex, int toIndex, LongComparator comparator)
+	{
+		if(comparator == null)
+		{
+			Arrays.sort(a, fromIndex, toIndex);
+			return;
+		}
+		rangeCheck(a.length, fromIndex, toIndex);
+		LongTimSort.sort(a, fromIndex, toIndex, comparator);
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending numerical order,
+	 * on {@link Pools#current()}. Ranges up to {@value #PARALLEL_THRESHOLD}
+	 * elements, or with a pool of one thread, are sorted in the caller thread.
+	 * Otherwise the range is split, the parts are sorted in parallel, and
+	 * then merged in parallel through a buffer as large as the range.
+	 *
+	 * @param a         the array to be sorted
+	 * @param fromIndex the index of the first element, inclusive, to be sorted
+	 * @param toIndex   the index of the last element, exclusive, to be sorted
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt> or <tt>toIndex &gt; a.length</tt>
+	 */
+	public static void parallelSort(long[] a, int fromIndex, int toIndex)
+	{
+		rangeCheck(a.length, fromIndex, toIndex);
+		final int n = toIndex - fromIndex;
+		final ForkJoinPool pool = Pools.current();
+		final int parallelism = pool.getParallelism();
+		if(n <= PARALLEL_THRESHOLD || parallelism == 1)
+		{
+			Arrays.sort(a, fromIndex, toIndex);
+			return;
+		}
+		int grain = Math.max(n / (parallelism << 2), PARALLEL_THRESHOLD);
+		pool.invoke(new LongSortTask(a, new long[n], fromIndex, toIndex, fromIndex, grain));
+	}
+
+	/**
+	 * Searches the specified range of the array, sorted according to the
+	 * specified comparator, for the specified value.
+	 *
+	 * @param a          the array to be searched
+	 * @param fromIndex  the index of the first element, inclusive, to be searched
+	 * @param toIndex    the index of the last element, exclusive, to be searched
+	 * @param key        the value to be searched for
+	 * @param comparator the comparator by which the range is ordered, <tt>null</tt> for natural ordering
+	 * @return index of the search key, if it is contained in the range;
+	 *         otherwise, <tt>(-(<i>insertion point</i>) - 1)</tt>
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt> or <tt>toIndex &gt; a.length</tt>
+	 */
+	public static int binarySearch(long[] a, int fromIndex, int toIndex, long key, LongComparator comparator)
+	{
+		if(comparator == null)
+		{
+			return Arrays.binarySearch(a, fromIndex, toIndex, key);
+		}
+		rangeCheck(a.length, fromIndex, toIndex);
+		int low = fromIndex;
+		int high = toIndex - 1;
+		while(low <= high)
+		{
+			int mid = (low + high) >>> 1;
+			int cmp = comparator.compare(a[mid], key);
+			if(cmp < 0)
+			{
+				low = mid + 1;
+			}
+			else if(cmp > 0)
+			{
+				high = mid - 1;
+			}
+			else
+			{
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending numerical order
+	 * by least significant digit radix sort: one counting pass over the range,
+	 * then a stable distribution pass per byte of the elements, skipping the
+	 * bytes which are the same in all elements. It takes linear time and a
+	 * buffer as large as the range. Ranges shorter than {@value #RADIX_THRESHOLD}
+	 * elements are sorted by {@link java.util.Arrays#sort(int[], int, int)}.
+	 *
+	 * @param a         the array to be sorted
+	 * @param fromIndex the index of the first element, inclusive, to be sorted
+	 * @param toIndex   the index of the last element, exclusive, to be sorted
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt> or <tt>toIndex &gt; a.length</tt>
+	 */
+	public static void radixSort(int[] a, int fromIndex, int toIndex)
+	{
+		rangeCheck(a.length, fromIndex, toIndex);
+		if(toIndex - fromIndex < RADIX_THRESHOLD)
+		{
+			Arrays.sort(a, fromIndex, toIndex);
+			return;
+		}
+		IntRadix.sort(a, (int[]) null, fromIndex, toIndex);
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending numerical order
+	 * by radix sort, like {@link #radixSort(int[], int, int)}, running the
+	 * counting and distribution passes on parts of the range on
+	 * {@link Pools#current()}. Ranges up to {@value #PARALLEL_THRESHOLD} elements, or with a
+	 * pool of one thread, are sorted in the caller thread.
+	 *
+	 * @param a         the array to be sorted
+	 * @param fromIndex the index of the first element, inclusive, to be sorted
+	 * @param toIndex   the index of the last element, exclusive, to be sorted
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt> or <tt>toIndex &gt; a.length</tt>
+	 */
+	public static void parallelRadixSort(int[] a, int fromIndex, int toIndex)
+	{
+		rangeCheck(a.length, fromIndex, toIndex);
+		final int n = toIndex - fromIndex;
+		final ForkJoinPool pool = Pools.current();
+		final int parallelism = pool.getParallelism();
+		if(n <= PARALLEL_THRESHOLD || parallelism == 1)
+		{
+			radixSort(a, fromIndex, toIndex);
+			return;
+		}
+		IntRadix.parallelSort(pool, a, fromIndex, toIndex, Math.min(parallelism << 2, n / PARALLEL_THRESHOLD));
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending numerical order
+	 * by least significant digit radix sort: one counting pass over the range,
+	 * then a stable distribution pass per byte of the elements, skipping the
+	 * bytes which are the same in all elements. It takes linear time and a
+	 * buffer as large as the range. Ranges shorter than {@value #RADIX_THRESHOLD}
+	 * elements are sorted by {@link java.util.Arrays#sort(long[], int, int)}.
+	 *
+	 * @param a         the array to be sorted
+	 * @param fromIndex the index of the first element, inclusive, to be sorted
+	 * @param toIndex   the index of the last element, exclusive, to be sorted
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt> or <tt>toIndex &gt; a.length</tt>
+	 */
+	public static void radixSort(long[] a, int fromIndex, int toIndex)
+	{
+		rangeCheck(a.length, fromIndex, toIndex);
+		if(toIndex - fromIndex < RADIX_THRESHOLD)
+		{
+			Arrays.sort(a, fromIndex, toIndex);
+			return;
+		}
+		LongRadix.sort(a, (long[]) null, fromIndex, toIndex);
+	}
+
+	/**
+	 * Sorts the specified range of the array into ascending numerical order
+	 * by radix sort, like {@link #radixSort(long[], int, int)}, running the
+	 * counting and distribution passes on parts of the range on
+	 * {@link Pools#current()}. Ranges up to {@value #PARALLEL_THRESHOLD} elements, or with a
+	 * pool of one thread, are sorted in the caller thread.
+	 *
+	 * @param a         the array to be sorted
+	 * @param fromIndex the index of the first element, inclusive, to be sorted
+	 * @param toIndex   the index of the last element, exclusive, to be sorted
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt> or <tt>toIndex &gt; a.length</tt>
+	 */
+	public static void parallelRadixSort(long[] a, int fromIndex, int toIndex)
+	{
+		rangeCheck(a.length, fromIndex, toIndex);
+		final int n = toIndex - fromIndex;
+		final ForkJoinPool pool = Pools.current();
+		final int parallelism = pool.getParallelism();
+		if(n <= PARALLEL_THRESHOLD || parallelism == 1)
+		{
+			radixSort(a, fromIndex, toIndex);
+			return;
+		}
+		LongRadix.parallelSort(pool, a, fromIndex, toIndex, Math.min(parallelism << 2, n / PARALLEL_THRESHOLD));
+	}
+
+	/**
+	 * Sorts the specified range of the keys into ascending numerical order by
+	 * radix sort, and moves the values at the same indices in lock-step, so
+	 * that each value stays with its key. Values of equal keys keep their order.
+	 *
+	 * @param keys      the keys to be sorted
+	 * @param values    the values to be moved with the keys
+	 * @param fromIndex the index of the first element, inclusive, to be sorted
+	 * @param toIndex   the index of the last element, exclusive, to be sorted
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>, or
+	 *         <tt>keys</tt> and <tt>values</tt> are the same array
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt>, or
+	 *         <tt>toIndex</tt> is greater than length of either array
+	 */
+	public static void radixSort(int[] keys, int[] values, int fromIndex, int toIndex)
+	{
+		if(keys == values)
+		{
+			throw new IllegalArgumentException("keys and values are the same array");
+		}
+		rangeCheck(keys.length, fromIndex, toIndex);
+		rangeCheck(values.length, fromIndex, toIndex);
+		IntRadix.sort(keys, values, fromIndex, toIndex);
+	}
+
+	/**
+	 * Sorts the specified range of the keys into ascending numerical order by
+	 * radix sort, and moves the values at the same indices in lock-step, so
+	 * that each value stays with its key. Values of equal keys keep their order.
+	 *
+	 * @param keys      the keys to be sorted
+	 * @param values    the values to be moved with the keys
+	 * @param fromIndex the index of the first element, inclusive, to be sorted
+	 * @param toIndex   the index of the last element, exclusive, to be sorted
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt>, or
+	 *         <tt>toIndex</tt> is greater than length of either array
+	 */
+	public static void radixSort(int[] keys, long[] values, int fromIndex, int toIndex)
+	{
+		rangeCheck(keys.length, fromIndex, toIndex);
+		rangeCheck(values.length, fromIndex, toIndex);
+		IntRadix.sort(keys, values, fromIndex, toIndex);
+	}
+
+	/**
+	 * Sorts the specified range of the keys into ascending numerical order by
+	 * radix sort, and moves the values at the same indices in lock-step, so
+	 * that each value stays with its key. Values of equal keys keep their order.
+	 *
+	 * @param keys      the keys to be sorted
+	 * @param values    the values to be moved with the keys
+	 * @param fromIndex the index of the first element, inclusive, to be sorted
+	 * @param toIndex   the index of the last element, exclusive, to be sorted
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt>, or
+	 *         <tt>toIndex</tt> is greater than length of either array
+	 */
+	public static void radixSort(long[] keys, int[] values, int fromIndex, int toIndex)
+	{
+		rangeCheck(keys.length, fromIndex, toIndex);
+		rangeCheck(values.length, fromIndex, toIndex);
+		LongRadix.sort(keys, values, fromIndex, toIndex);
+	}
+
+	/**
+	 * Sorts the specified range of the keys into ascending numerical order by
+	 * radix sort, and moves the values at the same indices in lock-step, so
+	 * that each value stays with its key. Values of equal keys keep their order.
+	 *
+	 * @param keys      the keys to be sorted
+	 * @param values    the values to be moved with the keys
+	 * @param fromIndex the index of the first element, inclusive, to be sorted
+	 * @param toIndex   the index of the last element, exclusive, to be sorted
+	 * @throws IllegalArgumentException if <tt>fromIndex &gt; toIndex</tt>, or
+	 *         <tt>keys</tt> and <tt>values</tt> are the same array
+	 * @throws ArrayIndexOutOfBoundsException if <tt>fromIndex &lt; 0</tt>, or
+	 *         <tt>toIndex</tt> is greater than length of either array
+	 */
+	public static void radixSort(long[] keys, long[] values, int fromIndex, int toIndex)
+	{
+		if(keys == values)
+		{
+			throw new IllegalArgumentException("keys and values are the same array");
+		}
+		rangeCheck(keys.length, fromIndex, toIndex);
+		rangeCheck(values.length, fromIndex, toIndex);
+		LongRadix.sort(keys, values, fromIndex, toIndex);
+	}
+
+	static void rangeCheck(int length, int fromIndex, int toIndex)
+	{
+		if(fromIndex > toIndex)
+		{
+			throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+		}
+		if(fromIndex < 0)
+		{
+			throw new ArrayIndexOutOfBoundsException(fromIndex);
+		}
+		if(toIndex > length)
+		{
+			throw new ArrayIndexOutOfBoundsException(toIndex);
+		}
+	}
+
+	private static int minRunLength(int n)
+	{
+		int r = 0;
+		while(n >= MIN_MERGE)
+		{
+			r |= n & 1;
+			n >>= 1;
+		}
+		return n + r;
+	}
+
+	/**
+	 * TimSort of a range of <tt>int</tt> values. Runs are found (reversing the
+	 * descending ones), extended to the minimal length by binary insertion
+	 * sort, and merged while the stack of pending runs keeps the TimSort
+	 * invariants. Before merge, the elements of both runs which are already
+	 * in place are skipped by binary search.
+	 */
+	private static final class IntTimSort
+	{
+		private final int[] a;
+		private final IntComparator c;
+		private int[] tmp;
+		private final int[] runBase = new int[MAX_RUNS];
+		private final int[] runLen = new int[MAX_RUNS];
+		private int stackSize;
+
+		private IntTimSort(int[] a, IntComparator c, int n)
+		{
+			this.a = a;
+			this.c = c;
+			tmp = new int[Math.min(n >>> 1, INITIAL_TMP_LENGTH)];
+		}
+
+		static void sort(int[] a, int lo, int hi, IntComparator c)
+		{
+			int n = hi - lo;
+			if(n < 2)
+			{
+				return;
+			}
+			if(n < MIN_MERGE)
+			{
+				binarySort(a, lo, hi, lo + countRunAndMakeAscending(a, lo, hi, c), c);
+				return;
+			}
+			IntTimSort ts = new IntTimSort(a, c, n);
+			int minRun = minRunLength(n);
+			do
+			{
+				int runLen = countRunAndMakeAscending(a, lo, hi, c);
+				if(runLen < minRun)
+				{
+					int force = Math.min(n, minRun);
+					binarySort(a, lo, lo + force, lo + runLen, c);
+					runLen = force;
+				}
+				ts.runBase[ts.stackSize] = lo;
+				ts.runLen[ts.stackSize++] = runLen;
+				ts.mergeCollapse();
+				lo += runLen;
+				n -= runLen;
+			}
+			while(n != 0);
+			ts.mergeForceCollapse();
+		}
+
+		/**
+		 * Sorts <tt>[lo, hi)</tt> by binary insertion, when <tt>[lo, start)</tt> is sorted already.
+		 */
+		private static void binarySort(int[] a, int lo, int hi, int start, IntComparator c)
+		{
+			if(start == lo)
+			{
+				start++;
+			}
+			for(; start < hi; start++)
+			{
+				int pivot = a[start];
+				int left = lo;
+				int right = start;
+				while(left < right)
+				{
+					int mid = (left + right) >>> 1;
+					if(c.compare(pivot, a[mid]) < 0)
+					{
+						right = mid;
+					}
+					else
+					{
+						left = mid + 1;
+					}
+				}
+				System.arraycopy(a, left, a, left + 1, start - left);
+				a[left] = pivot;
+			}
+		}
+
+		/**
+		 * Returns length of the run at <tt>lo</tt>; a strictly descending run is reversed.
+		 */
+		private static int countRunAndMakeAscending(int[] a, int lo, int hi, IntComparator c)
+		{
+			int runHi = lo + 1;
+			if(runHi == hi)
+			{
+				return 1;
+			}
+			if(c.compare(a[runHi++], a[lo]) < 0)
+			{
+				while(runHi < hi && c.compare(a[runHi], a[runHi - 1]) < 0)
+				{
+					runHi++;
+				}
+				for(int i = lo, j = runHi - 1; i < j; i++, j--)
+				{
+					int t = a[i];
+					a[i] = a[j];
+					a[j] = t;
+				}
+			}
+			else
+			{
+				while(runHi < hi && c.compare(a[runHi], a[runHi - 1]) >= 0)
+				{
+					runHi++;
+				}
+			}
+			return runHi - lo;
+		}
+
+		private void mergeCollapse()
+		{
+			while(stackSize > 1)
+			{
+				int n = stackSize - 2;
+				if(n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1] || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1])
+				{
+					if(runLen[n - 1] < runLen[n + 1])
+					{
+						n--;
+					}
+				}
+				else if(runLen[n] > runLen[n + 1])
+				{
+					break;
+				}
+				mergeAt(n);
+			}
+		}
+
+		private void mergeForceCollapse()
+		{
+			while(stackSize > 1)
+			{
+				int n = stackSize - 2;
+				if(n > 0 && runLen[n - 1] < runLen[n + 1])
+				{
+					n--;
+				}
+				mergeAt(n);
+			}
+		}
+
+		/**
+		 * Merges runs <tt>i</tt> and <tt>i + 1</tt> of the stack.
+		 */
+		private void mergeAt(int i)
+		{
+			int base1 = runBase[i];
+			int len1 = runLen[i];
+			int base2 = runBase[i + 1];
+			int len2 = runLen[i + 1];
+			runLen[i] = len1 + len2;
+			if(i == stackSize - 3)
+			{
+				runBase[i + 1] = runBase[i + 2];
+				runLen[i + 1] = runLen[i + 2];
+			}
+			stackSize--;
+
+			// elements of run 1 not greater than the first of run 2 are in place
+			int k = upperBound(a, base1, base1 + len1, a[base2], c) - base1;
+			base1 += k;
+			len1 -= k;
+			if(len1 == 0)
+			{
+				return;
+			}
+			// elements of run 2 not less than the last of run 1 are in place
+			len2 = lowerBound(a, base2, base2 + len2, a[base1 + len1 - 1], c) - base2;
+			if(len2 == 0)
+			{
+				return;
+			}
+			if(len1 <= len2)
+			{
+				mergeLo(base1, len1, base2, len2);
+			}
+			else
+			{
+				mergeHi(base1, len1, base2, len2);
+			}
+		}
+
+		private int[] ensureTmp(int length)
+		{
+			if(tmp.length < length)
+			{
+				tmp = new int[Math.max(length, Math.min(tmp.length << 1, a.length >>> 1))];
+			}
+			return tmp;
+		}
+
+		/**
+		 * Merges from left to right, with the shorter run 1 moved to the buffer.
+		 */
+		private void mergeLo(int base1, int len1, int base2, int len2)
+		{
+			final int[] a = this.a;
+			final int[] tmp = ensureTmp(len1);
+			System.arraycopy(a, base1, tmp, 0, len1);
+			int cursor1 = 0;
+			int cursor2 = base2;
+			int end2 = base2 + len2;
+			int dest = base1;
+			while(cursor1 < len1 && cursor2 < end2)
+			{
+				if(c.compare(a[cursor2], tmp[cursor1]) < 0)
+				{
+					a[dest++] = a[cursor2++];
+				}
+				else
+				{
+					a[dest++] = tmp[cursor1++];
+				}
+			}
+			System.arraycopy(tmp, cursor1, a, dest, len1 - cursor1);
+		}
+
+		/**
+		 * Merges from right to left, with the shorter run 2 moved to the buffer.
+		 */
+		private void mergeHi(int base1, int len1, int base2, int len2)
+		{
+			final int[] a = this.a;
+			final int[] tmp = ensureTmp(len2);
+			System.arraycopy(a, base2, tmp, 0, len2);
+			int cursor1 = base1 + len1 - 1;
+			int cursor2 = len2 - 1;
+			int dest = base2 + len2 - 1;
+			while(cursor1 >= base1 && cursor2 >= 0)
+			{
+				if(c.compare(tmp[cursor2], a[cursor1]) < 0)
+				{
+					a[dest--] = a[cursor1--];
+				}
+				else
+				{
+					a[dest--] = tmp[cursor2--];
+				}
+			}
+			System.arraycopy(tmp, 0, a, dest - cursor2, cursor2 + 1);
+		}
+	}
+
+	/**
+	 * Returns the first index of <tt>[lo, hi)</tt> with an element not less than the key.
+	 */
+	private static int lowerBound(int[] a, int lo, int hi, int key, IntComparator c)
+	{
+		while(lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if(c.compare(a[mid], key) < 0)
+			{
+				lo = mid + 1;
+			}
+			else
+			{
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Returns the first index of <tt>[lo, hi)</tt> with an element greater than the key.
+	 */
+	private static int upperBound(int[] a, int lo, int hi, int key, IntComparator c)
+	{
+		while(lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if(c.compare(a[mid], key) <= 0)
+			{
+				lo = mid + 1;
+			}
+			else
+			{
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Returns the first index of <tt>[lo, hi)</tt> with an element not less than the key.
+	 */
+	private static int lowerBound(int[] a, int lo, int hi, int key)
+	{
+		while(lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if(a[mid] < key)
+			{
+				lo = mid + 1;
+			}
+			else
+			{
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Sorts <tt>[lo, hi)</tt> of the array: sorts both halves in parallel,
+	 * merges them into the buffer, and copies the result back. The buffer
+	 * index of array index <tt>i</tt> is <tt>i - base</tt>.
+	 */
+	@SuppressWarnings("serial")
+	static final class IntSortTask extends RecursiveAction
+	{
+		private final int[] a;
+		private final int[] w;
+		private final int lo;
+		private final int hi;
+		private final int base;
+		private final int grain;
+
+		IntSortTask(int[] a, int[] w, int lo, int hi, int base, int grain)
+		{
+			this.a = a;
+			this.w = w;
+			this.lo = lo;
+			this.hi = hi;
+			this.base = base;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if(hi - lo <= grain)
+			{
+				Arrays.sort(a, lo, hi);
+				return;
+			}
+			int mid = (lo + hi) >>> 1;
+			invokeAll(new IntSortTask(a, w, lo, mid, base, grain), new IntSortTask(a, w, mid, hi, base, grain));
+			new IntMergeTask(a, w, lo, mid, mid, hi, lo - base, grain).invoke();
+			System.arraycopy(w, lo - base, a, lo, hi - lo);
+		}
+	}
+
+	/**
+	 * Merges sorted <tt>[lo1, hi1)</tt> and <tt>[lo2, hi2)</tt> of the array
+	 * into the buffer at <tt>dest</tt>. Large merges are split at the middle
+	 * of the longer run, and at its value in the other one.
+	 */
+	@SuppressWarnings("serial")
+	static final class IntMergeTask extends RecursiveAction
+	{
+		private final int[] a;
+		private final int[] w;
+		private final int lo1;
+		private final int hi1;
+		private final int lo2;
+		private final int hi2;
+		private final int dest;
+		private final int grain;
+
+		IntMergeTask(int[] a, int[] w, int lo1, int hi1, int lo2, int hi2, int dest, int grain)
+		{
+			this.a = a;
+			this.w = w;
+			this.lo1 = lo1;
+			this.hi1 = hi1;
+			this.lo2 = lo2;
+			this.hi2 = hi2;
+			this.dest = dest;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute()
+		{
+			final int len1 = hi1 - lo1;
+			final int len2 = hi2 - lo2;
+			if(len1 + len2 <= grain || len1 == 0 || len2 == 0)
+			{
+				merge();
+				return;
+			}
+			int m1, m2;
+			if(len1 >= len2)
+			{
+				m1 = (lo1 + hi1) >>> 1;
+				m2 = lowerBound(a, lo2, hi2, a[m1]);
+			}
+			else
+			{
+				m2 = (lo2 + hi2) >>> 1;
+				m1 = lowerBound(a, lo1, hi1, a[m2]);
+			}
+			invokeAll(new IntMergeTask(a, w, lo1, m1, lo2, m2, dest, grain), new IntMergeTask(a, w, m1, hi1, m2, hi2, dest + (m1 - lo1) + (m2 - lo2), grain));
+		}
+
+		private void merge()
+		{
+			final int[] a = this.a;
+			final int[] w = this.w;
+			int i = lo1;
+			int j = lo2;
+			int k = dest;
+			while(i < hi1 && j < hi2)
+			{
+				w[k++] = a[j] < a[i] ? a[j++] : a[i++];
+			}
+			System.arraycopy(a, i, w, k, hi1 - i);
+			System.arraycopy(a, j, w, k + hi1 - i, hi2 - j);
+		}
+	}
+
+	/**
+	 * TimSort of a range of <tt>long</tt> values. Runs are found (reversing the
+	 * descending ones), extended to the minimal length by binary insertion
+	 * sort, and merged while the stack of pending runs keeps the TimSort
+	 * invariants. Before merge, the elements of both runs which are already
+	 * in place are skipped by binary search.
+	 */
+	private static final class LongTimSort
+	{
+		private final long[] a;
+		private final LongComparator c;
+		private long[] tmp;
+		private final int[] runBase = new int[MAX_RUNS];
+		private final int[] runLen = new int[MAX_RUNS];
+		private int stackSize;
+
+		private LongTimSort(long[] a, LongComparator c, int n)
+		{
+			this.a = a;
+			this.c = c;
+			tmp = new long[Math.min(n >>> 1, INITIAL_TMP_LENGTH)];
+		}
+
+		static void sort(long[] a, int lo, int hi, LongComparator c)
+		{
+			int n = hi - lo;
+			if(n < 2)
+			{
+				return;
+			}
+			if(n < MIN_MERGE)
+			{
+				binarySort(a, lo, hi, lo + countRunAndMakeAscending(a, lo, hi, c), c);
+				return;
+			}
+			LongTimSort ts = new LongTimSort(a, c, n);
+			int minRun = minRunLength(n);
+			do
+			{
+				int runLen = countRunAndMakeAscending(a, lo, hi, c);
+				if(runLen < minRun)
+				{
+					int force = Math.min(n, minRun);
+					binarySort(a, lo, lo + force, lo + runLen, c);
+					runLen = force;
+				}
+				ts.runBase[ts.stackSize] = lo;
+				ts.runLen[ts.stackSize++] = runLen;
+				ts.mergeCollapse();
+				lo += runLen;
+				n -= runLen;
+			}
+			while(n != 0);
+			ts.mergeForceCollapse();
+		}
+
+		/**
+		 * Sorts <tt>[lo, hi)</tt> by binary insertion, when <tt>[lo, start)</tt> is sorted already.
+		 */
+		private static void binarySort(long[] a, int lo, int hi, int start, LongComparator c)
+		{
+			if(start == lo)
+			{
+				start++;
+			}
+			for(; start < hi; start++)
+			{
+				long pivot = a[start];
+				int left = lo;
+				int right = start;
+				while(left < right)
+				{
+					int mid = (left + right) >>> 1;
+					if(c.compare(pivot, a[mid]) < 0)
+					{
+						right = mid;
+					}
+					else
+					{
+						left = mid + 1;
+					}
+				}
+				System.arraycopy(a, left, a, left + 1, start - left);
+				a[left] = pivot;
+			}
+		}
+
+		/**
+		 * Returns length of the run at <tt>lo</tt>; a strictly descending run is reversed.
+		 */
+		private static int countRunAndMakeAscending(long[] a, int lo, int hi, LongComparator c)
+		{
+			int runHi = lo + 1;
+			if(runHi == hi)
+			{
+				return 1;
+			}
+			if(c.compare(a[runHi++], a[lo]) < 0)
+			{
+				while(runHi < hi && c.compare(a[runHi], a[runHi - 1]) < 0)
+				{
+					runHi++;
+				}
+				for(int i = lo, j = runHi - 1; i < j; i++, j--)
+				{
+					long t = a[i];
+					a[i] = a[j];
+					a[j] = t;
+				}
+			}
+			else
+			{
+				while(runHi < hi && c.compare(a[runHi], a[runHi - 1]) >= 0)
+				{
+					runHi++;
+				}
+			}
+			return runHi - lo;
+		}
+
+		private void mergeCollapse()
+		{
+			while(stackSize > 1)
+			{
+				int n = stackSize - 2;
+				if(n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1] || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1])
+				{
+					if(runLen[n - 1] < runLen[n + 1])
+					{
+						n--;
+					}
+				}
+				else if(runLen[n] > runLen[n + 1])
+				{
+					break;
+				}
+				mergeAt(n);
+			}
+		}
+
+		private void mergeForceCollapse()
+		{
+			while(stackSize > 1)
+			{
+				int n = stackSize - 2;
+				if(n > 0 && runLen[n - 1] < runLen[n + 1])
+				{
+					n--;
+				}
+				mergeAt(n);
+			}
+		}
+
+		/**
+		 * Merges runs <tt>i</tt> and <tt>i + 1</tt> of the stack.
+		 */
+		private void mergeAt(int i)
+		{
+			int base1 = runBase[i];
+			int len1 = runLen[i];
+			int base2 = runBase[i + 1];
+			int len2 = runLen[i + 1];
+			runLen[i] = len1 + len2;
+			if(i == stackSize - 3)
+			{
+				runBase[i + 1] = runBase[i + 2];
+				runLen[i + 1] = runLen[i + 2];
+			}
+			stackSize--;
+
+			// elements of run 1 not greater than the first of run 2 are in place
+			int k = upperBound(a, base1, base1 + len1, a[base2], c) - base1;
+			base1 += k;
+			len1 -= k;
+			if(len1 == 0)
+			{
+				return;
+			}
+			// elements of run 2 not less than the last of run 1 are in place
+			len2 = lowerBound(a, base2, base2 + len2, a[base1 + len1 - 1], c) - base2;
+			if(len2 == 0)
+			{
+				return;
+			}
+			if(len1 <= len2)
+			{
+				mergeLo(base1, len1, base2, len2);
+			}
+			else
+			{
+				mergeHi(base1, len1, base2, len2);
+			}
+		}
+
+		private long[] ensureTmp(int length)
+		{
+			if(tmp.length < length)
+			{
+				tmp = new long[Math.max(length, Math.min(tmp.length << 1, a.length >>> 1))];
+			}
+			return tmp;
+		}
+
+		/**
+		 * Merges from left to right, with the shorter run 1 moved to the buffer.
+		 */
+		private void mergeLo(int base1, int len1, int base2, int len2)
+		{
+			final long[] a = this.a;
+			final long[] tmp = ensureTmp(len1);
+			System.arraycopy(a, base1, tmp, 0, len1);
+			int cursor1 = 0;
+			int cursor2 = base2;
+			int end2 = base2 + len2;
+			int dest = base1;
+			while(cursor1 < len1 && cursor2 < end2)
+			{
+				if(c.compare(a[cursor2], tmp[cursor1]) < 0)
+				{
+					a[dest++] = a[cursor2++];
+				}
+				else
+				{
+					a[dest++] = tmp[cursor1++];
+				}
+			}
+			System.arraycopy(tmp, cursor1, a, dest, len1 - cursor1);
+		}
+
+		/**
+		 * Merges from right to left, with the shorter run 2 moved to the buffer.
+		 */
+		private void mergeHi(int base1, int len1, int base2, int len2)
+		{
+			final long[] a = this.a;
+			final long[] tmp = ensureTmp(len2);
+			System.arraycopy(a, base2, tmp, 0, len2);
+			int cursor1 = base1 + len1 - 1;
+			int cursor2 = len2 - 1;
+			int dest = base2 + len2 - 1;
+			while(cursor1 >= base1 && cursor2 >= 0)
+			{
+				if(c.compare(tmp[cursor2], a[cursor1]) < 0)
+				{
+					a[dest--] = a[cursor1--];
+				}
+				else
+				{
+					a[dest--] = tmp[cursor2--];
+				}
+			}
+			System.arraycopy(tmp, 0, a, dest - cursor2, cursor2 + 1);
+		}
+	}
+
+	/**
+	 * Returns the first index of <tt>[lo, hi)</tt> with an element not less than the key.
+	 */
+	private static int lowerBound(long[] a, int lo, int hi, long key, LongComparator c)
+	{
+		while(lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if(c.compare(a[mid], key) < 0)
+			{
+				lo = mid + 1;
+			}
+			else
+			{
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Returns the first index of <tt>[lo, hi)</tt> with an element greater than the key.
+	 */
+	private static int upperBound(long[] a, int lo, int hi, long key, LongComparator c)
+	{
+		while(lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if(c.compare(a[mid], key) <= 0)
+			{
+				lo = mid + 1;
+			}
+			else
+			{
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Returns the first index of <tt>[lo, hi)</tt> with an element not less than the key.
+	 */
+	private static int lowerBound(long[] a, int lo, int hi, long key)
+	{
+		while(lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if(a[mid] < key)
+			{
+				lo = mid + 1;
+			}
+			else
+			{
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Sorts <tt>[lo, hi)</tt> of the array: sorts both halves in parallel,
+	 * merges them into the buffer, and copies the result back. The buffer
+	 * index of array index <tt>i</tt> is <tt>i - base</tt>.
+	 */
+	@SuppressWarnings("serial")
+	static final class LongSortTask extends RecursiveAction
+	{
+		private final long[] a;
+		private final long[] w;
+		private final int lo;
+		private final int hi;
+		private final int base;
+		private final int grain;
+
+		LongSortTask(long[] a, long[] w, int lo, int hi, int base, int grain)
+		{
+			this.a = a;
+			this.w = w;
+			this.lo = lo;
+			this.hi = hi;
+			this.base = base;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if(hi - lo <= grain)
+			{
+				Arrays.sort(a, lo, hi);
+				return;
+			}
+			int mid = (lo + hi) >>> 1;
+			invokeAll(new LongSortTask(a, w, lo, mid, base, grain), new LongSortTask(a, w, mid, hi, base, grain));
+			new LongMergeTask(a, w, lo, mid, mid, hi, lo - base, grain).invoke();
+			System.arraycopy(w, lo - base, a, lo, hi - lo);
+		}
+	}
+
+	/**
+	 * Merges sorted <tt>[lo1, hi1)</tt> and <tt>[lo2, hi2)</tt> of the array
+	 * into the buffer at <tt>dest</tt>. Large merges are split at the middle
+	 * of the longer run, and at its value in the other one.
+	 */
+	@SuppressWarnings("serial")
+	static final class LongMergeTask extends RecursiveAction
+	{
+		private final long[] a;
+		private final long[] w;
+		private final int lo1;
+		private final int hi1;
+		private final int lo2;
+		private final int hi2;
+		private final int dest;
+		private final int grain;
+
+		LongMergeTask(long[] a, long[] w, int lo1, int hi1, int lo2, int hi2, int dest, int grain)
+		{
+			this.a = a;
+			this.w = w;
+			this.lo1 = lo1;
+			this.hi1 = hi1;
+			this.lo2 = lo2;
+			this.hi2 = hi2;
+			this.dest = dest;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute()
+		{
+			final int len1 = hi1 - lo1;
+			final int len2 = hi2 - lo2;
+			if(len1 + len2 <= grain || len1 == 0 || len2 == 0)
+			{
+				merge();
+				return;
+			}
+			int m1, m2;
+			if(len1 >= len2)
+			{
+				m1 = (lo1 + hi1) >>> 1;
+				m2 = lowerBound(a, lo2, hi2, a[m1]);
+			}
+			else
+			{
+				m2 = (lo2 + hi2) >>> 1;
+				m1 = lowerBound(a, lo1, hi1, a[m2]);
+			}
+			invokeAll(new LongMergeTask(a, w, lo1, m1, lo2, m2, dest, grain), new LongMergeTask(a, w, m1, hi1, m2, hi2, dest + (m1 - lo1) + (m2 - lo2), grain));
+		}
+
+		private void merge()
+		{
+			final long[] a = this.a;
+			final long[] w = this.w;
+			int i = lo1;
+			int j = lo2;
+			int k = dest;
+			while(i < hi1 && j < hi2)
+			{
+				w[k++] = a[j] < a[i] ? a[j++] : a[i++];
+			}
+			System.arraycopy(a, i, w, k, hi1 - i);
+			System.arraycopy(a, j, w, k + hi1 - i, hi2 - j);
+		}
+	}
+
+	/**
+	 * LSD radix sort of <tt>int</tt> keys by bytes, from the lowest one. The
+	 * sign bit of the highest byte is flipped, so that negative keys go first.
+	 * Elements move between the range and a buffer, and are copied back if
+	 * the last pass leaves them in the buffer.
+	 */
+	static final class IntRadix
+	{
+		static final int PASSES = 4;
+
+		private IntRadix()
+		{
+		}
+
+		static int digit(int key, int pass)
+		{
+			int d = (key >>> (pass << 3)) & 0xFF;
+			return pass == PASSES - 1 ? d ^ 0x80 : d;
+		}
+
+		/**
+		 * Returns counts of each byte value, for each pass.
+		 */
+		static int[][] count(int[] a, int from, int to)
+		{
+			final int[][] counts = new int[PASSES][256];
+			for(int i = from; i < to; i++)
+			{
+				int key = a[i];
+				for(int pass = 0; pass < PASSES; pass++)
+				{
+					counts[pass][digit(key, pass)]++;
+				}
+			}
+			return counts;
+		}
+
+		/**
+		 * Turns counts into start offsets; returns <tt>false</tt> if all the
+		 * elements have the same byte value, and the pass can be skipped.
+		 */
+		static boolean offsets(int[] counts, int n)
+		{
+			int offset = 0;
+			for(int d = 0; d < 256; d++)
+			{
+				int count = counts[d];
+				if(count == n)
+				{
+					return false;
+				}
+				counts[d] = offset;
+				offset += count;
+			}
+			return true;
+		}
+
+		static void sort(int[] a, int[] v, int from, int to)
+		{
+			final int n = to - from;
+			if(n < 2)
+			{
+				return;
+			}
+			final int[][] counts = count(a, from, to);
+			int[] src = a;
+			int[] srcValues = v;
+			int srcOffset = from;
+			int[] dst = null;
+			int[] dstValues = null;
+			int dstOffset = 0;
+			for(int pass = 0; pass < PASSES; pass++)
+			{
+				final int[] offsets = counts[pass];
+				if(!offsets(offsets, n))
+				{
+					continue;
+				}
+				if(dst == null)
+				{
+					dst = new int[n];
+					dstValues = v == null ? null : new int[n];
+				}
+				if(v == null)
+				{
+					for(int i = srcOffset, end = srcOffset + n; i < end; i++)
+					{
+						dst[dstOffset + offsets[digit(src[i], pass)]++] = src[i];
+					}
+				}
+				else
+				{
+					for(int i = 0; i < n; i++)
+					{
+						int j = dstOffset + offsets[digit(src[srcOffset + i], pass)]++;
+						dst[j] = src[srcOffset + i];
+						dstValues[j] = srcValues[srcOffset + i];
+					}
+				}
+
+				int[] keys = src;
+				src = dst;
+				dst = keys;
+				int[] values = srcValues;
+				srcValues = dstValues;
+				dstValues = values;
+				int offset = srcOffset;
+				srcOffset = dstOffset;
+				dstOffset = offset;
+			}
+			if(src != a)
+			{
+				System.arraycopy(src, 0, a, from, n);
+				if(v != null)
+				{
+					System.arraycopy(srcValues, 0, v, from, n);
+				}
+			}
+		}
+
+		static void sort(int[] a, long[] v, int from, int to)
+		{
+			final int n = to - from;
+			if(n < 2)
+			{
+				return;
+			}
+			final int[][] counts = count(a, from, to);
+			int[] src = a;
+			long[] srcValues = v;
+			int srcOffset = from;
+			int[] dst = null;
+			long[] dstValues = null;
+			int dstOffset = 0;
+			for(int pass = 0; pass < PASSES; pass++)
+			{
+				final int[] offsets = counts[pass];
+				if(!offsets(offsets, n))
+				{
+					continue;
+				}
+				if(dst == null)
+				{
+					dst = new int[n];
+					dstValues = v == null ? null : new long[n];
+				}
+				if(v == null)
+				{
+					for(int i = srcOffset, end = srcOffset + n; i < end; i++)
+					{
+						dst[dstOffset + offsets[digit(src[i], pass)]++] = src[i];
+					}
+				}
+				else
+				{
+					for(int i = 0; i < n; i++)
+					{
+						int j = dstOffset + offsets[digit(src[srcOffset + i], pass)]++;
+						dst[j] = src[srcOffset + i];
+						dstValues[j] = srcValues[srcOffset + i];
+					}
+				}
+
+				int[] keys = src;
+				src = dst;
+				dst = keys;
+				long[] values = srcValues;
+				srcValues = dstValues;
+				dstValues = values;
+				int offset = srcOffset;
+				srcOffset = dstOffset;
+				dstOffset = offset;
+			}
+			if(src != a)
+			{
+				System.arraycopy(src, 0, a, from, n);
+				if(v != null)
+				{
+					System.arraycopy(srcValues, 0, v, from, n);
+				}
+			}
+		}
+
+		static void parallelSort(ForkJoinPool pool, int[] a, int from, int to, int parts)
+		{
+			final int n = to - from;
+			IntRadixPass pass = new IntRadixPass(a, from, new int[n], 0, n, parts);
+			boolean inBuffer = false;
+			for(int p = 0; p < PASSES; p++)
+			{
+				pass.digit = p;
+				pass.counting = true;
+				pool.invoke(new IntRadixTask(pass, 0, parts));
+				if(!pass.offsets())
+				{
+					continue;
+				}
+				pass.counting = false;
+				pool.invoke(new IntRadixTask(pass, 0, parts));
+				pass.swap();
+				inBuffer = !inBuffer;
+			}
+			if(inBuffer)
+			{
+				System.arraycopy(pass.src, 0, a, from, n);
+			}
+		}
+	}
+
+	/**
+	 * State of a pass of parallel radix sort: the range is cut into parts;
+	 * each part counts its byte values, and then moves its elements to the
+	 * offsets given by the counts of all the parts.
+	 */
+	static final class IntRadixPass
+	{
+		int[] src;
+		int srcOffset;
+		int[] dst;
+		int dstOffset;
+		final int n;
+		final int parts;
+		final int[][] counts;
+		int digit;
+		boolean counting;
+
+		IntRadixPass(int[] src, int srcOffset, int[] dst, int dstOffset, int n, int parts)
+		{
+			this.src = src;
+			this.srcOffset = srcOffset;
+			this.dst = dst;
+			this.dstOffset = dstOffset;
+			this.n = n;
+			this.parts = parts;
+			counts = new int[parts][256];
+		}
+
+		int partStart(int part)
+		{
+			return (int) ((long) n * part / parts);
+		}
+
+		void count(int part)
+		{
+			final int[] counts = this.counts[part];
+			Arrays.fill(counts, 0);
+			for(int i = srcOffset + partStart(part), end = srcOffset + partStart(part + 1); i < end; i++)
+			{
+				counts[IntRadix.digit(src[i], digit)]++;
+			}
+		}
+
+		/**
+		 * Turns counts of parts into start offsets of each byte value of each part.
+		 */
+		boolean offsets()
+		{
+			int offset = 0;
+			for(int d = 0; d < 256; d++)
+			{
+				int start = offset;
+				for(int part = 0; part < parts; part++)
+				{
+					int count = counts[part][d];
+					counts[part][d] = offset;
+					offset += count;
+				}
+				if(offset - start == n)
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		void distribute(int part)
+		{
+			final int[] offsets = counts[part];
+			final int[] src = this.src;
+			final int[] dst = this.dst;
+			for(int i = srcOffset + partStart(part), end = srcOffset + partStart(part + 1); i < end; i++)
+			{
+				dst[dstOffset + offsets[IntRadix.digit(src[i], digit)]++] = src[i];
+			}
+		}
+
+		void swap()
+		{
+			int[] a = src;
+			src = dst;
+			dst = a;
+			int offset = srcOffset;
+			srcOffset = dstOffset;
+			dstOffset = offset;
+		}
+	}
+
+	/**
+	 * Runs counting or distribution of parts <tt>[lo, hi)</tt> of a radix sort pass.
+	 */
+	@SuppressWarnings("serial")
+	static final class IntRadixTask extends RecursiveAction
+	{
+		private final IntRadixPass pass;
+		private final int lo;
+		private final int hi;
+
+		IntRadixTask(IntRadixPass pass, int lo, int hi)
+		{
+			this.pass = pass;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if(hi - lo > 1)
+			{
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new IntRadixTask(pass, lo, mid), new IntRadixTask(pass, mid, hi));
+			}
+			else if(pass.counting)
+			{
+				pass.count(lo);
+			}
+			else
+			{
+				pass.distribute(lo);
+			}
+		}
+	}
+
+	/**
+	 * LSD radix sort of <tt>long</tt> keys by bytes, from the lowest one. The
+	 * sign bit of the highest byte is flipped, so that negative keys go first.
+	 * Elements move between the range and a buffer, and are copied back if
+	 * the last pass leaves them in the buffer.
+	 */
+	static final class LongRadix
+	{
+		static final int PASSES = 8;
+
+		private LongRadix()
+		{
+		}
+
+		static int digit(long key, int pass)
+		{
+			int d = (int) (key >>> (pass << 3)) & 0xFF;
+			return pass == PASSES - 1 ? d ^ 0x80 : d;
+		}
+
+		/**
+		 * Returns counts of each byte value, for each pass.
+		 */
+		static int[][] count(long[] a, int from, int to)
+		{
+			final int[][] counts = new int[PASSES][256];
+			for(int i = from; i < to; i++)
+			{
+				long key = a[i];
+				for(int pass = 0; pass < PASSES; pass++)
+				{
+					counts[pass][digit(key, pass)]++;
+				}
+			}
+			return counts;
+		}
+
+		/**
+		 * Turns counts into start offsets; returns <tt>false</tt> if all the
+		 * elements have the same byte value, and the pass can be skipped.
+		 */
+		static boolean offsets(int[] counts, int n)
+		{
+			int offset = 0;
+			for(int d = 0; d < 256; d++)
+			{
+				int count = counts[d];
+				if(count == n)
+				{
+					return false;
+				}
+				counts[d] = offset;
+				offset += count;
+			}
+			return true;
+		}
+
+		static void sort(long[] a, int[] v, int from, int to)
+		{
+			final int n = to - from;
+			if(n < 2)
+			{
+				return;
+			}
+			final int[][] counts = count(a, from, to);
+			long[] src = a;
+			int[] srcValues = v;
+			int srcOffset = from;
+			long[] dst = null;
+			int[] dstValues = null;
+			int dstOffset = 0;
+			for(int pass = 0; pass < PASSES; pass++)
+			{
+				final int[] offsets = counts[pass];
+				if(!offsets(offsets, n))
+				{
+					continue;
+				}
+				if(dst == null)
+				{
+					dst = new long[n];
+					dstValues = v == null ? null : new int[n];
+				}
+				if(v == null)
+				{
+					for(int i = srcOffset, end = srcOffset + n; i < end; i++)
+					{
+						dst[dstOffset + offsets[digit(src[i], pass)]++] = src[i];
+					}
+				}
+				else
+				{
+					for(int i = 0; i < n; i++)
+					{
+						int j = dstOffset + offsets[digit(src[srcOffset + i], pass)]++;
+						dst[j] = src[srcOffset + i];
+						dstValues[j] = srcValues[srcOffset + i];
+					}
+				}
+
+				long[] keys = src;
+				src = dst;
+				dst = keys;
+				int[] values = srcValues;
+				srcValues = dstValues;
+				dstValues = values;
+				int offset = srcOffset;
+				srcOffset = dstOffset;
+				dstOffset = offset;
+			}
+			if(src != a)
+			{
+				System.arraycopy(src, 0, a, from, n);
+				if(v != null)
+				{
+					System.arraycopy(srcValues, 0, v, from, n);
+				}
+			}
+		}
+
+		static void sort(long[] a, long[] v, int from, int to)
+		{
+			final int n = to - from;
+			if(n < 2)
+			{
+				return;
+			}
+			final int[][] counts = count(a, from, to);
+			long[] src = a;
+			long[] srcValues = v;
+			int srcOffset = from;
+			long[] dst = null;
+			long[] dstValues = null;
+			int dstOffset = 0;
+			for(int pass = 0; pass < PASSES; pass++)
+			{
+				final int[] offsets = counts[pass];
+				if(!offsets(offsets, n))
+				{
+					continue;
+				}
+				if(dst == null)
+				{
+					dst = new long[n];
+					dstValues = v == null ? null : new long[n];
+				}
+				if(v == null)
+				{
+					for(int i = srcOffset, end = srcOffset + n; i < end; i++)
+					{
+						dst[dstOffset + offsets[digit(src[i], pass)]++] = src[i];
+					}
+				}
+				else
+				{
+					for(int i = 0; i < n; i++)
+					{
+						int j = dstOffset + offsets[digit(src[srcOffset + i], pass)]++;
+						dst[j] = src[srcOffset + i];
+						dstValues[j] = srcValues[srcOffset + i];
+					}
+				}
+
+				long[] keys = src;
+				src = dst;
+				dst = keys;
+				long[] values = srcValues;
+				srcValues = dstValues;
+				dstValues = values;
+				int offset = srcOffset;
+				srcOffset = dstOffset;
+				dstOffset = offset;
+			}
+			if(src != a)
+			{
+				System.arraycopy(src, 0, a, from, n);
+				if(v != null)
+				{
+					System.arraycopy(srcValues, 0, v, from, n);
+				}
+			}
+		}
+
+		static void parallelSort(ForkJoinPool pool, long[] a, int from, int to, int parts)
+		{
+			final int n = to - from;
+			LongRadixPass pass = new LongRadixPass(a, from, new long[n], 0, n, parts);
+			boolean inBuffer = false;
+			for(int p = 0; p < PASSES; p++)
+			{
+				pass.digit = p;
+				pass.counting = true;
+				pool.invoke(new LongRadixTask(pass, 0, parts));
+				if(!pass.offsets())
+				{
+					continue;
+				}
+				pass.counting = false;
+				pool.invoke(new LongRadixTask(pass, 0, parts));
+				pass.swap();
+				inBuffer = !inBuffer;
+			}
+			if(inBuffer)
+			{
+				System.arraycopy(pass.src, 0, a, from, n);
+			}
+		}
+	}
+
+	/**
+	 * State of a pass of parallel radix sort: the range is cut into parts;
+	 * each part counts its byte values, and then moves its elements to the
+	 * offsets given by the counts of all the parts.
+	 */
+	static final class LongRadixPass
+	{
+		long[] src;
+		int srcOffset;
+		long[] dst;
+		int dstOffset;
+		final int n;
+		final int parts;
+		final int[][] counts;
+		int digit;
+		boolean counting;
+
+		LongRadixPass(long[] src, int srcOffset, long[] dst, int dstOffset, int n, int parts)
+		{
+			this.src = src;
+			this.srcOffset = srcOffset;
+			this.dst = dst;
+			this.dstOffset = dstOffset;
+			this.n = n;
+			this.parts = parts;
+			counts = new int[parts][256];
+		}
+
+		int partStart(int part)
+		{
+			return (int) ((long) n * part / parts);
+		}
+
+		void count(int part)
+		{
+			final int[] counts = this.counts[part];
+			Arrays.fill(counts, 0);
+			for(int i = srcOffset + partStart(part), end = srcOffset + partStart(part + 1); i < end; i++)
+			{
+				counts[LongRadix.digit(src[i], digit)]++;
+			}
+		}
+
+		/**
+		 * Turns counts of parts into start offsets of each byte value of each part.
+		 */
+		boolean offsets()
+		{
+			int offset = 0;
+			for(int d = 0; d < 256; d++)
+			{
+				int start = offset;
+				for(int part = 0; part < parts; part++)
+				{
+					int count = counts[part][d];
+					counts[part][d] = offset;
+					offset += count;
+				}
+				if(offset - start == n)
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		void distribute(int part)
+		{
+			final int[] offsets = counts[part];
+			final long[] src = this.src;
+			final long[] dst = this.dst;
+			for(int i = srcOffset + partStart(part), end = srcOffset + partStart(part + 1); i < end; i++)
+			{
+				dst[dstOffset + offsets[LongRadix.digit(src[i], digit)]++] = src[i];
+			}
+		}
+
+		void swap()
+		{
+			long[] a = src;
+			src = dst;
+			dst = a;
+			int offset = srcOffset;
+			srcOffset = dstOffset;
+			dstOffset = offset;
+		}
+	}
+
+	/**
+	 * Runs counting or distribution of parts <tt>[lo, hi)</tt> of a radix sort pass.
+	 */
+	@SuppressWarnings("serial")
+	static final class LongRadixTask extends RecursiveAction
+	{
+		private final LongRadixPass pass;
+		private final int lo;
+		private final int hi;
+
+		LongRadixTask(LongRadixPass pass, int lo, int hi)
+		{
+			this.pass = pass;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if(hi - lo > 1)
+			{
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new LongRadixTask(pass, lo, mid), new LongRadixTask(pass, mid, hi));
+			}
+			else if(pass.counting)
+			{
+				pass.count(lo);
+			}
+			else
+			{
+				pass.distribute(lo);
+			}
+		}
+	}
+}
@@ -25,7 +25,9 @@
 package org.napile.primitive.collections;
 
 import org.napile.primitive.Container;
+import org.napile.primitive.functions.IntProcedure;
 import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.IntSpliterator;
 
 /**
  * The root interface in the <i>collection hierarchy</i>.  A collection
@@ -166,6 +168,24 @@ public interface IntCollection extends Container
 	 */
 	IntIterator iterator();
 
+	/**
+	 * Executes the given procedure for each element of this collection,
+	 * until all elements have been processed or the procedure returns <tt>false</tt>.
+	 *
+	 * @param procedure the procedure to execute
+	 * @return <tt>false</tt> if the procedure stopped the iteration, <tt>true</tt> otherwise
+	 */
+	boolean forEach(IntProcedure procedure);
+
+	/**
+	 * Returns a spliterator over the elements in this collection, which allows
+	 * the elements to be partitioned and processed by several threads without
+	 * copying them into an array first.
+	 *
+	 * @return a spliterator over the elements in this collection
+	 */
+	IntSpliterator spliterator();
+
 	/**
 	 * Returns an array containing all of the elements in this collection.
 	 * If this collection makes any guarantees as to what order its elements
@@ -26,8 +26,12 @@ package org.napile.primitive.collections.abstracts;
 
 import java.util.Arrays;
 
+import org.napile.primitive.MemoryEstimator;
 import org.napile.primitive.collections.IntCollection;
+import org.napile.primitive.functions.IntProcedure;
 import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.IntSpliterator;
+import org.napile.primitive.iterators.impl.IteratorIntSpliterator;
 
 /**
  * This class provides a skeletal implementation of the <tt>Collection</tt>
@@ -81,6 +85,34 @@ public abstract class AbstractIntCollection implements IntCollection
 	 */
 	public abstract IntIterator iterator();
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation iterates over the elements with <tt>iterator()</tt>.
+	 */
+	public boolean forEach(IntProcedure procedure)
+	{
+		for(IntIterator it = iterator(); it.hasNext(); )
+		{
+			if(!procedure.execute(it.next()))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation returns a spliterator over <tt>iterator()</tt>,
+	 * sized by <tt>size()</tt>, which splits by copying batches of elements.
+	 */
+	public IntSpliterator spliterator()
+	{
+		return new IteratorIntSpliterator(this, 0);
+	}
+
 	public abstract int size();
 
 	/**
@@ -93,6 +125,18 @@ public abstract class AbstractIntCollection implements IntCollection
 		return size() == 0;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation returns the size of this object only, without
+	 * the objects referenced by it. Implementations, which hold their own
+	 * data, override it.
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p/>
@@ -26,8 +26,12 @@ package org.napile.primitive.collections.abstracts;
 
 import java.util.Arrays;
 
+import org.napile.primitive.MemoryEstimator;
 import org.napile.primitive.collections.LongCollection;
+import org.napile.primitive.functions.LongProcedure;
 import org.napile.primitive.iterators.LongIterator;
+import org.napile.primitive.iterators.LongSpliterator;
+import org.napile.primitive.iterators.impl.IteratorLongSpliterator;
 
 /**
  * This class provides a skeletal implementation of the <tt>Collection</tt>
@@ -81,6 +85,34 @@ public abstract class AbstractLongCollection implements LongCollection
 	 */
 	public abstract LongIterator iterator();
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation iterates over the elements with <tt>iterator()</tt>.
+	 */
+	public boolean forEach(LongProcedure procedure)
+	{
+		for(LongIterator it = iterator(); it.hasNext(); )
+		{
+			if(!procedure.execute(it.next()))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation returns a spliterator over <tt>iterator()</tt>,
+	 * sized by <tt>size()</tt>, which splits by copying batches of elements.
+	 */
+	public LongSpliterator spliterator()
+	{
+		return new IteratorLongSpliterator(this, 0);
+	}
+
 	public abstract int size();
 
 	/**
@@ -94,6 +126,18 @@ public abstract class AbstractLongCollection implements LongCollection
 		return size() == 0;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation returns the size of this object only, without
+	 * the objects referenced by it. Implementations, which hold their own
+	 * data, override it.
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p/>
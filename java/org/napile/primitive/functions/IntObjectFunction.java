@@ -0,0 +1,40 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.functions;
+
+/**
+ * Function which computes a result from a key-value mapping of map with <tt>int</tt> keys.
+ * Used by {@link org.napile.primitive.maps.impl.CHashIntObjectMap#search(long, IntObjectFunction)}.
+ *
+ * @param <V> the type of values
+ * @param <R> the type of result
+ * @author VISTALL
+ * @date 16:02/18.10.2026
+ */
+public interface IntObjectFunction<V, R>
+{
+	/**
+	 * Applies this function to the given mapping.
+	 *
+	 * @param key   the key
+	 * @param value the value
+	 * @return the function result
+	 */
+	R apply(int key, V value);
+}
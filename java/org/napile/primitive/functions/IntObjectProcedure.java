@@ -0,0 +1,39 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.functions;
+
+/**
+ * Procedure which is executed for each key-value mapping of map with <tt>int</tt> keys.
+ * Procedure can stop the iteration, by returning <tt>false</tt>.
+ *
+ * @param <V> the type of values
+ * @author VISTALL
+ * @date 15:10/18.10.2026
+ */
+public interface IntObjectProcedure<V>
+{
+	/**
+	 * Executes this procedure.
+	 *
+	 * @param key   the key
+	 * @param value the value
+	 * @return <tt>true</tt> if iteration should continue, <tt>false</tt> to stop it
+	 */
+	boolean execute(int key, V value);
+}
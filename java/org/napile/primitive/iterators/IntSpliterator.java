@@ -0,0 +1,117 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.iterators;
+
+import org.napile.primitive.functions.IntProcedure;
+
+/**
+ * An object for traversing and partitioning the <tt>int</tt> elements of a source,
+ * modelled on <tt>java.util.Spliterator.OfInt</tt>. A spliterator may traverse
+ * elements one by one ({@link #tryAdvance(IntProcedure)}) or in bulk
+ * ({@link #forEachRemaining(IntProcedure)}), and may hand a part of its elements
+ * off to another spliterator ({@link #trySplit()}), so that the parts can be
+ * processed by different threads.
+ * <p/>
+ * <p>The characteristic flags have the same values as in <tt>java.util.Spliterator</tt>,
+ * which makes adapting a spliterator to <tt>java.util.stream</tt> a one-to-one mapping.
+ * Like iterators, spliterators are not thread-safe; a spliterator must be used by
+ * one thread at a time.
+ *
+ * @author VISTALL
+ * @date 16:40/18.10.2026
+ * @see org.napile.primitive.collections.IntCollection#spliterator()
+ */
+public interface IntSpliterator
+{
+	/**
+	 * Elements have a defined encounter order.
+	 */
+	int ORDERED = 0x00000010;
+
+	/**
+	 * Each encountered element is distinct from the others.
+	 */
+	int DISTINCT = 0x00000001;
+
+	/**
+	 * {@link #estimateSize()} prior to traversal or splitting is the exact number of elements.
+	 */
+	int SIZED = 0x00000040;
+
+	/**
+	 * The source cannot be structurally modified.
+	 */
+	int IMMUTABLE = 0x00000400;
+
+	/**
+	 * The source may be safely concurrently modified without external synchronization.
+	 */
+	int CONCURRENT = 0x00001000;
+
+	/**
+	 * All spliterators resulting from {@link #trySplit()} will be both {@link #SIZED} and <tt>SUBSIZED</tt>.
+	 */
+	int SUBSIZED = 0x00004000;
+
+	/**
+	 * If a remaining element exists, executes the given procedure on it
+	 * (ignoring its result) and returns <tt>true</tt>; else returns <tt>false</tt>.
+	 *
+	 * @param procedure the procedure
+	 * @return <tt>false</tt> if no remaining elements existed upon entry to this method
+	 */
+	boolean tryAdvance(IntProcedure procedure);
+
+	/**
+	 * Executes the given procedure for each remaining element, sequentially in
+	 * the current thread, until all elements have been processed or the procedure
+	 * returns <tt>false</tt>. Elements after the one which stopped the traversal stay remaining.
+	 *
+	 * @param procedure the procedure
+	 * @return <tt>false</tt> if the procedure stopped the traversal, <tt>true</tt> otherwise
+	 */
+	boolean forEachRemaining(IntProcedure procedure);
+
+	/**
+	 * If this spliterator can be partitioned, returns a spliterator covering
+	 * a prefix of the elements, that will, upon return from this method, not be
+	 * covered by this spliterator.
+	 *
+	 * @return a spliterator covering some portion of the elements, or <tt>null</tt>
+	 *         if this spliterator cannot be split
+	 */
+	IntSpliterator trySplit();
+
+	/**
+	 * Returns an estimate of the number of elements that would be encountered
+	 * by {@link #forEachRemaining(IntProcedure)}, exact if this spliterator is {@link #SIZED}.
+	 *
+	 * @return the estimated size, or <tt>Long.MAX_VALUE</tt> if unknown
+	 */
+	long estimateSize();
+
+	/**
+	 * Returns a set of characteristics of this spliterator and its elements,
+	 * ORed together from {@link #ORDERED}, {@link #DISTINCT}, {@link #SIZED},
+	 * {@link #IMMUTABLE}, {@link #CONCURRENT} and {@link #SUBSIZED}.
+	 *
+	 * @return the characteristics
+	 */
+	int characteristics();
+}
@@ -0,0 +1,95 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.iterators.impl;
+
+import org.napile.primitive.functions.LongProcedure;
+import org.napile.primitive.iterators.LongSpliterator;
+
+/**
+ * Spliterator over a range of a <tt>long</tt> array, which is split in halves.
+ * The array is not copied, and must not be structurally changed during traversal.
+ *
+ * @author VISTALL
+ * @date 16:40/18.10.2026
+ */
+public class ArrayLongSpliterator implements LongSpliterator
+{
+	private final long[] array;
+	private int index;
+	private final int fence;
+	private final int characteristics;
+
+	/**
+	 * Creates a spliterator covering the given range of the given array.
+	 *
+	 * @param array                     the array, assumed to be unmodified during use
+	 * @param origin                    the least index (inclusive) to cover
+	 * @param fence                     one past the greatest index to cover
+	 * @param additionalCharacteristics additional characteristics beyond <tt>SIZED</tt> and <tt>SUBSIZED</tt>
+	 */
+	public ArrayLongSpliterator(long[] array, int origin, int fence, int additionalCharacteristics)
+	{
+		this.array = array;
+		this.index = origin;
+		this.fence = fence;
+		this.characteristics = additionalCharacteristics | SIZED | SUBSIZED;
+	}
+
+	public boolean tryAdvance(LongProcedure procedure)
+	{
+		if(index < fence)
+		{
+			procedure.execute(array[index++]);
+			return true;
+		}
+		return false;
+	}
+
+	public boolean forEachRemaining(LongProcedure procedure)
+	{
+		final long[] array = this.array;
+		final int hi = fence;
+		for(int i = index; i < hi; )
+		{
+			if(!procedure.execute(array[i++]))
+			{
+				index = i;
+				return false;
+			}
+		}
+		index = hi;
+		return true;
+	}
+
+	public LongSpliterator trySplit()
+	{
+		int lo = index, mid = (lo + fence) >>> 1;
+		return lo >= mid ? null : new ArrayLongSpliterator(array, lo, index = mid, characteristics);
+	}
+
+	public long estimateSize()
+	{
+		return fence - index;
+	}
+
+	public int characteristics()
+	{
+		return characteristics;
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.iterators.impl;
+
+import org.napile.primitive.collections.LongCollection;
+import org.napile.primitive.functions.LongProcedure;
+import org.napile.primitive.iterators.LongIterator;
+import org.napile.primitive.iterators.LongSpliterator;
+
+/**
+ * Spliterator over the iterator of a collection. Splitting copies a batch of
+ * elements, growing arithmetically with each split, into an array, so a source
+ * without a better partitioning still can be processed in parallel.
+ * The iterator and the size are taken from the collection at first use.
+ *
+ * @author VISTALL
+ * @date 16:40/18.10.2026
+ */
+public class IteratorLongSpliterator implements LongSpliterator
+{
+	static final int BATCH_UNIT = 1 << 10;
+	static final int MAX_BATCH = 1 << 25;
+
+	private final LongCollection collection;
+	private LongIterator it;
+	private final int characteristics;
+	private long est;
+	private int batch;
+
+	/**
+	 * Creates a spliterator over the elements of the given collection.
+	 * Unless the characteristics include <tt>CONCURRENT</tt>, the spliterator
+	 * is <tt>SIZED</tt> by the collection's <tt>size()</tt>.
+	 *
+	 * @param collection      the collection
+	 * @param characteristics characteristics of the collection's elements
+	 */
+	public IteratorLongSpliterator(LongCollection collection, int characteristics)
+	{
+		this.collection = collection;
+		this.characteristics = (characteristics & CONCURRENT) == 0 ? characteristics | SIZED | SUBSIZED : characteristics;
+	}
+
+	private LongIterator iterator()
+	{
+		LongIterator i = it;
+		if(i == null)
+		{
+			i = it = collection.iterator();
+			est = collection.size();
+		}
+		return i;
+	}
+
+	public boolean tryAdvance(LongProcedure procedure)
+	{
+		LongIterator i = iterator();
+		if(i.hasNext())
+		{
+			procedure.execute(i.next());
+			return true;
+		}
+		return false;
+	}
+
+	public boolean forEachRemaining(LongProcedure procedure)
+	{
+		for(LongIterator i = iterator(); i.hasNext(); )
+		{
+			if(!procedure.execute(i.next()))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public LongSpliterator trySplit()
+	{
+		LongIterator i = iterator();
+		long s = est;
+		if(s > 1 && i.hasNext())
+		{
+			int n = batch + BATCH_UNIT;
+			if(n > s)
+			{
+				n = (int) s;
+			}
+			if(n > MAX_BATCH)
+			{
+				n = MAX_BATCH;
+			}
+			long[] a = new long[n];
+			int j = 0;
+			do
+			{
+				a[j] = i.next();
+			}
+			while(++j < n && i.hasNext());
+			batch = j;
+			est -= j;
+			return new ArrayLongSpliterator(a, 0, j, characteristics);
+		}
+		return null;
+	}
+
+	public long estimateSize()
+	{
+		iterator();
+		return est;
+	}
+
+	public int characteristics()
+	{
+		return characteristics;
+	}
+}
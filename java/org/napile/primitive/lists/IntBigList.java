@@ -0,0 +1,105 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.lists;
+
+/**
+ * An {@link IntList} which may hold more than {@link Integer#MAX_VALUE}
+ * elements. The positional methods of this interface take <tt>long</tt>
+ * indices; the methods inherited from <tt>IntList</tt> reach the first
+ * <tt>Integer.MAX_VALUE</tt> elements, and {@link #size()} returns
+ * <tt>Integer.MAX_VALUE</tt> if the list is longer.
+ *
+ * @author VISTALL
+ * @date 20:05/18.10.2026
+ */
+public interface IntBigList extends IntList
+{
+	/**
+	 * Returns the number of elements in this list.
+	 *
+	 * @return the number of elements in this list
+	 */
+	long sizeAsLong();
+
+	/**
+	 * Returns the element at the specified position in this list.
+	 *
+	 * @param index index of the element to return
+	 * @return the element at the specified position in this list
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= sizeAsLong()</tt>)
+	 */
+	int get(long index);
+
+	/**
+	 * Replaces the element at the specified position in this list with the
+	 * specified element.
+	 *
+	 * @param index   index of the element to replace
+	 * @param element element to be stored at the specified position
+	 * @return the element previously at the specified position
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= sizeAsLong()</tt>)
+	 */
+	int set(long index, int element);
+
+	/**
+	 * Removes the element at the specified position in this list, and
+	 * shifts any subsequent elements to the left.
+	 *
+	 * @param index the index of the element to be removed
+	 * @return the element previously at the specified position
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= sizeAsLong()</tt>)
+	 */
+	int removeByIndex(long index);
+
+	/**
+	 * Appends all of the elements of the specified array to the end of this list.
+	 *
+	 * @param a the array containing elements to be added to this list
+	 * @return <tt>true</tt> if this list changed as a result of the call
+	 * @throws NullPointerException if the specified array is null
+	 */
+	boolean addAll(int[] a);
+
+	/**
+	 * Copies <tt>length</tt> elements of this list, starting at <tt>from</tt>,
+	 * into the specified array, starting at <tt>offset</tt>.
+	 *
+	 * @param from   the index of the first element of this list to be copied
+	 * @param a      the destination array
+	 * @param offset the index of the destination array to copy to
+	 * @param length the count of elements to be copied
+	 * @throws IndexOutOfBoundsException if either range is out of bounds
+	 */
+	void getElements(long from, int[] a, int offset, int length);
+
+	/**
+	 * Replaces <tt>length</tt> elements of this list, starting at <tt>from</tt>,
+	 * with the elements of the specified array, starting at <tt>offset</tt>.
+	 *
+	 * @param from   the index of the first element of this list to be replaced
+	 * @param a      the source array
+	 * @param offset the index of the first element of the array to be stored
+	 * @param length the count of elements to be replaced
+	 * @throws IndexOutOfBoundsException if either range is out of bounds
+	 */
+	void setElements(long from, int[] a, int offset, int length);
+}
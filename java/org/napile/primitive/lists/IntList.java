@@ -582,5 +582,63 @@ public interface IntList extends IntCollection
 	 *                                   fromIndex &gt; toIndex</tt>)
 	 */
 	IntList subList(int fromIndex, int toIndex);
-}
 
+	/**
+	 * Appends <tt>length</tt> elements of the specified array, starting at
+	 * <tt>offset</tt>, to the end of this list, in array order.
+	 *
+	 * @param a      the array containing elements to be added to this list
+	 * @param offset the index of the first element of the array to be added
+	 * @param length the count of elements to be added
+	 * @return <tt>true</tt> if this list changed as a result of the call
+	 * @throws UnsupportedOperationException if the <tt>addAll</tt> operation
+	 *                                       is not supported by this list
+	 * @throws NullPointerException          if the specified array is null
+	 * @throws IndexOutOfBoundsException     if the range is out of the bounds of the array
+	 */
+	boolean addAll(int[] a, int offset, int length);
+
+	/**
+	 * Copies <tt>length</tt> elements of this list, starting at <tt>from</tt>,
+	 * into the specified array, starting at <tt>offset</tt>.
+	 *
+	 * @param from   the index of the first element of this list to be copied
+	 * @param a      the destination array
+	 * @param offset the index of the destination array to copy to
+	 * @param length the count of elements to be copied
+	 * @throws NullPointerException      if the specified array is null
+	 * @throws IndexOutOfBoundsException if either range is out of bounds
+	 */
+	void getElements(int from, int[] a, int offset, int length);
+
+	/**
+	 * Replaces <tt>length</tt> elements of this list, starting at <tt>from</tt>,
+	 * with the elements of the specified array, starting at <tt>offset</tt>.
+	 *
+	 * @param from   the index of the first element of this list to be replaced
+	 * @param a      the source array
+	 * @param offset the index of the first element of the array to be stored
+	 * @param length the count of elements to be replaced
+	 * @throws UnsupportedOperationException if the <tt>set</tt> operation
+	 *                                       is not supported by this list
+	 * @throws NullPointerException          if the specified array is null
+	 * @throws IndexOutOfBoundsException     if either range is out of bounds
+	 */
+	void setElements(int from, int[] a, int offset, int length);
+
+	/**
+	 * Removes from this list all of the elements whose index is between
+	 * <tt>fromIndex</tt>, inclusive, and <tt>toIndex</tt>, exclusive.
+	 * Shifts any succeeding elements to the left (reduces their index).
+	 * (If <tt>toIndex==fromIndex</tt>, this operation has no effect.)
+	 *
+	 * @param fromIndex index of first element to be removed
+	 * @param toIndex   index after last element to be removed
+	 * @throws UnsupportedOperationException if the <tt>remove</tt> operation
+	 *                                       is not supported by this list
+	 * @throws IndexOutOfBoundsException     if the range is out of bounds
+	 *                                       (<tt>fromIndex &lt; 0 || toIndex &gt; size ||
+	 *                                       fromIndex &gt; toIndex</tt>)
+	 */
+	void removeRange(int fromIndex, int toIndex);
+}
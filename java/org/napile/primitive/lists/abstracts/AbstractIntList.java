@@ -34,6 +34,8 @@ import org.napile.primitive.collections.IntCollection;
 import org.napile.primitive.collections.abstracts.AbstractIntCollection;
 import org.napile.primitive.iterators.IntIterator;
 import org.napile.primitive.iterators.IntListIterator;
+import org.napile.primitive.iterators.IntSpliterator;
+import org.napile.primitive.iterators.impl.IteratorIntSpliterator;
 import org.napile.primitive.lists.IntList;
 
 /**
@@ -308,6 +310,17 @@ public abstract class AbstractIntList extends AbstractIntCollection implements I
 		return new Itr();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation reports the elements as <tt>ORDERED</tt>.
+	 */
+	@Override
+	public IntSpliterator spliterator()
+	{
+		return new IteratorIntSpliterator(this, IntSpliterator.ORDERED);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p/>
@@ -612,6 +625,86 @@ public abstract class AbstractIntList extends AbstractIntCollection implements I
 		return hashCode;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation calls {@code add(int)} for each element of
+	 * the specified range of the array, in order.
+	 *
+	 * @throws UnsupportedOperationException {@inheritDoc}
+	 * @throws NullPointerException          {@inheritDoc}
+	 * @throws IndexOutOfBoundsException     {@inheritDoc}
+	 */
+	public boolean addAll(int[] a, int offset, int length)
+	{
+		arrayRangeCheck(a, offset, length);
+		for(int i = 0; i < length; i++)
+		{
+			add(a[offset + i]);
+		}
+		return length != 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation gets a list iterator positioned before
+	 * {@code from} and copies the elements it returns.
+	 *
+	 * @throws NullPointerException      {@inheritDoc}
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public void getElements(int from, int[] a, int offset, int length)
+	{
+		arrayRangeCheck(a, offset, length);
+		elementsRangeCheck(from, length);
+		IntListIterator it = listIterator(from);
+		for(int i = 0; i < length; i++)
+		{
+			a[offset + i] = it.next();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation gets a list iterator positioned before
+	 * {@code from}, and repeatedly calls {@code ListIterator.next}
+	 * followed by {@code ListIterator.set}.
+	 *
+	 * @throws UnsupportedOperationException {@inheritDoc}
+	 * @throws NullPointerException          {@inheritDoc}
+	 * @throws IndexOutOfBoundsException     {@inheritDoc}
+	 */
+	public void setElements(int from, int[] a, int offset, int length)
+	{
+		arrayRangeCheck(a, offset, length);
+		elementsRangeCheck(from, length);
+		IntListIterator it = listIterator(from);
+		for(int i = 0; i < length; i++)
+		{
+			it.next();
+			it.set(a[offset + i]);
+		}
+	}
+
+	private void elementsRangeCheck(int from, int length)
+	{
+		int size = size();
+		if(from < 0 || from > size - length)
+		{
+			throw new IndexOutOfBoundsException("From: " + from + ", Length: " + length + ", Size: " + size);
+		}
+	}
+
+	static void arrayRangeCheck(int[] a, int offset, int length)
+	{
+		if(offset < 0 || length < 0 || offset > a.length - length)
+		{
+			throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + a.length);
+		}
+	}
+
 	/**
 	 * Removes from this list all of the elements whose index is between
 	 * {@code fromIndex}, inclusive, and {@code toIndex}, exclusive.
@@ -634,9 +727,15 @@ public abstract class AbstractIntList extends AbstractIntCollection implements I
 	 *
 	 * @param fromIndex index of first element to be removed
 	 * @param toIndex   index after last element to be removed
+	 * @throws UnsupportedOperationException {@inheritDoc}
+	 * @throws IndexOutOfBoundsException     {@inheritDoc}
 	 */
-	protected void removeRange(int fromIndex, int toIndex)
+	public void removeRange(int fromIndex, int toIndex)
 	{
+		if(fromIndex < 0 || toIndex > size() || fromIndex > toIndex)
+		{
+			throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size());
+		}
 		IntListIterator it = listIterator(fromIndex);
 		for(int i = 0, n = toIndex - fromIndex; i < n; i++)
 		{
@@ -745,8 +844,12 @@ class SubIntList extends AbstractIntList
 		return result;
 	}
 
-	protected void removeRange(int fromIndex, int toIndex)
+	public void removeRange(int fromIndex, int toIndex)
 	{
+		if(fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+		{
+			throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+		}
 		checkForComodification();
 		l.removeRange(fromIndex + offset, toIndex + offset);
 		expectedModCount = l.modCount;
@@ -754,6 +857,26 @@ class SubIntList extends AbstractIntList
 		modCount++;
 	}
 
+	public void getElements(int from, int[] a, int offset, int length)
+	{
+		if(from < 0 || from > size - length)
+		{
+			throw new IndexOutOfBoundsException("From: " + from + ", Length: " + length + ", Size: " + size);
+		}
+		checkForComodification();
+		l.getElements(from + this.offset, a, offset, length);
+	}
+
+	public void setElements(int from, int[] a, int offset, int length)
+	{
+		if(from < 0 || from > size - length)
+		{
+			throw new IndexOutOfBoundsException("From: " + from + ", Length: " + length + ", Size: " + size);
+		}
+		checkForComodification();
+		l.setElements(from + this.offset, a, offset, length);
+	}
+
 	public boolean addAll(IntCollection c)
 	{
 		return addAll(size, c);
@@ -779,6 +902,22 @@ class SubIntList extends AbstractIntList
 		return true;
 	}
 
+	public boolean addAll(int[] a, int offset, int length)
+	{
+		arrayRangeCheck(a, offset, length);
+		if(length == 0)
+		{
+			return false;
+		}
+
+		checkForComodification();
+		l.addAll(this.offset + size, new ArrayRange(a, offset, length));
+		expectedModCount = l.modCount;
+		size += length;
+		modCount++;
+		return true;
+	}
+
 	public IntIterator iterator()
 	{
 		return listIterator();
@@ -883,6 +1022,63 @@ class SubIntList extends AbstractIntList
 			throw new ConcurrentModificationException();
 		}
 	}
+
+	/**
+	 * A range of an array, inserted by {@link #addAll(int[], int, int)} into the
+	 * backing list in one call, so that the elements after it are moved once.
+	 */
+	private static class ArrayRange extends AbstractIntCollection
+	{
+		private final int[] a;
+		private final int offset;
+		private final int length;
+
+		ArrayRange(int[] a, int offset, int length)
+		{
+			this.a = a;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		public int size()
+		{
+			return length;
+		}
+
+		public int[] toArray()
+		{
+			int[] result = new int[length];
+			System.arraycopy(a, offset, result, 0, length);
+			return result;
+		}
+
+		public IntIterator iterator()
+		{
+			return new IntIterator()
+			{
+				int cursor;
+
+				public boolean hasNext()
+				{
+					return cursor < length;
+				}
+
+				public int next()
+				{
+					if(cursor >= length)
+					{
+						throw new NoSuchElementException();
+					}
+					return a[offset + cursor++];
+				}
+
+				public void remove()
+				{
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+	}
 }
 
 class RandomAccessSubIntList extends SubIntList implements RandomAccess
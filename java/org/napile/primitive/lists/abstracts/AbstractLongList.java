@@ -37,6 +37,8 @@ import org.napile.primitive.iterators.IntIterator;
 import org.napile.primitive.iterators.IntListIterator;
 import org.napile.primitive.iterators.LongIterator;
 import org.napile.primitive.iterators.LongListIterator;
+import org.napile.primitive.iterators.LongSpliterator;
+import org.napile.primitive.iterators.impl.IteratorLongSpliterator;
 import org.napile.primitive.lists.IntList;
 import org.napile.primitive.lists.LongList;
 
@@ -322,6 +324,17 @@ public abstract class AbstractLongList extends AbstractLongCollection implements
 		return new Itr();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation reports the elements as <tt>ORDERED</tt>.
+	 */
+	@Override
+	public LongSpliterator spliterator()
+	{
+		return new IteratorLongSpliterator(this, LongSpliterator.ORDERED);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p/>
@@ -637,6 +650,86 @@ public abstract class AbstractLongList extends AbstractLongCollection implements
 		return (int)hashCode;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation calls {@code add(long)} for each element of
+	 * the specified range of the array, in order.
+	 *
+	 * @throws UnsupportedOperationException {@inheritDoc}
+	 * @throws NullPointerException          {@inheritDoc}
+	 * @throws IndexOutOfBoundsException     {@inheritDoc}
+	 */
+	public boolean addAll(long[] a, int offset, int length)
+	{
+		arrayRangeCheck(a, offset, length);
+		for(int i = 0; i < length; i++)
+		{
+			add(a[offset + i]);
+		}
+		return length != 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation gets a list iterator positioned before
+	 * {@code from} and copies the elements it returns.
+	 *
+	 * @throws NullPointerException      {@inheritDoc}
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public void getElements(int from, long[] a, int offset, int length)
+	{
+		arrayRangeCheck(a, offset, length);
+		elementsRangeCheck(from, length);
+		LongListIterator it = listIterator(from);
+		for(int i = 0; i < length; i++)
+		{
+			a[offset + i] = it.next();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation gets a list iterator positioned before
+	 * {@code from}, and repeatedly calls {@code ListIterator.next}
+	 * followed by {@code ListIterator.set}.
+	 *
+	 * @throws UnsupportedOperationException {@inheritDoc}
+	 * @throws NullPointerException          {@inheritDoc}
+	 * @throws IndexOutOfBoundsException     {@inheritDoc}
+	 */
+	public void setElements(int from, long[] a, int offset, int length)
+	{
+		arrayRangeCheck(a, offset, length);
+		elementsRangeCheck(from, length);
+		LongListIterator it = listIterator(from);
+		for(int i = 0; i < length; i++)
+		{
+			it.next();
+			it.set(a[offset + i]);
+		}
+	}
+
+	private void elementsRangeCheck(int from, int length)
+	{
+		int size = size();
+		if(from < 0 || from > size - length)
+		{
+			throw new IndexOutOfBoundsException("From: " + from + ", Length: " + length + ", Size: " + size);
+		}
+	}
+
+	static void arrayRangeCheck(long[] a, int offset, int length)
+	{
+		if(offset < 0 || length < 0 || offset > a.length - length)
+		{
+			throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + a.length);
+		}
+	}
+
 	/**
 	 * Removes from this list all of the elements whose index is between
 	 * {@code fromIndex}, inclusive, and {@code toIndex}, exclusive.
@@ -659,9 +752,15 @@ public abstract class AbstractLongList extends AbstractLongCollection implements
 	 *
 	 * @param fromIndex index of first element to be removed
 	 * @param toIndex   index after last element to be removed
+	 * @throws UnsupportedOperationException {@inheritDoc}
+	 * @throws IndexOutOfBoundsException     {@inheritDoc}
 	 */
-	protected void removeRange(int fromIndex, int toIndex)
+	public void removeRange(int fromIndex, int toIndex)
 	{
+		if(fromIndex < 0 || toIndex > size() || fromIndex > toIndex)
+		{
+			throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size());
+		}
 		LongListIterator it = listIterator(fromIndex);
 		for(int i = 0, n = toIndex - fromIndex; i < n; i++)
 		{
@@ -776,8 +875,12 @@ class SubLongList extends AbstractLongList
 	}
 
 	@Override
-	protected void removeRange(int fromIndex, int toIndex)
+	public void removeRange(int fromIndex, int toIndex)
 	{
+		if(fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+		{
+			throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+		}
 		checkForComodification();
 		l.removeRange(fromIndex + offset, toIndex + offset);
 		expectedModCount = l.modCount;
@@ -785,6 +888,26 @@ class SubLongList extends AbstractLongList
 		modCount++;
 	}
 
+	public void getElements(int from, long[] a, int offset, int length)
+	{
+		if(from < 0 || from > size - length)
+		{
+			throw new IndexOutOfBoundsException("From: " + from + ", Length: " + length + ", Size: " + size);
+		}
+		checkForComodification();
+		l.getElements(from + this.offset, a, offset, length);
+	}
+
+	public void setElements(int from, long[] a, int offset, int length)
+	{
+		if(from < 0 || from > size - length)
+		{
+			throw new IndexOutOfBoundsException("From: " + from + ", Length: " + length + ", Size: " + size);
+		}
+		checkForComodification();
+		l.setElements(from + this.offset, a, offset, length);
+	}
+
 	@Override
 	public boolean addAll(LongCollection c)
 	{
@@ -812,6 +935,22 @@ class SubLongList extends AbstractLongList
 		return true;
 	}
 
+	public boolean addAll(long[] a, int offset, int length)
+	{
+		arrayRangeCheck(a, offset, length);
+		if(length == 0)
+		{
+			return false;
+		}
+
+		checkForComodification();
+		l.addAll(this.offset + size, new ArrayRange(a, offset, length));
+		expectedModCount = l.modCount;
+		size += length;
+		modCount++;
+		return true;
+	}
+
 	public LongIterator iterator()
 	{
 		return listIterator();
@@ -925,6 +1064,63 @@ class SubLongList extends AbstractLongList
 			throw new ConcurrentModificationException();
 		}
 	}
+
+	/**
+	 * A range of an array, inserted by {@link #addAll(long[], int, int)} into the
+	 * backing list in one call, so that the elements after it are moved once.
+	 */
+	private static class ArrayRange extends AbstractLongCollection
+	{
+		private final long[] a;
+		private final int offset;
+		private final int length;
+
+		ArrayRange(long[] a, int offset, int length)
+		{
+			this.a = a;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		public int size()
+		{
+			return length;
+		}
+
+		public long[] toArray()
+		{
+			long[] result = new long[length];
+			System.arraycopy(a, offset, result, 0, length);
+			return result;
+		}
+
+		public LongIterator iterator()
+		{
+			return new LongIterator()
+			{
+				int cursor;
+
+				public boolean hasNext()
+				{
+					return cursor < length;
+				}
+
+				public long next()
+				{
+					if(cursor >= length)
+					{
+						throw new NoSuchElementException();
+					}
+					return a[offset + cursor++];
+				}
+
+				public void remove()
+				{
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+	}
 }
 
 class RandomAccessSubLongList extends SubLongList implements RandomAccess
@@ -28,7 +28,12 @@ import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.RandomAccess;
 
+import org.napile.primitive.MemoryEstimator;
+import org.napile.primitive.Sorting;
 import org.napile.primitive.collections.IntCollection;
+import org.napile.primitive.comparators.IntComparator;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.iterators.IntSpliterator;
 import org.napile.primitive.lists.IntList;
 import org.napile.primitive.lists.abstracts.AbstractIntList;
 
@@ -216,6 +221,17 @@ public class ArrayIntList extends AbstractIntList implements IntList, RandomAcce
 		return size == 0;
 	}
 
+	/**
+	 * Returns an estimate of heap size, retained by this list: the list object
+	 * and its array (including unused capacity).
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.sizeOf(elementData);
+	}
+
 	/**
 	 * Returns <tt>true</tt> if this list contains the specified element.
 	 * More formally, returns <tt>true</tt> if and only if this list contains
@@ -230,6 +246,45 @@ public class ArrayIntList extends AbstractIntList implements IntList, RandomAcce
 		return indexOf(o) >= 0;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws ConcurrentModificationException if the list was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEach(IntProcedure procedure)
+	{
+		final int expectedModCount = modCount;
+		final int[] elementData = this.elementData;
+		final int size = this.size;
+		for(int i = 0; i < size; i++)
+		{
+			boolean next = procedure.execute(elementData[i]);
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			if(!next)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a late-binding and fail-fast spliterator over the elements in
+	 * this list, which is split in halves by index and reports <tt>ORDERED</tt>,
+	 * <tt>SIZED</tt> and <tt>SUBSIZED</tt>.
+	 *
+	 * @return a spliterator over the elements in this list
+	 */
+	@Override
+	public IntSpliterator spliterator()
+	{
+		return new ListSpliterator(0, -1, 0);
+	}
+
 	/**
 	 * Returns the index of the first occurrence of the specified element
 	 * in this list, or -1 if this list does not contain the element.
@@ -563,6 +618,63 @@ public class ArrayIntList extends AbstractIntList implements IntList, RandomAcce
 		return numNew != 0;
 	}
 
+	/**
+	 * Appends <tt>length</tt> elements of the specified array, starting at
+	 * <tt>offset</tt>, to the end of this list.
+	 *
+	 * @param a      the array containing elements to be added to this list
+	 * @param offset the index of the first element of the array to be added
+	 * @param length the count of elements to be added
+	 * @return <tt>true</tt> if this list changed as a result of the call
+	 * @throws NullPointerException	  if the specified array is null
+	 * @throws IndexOutOfBoundsException if the range is out of the bounds of the array
+	 */
+	public boolean addAll(int[] a, int offset, int length)
+	{
+		if(offset < 0 || length < 0 || offset > a.length - length)
+		{
+			throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + a.length);
+		}
+		ensureCapacity(size + length);  // Increments modCount
+		System.arraycopy(a, offset, elementData, size, length);
+		size += length;
+		return length != 0;
+	}
+
+	/**
+	 * Copies <tt>length</tt> elements of this list, starting at <tt>from</tt>,
+	 * into the specified array, starting at <tt>offset</tt>.
+	 *
+	 * @param from   the index of the first element of this list to be copied
+	 * @param a      the destination array
+	 * @param offset the index of the destination array to copy to
+	 * @param length the count of elements to be copied
+	 * @throws NullPointerException	  if the specified array is null
+	 * @throws IndexOutOfBoundsException if either range is out of bounds
+	 */
+	public void getElements(int from, int[] a, int offset, int length)
+	{
+		ElementsRangeCheck(from, length);
+		System.arraycopy(elementData, from, a, offset, length);
+	}
+
+	/**
+	 * Replaces <tt>length</tt> elements of this list, starting at <tt>from</tt>,
+	 * with the elements of the specified array, starting at <tt>offset</tt>.
+	 *
+	 * @param from   the index of the first element of this list to be replaced
+	 * @param a      the source array
+	 * @param offset the index of the first element of the array to be stored
+	 * @param length the count of elements to be replaced
+	 * @throws NullPointerException	  if the specified array is null
+	 * @throws IndexOutOfBoundsException if either range is out of bounds
+	 */
+	public void setElements(int from, int[] a, int offset, int length)
+	{
+		ElementsRangeCheck(from, length);
+		System.arraycopy(a, offset, elementData, from, length);
+	}
+
 	/**
 	 * Removes from this list all of the elements whose index is between
 	 * <tt>fromIndex</tt>, inclusive, and <tt>toIndex</tt>, exclusive.
@@ -573,11 +685,15 @@ public class ArrayIntList extends AbstractIntList implements IntList, RandomAcce
 	 * @param fromIndex index of first element to be removed
 	 * @param toIndex   index after last element to be removed
 	 * @throws IndexOutOfBoundsException if fromIndex or toIndex out of
-	 *                                   range (fromIndex &lt; 0 || fromIndex &gt;= size() || toIndex
-	 *                                   &gt; size() || toIndex &lt; fromIndex)
+	 *                                   range (fromIndex &lt; 0 || toIndex &gt; size() ||
+	 *                                   toIndex &lt; fromIndex)
 	 */
-	protected void removeRange(int fromIndex, int toIndex)
+	public void removeRange(int fromIndex, int toIndex)
 	{
+		if(fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+		{
+			throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+		}
 		modCount++;
 		int numMoved = size - toIndex;
 		System.arraycopy(elementData, toIndex, elementData, fromIndex, numMoved);
@@ -590,6 +706,149 @@ public class ArrayIntList extends AbstractIntList implements IntList, RandomAcce
 		}
 	}
 
+	// Sorting and searching
+
+	/**
+	 * Sorts this list into ascending numerical order, in place.
+	 */
+	public void sort()
+	{
+		modCount++;
+		Arrays.sort(elementData, 0, size);
+	}
+
+	/**
+	 * Sorts this list according to the order induced by the specified
+	 * comparator, in place. The sort is stable and never boxes the elements.
+	 *
+	 * @param comparator the comparator to determine the order of the list,
+	 *                   <tt>null</tt> for natural ordering
+	 * @see Sorting#sort(int[], int, int, IntComparator)
+	 */
+	public void sort(IntComparator comparator)
+	{
+		modCount++;
+		Sorting.sort(elementData, 0, size, comparator);
+	}
+
+	/**
+	 * Sorts this list into ascending numerical order, in place, on the
+	 * fork-join pool if the list is longer than {@link Sorting#PARALLEL_THRESHOLD}.
+	 *
+	 * @see Sorting#parallelSort(int[], int, int)
+	 */
+	public void parallelSort()
+	{
+		modCount++;
+		Sorting.parallelSort(elementData, 0, size);
+	}
+
+	/**
+	 * Sorts this list into ascending numerical order, in place, by radix sort.
+	 *
+	 * @see Sorting#radixSort(int[], int, int)
+	 */
+	public void radixSort()
+	{
+		modCount++;
+		Sorting.radixSort(elementData, 0, size);
+	}
+
+	/**
+	 * Sorts this list into ascending numerical order by radix sort, with the
+	 * passes run on the fork-join pool if the list is longer than
+	 * {@link Sorting#PARALLEL_THRESHOLD}.
+	 *
+	 * @see Sorting#parallelRadixSort(int[], int, int)
+	 */
+	public void parallelRadixSort()
+	{
+		modCount++;
+		Sorting.parallelRadixSort(elementData, 0, size);
+	}
+
+	/**
+	 * Sorts this list into ascending numerical order by radix sort, and
+	 * moves the elements of the specified list in lock-step, so that the
+	 * element at each index of <tt>values</tt> stays with the element at the
+	 * same index of this list.
+	 *
+	 * @param values the list of the same size to be reordered with this one
+	 * @throws IllegalArgumentException if the lists differ in size, or
+	 *                                  <tt>values</tt> is this list
+	 * @see Sorting#radixSort(int[], int[], int, int)
+	 */
+	public void radixSort(ArrayIntList values)
+	{
+		if(values == this)
+		{
+			throw new IllegalArgumentException("values is this list");
+		}
+		if(values.size() != size)
+		{
+			throw new IllegalArgumentException("Size: " + size + ", values size: " + values.size());
+		}
+		modCount++;
+		Sorting.radixSort(elementData, values.elementDataForUpdate(), 0, size);
+	}
+
+	/**
+	 * Sorts this list into ascending numerical order by radix sort, and
+	 * moves the elements of the specified list in lock-step, so that the
+	 * element at each index of <tt>values</tt> stays with the element at the
+	 * same index of this list.
+	 *
+	 * @param values the list of the same size to be reordered with this one
+	 * @throws IllegalArgumentException if the lists differ in size
+	 * @see Sorting#radixSort(int[], long[], int, int)
+	 */
+	public void radixSort(ArrayLongList values)
+	{
+		if(values.size() != size)
+		{
+			throw new IllegalArgumentException("Size: " + size + ", values size: " + values.size());
+		}
+		modCount++;
+		Sorting.radixSort(elementData, values.elementDataForUpdate(), 0, size);
+	}
+
+	/**
+	 * Searches this list, sorted into ascending numerical order, for the
+	 * specified value. If the list is not sorted, the results are undefined.
+	 *
+	 * @param key the value to be searched for
+	 * @return index of the search key, if it is contained in the list;
+	 *         otherwise, <tt>(-(<i>insertion point</i>) - 1)</tt>
+	 */
+	public int binarySearch(int key)
+	{
+		return Arrays.binarySearch(elementData, 0, size, key);
+	}
+
+	/**
+	 * Searches this list, sorted according to the specified comparator,
+	 * for the specified value. If the list is not sorted, the results are undefined.
+	 *
+	 * @param key        the value to be searched for
+	 * @param comparator the comparator by which the list is ordered,
+	 *                   <tt>null</tt> for natural ordering
+	 * @return index of the search key, if it is contained in the list;
+	 *         otherwise, <tt>(-(<i>insertion point</i>) - 1)</tt>
+	 */
+	public int binarySearch(int key, IntComparator comparator)
+	{
+		return Sorting.binarySearch(elementData, 0, size, key, comparator);
+	}
+
+	/**
+	 * Returns the backing array, for a bulk update by another list of this package.
+	 */
+	final int[] elementDataForUpdate()
+	{
+		modCount++;
+		return elementData;
+	}
+
 	/**
 	 * Checks if the given index is in range.  If not, throws an appropriate
 	 * runtime exception.  This method does *not* check if the index is
@@ -604,6 +863,18 @@ public class ArrayIntList extends AbstractIntList implements IntList, RandomAcce
 		}
 	}
 
+	/**
+	 * Checks that <tt>length</tt> elements starting at <tt>from</tt> are
+	 * within the list; the array range is checked by <tt>System.arraycopy</tt>.
+	 */
+	private void ElementsRangeCheck(int from, int length)
+	{
+		if(from < 0 || from > size - length)
+		{
+			throw new IndexOutOfBoundsException("From: " + from + ", Length: " + length + ", Size: " + size);
+		}
+	}
+
 	/**
 	 * Save the state of the <tt>ArrayList</tt> instance to a stream (that
 	 * is, serialize it).
@@ -653,4 +924,89 @@ public class ArrayIntList extends AbstractIntList implements IntList, RandomAcce
 			a[i] = s.readInt();
 		}
 	}
+
+	/**
+	 * Index-based split-by-two spliterator. The list size and mod count
+	 * are bound at first use.
+	 */
+	private final class ListSpliterator implements IntSpliterator
+	{
+		private int index;
+		/**
+		 * One past last index, -1 until first use
+		 */
+		private int fence;
+		private int expectedModCount;
+
+		ListSpliterator(int origin, int fence, int expectedModCount)
+		{
+			this.index = origin;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		private int getFence()
+		{
+			int hi = fence;
+			if(hi < 0)
+			{
+				expectedModCount = modCount;
+				hi = fence = size;
+			}
+			return hi;
+		}
+
+		public boolean tryAdvance(IntProcedure procedure)
+		{
+			int hi = getFence(), i = index;
+			if(i < hi)
+			{
+				index = i + 1;
+				procedure.execute(elementData[i]);
+				if(modCount != expectedModCount)
+				{
+					throw new ConcurrentModificationException();
+				}
+				return true;
+			}
+			return false;
+		}
+
+		public boolean forEachRemaining(IntProcedure procedure)
+		{
+			final int hi = getFence();
+			final int[] elementData = ArrayIntList.this.elementData;
+			for(int i = index; i < hi; )
+			{
+				boolean next = procedure.execute(elementData[i++]);
+				if(modCount != expectedModCount)
+				{
+					throw new ConcurrentModificationException();
+				}
+				if(!next)
+				{
+					index = i;
+					return false;
+				}
+			}
+			index = hi;
+			return true;
+		}
+
+		public IntSpliterator trySplit()
+		{
+			int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+			return lo >= mid ? null : new ListSpliterator(lo, index = mid, expectedModCount);
+		}
+
+		public long estimateSize()
+		{
+			return getFence() - index;
+		}
+
+		public int characteristics()
+		{
+			return ORDERED | SIZED | SUBSIZED;
+		}
+	}
 }
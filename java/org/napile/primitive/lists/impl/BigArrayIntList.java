@@ -0,0 +1,706 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.lists.impl;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import org.napile.primitive.MemoryEstimator;
+import org.napile.primitive.collections.IntCollection;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.lists.IntBigList;
+import org.napile.primitive.lists.abstracts.AbstractIntList;
+
+/**
+ * {@link IntBigList} implementation over chunks of {@value #CHUNK_SIZE}
+ * elements. Unlike {@link ArrayIntList}, growing the list never copies the
+ * elements: a full list gets a new chunk, and only the small array of chunk
+ * references is copied. The first chunk grows like <tt>ArrayIntList</tt>
+ * until it reaches the chunk size, so short lists stay small.
+ * <p/>
+ * <p>The <tt>get</tt>, <tt>set</tt> and <tt>add</tt> operations run in
+ * constant time; <tt>add</tt> at the end never makes a pause proportional
+ * to the size of the list. Insertion and removal at an index shift the
+ * subsequent elements, chunk by chunk.
+ * <p/>
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access a list concurrently, and at least one of the
+ * threads modifies the list structurally, it <i>must</i> be synchronized
+ * externally.
+ * <p/>
+ * <p>The iterators returned by this class's <tt>iterator</tt> and
+ * <tt>listIterator</tt> methods are <i>fail-fast</i>: if the list is
+ * structurally modified at any time after the iterator is created, in any way
+ * except through the iterator's own <tt>remove</tt> or <tt>add</tt> methods,
+ * the iterator will throw a {@link ConcurrentModificationException}.
+ *
+ * @author VISTALL
+ * @date 20:15/18.10.2026
+ * @see ArrayIntList
+ */
+public class BigArrayIntList extends AbstractIntList implements IntBigList, RandomAccess, Cloneable, java.io.Serializable
+{
+	private static final long serialVersionUID = 4305286251718734117L;
+
+	static final int CHUNK_SHIFT = 16;
+
+	/**
+	 * Count of elements in a full chunk.
+	 */
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+	static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/**
+	 * Max size of array returned by {@link #toArray()}.
+	 */
+	private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+	private static final int[][] EMPTY_CHUNKS = new int[0][];
+
+	/**
+	 * The chunks of elements. All chunks but the only one are full size.
+	 */
+	private transient int[][] chunks;
+
+	private transient int chunkCount;
+
+	/**
+	 * The size of the list (the number of elements it contains).
+	 *
+	 * @serial
+	 */
+	private long size;
+
+	/**
+	 * Constructs an empty list.
+	 */
+	public BigArrayIntList()
+	{
+		chunks = EMPTY_CHUNKS;
+	}
+
+	/**
+	 * Constructs an empty list with the specified initial capacity.
+	 *
+	 * @param initialCapacity the initial capacity of the list
+	 * @throws IllegalArgumentException if the specified initial capacity is negative
+	 */
+	public BigArrayIntList(long initialCapacity)
+	{
+		if(initialCapacity < 0)
+		{
+			throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+		}
+		chunks = EMPTY_CHUNKS;
+		ensureCapacity(initialCapacity);
+	}
+
+	/**
+	 * Constructs a list containing the elements of the specified
+	 * collection, in the order they are returned by the collection's
+	 * iterator.
+	 *
+	 * @param c the collection whose elements are to be placed into this list
+	 * @throws NullPointerException if the specified collection is null
+	 */
+	public BigArrayIntList(IntCollection c)
+	{
+		this();
+		addAll(c);
+	}
+
+	private static int chunk(long index)
+	{
+		return (int) (index >>> CHUNK_SHIFT);
+	}
+
+	private static int offset(long index)
+	{
+		return (int) index & CHUNK_MASK;
+	}
+
+	private long capacity()
+	{
+		return chunkCount == 0 ? 0 : ((long) (chunkCount - 1) << CHUNK_SHIFT) + chunks[chunkCount - 1].length;
+	}
+
+	/**
+	 * Increases the capacity of this list, if necessary, to hold at least
+	 * the number of elements specified by the minimum capacity argument.
+	 * Only the first chunk is ever copied, while it is shorter than the
+	 * chunk size; then new chunks are added.
+	 *
+	 * @param minCapacity the desired minimum capacity
+	 */
+	public void ensureCapacity(long minCapacity)
+	{
+		modCount++;
+		long capacity = capacity();
+		if(minCapacity <= capacity)
+		{
+			return;
+		}
+		if(chunkCount <= 1 && capacity < CHUNK_SIZE)
+		{
+			int length = (int) Math.min(Math.max(Math.max(capacity * 3 / 2 + 1, minCapacity), 10), CHUNK_SIZE);
+			if(chunkCount == 0)
+			{
+				chunks = new int[1][];
+				chunks[0] = new int[length];
+				chunkCount = 1;
+			}
+			else
+			{
+				chunks[0] = Arrays.copyOf(chunks[0], length);
+			}
+			capacity = length;
+		}
+		while(capacity < minCapacity)
+		{
+			if(chunkCount == chunks.length)
+			{
+				chunks = Arrays.copyOf(chunks, chunkCount + (chunkCount >> 1) + 1);
+			}
+			chunks[chunkCount++] = new int[CHUNK_SIZE];
+			capacity += CHUNK_SIZE;
+		}
+	}
+
+	/**
+	 * Trims the capacity of this list to be close to the list's current
+	 * size: the chunks past the last element are dropped, and the only chunk
+	 * is trimmed to the size.
+	 */
+	public void trimToSize()
+	{
+		modCount++;
+		int count = (int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+		if(count <= 1 && size < CHUNK_SIZE)
+		{
+			chunks = count == 0 ? EMPTY_CHUNKS : new int[][]{Arrays.copyOf(chunks[0], (int) size)};
+			chunkCount = count;
+			return;
+		}
+		chunks = Arrays.copyOf(chunks, count);
+		chunkCount = count;
+	}
+
+	/**
+	 * Returns the number of elements in this list, or <tt>Integer.MAX_VALUE</tt> if it is greater.
+	 *
+	 * @return the number of elements in this list
+	 * @see #sizeAsLong()
+	 */
+	public int size()
+	{
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+
+	public long sizeAsLong()
+	{
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	@Override
+	public long estimateMemoryBytes()
+	{
+		long bytes = MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.sizeOf(chunks);
+		for(int i = 0; i < chunkCount; i++)
+		{
+			bytes += MemoryEstimator.sizeOf(chunks[i]);
+		}
+		return bytes;
+	}
+
+	@Override
+	public boolean contains(int o)
+	{
+		for(int i = 0; i < chunkCount; i++)
+		{
+			final int[] chunk = chunks[i];
+			for(int j = 0, end = chunkLength(i); j < end; j++)
+			{
+				if(chunk[j] == o)
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns count of elements of the list in the chunk.
+	 */
+	private int chunkLength(int i)
+	{
+		return (int) Math.max(Math.min(size - ((long) i << CHUNK_SHIFT), CHUNK_SIZE), 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation walks over the chunks without an iterator.
+	 *
+	 * @throws ConcurrentModificationException if the list was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEach(IntProcedure procedure)
+	{
+		final int expectedModCount = modCount;
+		for(int i = 0; i < chunkCount; i++)
+		{
+			final int[] chunk = chunks[i];
+			for(int j = 0, end = chunkLength(i); j < end; j++)
+			{
+				if(!procedure.execute(chunk[j]))
+				{
+					return false;
+				}
+				if(modCount != expectedModCount)
+				{
+					throw new ConcurrentModificationException();
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws OutOfMemoryError if the list is too long for an array
+	 */
+	@Override
+	public int[] toArray()
+	{
+		if(size > MAX_ARRAY_SIZE)
+		{
+			throw new OutOfMemoryError("Required array size too large");
+		}
+		int[] a = new int[(int) size];
+		getElements(0, a, 0, a.length);
+		return a;
+	}
+
+	/**
+	 * Returns a copy of this list; the chunks are copied too.
+	 *
+	 * @return a clone of this list
+	 */
+	public Object clone()
+	{
+		try
+		{
+			BigArrayIntList v = (BigArrayIntList) super.clone();
+			v.chunks = new int[chunkCount][];
+			for(int i = 0; i < chunkCount; i++)
+			{
+				v.chunks[i] = chunks[i].clone();
+			}
+			v.modCount = 0;
+			return v;
+		}
+		catch(CloneNotSupportedException e)
+		{
+			// this shouldn't happen, since we are Cloneable
+			throw new InternalError();
+		}
+	}
+
+	// Positional Access Operations
+
+	public int get(int index)
+	{
+		return get((long) index);
+	}
+
+	public int get(long index)
+	{
+		rangeCheck(index);
+
+		return chunks[chunk(index)][offset(index)];
+	}
+
+	public int set(int index, int element)
+	{
+		return set((long) index, element);
+	}
+
+	public int set(long index, int element)
+	{
+		rangeCheck(index);
+
+		int[] chunk = chunks[chunk(index)];
+		int oldValue = chunk[offset(index)];
+		chunk[offset(index)] = element;
+		return oldValue;
+	}
+
+	/**
+	 * Appends the specified element to the end of this list.
+	 *
+	 * @param e element to be appended to this list
+	 * @return <tt>true</tt> (as specified by {@link IntCollection#add})
+	 */
+	public boolean add(int e)
+	{
+		ensureCapacity(size + 1);  // Increments modCount!!
+		chunks[chunk(size)][offset(size)] = e;
+		size++;
+		return true;
+	}
+
+	/**
+	 * Inserts the specified element at the specified position in this
+	 * list. Shifts the element currently at that position (if any) and
+	 * any subsequent elements to the right (adds one to their indices).
+	 *
+	 * @param index   index at which the specified element is to be inserted
+	 * @param element element to be inserted
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 */
+	public void add(int index, int element)
+	{
+		if(index > size || index < 0)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		ensureCapacity(size + 1);  // Increments modCount!!
+		move(index, index + 1, size - index);
+		chunks[chunk(index)][offset(index)] = element;
+		size++;
+	}
+
+	public int removeByIndex(int index)
+	{
+		return removeByIndex((long) index);
+	}
+
+	public int removeByIndex(long index)
+	{
+		rangeCheck(index);
+
+		modCount++;
+		int oldValue = chunks[chunk(index)][offset(index)];
+		move(index + 1, index, size - index - 1);
+		size--;
+		return oldValue;
+	}
+
+	/**
+	 * Removes all of the elements from this list, and releases the chunks.
+	 */
+	public void clear()
+	{
+		modCount++;
+		chunks = EMPTY_CHUNKS;
+		chunkCount = 0;
+		size = 0;
+	}
+
+	/**
+	 * Appends all of the elements in the specified collection to the end of
+	 * this list, in the order that they are returned by the
+	 * specified collection's Iterator.
+	 *
+	 * @param c collection containing elements to be added to this list
+	 * @return <tt>true</tt> if this list changed as a result of the call
+	 * @throws NullPointerException if the specified collection is null
+	 */
+	public boolean addAll(IntCollection c)
+	{
+		int[] a = c.toArray();
+		return addAll(a, 0, a.length);
+	}
+
+	/**
+	 * Inserts all of the elements in the specified collection into this
+	 * list, starting at the specified position.  Shifts the element
+	 * currently at that position (if any) and any subsequent elements to
+	 * the right (increases their indices).
+	 *
+	 * @param index index at which to insert the first element from the
+	 *              specified collection
+	 * @param c	 collection containing elements to be added to this list
+	 * @return <tt>true</tt> if this list changed as a result of the call
+	 * @throws IndexOutOfBoundsException {@inheritDoc}
+	 * @throws NullPointerException	  if the specified collection is null
+	 */
+	public boolean addAll(int index, IntCollection c)
+	{
+		if(index > size || index < 0)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+
+		int[] a = c.toArray();
+		int numNew = a.length;
+		ensureCapacity(size + numNew);  // Increments modCount
+		move(index, index + numNew, size - index);
+		copyIn(index, a, 0, numNew);
+		size += numNew;
+		return numNew != 0;
+	}
+
+	public boolean addAll(int[] a)
+	{
+		return addAll(a, 0, a.length);
+	}
+
+	public boolean addAll(int[] a, int offset, int length)
+	{
+		arrayRangeCheck(a, offset, length);
+
+		ensureCapacity(size + length);  // Increments modCount
+		copyIn(size, a, offset, length);
+		size += length;
+		return length != 0;
+	}
+
+	public void getElements(long from, int[] a, int offset, int length)
+	{
+		arrayRangeCheck(a, offset, length);
+		if(from < 0 || from > size - length)
+		{
+			throw new IndexOutOfBoundsException("From: " + from + ", Length: " + length + ", Size: " + size);
+		}
+
+		while(length > 0)
+		{
+			int n = Math.min(length, CHUNK_SIZE - offset(from));
+			System.arraycopy(chunks[chunk(from)], offset(from), a, offset, n);
+			from += n;
+			offset += n;
+			length -= n;
+		}
+	}
+
+	public void getElements(int from, int[] a, int offset, int length)
+	{
+		getElements((long) from, a, offset, length);
+	}
+
+	public void setElements(long from, int[] a, int offset, int length)
+	{
+		arrayRangeCheck(a, offset, length);
+		if(from < 0 || from > size - length)
+		{
+			throw new IndexOutOfBoundsException("From: " + from + ", Length: " + length + ", Size: " + size);
+		}
+
+		copyIn(from, a, offset, length);
+	}
+
+	public void setElements(int from, int[] a, int offset, int length)
+	{
+		setElements((long) from, a, offset, length);
+	}
+
+	/**
+	 * Removes from this list all of the elements whose index is between
+	 * <tt>fromIndex</tt>, inclusive, and <tt>toIndex</tt>, exclusive.
+	 * Shifts any succeeding elements to the left (reduces their index).
+	 *
+	 * @param fromIndex index of first element to be removed
+	 * @param toIndex   index after last element to be removed
+	 * @throws IndexOutOfBoundsException if the range is out of bounds
+	 */
+	public void removeRange(int fromIndex, int toIndex)
+	{
+		if(fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+		{
+			throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+		}
+		modCount++;
+		move(toIndex, fromIndex, size - toIndex);
+		size -= toIndex - fromIndex;
+	}
+
+	/**
+	 * Copies <tt>length</tt> elements at <tt>from</tt> to <tt>to</tt>, chunk
+	 * by chunk; the ranges may overlap. Both ranges must be within capacity.
+	 */
+	private void move(long from, long to, long length)
+	{
+		final int[][] chunks = this.chunks;
+		if(to > from)
+		{
+			long src = from + length;
+			long dst = to + length;
+			while(length > 0)
+			{
+				int n = (int) Math.min(length, Math.min(offset(src - 1), offset(dst - 1)) + 1);
+				src -= n;
+				dst -= n;
+				System.arraycopy(chunks[chunk(src)], offset(src), chunks[chunk(dst)], offset(dst), n);
+				length -= n;
+			}
+		}
+		else
+		{
+			while(length > 0)
+			{
+				int n = (int) Math.min(length, CHUNK_SIZE - Math.max(offset(from), offset(to)));
+				System.arraycopy(chunks[chunk(from)], offset(from), chunks[chunk(to)], offset(to), n);
+				from += n;
+				to += n;
+				length -= n;
+			}
+		}
+	}
+
+	/**
+	 * Copies elements of the array into the list at <tt>index</tt>, within capacity.
+	 */
+	private void copyIn(long index, int[] a, int offset, int length)
+	{
+		while(length > 0)
+		{
+			int n = Math.min(length, CHUNK_SIZE - offset(index));
+			System.arraycopy(a, offset, chunks[chunk(index)], offset(index), n);
+			index += n;
+			offset += n;
+			length -= n;
+		}
+	}
+
+	private void rangeCheck(long index)
+	{
+		if(index >= size || index < 0)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	private static void arrayRangeCheck(int[] a, int offset, int length)
+	{
+		if(offset < 0 || length < 0 || offset > a.length - length)
+		{
+			throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + a.length);
+		}
+	}
+
+	/**
+	 * Returns an iterator over the elements in this list in proper sequence,
+	 * which goes over all the elements, also past <tt>Integer.MAX_VALUE</tt>.
+	 *
+	 * @return an iterator over the elements in this list in proper sequence
+	 */
+	@Override
+	public IntIterator iterator()
+	{
+		return new Itr();
+	}
+
+	private final class Itr implements IntIterator
+	{
+		private long cursor;
+		private long lastRet = -1;
+		private int expectedModCount = modCount;
+
+		public boolean hasNext()
+		{
+			return cursor < size;
+		}
+
+		public int next()
+		{
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			long i = cursor;
+			if(i >= size)
+			{
+				throw new NoSuchElementException();
+			}
+			cursor = i + 1;
+			return chunks[chunk(lastRet = i)][offset(i)];
+		}
+
+		public void remove()
+		{
+			if(lastRet < 0)
+			{
+				throw new IllegalStateException();
+			}
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			removeByIndex(lastRet);
+			cursor = lastRet;
+			lastRet = -1;
+			expectedModCount = modCount;
+		}
+	}
+
+	/**
+	 * Save the state of the list to a stream.
+	 *
+	 * @serialData The size of the list (long), followed by all of its
+	 * elements in the proper order.
+	 */
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException
+	{
+		int expectedModCount = modCount;
+		s.defaultWriteObject();
+
+		for(int i = 0; i < chunkCount; i++)
+		{
+			final int[] chunk = chunks[i];
+			for(int j = 0, end = chunkLength(i); j < end; j++)
+			{
+				s.writeInt(chunk[j]);
+			}
+		}
+
+		if(modCount != expectedModCount)
+		{
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * Reconstitute the list from a stream.
+	 */
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException
+	{
+		s.defaultReadObject();
+
+		chunks = EMPTY_CHUNKS;
+		ensureCapacity(size);
+		for(long i = 0; i < size; i++)
+		{
+			chunks[chunk(i)][offset(i)] = s.readInt();
+		}
+	}
+}
@@ -30,12 +30,15 @@ import java.util.NoSuchElementException;
 import java.util.RandomAccess;
 import java.util.concurrent.locks.ReentrantLock;
 
+import org.napile.primitive.MemoryEstimator;
 import org.napile.primitive.collections.LongCollection;
+import org.napile.primitive.functions.LongProcedure;
 import org.napile.primitive.iterators.LongIterator;
 import org.napile.primitive.iterators.LongListIterator;
+import org.napile.primitive.iterators.LongSpliterator;
+import org.napile.primitive.iterators.impl.ArrayLongSpliterator;
 import org.napile.primitive.lists.LongList;
 import org.napile.primitive.lists.abstracts.AbstractLongList;
-import sun.misc.Unsafe;
 
 /**
  * A thread-safe variant of {@link ArrayIntList} in which all mutative
@@ -78,7 +81,7 @@ public class CArrayLongList implements LongList, RandomAccess, Cloneable, java.i
 	/**
 	 * The lock protecting all mutators
 	 */
-	transient final ReentrantLock lock = new ReentrantLock();
+	private transient ReentrantLock lock = new ReentrantLock();
 
 	/**
 	 * The array, accessed only via getArray/setArray.
@@ -156,6 +159,17 @@ public class CArrayLongList implements LongList, RandomAccess, Cloneable, java.i
 		return size() == 0;
 	}
 
+	/**
+	 * Returns an estimate of heap size, retained by this list: the list object,
+	 * its lock and the current snapshot array.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.sizeOf(lock) + MemoryEstimator.sizeOf(getArray());
+	}
+
 	/**
 	 * Test for equality, coping with nulls.
 	 */
@@ -600,6 +614,105 @@ public class CArrayLongList implements LongList, RandomAccess, Cloneable, java.i
 		}
 	}
 
+	/**
+	 * Appends <tt>length</tt> elements of the specified array, starting at
+	 * <tt>offset</tt>, to the end of this list, as a single copy of the
+	 * underlying array.
+	 *
+	 * @param a      the array containing elements to be added to this list
+	 * @param offset the index of the first element of the array to be added
+	 * @param length the count of elements to be added
+	 * @return <tt>true</tt> if this list changed as a result of the call
+	 * @throws NullPointerException	  if the specified array is null
+	 * @throws IndexOutOfBoundsException if the range is out of the bounds of the array
+	 */
+	public boolean addAll(long[] a, int offset, int length)
+	{
+		if(offset < 0 || length < 0 || offset > a.length - length)
+		{
+			throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + a.length);
+		}
+		if(length == 0)
+		{
+			return false;
+		}
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try
+		{
+			long[] elements = getArray();
+			int len = elements.length;
+			long[] newElements = Arrays.copyOf(elements, len + length);
+			System.arraycopy(a, offset, newElements, len, length);
+			setArray(newElements);
+			return true;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Copies <tt>length</tt> elements of this list, starting at <tt>from</tt>,
+	 * into the specified array, starting at <tt>offset</tt>. The elements are
+	 * copied from a snapshot of the list.
+	 *
+	 * @param from   the index of the first element of this list to be copied
+	 * @param a      the destination array
+	 * @param offset the index of the destination array to copy to
+	 * @param length the count of elements to be copied
+	 * @throws NullPointerException	  if the specified array is null
+	 * @throws IndexOutOfBoundsException if either range is out of bounds
+	 */
+	public void getElements(int from, long[] a, int offset, int length)
+	{
+		long[] elements = getArray();
+		if(from < 0 || from > elements.length - length)
+		{
+			throw new IndexOutOfBoundsException("From: " + from + ", Length: " + length + ", Size: " + elements.length);
+		}
+		System.arraycopy(elements, from, a, offset, length);
+	}
+
+	/**
+	 * Replaces <tt>length</tt> elements of this list, starting at <tt>from</tt>,
+	 * with the elements of the specified array, starting at <tt>offset</tt>,
+	 * as a single copy of the underlying array.
+	 *
+	 * @param from   the index of the first element of this list to be replaced
+	 * @param a      the source array
+	 * @param offset the index of the first element of the array to be stored
+	 * @param length the count of elements to be replaced
+	 * @throws NullPointerException	  if the specified array is null
+	 * @throws IndexOutOfBoundsException if either range is out of bounds
+	 */
+	public void setElements(int from, long[] a, int offset, int length)
+	{
+		if(offset < 0 || length < 0 || offset > a.length - length)
+		{
+			throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + a.length);
+		}
+		final ReentrantLock lock = this.lock;
+		lock.lock();
+		try
+		{
+			long[] elements = getArray();
+			int len = elements.length;
+			if(from < 0 || from > len - length)
+			{
+				throw new IndexOutOfBoundsException("From: " + from + ", Length: " + length + ", Size: " + len);
+			}
+			long[] newElements = Arrays.copyOf(elements, len);
+			System.arraycopy(a, offset, newElements, from, length);
+			setArray(newElements);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
 	/**
 	 * Removes from this list all of the elements whose index is between
 	 * <tt>fromIndex</tt>, inclusive, and <tt>toIndex</tt>, exclusive.
@@ -610,10 +723,10 @@ public class CArrayLongList implements LongList, RandomAccess, Cloneable, java.i
 	 * @param fromIndex index of first element to be removed
 	 * @param toIndex   index after last element to be removed
 	 * @throws IndexOutOfBoundsException if fromIndex or toIndex out of
-	 *                                   range (fromIndex &lt; 0 || fromIndex &gt;= size() || toIndex
-	 *                                   &gt; size() || toIndex &lt; fromIndex)
+	 *                                   range (fromIndex &lt; 0 || toIndex &gt; size() ||
+	 *                                   toIndex &lt; fromIndex)
 	 */
-	private void removeRange(int fromIndex, int toIndex)
+	public void removeRange(int fromIndex, int toIndex)
 	{
 		final ReentrantLock lock = this.lock;
 		lock.lock();
@@ -622,9 +735,13 @@ public class CArrayLongList implements LongList, RandomAccess, Cloneable, java.i
 			long[] elements = getArray();
 			int len = elements.length;
 
-			if(fromIndex < 0 || fromIndex >= len || toIndex > len || toIndex < fromIndex)
+			if(fromIndex < 0 || toIndex > len || toIndex < fromIndex)
 			{
-				throw new IndexOutOfBoundsException();
+				throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + len);
+			}
+			if(fromIndex == toIndex)
+			{
+				return;
 			}
 			int newlen = len - (toIndex - fromIndex);
 			int numMoved = len - toIndex;
@@ -1111,6 +1228,40 @@ public class CArrayLongList implements LongList, RandomAccess, Cloneable, java.i
 		return new COWIterator(getArray(), 0);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Like the iterator, the procedure is executed over the snapshot
+	 * of the state of the list, so it may modify the list.
+	 */
+	public boolean forEach(LongProcedure procedure)
+	{
+		long[] elements = getArray();
+		for(long e : elements)
+		{
+			if(!procedure.execute(e))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a spliterator over the elements in this list in proper sequence.
+	 * <p/>
+	 * <p>Like the iterator, the spliterator covers a snapshot of the state of
+	 * the list when it was constructed, and reports <tt>IMMUTABLE</tt>,
+	 * <tt>ORDERED</tt>, <tt>SIZED</tt> and <tt>SUBSIZED</tt>.
+	 *
+	 * @return a spliterator over the elements in this list
+	 */
+	public LongSpliterator spliterator()
+	{
+		long[] elements = getArray();
+		return new ArrayLongSpliterator(elements, 0, elements.length, LongSpliterator.IMMUTABLE | LongSpliterator.ORDERED);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p/>
@@ -1425,6 +1576,99 @@ public class CArrayLongList implements LongList, RandomAccess, Cloneable, java.i
 			}
 		}
 
+		public void removeRange(int fromIndex, int toIndex)
+		{
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try
+			{
+				checkForComodification();
+				if(fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+				{
+					throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+				}
+				l.removeRange(fromIndex + offset, toIndex + offset);
+				expectedArray = l.getArray();
+				size -= toIndex - fromIndex;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		public boolean addAll(long[] a, int offset, int length)
+		{
+			if(offset < 0 || length < 0 || offset > a.length - length)
+			{
+				throw new IndexOutOfBoundsException("Offset: " + offset + ", Length: " + length + ", Array length: " + a.length);
+			}
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try
+			{
+				checkForComodification();
+				if(length == 0)
+				{
+					return false;
+				}
+				long[] elements = l.getArray();
+				int len = elements.length;
+				int index = this.offset + size;
+				long[] newElements = new long[len + length];
+				System.arraycopy(elements, 0, newElements, 0, index);
+				System.arraycopy(a, offset, newElements, index, length);
+				System.arraycopy(elements, index, newElements, index + length, len - index);
+				l.setArray(newElements);
+				expectedArray = newElements;
+				size += length;
+				return true;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		public void getElements(int from, long[] a, int offset, int length)
+		{
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try
+			{
+				checkForComodification();
+				if(from < 0 || from > size - length)
+				{
+					throw new IndexOutOfBoundsException("From: " + from + ", Length: " + length + ", Size: " + size);
+				}
+				l.getElements(from + this.offset, a, offset, length);
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		public void setElements(int from, long[] a, int offset, int length)
+		{
+			final ReentrantLock lock = l.lock;
+			lock.lock();
+			try
+			{
+				checkForComodification();
+				if(from < 0 || from > size - length)
+				{
+					throw new IndexOutOfBoundsException("From: " + from + ", Length: " + length + ", Size: " + size);
+				}
+				l.setElements(from + this.offset, a, offset, length);
+				expectedArray = l.getArray();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
 		@Override
 		public long removeByIndex(int index)
 		{
@@ -1588,24 +1832,8 @@ public class CArrayLongList implements LongList, RandomAccess, Cloneable, java.i
 	}
 
 	// Support for resetting lock while deserializing
-	private static final Unsafe unsafe = Unsafe.getUnsafe();
-	private static final long lockOffset;
-
-	static
-	{
-		try
-		{
-			lockOffset = unsafe.objectFieldOffset(CArrayIntList.class.getDeclaredField("lock"));
-		}
-		catch(Exception ex)
-		{
-			throw new Error(ex);
-		}
-	}
-
 	private void resetLock()
 	{
-		unsafe.putObjectVolatile(this, lockOffset, new ReentrantLock());
+		lock = new ReentrantLock();
 	}
-
-}
\ No newline at end of file
+}
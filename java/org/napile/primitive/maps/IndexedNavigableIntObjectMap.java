@@ -0,0 +1,65 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.maps;
+
+import org.napile.pair.primitive.IntObjectPair;
+
+/**
+ * A {@link NavigableIntObjectMap} with order statistics: the position of a key
+ * in the order of the map, and the key at a position. Positions are counted
+ * in the order of the map, so in a descending view position <tt>0</tt> is the
+ * greatest key.
+ *
+ * @param <V> the type of mapped values
+ * @author VISTALL
+ * @date 19:40/18.10.2026
+ * @see org.napile.primitive.maps.impl.TreeIntObjectMap
+ */
+public interface IndexedNavigableIntObjectMap<V> extends NavigableIntObjectMap<V>
+{
+	/**
+	 * Returns the number of keys in this map, which are before the given key
+	 * in the order of this map. If the map contains the key, this is the index
+	 * of it, otherwise the index at which it would be inserted.
+	 *
+	 * @param key the key
+	 * @return the number of keys before <tt>key</tt>
+	 */
+	int rank(int key);
+
+	/**
+	 * Returns the key at the specified position in the order of this map.
+	 *
+	 * @param index index of the key
+	 * @return the key with exactly <tt>index</tt> keys before it
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
+	 */
+	int select(int index);
+
+	/**
+	 * Returns a key-value mapping at the specified position in the order of this map.
+	 *
+	 * @param index index of the mapping
+	 * @return the mapping, which key has exactly <tt>index</tt> keys before it
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
+	 */
+	IntObjectPair<V> selectEntry(int index);
+}
@@ -30,6 +30,9 @@ import org.napile.pair.primitive.IntLongPair;
 import org.napile.primitive.Container;
 import org.napile.primitive.collections.IntCollection;
 import org.napile.primitive.collections.LongCollection;
+import org.napile.primitive.functions.IntLongProcedure;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.LongProcedure;
 import org.napile.primitive.sets.IntSet;
 
 /**
@@ -197,6 +200,26 @@ public interface IntLongMap extends Container
 	 */
 	long get(int key);
 
+	/**
+	 * Returns the value to which the specified key is mapped, or
+	 * {@code defaultValue} if this map contains no mapping for the key.
+	 * Unlike pair of {@link #containsKey(int)} and {@link #get(int)}, key is searched only once.
+	 *
+	 * @param key		  the key whose associated value is to be returned
+	 * @param defaultValue the default mapping of the key
+	 * @return the value to which the specified key is mapped, or
+	 *         {@code defaultValue} if this map contains no mapping for the key
+	 */
+	long getOrDefault(int key, long defaultValue);
+
+	/**
+	 * Returns the value, which is returned by {@link #get(int)}, {@link #put(int, long)}
+	 * and {@link #remove(int)} if there is no mapping for the key.
+	 *
+	 * @return the value that represents absence of mapping
+	 */
+	long getNoEntryValue();
+
 	// Modification Operations
 
 	/**
@@ -343,6 +366,34 @@ public interface IntLongMap extends Container
 	 */
 	Set<IntLongPair> entrySet();
 
+	/**
+	 * Executes the given procedure for each key-value mapping of this map,
+	 * until all mappings have been processed or the procedure returns <tt>false</tt>.
+	 * Unlike iteration over {@link #entrySet()}, no entry objects are created.
+	 *
+	 * @param procedure the procedure to execute
+	 * @return <tt>false</tt> if the procedure stopped the iteration, <tt>true</tt> otherwise
+	 */
+	boolean forEachEntry(IntLongProcedure procedure);
+
+	/**
+	 * Executes the given procedure for each key of this map,
+	 * until all keys have been processed or the procedure returns <tt>false</tt>.
+	 *
+	 * @param procedure the procedure to execute
+	 * @return <tt>false</tt> if the procedure stopped the iteration, <tt>true</tt> otherwise
+	 */
+	boolean forEachKey(IntProcedure procedure);
+
+	/**
+	 * Executes the given procedure for each value of this map,
+	 * until all values have been processed or the procedure returns <tt>false</tt>.
+	 *
+	 * @param procedure the procedure to execute
+	 * @return <tt>false</tt> if the procedure stopped the iteration, <tt>true</tt> otherwise
+	 */
+	boolean forEachValue(LongProcedure procedure);
+
 	// Comparison and hashing
 
 	/**
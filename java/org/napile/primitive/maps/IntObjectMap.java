@@ -31,6 +31,9 @@ import java.util.Set;
 import org.napile.pair.primitive.IntObjectPair;
 import org.napile.primitive.Container;
 import org.napile.primitive.collections.IntCollection;
+import org.napile.primitive.functions.IntObjectProcedure;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.ObjectProcedure;
 import org.napile.primitive.sets.IntSet;
 
 /**
@@ -345,6 +348,34 @@ public interface IntObjectMap<V> extends Container
 	 */
 	Set<IntObjectPair<V>> entrySet();
 
+	/**
+	 * Executes the given procedure for each key-value mapping of this map,
+	 * until all mappings have been processed or the procedure returns <tt>false</tt>.
+	 * Unlike iteration over {@link #entrySet()}, no entry objects are created.
+	 *
+	 * @param procedure the procedure to execute
+	 * @return <tt>false</tt> if the procedure stopped the iteration, <tt>true</tt> otherwise
+	 */
+	boolean forEachEntry(IntObjectProcedure<? super V> procedure);
+
+	/**
+	 * Executes the given procedure for each key of this map,
+	 * until all keys have been processed or the procedure returns <tt>false</tt>.
+	 *
+	 * @param procedure the procedure to execute
+	 * @return <tt>false</tt> if the procedure stopped the iteration, <tt>true</tt> otherwise
+	 */
+	boolean forEachKey(IntProcedure procedure);
+
+	/**
+	 * Executes the given procedure for each value of this map,
+	 * until all values have been processed or the procedure returns <tt>false</tt>.
+	 *
+	 * @param procedure the procedure to execute
+	 * @return <tt>false</tt> if the procedure stopped the iteration, <tt>true</tt> otherwise
+	 */
+	boolean forEachValue(ObjectProcedure<? super V> procedure);
+
 	// Comparison and hashing
 
 	/**
@@ -31,6 +31,9 @@ import java.util.Set;
 import org.napile.pair.primitive.LongObjectPair;
 import org.napile.primitive.Container;
 import org.napile.primitive.collections.IntCollection;
+import org.napile.primitive.functions.LongObjectProcedure;
+import org.napile.primitive.functions.LongProcedure;
+import org.napile.primitive.functions.ObjectProcedure;
 import org.napile.primitive.sets.IntSet;
 import org.napile.primitive.sets.LongSet;
 
@@ -346,6 +349,34 @@ public interface LongObjectMap<V> extends Container
 	 */
 	Set<LongObjectPair<V>> entrySet();
 
+	/**
+	 * Executes the given procedure for each key-value mapping of this map,
+	 * until all mappings have been processed or the procedure returns <tt>false</tt>.
+	 * Unlike iteration over {@link #entrySet()}, no entry objects are created.
+	 *
+	 * @param procedure the procedure to execute
+	 * @return <tt>false</tt> if the procedure stopped the iteration, <tt>true</tt> otherwise
+	 */
+	boolean forEachEntry(LongObjectProcedure<? super V> procedure);
+
+	/**
+	 * Executes the given procedure for each key of this map,
+	 * until all keys have been processed or the procedure returns <tt>false</tt>.
+	 *
+	 * @param procedure the procedure to execute
+	 * @return <tt>false</tt> if the procedure stopped the iteration, <tt>true</tt> otherwise
+	 */
+	boolean forEachKey(LongProcedure procedure);
+
+	/**
+	 * Executes the given procedure for each value of this map,
+	 * until all values have been processed or the procedure returns <tt>false</tt>.
+	 *
+	 * @param procedure the procedure to execute
+	 * @return <tt>false</tt> if the procedure stopped the iteration, <tt>true</tt> otherwise
+	 */
+	boolean forEachValue(ObjectProcedure<? super V> procedure);
+
 	/**
 	 * Compares the specified object with this map for equality.  Returns
 	 * <tt>true</tt> if the given object is also a map and the two maps
@@ -22,9 +22,13 @@ import java.util.Iterator;
 import java.util.Set;
 
 import org.napile.pair.primitive.IntLongPair;
+import org.napile.primitive.MemoryEstimator;
 import org.napile.primitive.Variables;
 import org.napile.primitive.collections.LongCollection;
 import org.napile.primitive.collections.abstracts.AbstractLongCollection;
+import org.napile.primitive.functions.IntLongProcedure;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.LongProcedure;
 import org.napile.primitive.iterators.IntIterator;
 import org.napile.primitive.iterators.LongIterator;
 import org.napile.primitive.maps.IntLongMap;
@@ -99,6 +103,18 @@ public abstract class AbstractIntLongMap implements IntLongMap
 		return size() == 0;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation returns the size of this object only, without
+	 * the objects referenced by it. Implementations, which hold their own
+	 * data, override it.
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p/>
@@ -156,7 +172,7 @@ public abstract class AbstractIntLongMap implements IntLongMap
 	 * <p>This implementation iterates over <tt>entrySet()</tt> searching
 	 * for an entry with the specified key.  If such an entry is found,
 	 * the entry's value is returned.  If the iteration terminates without
-	 * finding such an entry, <tt>null</tt> is returned.  Note that this
+	 * finding such an entry, {@link #getNoEntryValue()} is returned.  Note that this
 	 * implementation requires linear time in the size of the map; many
 	 * implementations will override this method.
 	 *
@@ -164,11 +180,33 @@ public abstract class AbstractIntLongMap implements IntLongMap
 	 * @throws NullPointerException {@inheritDoc}
 	 */
 	public long get(int key)
+	{
+		return getOrDefault(key, getNoEntryValue());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation iterates over <tt>entrySet()</tt> searching
+	 * for an entry with the specified key.  If such an entry is found,
+	 * the entry's value is returned, else <tt>defaultValue</tt>.
+	 */
+	public long getOrDefault(int key, long defaultValue)
 	{
 		for(IntLongPair e : entrySet())
 			if(key == e.getKey())
 				return e.getValue();
 
+		return defaultValue;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation returns {@link Variables#RETURN_LONG_VALUE_IF_NOT_FOUND}.
+	 */
+	public long getNoEntryValue()
+	{
 		return Variables.RETURN_LONG_VALUE_IF_NOT_FOUND;
 	}
 
@@ -225,7 +263,7 @@ public abstract class AbstractIntLongMap implements IntLongMap
 		}
 
 
-		long oldValue = Variables.RETURN_LONG_VALUE_IF_NOT_FOUND;
+		long oldValue = getNoEntryValue();
 		if(correctEntry != null)
 		{
 			oldValue = correctEntry.getValue();
@@ -404,6 +442,52 @@ public abstract class AbstractIntLongMap implements IntLongMap
 
 	public abstract Set<IntLongPair> entrySet();
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation iterates over <tt>entrySet()</tt>. Implementations
+	 * are encouraged to override it, to iterate over internal structures
+	 * without creating of entries.
+	 */
+	public boolean forEachEntry(IntLongProcedure procedure)
+	{
+		for(IntLongPair e : entrySet())
+		{
+			if(!procedure.execute(e.getKey(), e.getValue()))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation iterates over <tt>keySet()</tt>.
+	 */
+	public boolean forEachKey(IntProcedure procedure)
+	{
+		return keySet().forEach(procedure);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation iterates over <tt>entrySet()</tt>.
+	 */
+	public boolean forEachValue(LongProcedure procedure)
+	{
+		for(IntLongPair e : entrySet())
+		{
+			if(!procedure.execute(e.getValue()))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
 
 	// Comparison and hashing
 
@@ -423,7 +507,9 @@ public abstract class AbstractIntLongMap implements IntLongMap
 	 * <tt>entrySet</tt> collection, and checks that the specified map
 	 * contains each mapping that this map contains.  If the specified map
 	 * fails to contain such a mapping, <tt>false</tt> is returned.  If the
-	 * iteration completes, <tt>true</tt> is returned.
+	 * iteration completes, <tt>true</tt> is returned.  A value equal to the
+	 * no-entry value of the specified map is checked with <tt>containsKey</tt>,
+	 * since <tt>getOrDefault</tt> can not tell it from a missing key.
 	 *
 	 * @param o object to be compared for equality with this map
 	 * @return <tt>true</tt> if the specified object is equal to this map
@@ -453,7 +539,13 @@ public abstract class AbstractIntLongMap implements IntLongMap
 				IntLongPair e = i.next();
 				int key = e.getKey();
 				long value = e.getValue();
-				if(value != m.get(key))
+				long noEntryValue = m.getNoEntryValue();
+				if(value != m.getOrDefault(key, noEntryValue))
+				{
+					return false;
+				}
+				// the no-entry value is also returned for a missing key
+				if(value == noEntryValue && !m.containsKey(key))
 				{
 					return false;
 				}
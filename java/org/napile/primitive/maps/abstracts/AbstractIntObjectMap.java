@@ -31,6 +31,10 @@ import java.util.Map;
 import java.util.Set;
 
 import org.napile.pair.primitive.IntObjectPair;
+import org.napile.primitive.MemoryEstimator;
+import org.napile.primitive.functions.IntObjectProcedure;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.ObjectProcedure;
 import org.napile.primitive.iterators.IntIterator;
 import org.napile.primitive.maps.IntObjectMap;
 import org.napile.primitive.sets.IntSet;
@@ -105,6 +109,18 @@ public abstract class AbstractIntObjectMap<V> implements IntObjectMap<V>
 		return size() == 0;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation returns the size of this object only, without
+	 * the objects referenced by it. Implementations, which hold their own
+	 * data, override it.
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p/>
@@ -436,6 +452,52 @@ public abstract class AbstractIntObjectMap<V> implements IntObjectMap<V>
 
 	public abstract Set<IntObjectPair<V>> entrySet();
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation iterates over <tt>entrySet()</tt>. Implementations
+	 * are encouraged to override it, to iterate over internal structures
+	 * without creating of entries.
+	 */
+	public boolean forEachEntry(IntObjectProcedure<? super V> procedure)
+	{
+		for(IntObjectPair<V> e : entrySet())
+		{
+			if(!procedure.execute(e.getKey(), e.getValue()))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation iterates over <tt>keySet()</tt>.
+	 */
+	public boolean forEachKey(IntProcedure procedure)
+	{
+		return keySet().forEach(procedure);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation iterates over <tt>entrySet()</tt>.
+	 */
+	public boolean forEachValue(ObjectProcedure<? super V> procedure)
+	{
+		for(IntObjectPair<V> e : entrySet())
+		{
+			if(!procedure.execute(e.getValue()))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
 
 	// Comparison and hashing
 
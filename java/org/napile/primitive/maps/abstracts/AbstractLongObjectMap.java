@@ -31,6 +31,10 @@ import java.util.Map;
 import java.util.Set;
 
 import org.napile.pair.primitive.LongObjectPair;
+import org.napile.primitive.MemoryEstimator;
+import org.napile.primitive.functions.LongObjectProcedure;
+import org.napile.primitive.functions.LongProcedure;
+import org.napile.primitive.functions.ObjectProcedure;
 import org.napile.primitive.iterators.LongIterator;
 import org.napile.primitive.maps.LongObjectMap;
 import org.napile.primitive.sets.LongSet;
@@ -105,6 +109,18 @@ public abstract class AbstractLongObjectMap<V> implements LongObjectMap<V>
 		return size() == 0;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation returns the size of this object only, without
+	 * the objects referenced by it. Implementations, which hold their own
+	 * data, override it.
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * <p/>
@@ -449,6 +465,52 @@ public abstract class AbstractLongObjectMap<V> implements LongObjectMap<V>
 
 	public abstract Set<LongObjectPair<V>> entrySet();
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation iterates over <tt>entrySet()</tt>. Implementations
+	 * are encouraged to override it, to iterate over internal structures
+	 * without creating of entries.
+	 */
+	public boolean forEachEntry(LongObjectProcedure<? super V> procedure)
+	{
+		for(LongObjectPair<V> e : entrySet())
+		{
+			if(!procedure.execute(e.getKey(), e.getValue()))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation iterates over <tt>keySet()</tt>.
+	 */
+	public boolean forEachKey(LongProcedure procedure)
+	{
+		return keySet().forEach(procedure);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation iterates over <tt>entrySet()</tt>.
+	 */
+	public boolean forEachValue(ObjectProcedure<? super V> procedure)
+	{
+		for(LongObjectPair<V> e : entrySet())
+		{
+			if(!procedure.execute(e.getValue()))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
 
 	// Comparison and hashing
 
@@ -0,0 +1,2130 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.maps.impl;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.napile.pair.primitive.IntObjectPair;
+import org.napile.pair.primitive.impl.ImmutableIntObjectPairImpl;
+import org.napile.pair.primitive.impl.IntObjectPairImpl;
+import org.napile.primitive.Comparators;
+import org.napile.primitive.MemoryEstimator;
+import org.napile.primitive.comparators.IntComparator;
+import org.napile.primitive.functions.IntObjectProcedure;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.ObjectProcedure;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.IntSpliterator;
+import org.napile.primitive.iterators.impl.IteratorIntSpliterator;
+import org.napile.primitive.maps.IntObjectMap;
+import org.napile.primitive.maps.NavigableIntObjectMap;
+import org.napile.primitive.maps.SortedIntObjectMap;
+import org.napile.primitive.maps.abstracts.AbstractIntObjectMap;
+import org.napile.primitive.sets.IntSet;
+import org.napile.primitive.sets.NavigableIntSet;
+import org.napile.primitive.sets.SortedIntSet;
+import org.napile.primitive.sets.abstracts.AbstractIntSet;
+import org.napile.primitive.sets.impl.TreeIntSet;
+
+/**
+ * A B+tree based {@link NavigableIntObjectMap} implementation.
+ * The map is sorted according to the natural ordering of its keys, or by
+ * a {@link IntComparator} provided at map creation time.
+ * <p/>
+ * <p>Keys and values are stored in leaves of up to {@value #LEAF_CAPACITY}
+ * mappings, as <tt>int[]</tt> and <tt>Object[]</tt> arrays; the leaves are
+ * linked in key order. Compared with {@link TreeIntObjectMap} (one node object
+ * per key) the map creates about 60 times fewer objects, a lookup touches
+ * a few arrays instead of a path of nodes, and iteration and range scans
+ * run over arrays. <tt>containsKey</tt>, <tt>get</tt>, <tt>put</tt> and
+ * <tt>remove</tt> take log(n) time.
+ * <p/>
+ * <p>Keys inserted in ascending order (for example time buckets) fill the
+ * leaves completely, instead of leaving them half empty after split.
+ * <p/>
+ * <p>Methods, which return a key (like {@link #ceilingKey(int)}), throw
+ * {@link NoSuchElementException} if there is no such key.
+ * <p/>
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access a map concurrently, and at least one of the
+ * threads modifies the map structurally, it <i>must</i> be synchronized
+ * externally.
+ * <p/>
+ * <p>The iterators returned by this class's collection view methods are
+ * <i>fail-fast</i>: if the map is structurally modified at any time after the
+ * iterator is created, in any way except through the iterator's own
+ * <tt>remove</tt> method, the iterator will throw a
+ * {@link ConcurrentModificationException}.
+ * <p/>
+ * <p>Entries returned by the iterators of entry set support
+ * <tt>setValue</tt>, which writes through to the map. Entries returned by
+ * the navigation methods (like {@link #ceilingEntry(int)}) are snapshots.
+ *
+ * @param <V> the type of mapped values
+ * @author VISTALL
+ * @date 13:20/18.10.2026
+ * @see TreeIntObjectMap
+ */
+public class BTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements NavigableIntObjectMap<V>, Cloneable, java.io.Serializable
+{
+	private static final long serialVersionUID = 5521826137450785453L;
+
+	/**
+	 * Max count of mappings in leaf.
+	 */
+	static final int LEAF_CAPACITY = 64;
+
+	/**
+	 * Max count of children of inner node.
+	 */
+	static final int INNER_CAPACITY = 64;
+
+	/**
+	 * Nodes (except root) with less entries (children) are merged with a sibling, or take entries from it.
+	 */
+	static final int LEAF_MIN = LEAF_CAPACITY / 2;
+	static final int INNER_MIN = INNER_CAPACITY / 2;
+
+	// relations for near()
+	static final int LT = 0;
+	static final int LE = 1;
+	static final int GE = 2;
+	static final int GT = 3;
+
+	private static final Object NOT_FOUND = new Object();
+
+	/**
+	 * The comparator used to maintain order in this map, or
+	 * null if it uses the natural ordering of its keys.
+	 *
+	 * @serial
+	 */
+	private final IntComparator comparator;
+
+	private transient Node root;
+	private transient Leaf<V> head;
+	private transient Leaf<V> tail;
+
+	private transient int size;
+
+	/**
+	 * The number of structural modifications to the tree.
+	 */
+	private transient int modCount;
+
+	private transient Set<IntObjectPair<V>> entrySet;
+	private transient KeySet navigableKeySet;
+	private transient NavigableIntObjectMap<V> descendingMap;
+
+	/**
+	 * Node of the tree. Leaf keeps <tt>size</tt> keys, inner node keeps <tt>size</tt> children and
+	 * <tt>size - 1</tt> separator keys: all keys of child <tt>i</tt> are less than <tt>keys[i]</tt>,
+	 * all keys of child <tt>i + 1</tt> are greater or equal to it.
+	 */
+	static abstract class Node
+	{
+		final int[] keys;
+		int size;
+
+		Node(int capacity)
+		{
+			keys = new int[capacity];
+		}
+	}
+
+	static final class Inner extends Node
+	{
+		final Node[] children = new Node[INNER_CAPACITY];
+
+		Inner()
+		{
+			super(INNER_CAPACITY - 1);
+		}
+	}
+
+	static final class Leaf<V> extends Node
+	{
+		final Object[] values = new Object[LEAF_CAPACITY];
+		Leaf<V> prev;
+		Leaf<V> next;
+
+		Leaf()
+		{
+			super(LEAF_CAPACITY);
+		}
+
+		@SuppressWarnings("unchecked")
+		V value(int index)
+		{
+			return (V) values[index];
+		}
+	}
+
+	/**
+	 * Position of a mapping, result of navigation.
+	 */
+	static final class Cursor<V>
+	{
+		final Leaf<V> leaf;
+		final int index;
+
+		Cursor(Leaf<V> leaf, int index)
+		{
+			this.leaf = leaf;
+			this.index = index;
+		}
+
+		int key()
+		{
+			return leaf.keys[index];
+		}
+
+		V value()
+		{
+			return leaf.value(index);
+		}
+	}
+
+	/**
+	 * Constructs a new, empty map, using the natural ordering of its keys.
+	 */
+	public BTreeIntObjectMap()
+	{
+		this((IntComparator) null);
+	}
+
+	/**
+	 * Constructs a new, empty map, ordered according to the given comparator.
+	 *
+	 * @param comparator the comparator that will be used to order this map.
+	 *                   If <tt>null</tt>, the natural ordering of the keys will be used.
+	 */
+	public BTreeIntObjectMap(IntComparator comparator)
+	{
+		this.comparator = comparator;
+		init();
+	}
+
+	/**
+	 * Constructs a new map containing the same mappings as the given map,
+	 * ordered according to the natural ordering of its keys.
+	 *
+	 * @param m the map whose mappings are to be placed in this map
+	 * @throws NullPointerException if the specified map is null
+	 */
+	public BTreeIntObjectMap(IntObjectMap<? extends V> m)
+	{
+		this((IntComparator) null);
+		putAll(m);
+	}
+
+	/**
+	 * Constructs a new map containing the same mappings and using the same ordering as
+	 * the specified sorted map.
+	 *
+	 * @param m the sorted map whose mappings are to be placed in this map
+	 * @throws NullPointerException if the specified map is null
+	 */
+	public BTreeIntObjectMap(SortedIntObjectMap<? extends V> m)
+	{
+		this(m.comparator());
+		putAll(m);
+	}
+
+	private void init()
+	{
+		Leaf<V> leaf = new Leaf<V>();
+		root = leaf;
+		head = leaf;
+		tail = leaf;
+		size = 0;
+	}
+
+	final int compare(int k1, int k2)
+	{
+		return comparator == null ? (k1 < k2 ? -1 : (k1 == k2 ? 0 : 1)) : comparator.compare(k1, k2);
+	}
+
+	/**
+	 * Binary search over first <tt>size</tt> keys.
+	 *
+	 * @return index of the key, if it is found, otherwise <tt>(-(insertion point) - 1)</tt>
+	 */
+	private int search(int[] keys, int size, int key)
+	{
+		int low = 0;
+		int high = size - 1;
+		IntComparator c = comparator;
+		if(c == null)
+		{
+			while(low <= high)
+			{
+				int mid = (low + high) >>> 1;
+				int midKey = keys[mid];
+				if(midKey < key)
+					low = mid + 1;
+				else if(midKey > key)
+					high = mid - 1;
+				else
+					return mid;
+			}
+		}
+		else
+		{
+			while(low <= high)
+			{
+				int mid = (low + high) >>> 1;
+				int cmp = c.compare(keys[mid], key);
+				if(cmp < 0)
+					low = mid + 1;
+				else if(cmp > 0)
+					high = mid - 1;
+				else
+					return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Returns index of child of inner node, which can contain the key.
+	 */
+	private int childIndex(Inner node, int key)
+	{
+		int i = search(node.keys, node.size - 1, key);
+		return i >= 0 ? i + 1 : -(i + 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Leaf<V> findLeaf(int key)
+	{
+		Node node = root;
+		while(node instanceof Inner)
+		{
+			Inner inner = (Inner) node;
+			node = inner.children[childIndex(inner, key)];
+		}
+		return (Leaf<V>) node;
+	}
+
+	/**
+	 * Returns the position of the nearest key in given relation (one of {@link #LT}, {@link #LE}, {@link #GE},
+	 * {@link #GT}) to the key, or <tt>null</tt> if there is no such key.
+	 */
+	final Cursor<V> near(int key, int rel)
+	{
+		Leaf<V> leaf = findLeaf(key);
+		int i = search(leaf.keys, leaf.size, key);
+		int index;
+		switch(rel)
+		{
+			case LT:
+				index = i >= 0 ? i - 1 : -(i + 1) - 1;
+				break;
+			case LE:
+				index = i >= 0 ? i : -(i + 1) - 1;
+				break;
+			case GE:
+				index = i >= 0 ? i : -(i + 1);
+				break;
+			default:
+				index = i >= 0 ? i + 1 : -(i + 1);
+				break;
+		}
+
+		// leaves are never empty (except the root), and the separators guarantee, that
+		// the nearest key is in the found leaf or its neighbour
+		if(index < 0)
+		{
+			leaf = leaf.prev;
+			if(leaf == null)
+				return null;
+			index = leaf.size - 1;
+		}
+		else if(index >= leaf.size)
+		{
+			leaf = leaf.next;
+			if(leaf == null)
+				return null;
+			index = 0;
+		}
+		return new Cursor<V>(leaf, index);
+	}
+
+	final Cursor<V> first()
+	{
+		return size == 0 ? null : new Cursor<V>(head, 0);
+	}
+
+	final Cursor<V> last()
+	{
+		return size == 0 ? null : new Cursor<V>(tail, tail.size - 1);
+	}
+
+	// Query Operations
+
+	/**
+	 * Returns the number of key-value mappings in this map.
+	 *
+	 * @return the number of key-value mappings in this map
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Returns an estimate of heap size, retained by this map: the map object
+	 * and the nodes with their arrays. Values are not counted.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this) + estimateMemoryBytes(root);
+	}
+
+	private static long estimateMemoryBytes(Node node)
+	{
+		long bytes = MemoryEstimator.shallowSizeOf(node) + MemoryEstimator.sizeOf(node.keys);
+		if(node instanceof Inner)
+		{
+			Inner inner = (Inner) node;
+			bytes += MemoryEstimator.sizeOf(inner.children);
+			for(int i = 0; i < inner.size; i++)
+				bytes += estimateMemoryBytes(inner.children[i]);
+		}
+		else
+			bytes += MemoryEstimator.sizeOf(((Leaf<?>) node).values);
+		return bytes;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this map contains a mapping for the specified
+	 * key.
+	 *
+	 * @param key key whose presence in this map is to be tested
+	 * @return <tt>true</tt> if this map contains a mapping for the
+	 *         specified key
+	 */
+	public boolean containsKey(int key)
+	{
+		Leaf<V> leaf = findLeaf(key);
+		return search(leaf.keys, leaf.size, key) >= 0;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this map maps one or more keys to the
+	 * specified value. This operation requires time linear in the map size.
+	 *
+	 * @param value value whose presence in this map is to be tested
+	 * @return <tt>true</tt> if a mapping to <tt>value</tt> exists;
+	 *         <tt>false</tt> otherwise
+	 */
+	public boolean containsValue(Object value)
+	{
+		for(Leaf<V> leaf = head; leaf != null; leaf = leaf.next)
+			for(int i = 0; i < leaf.size; i++)
+				if(value == null ? leaf.values[i] == null : value.equals(leaf.values[i]))
+					return true;
+		return false;
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped,
+	 * or {@code null} if this map contains no mapping for the key.
+	 *
+	 * @param key the key
+	 * @return the value, or {@code null}
+	 */
+	public V get(int key)
+	{
+		Leaf<V> leaf = findLeaf(key);
+		int i = search(leaf.keys, leaf.size, key);
+		return i >= 0 ? leaf.value(i) : null;
+	}
+
+	public IntComparator comparator()
+	{
+		return comparator;
+	}
+
+	/**
+	 * @throws NoSuchElementException {@inheritDoc}
+	 */
+	public int firstKey()
+	{
+		return key(first());
+	}
+
+	/**
+	 * @throws NoSuchElementException {@inheritDoc}
+	 */
+	public int lastKey()
+	{
+		return key(last());
+	}
+
+	/**
+	 * Associates the specified value with the specified key in this map.
+	 * If the map previously contained a mapping for the key, the old
+	 * value is replaced.
+	 *
+	 * @param key   key with which the specified value is to be associated
+	 * @param value value to be associated with the specified key
+	 * @return the previous value associated with <tt>key</tt>, or
+	 *         <tt>null</tt> if there was no mapping for <tt>key</tt>.
+	 */
+	public V put(int key, V value)
+	{
+		Leaf<V> leaf = findLeaf(key);
+		int i = search(leaf.keys, leaf.size, key);
+		if(i >= 0)
+		{
+			V oldValue = leaf.value(i);
+			leaf.values[i] = value;
+			return oldValue;
+		}
+
+		int index = -(i + 1);
+		if(leaf.size < LEAF_CAPACITY)
+			insert(leaf, index, key, value);
+		else
+			insertWithSplit(key, value);
+
+		size++;
+		modCount++;
+		return null;
+	}
+
+	private static <V> void insert(Leaf<V> leaf, int index, int key, V value)
+	{
+		int moved = leaf.size - index;
+		if(moved > 0)
+		{
+			System.arraycopy(leaf.keys, index, leaf.keys, index + 1, moved);
+			System.arraycopy(leaf.values, index, leaf.values, index + 1, moved);
+		}
+		leaf.keys[index] = key;
+		leaf.values[index] = value;
+		leaf.size++;
+	}
+
+	/**
+	 * Inserts the key into full leaf: splits the leaf, and all full nodes on path to it.
+	 */
+	@SuppressWarnings("unchecked")
+	private void insertWithSplit(int key, V value)
+	{
+		int height = 0;
+		for(Node node = root; node instanceof Inner; node = ((Inner) node).children[0])
+			height++;
+
+		Inner[] path = new Inner[height];
+		int[] indexes = new int[height];
+		Node node = root;
+		for(int level = 0; level < height; level++)
+		{
+			Inner inner = (Inner) node;
+			int index = childIndex(inner, key);
+			path[level] = inner;
+			indexes[level] = index;
+			node = inner.children[index];
+		}
+
+		Leaf<V> leaf = (Leaf<V>) node;
+		int index = -(search(leaf.keys, leaf.size, key) + 1);
+
+		Leaf<V> right = new Leaf<V>();
+		if(leaf == tail && index == leaf.size)
+		{
+			// ascending insertion - keep the left leaf full
+			insert(right, 0, key, value);
+		}
+		else
+		{
+			int half = LEAF_CAPACITY / 2;
+			int moved = LEAF_CAPACITY - half;
+			System.arraycopy(leaf.keys, half, right.keys, 0, moved);
+			System.arraycopy(leaf.values, half, right.values, 0, moved);
+			for(int i = half; i < LEAF_CAPACITY; i++)
+				leaf.values[i] = null;
+			leaf.size = half;
+			right.size = moved;
+
+			if(index <= half)
+				insert(leaf, index, key, value);
+			else
+				insert(right, index - half, key, value);
+		}
+
+		right.next = leaf.next;
+		right.prev = leaf;
+		if(leaf.next != null)
+			leaf.next.prev = right;
+		else
+			tail = right;
+		leaf.next = right;
+
+		int separator = right.keys[0];
+		Node newChild = right;
+		for(int level = height - 1; level >= 0; level--)
+		{
+			Inner parent = path[level];
+			int childIndex = indexes[level];
+			if(parent.size < INNER_CAPACITY)
+			{
+				insertChild(parent, childIndex, separator, newChild);
+				return;
+			}
+
+			// split the inner node: copy keys and children with the new one, and divide them
+			int[] keys = new int[INNER_CAPACITY];
+			Node[] children = new Node[INNER_CAPACITY + 1];
+			System.arraycopy(parent.keys, 0, keys, 0, childIndex);
+			keys[childIndex] = separator;
+			System.arraycopy(parent.keys, childIndex, keys, childIndex + 1, INNER_CAPACITY - 1 - childIndex);
+			System.arraycopy(parent.children, 0, children, 0, childIndex + 1);
+			children[childIndex + 1] = newChild;
+			System.arraycopy(parent.children, childIndex + 1, children, childIndex + 2, INNER_CAPACITY - 1 - childIndex);
+
+			int leftSize = (INNER_CAPACITY + 1) / 2;
+			int rightSize = INNER_CAPACITY + 1 - leftSize;
+			Inner rightInner = new Inner();
+			System.arraycopy(keys, 0, parent.keys, 0, leftSize - 1);
+			System.arraycopy(children, 0, parent.children, 0, leftSize);
+			for(int i = leftSize; i < INNER_CAPACITY; i++)
+				parent.children[i] = null;
+			parent.size = leftSize;
+			System.arraycopy(keys, leftSize, rightInner.keys, 0, rightSize - 1);
+			System.arraycopy(children, leftSize, rightInner.children, 0, rightSize);
+			rightInner.size = rightSize;
+
+			separator = keys[leftSize - 1];
+			newChild = rightInner;
+		}
+
+		// the root was split
+		Inner newRoot = new Inner();
+		newRoot.children[0] = root;
+		newRoot.children[1] = newChild;
+		newRoot.keys[0] = separator;
+		newRoot.size = 2;
+		root = newRoot;
+	}
+
+	private static void insertChild(Inner parent, int childIndex, int separator, Node child)
+	{
+		int moved = parent.size - 1 - childIndex;
+		if(moved > 0)
+		{
+			System.arraycopy(parent.keys, childIndex, parent.keys, childIndex + 1, moved);
+			System.arraycopy(parent.children, childIndex + 1, parent.children, childIndex + 2, moved);
+		}
+		parent.keys[childIndex] = separator;
+		parent.children[childIndex + 1] = child;
+		parent.size++;
+	}
+
+	/**
+	 * Removes the mapping for this key from this map if present.
+	 *
+	 * @param key key for which mapping should be removed
+	 * @return the previous value associated with <tt>key</tt>, or
+	 *         <tt>null</tt> if there was no mapping for <tt>key</tt>.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key)
+	{
+		Object oldValue = remove(root, key);
+		if(oldValue == NOT_FOUND)
+			return null;
+
+		if(root instanceof Inner && root.size == 1)
+			root = ((Inner) root).children[0];
+
+		size--;
+		modCount++;
+		return (V) oldValue;
+	}
+
+	/**
+	 * Removes the key from subtree, and rebalances children, which became too small.
+	 *
+	 * @return old value, or {@link #NOT_FOUND}
+	 */
+	@SuppressWarnings("unchecked")
+	private Object remove(Node node, int key)
+	{
+		if(node instanceof Inner)
+		{
+			Inner inner = (Inner) node;
+			int index = childIndex(inner, key);
+			Node child = inner.children[index];
+			Object oldValue = remove(child, key);
+			if(oldValue != NOT_FOUND && child.size < (child instanceof Inner ? INNER_MIN : LEAF_MIN))
+				rebalance(inner, index);
+			return oldValue;
+		}
+
+		Leaf<V> leaf = (Leaf<V>) node;
+		int index = search(leaf.keys, leaf.size, key);
+		if(index < 0)
+			return NOT_FOUND;
+
+		Object oldValue = leaf.values[index];
+		int moved = leaf.size - index - 1;
+		if(moved > 0)
+		{
+			System.arraycopy(leaf.keys, index + 1, leaf.keys, index, moved);
+			System.arraycopy(leaf.values, index + 1, leaf.values, index, moved);
+		}
+		leaf.values[--leaf.size] = null;
+		return oldValue;
+	}
+
+	/**
+	 * Fixes the too small child: takes an entry from a sibling, or merges with it.
+	 */
+	@SuppressWarnings("unchecked")
+	private void rebalance(Inner parent, int index)
+	{
+		Node child = parent.children[index];
+		Node left = index > 0 ? parent.children[index - 1] : null;
+		Node right = index + 1 < parent.size ? parent.children[index + 1] : null;
+		int min = child instanceof Inner ? INNER_MIN : LEAF_MIN;
+
+		if(child instanceof Leaf)
+		{
+			Leaf<V> leaf = (Leaf<V>) child;
+			if(left != null && left.size > min)
+			{
+				Leaf<V> l = (Leaf<V>) left;
+				insert(leaf, 0, l.keys[l.size - 1], l.value(l.size - 1));
+				l.values[--l.size] = null;
+				parent.keys[index - 1] = leaf.keys[0];
+			}
+			else if(right != null && right.size > min)
+			{
+				Leaf<V> r = (Leaf<V>) right;
+				insert(leaf, leaf.size, r.keys[0], r.value(0));
+				System.arraycopy(r.keys, 1, r.keys, 0, r.size - 1);
+				System.arraycopy(r.values, 1, r.values, 0, r.size - 1);
+				r.values[--r.size] = null;
+				parent.keys[index] = r.keys[0];
+			}
+			else if(left != null)
+				mergeLeaves(parent, index - 1);
+			else if(right != null)
+				mergeLeaves(parent, index);
+		}
+		else
+		{
+			Inner inner = (Inner) child;
+			if(left != null && left.size > min)
+			{
+				Inner l = (Inner) left;
+				System.arraycopy(inner.keys, 0, inner.keys, 1, inner.size - 1);
+				System.arraycopy(inner.children, 0, inner.children, 1, inner.size);
+				inner.keys[0] = parent.keys[index - 1];
+				inner.children[0] = l.children[l.size - 1];
+				inner.size++;
+				parent.keys[index - 1] = l.keys[l.size - 2];
+				l.children[--l.size] = null;
+			}
+			else if(right != null && right.size > min)
+			{
+				Inner r = (Inner) right;
+				inner.keys[inner.size - 1] = parent.keys[index];
+				inner.children[inner.size] = r.children[0];
+				inner.size++;
+				parent.keys[index] = r.keys[0];
+				System.arraycopy(r.keys, 1, r.keys, 0, r.size - 2);
+				System.arraycopy(r.children, 1, r.children, 0, r.size - 1);
+				r.children[--r.size] = null;
+			}
+			else if(left != null)
+				mergeInners(parent, index - 1);
+			else if(right != null)
+				mergeInners(parent, index);
+		}
+	}
+
+	/**
+	 * Moves all entries of child <tt>index + 1</tt> to child <tt>index</tt>, and removes the first one.
+	 */
+	@SuppressWarnings("unchecked")
+	private void mergeLeaves(Inner parent, int index)
+	{
+		Leaf<V> left = (Leaf<V>) parent.children[index];
+		Leaf<V> right = (Leaf<V>) parent.children[index + 1];
+		System.arraycopy(right.keys, 0, left.keys, left.size, right.size);
+		System.arraycopy(right.values, 0, left.values, left.size, right.size);
+		left.size += right.size;
+
+		left.next = right.next;
+		if(right.next != null)
+			right.next.prev = left;
+		else
+			tail = left;
+
+		removeChild(parent, index);
+	}
+
+	private static void mergeInners(Inner parent, int index)
+	{
+		Inner left = (Inner) parent.children[index];
+		Inner right = (Inner) parent.children[index + 1];
+		left.keys[left.size - 1] = parent.keys[index];
+		System.arraycopy(right.keys, 0, left.keys, left.size, right.size - 1);
+		System.arraycopy(right.children, 0, left.children, left.size, right.size);
+		left.size += right.size;
+
+		removeChild(parent, index);
+	}
+
+	/**
+	 * Removes separator <tt>index</tt> and child <tt>index + 1</tt>.
+	 */
+	private static void removeChild(Inner parent, int index)
+	{
+		int moved = parent.size - 2 - index;
+		if(moved > 0)
+		{
+			System.arraycopy(parent.keys, index + 1, parent.keys, index, moved);
+			System.arraycopy(parent.children, index + 2, parent.children, index + 1, moved);
+		}
+		parent.children[--parent.size] = null;
+	}
+
+	/**
+	 * Removes all of the mappings from this map.
+	 * The map will be empty after this call returns.
+	 */
+	public void clear()
+	{
+		modCount++;
+		init();
+	}
+
+	/**
+	 * Returns a shallow copy of this <tt>BTreeIntObjectMap</tt> instance. (The keys and
+	 * values themselves are not cloned.)
+	 *
+	 * @return a shallow copy of this map
+	 */
+	@SuppressWarnings("unchecked")
+	public Object clone()
+	{
+		BTreeIntObjectMap<V> clone;
+		try
+		{
+			clone = (BTreeIntObjectMap<V>) super.clone();
+		}
+		catch(CloneNotSupportedException e)
+		{
+			throw new InternalError();
+		}
+
+		// Put clone into "virgin" state (except for comparator)
+		clone.modCount = 0;
+		clone.entrySet = null;
+		clone.navigableKeySet = null;
+		clone.descendingMap = null;
+		clone.init();
+
+		// keys are in ascending order, so leaves of the clone are filled completely
+		for(Leaf<V> leaf = head; leaf != null; leaf = leaf.next)
+			for(int i = 0; i < leaf.size; i++)
+				clone.put(leaf.keys[i], leaf.value(i));
+		return clone;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Mappings are processed in ascending key order, directly over the leaf arrays.
+	 *
+	 * @throws ConcurrentModificationException
+	 *          if the map is structurally modified by the procedure
+	 */
+	@Override
+	public boolean forEachEntry(IntObjectProcedure<? super V> procedure)
+	{
+		final int expectedModCount = modCount;
+		for(Leaf<V> leaf = head; leaf != null; leaf = leaf.next)
+		{
+			for(int i = 0; i < leaf.size; i++)
+			{
+				boolean next = procedure.execute(leaf.keys[i], leaf.value(i));
+				if(modCount != expectedModCount)
+				{
+					throw new ConcurrentModificationException();
+				}
+				if(!next)
+				{
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Keys are processed in ascending order, directly over the leaf arrays.
+	 *
+	 * @throws ConcurrentModificationException
+	 *          if the map is structurally modified by the procedure
+	 */
+	@Override
+	public boolean forEachKey(IntProcedure procedure)
+	{
+		final int expectedModCount = modCount;
+		for(Leaf<V> leaf = head; leaf != null; leaf = leaf.next)
+		{
+			for(int i = 0; i < leaf.size; i++)
+			{
+				boolean next = procedure.execute(leaf.keys[i]);
+				if(modCount != expectedModCount)
+				{
+					throw new ConcurrentModificationException();
+				}
+				if(!next)
+				{
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Values are processed in ascending key order, directly over the leaf arrays.
+	 *
+	 * @throws ConcurrentModificationException
+	 *          if the map is structurally modified by the procedure
+	 */
+	@Override
+	public boolean forEachValue(ObjectProcedure<? super V> procedure)
+	{
+		final int expectedModCount = modCount;
+		for(Leaf<V> leaf = head; leaf != null; leaf = leaf.next)
+		{
+			for(int i = 0; i < leaf.size; i++)
+			{
+				boolean next = procedure.execute(leaf.value(i));
+				if(modCount != expectedModCount)
+				{
+					throw new ConcurrentModificationException();
+				}
+				if(!next)
+				{
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	// NavigableIntObjectMap API methods
+
+	public IntObjectPair<V> firstEntry()
+	{
+		return exportEntry(first());
+	}
+
+	public IntObjectPair<V> lastEntry()
+	{
+		return exportEntry(last());
+	}
+
+	public IntObjectPair<V> pollFirstEntry()
+	{
+		Cursor<V> c = first();
+		IntObjectPair<V> result = exportEntry(c);
+		if(c != null)
+			remove(c.key());
+		return result;
+	}
+
+	public IntObjectPair<V> pollLastEntry()
+	{
+		Cursor<V> c = last();
+		IntObjectPair<V> result = exportEntry(c);
+		if(c != null)
+			remove(c.key());
+		return result;
+	}
+
+	public IntObjectPair<V> lowerEntry(int key)
+	{
+		return exportEntry(near(key, LT));
+	}
+
+	/**
+	 * @throws NoSuchElementException if there is no such key
+	 */
+	public int lowerKey(int key)
+	{
+		return key(near(key, LT));
+	}
+
+	public IntObjectPair<V> floorEntry(int key)
+	{
+		return exportEntry(near(key, LE));
+	}
+
+	/**
+	 * @throws NoSuchElementException if there is no such key
+	 */
+	public int floorKey(int key)
+	{
+		return key(near(key, LE));
+	}
+
+	public IntObjectPair<V> ceilingEntry(int key)
+	{
+		return exportEntry(near(key, GE));
+	}
+
+	/**
+	 * @throws NoSuchElementException if there is no such key
+	 */
+	public int ceilingKey(int key)
+	{
+		return key(near(key, GE));
+	}
+
+	public IntObjectPair<V> higherEntry(int key)
+	{
+		return exportEntry(near(key, GT));
+	}
+
+	/**
+	 * @throws NoSuchElementException if there is no such key
+	 */
+	public int higherKey(int key)
+	{
+		return key(near(key, GT));
+	}
+
+	// Views
+
+	/**
+	 * Returns a {@link NavigableIntSet} view of the keys contained in this map.
+	 * The set's iterator returns the keys in ascending order.
+	 */
+	public IntSet keySet()
+	{
+		return navigableKeySet();
+	}
+
+	public NavigableIntSet navigableKeySet()
+	{
+		KeySet nks = navigableKeySet;
+		return (nks != null) ? nks : (navigableKeySet = new KeySet(this));
+	}
+
+	public NavigableIntSet descendingKeySet()
+	{
+		return descendingMap().navigableKeySet();
+	}
+
+	/**
+	 * Returns a {@link Collection} view of the values contained in this map.
+	 * The collection's iterator returns the values in ascending order
+	 * of the corresponding keys.
+	 */
+	public Collection<V> values()
+	{
+		Collection<V> vs = values;
+		return (vs != null) ? vs : (values = new Values<V>(this));
+	}
+
+	/**
+	 * Returns a {@link Set} view of the mappings contained in this map.
+	 * The set's iterator returns the entries in ascending key order.
+	 */
+	public Set<IntObjectPair<V>> entrySet()
+	{
+		Set<IntObjectPair<V>> es = entrySet;
+		return (es != null) ? es : (entrySet = new EntrySet<V>(this));
+	}
+
+	public NavigableIntObjectMap<V> descendingMap()
+	{
+		NavigableIntObjectMap<V> km = descendingMap;
+		return (km != null) ? km : (descendingMap = new SubMap<V>(this, true, 0, true, true, 0, true, true));
+	}
+
+	/**
+	 * @throws IllegalArgumentException {@inheritDoc}
+	 */
+	public NavigableIntObjectMap<V> subMap(int fromKey, boolean fromInclusive, int toKey, boolean toInclusive)
+	{
+		return new SubMap<V>(this, false, fromKey, fromInclusive, false, toKey, toInclusive, false);
+	}
+
+	/**
+	 * @throws IllegalArgumentException {@inheritDoc}
+	 */
+	public NavigableIntObjectMap<V> headMap(int toKey, boolean inclusive)
+	{
+		return new SubMap<V>(this, true, 0, true, false, toKey, inclusive, false);
+	}
+
+	/**
+	 * @throws IllegalArgumentException {@inheritDoc}
+	 */
+	public NavigableIntObjectMap<V> tailMap(int fromKey, boolean inclusive)
+	{
+		return new SubMap<V>(this, false, fromKey, inclusive, true, 0, true, false);
+	}
+
+	public SortedIntObjectMap<V> subMap(int fromKey, int toKey)
+	{
+		return subMap(fromKey, true, toKey, false);
+	}
+
+	public SortedIntObjectMap<V> headMap(int toKey)
+	{
+		return headMap(toKey, false);
+	}
+
+	public SortedIntObjectMap<V> tailMap(int fromKey)
+	{
+		return tailMap(fromKey, true);
+	}
+
+	IntIterator keyIterator()
+	{
+		return new KeyIterator(first(), false, false, 0, false);
+	}
+
+	IntIterator descendingKeyIterator()
+	{
+		return new KeyIterator(last(), true, false, 0, false);
+	}
+
+	Iterator<IntObjectPair<V>> entryIterator()
+	{
+		return new EntryIterator(first(), false, false, 0, false);
+	}
+
+	Iterator<V> valueIterator()
+	{
+		return new ValueIterator(first(), false, false, 0, false);
+	}
+
+	/**
+	 * Return snapshot of the mapping, or null if cursor is null
+	 */
+	static <V> IntObjectPair<V> exportEntry(Cursor<V> c)
+	{
+		return c == null ? null : new ImmutableIntObjectPairImpl<V>(c.key(), c.value());
+	}
+
+	/**
+	 * Returns the key of the mapping.
+	 *
+	 * @throws NoSuchElementException if the cursor is null
+	 */
+	static int key(Cursor<?> c)
+	{
+		if(c == null)
+		{
+			throw new NoSuchElementException();
+		}
+		return c.key();
+	}
+
+	/**
+	 * Base of iterators: walks over the leaves in one direction, until the optional fence key.
+	 */
+	abstract class Iter
+	{
+		private final boolean descending;
+		private final boolean fenced;
+		private final int fenceKey;
+		private final boolean fenceInclusive;
+
+		/**
+		 * Position of the next mapping, <tt>leaf</tt> is null at the end.
+		 */
+		private Leaf<V> leaf;
+		private int index;
+
+		/**
+		 * Position of the last returned mapping.
+		 */
+		Leaf<V> lastLeaf;
+		int lastIndex;
+
+		private int expectedModCount = modCount;
+
+		Iter(Cursor<V> start, boolean descending, boolean fenced, int fenceKey, boolean fenceInclusive)
+		{
+			this.descending = descending;
+			this.fenced = fenced;
+			this.fenceKey = fenceKey;
+			this.fenceInclusive = fenceInclusive;
+			if(start != null)
+			{
+				leaf = start.leaf;
+				index = start.index;
+				checkFence();
+			}
+		}
+
+		private void checkFence()
+		{
+			if(leaf != null && fenced)
+			{
+				int c = compare(leaf.keys[index], fenceKey);
+				if(descending ? c < 0 || (c == 0 && !fenceInclusive) : c > 0 || (c == 0 && !fenceInclusive))
+				{
+					leaf = null;
+				}
+			}
+		}
+
+		public final boolean hasNext()
+		{
+			return leaf != null;
+		}
+
+		final void advance()
+		{
+			if(leaf == null)
+			{
+				throw new NoSuchElementException();
+			}
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+
+			lastLeaf = leaf;
+			lastIndex = index;
+			if(descending)
+			{
+				if(--index < 0)
+				{
+					leaf = leaf.prev;
+					if(leaf != null)
+						index = leaf.size - 1;
+				}
+			}
+			else
+			{
+				if(++index >= leaf.size)
+				{
+					leaf = leaf.next;
+					index = 0;
+				}
+			}
+			checkFence();
+		}
+
+		public final void remove()
+		{
+			if(lastLeaf == null)
+			{
+				throw new IllegalStateException();
+			}
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+
+			int lastKey = lastLeaf.keys[lastIndex];
+			lastLeaf = null;
+			if(leaf != null)
+			{
+				// removal can move mappings between leaves, so find the next one again
+				int nextKey = leaf.keys[index];
+				BTreeIntObjectMap.this.remove(lastKey);
+				Cursor<V> c = near(nextKey, GE);
+				leaf = c.leaf;
+				index = c.index;
+			}
+			else
+				BTreeIntObjectMap.this.remove(lastKey);
+			expectedModCount = modCount;
+		}
+	}
+
+	final class KeyIterator extends Iter implements IntIterator
+	{
+		KeyIterator(Cursor<V> start, boolean descending, boolean fenced, int fenceKey, boolean fenceInclusive)
+		{
+			super(start, descending, fenced, fenceKey, fenceInclusive);
+		}
+
+		public int next()
+		{
+			advance();
+			return lastLeaf.keys[lastIndex];
+		}
+	}
+
+	final class ValueIterator extends Iter implements Iterator<V>
+	{
+		ValueIterator(Cursor<V> start, boolean descending, boolean fenced, int fenceKey, boolean fenceInclusive)
+		{
+			super(start, descending, fenced, fenceKey, fenceInclusive);
+		}
+
+		public V next()
+		{
+			advance();
+			return lastLeaf.value(lastIndex);
+		}
+	}
+
+	final class EntryIterator extends Iter implements Iterator<IntObjectPair<V>>
+	{
+		EntryIterator(Cursor<V> start, boolean descending, boolean fenced, int fenceKey, boolean fenceInclusive)
+		{
+			super(start, descending, fenced, fenceKey, fenceInclusive);
+		}
+
+		public IntObjectPair<V> next()
+		{
+			advance();
+			return new WriteThroughEntry(lastLeaf.keys[lastIndex], lastLeaf.value(lastIndex));
+		}
+	}
+
+	/**
+	 * Entry, returned by entry iterators. Its <tt>setValue</tt> writes through to the map.
+	 */
+	final class WriteThroughEntry extends IntObjectPairImpl<V>
+	{
+		WriteThroughEntry(int k, V v)
+		{
+			super(k, v);
+		}
+
+		@Override
+		public V setValue(V value)
+		{
+			V v = super.setValue(value);
+			BTreeIntObjectMap.this.put(getKey(), value);
+			return v;
+		}
+	}
+
+	static final class Values<V> extends AbstractCollection<V>
+	{
+		private final NavigableIntObjectMap<V> m;
+
+		Values(NavigableIntObjectMap<V> map)
+		{
+			m = map;
+		}
+
+		@SuppressWarnings("unchecked")
+		public Iterator<V> iterator()
+		{
+			if(m instanceof BTreeIntObjectMap)
+			{
+				return ((BTreeIntObjectMap<V>) m).valueIterator();
+			}
+			else
+			{
+				return ((SubMap<V>) m).valueIterator();
+			}
+		}
+
+		public int size()
+		{
+			return m.size();
+		}
+
+		public boolean isEmpty()
+		{
+			return m.isEmpty();
+		}
+
+		public boolean contains(Object o)
+		{
+			return m.containsValue(o);
+		}
+
+		public void clear()
+		{
+			m.clear();
+		}
+	}
+
+	static final class EntrySet<V> extends AbstractSet<IntObjectPair<V>>
+	{
+		private final NavigableIntObjectMap<V> m;
+
+		EntrySet(NavigableIntObjectMap<V> map)
+		{
+			m = map;
+		}
+
+		@SuppressWarnings("unchecked")
+		public Iterator<IntObjectPair<V>> iterator()
+		{
+			if(m instanceof BTreeIntObjectMap)
+			{
+				return ((BTreeIntObjectMap<V>) m).entryIterator();
+			}
+			else
+			{
+				return ((SubMap<V>) m).entryIterator();
+			}
+		}
+
+		public boolean contains(Object o)
+		{
+			if(!(o instanceof IntObjectPair))
+			{
+				return false;
+			}
+			IntObjectPair<?> entry = (IntObjectPair<?>) o;
+			int key = entry.getKey();
+			if(!m.containsKey(key))
+			{
+				return false;
+			}
+			V value = m.get(key);
+			return value == null ? entry.getValue() == null : value.equals(entry.getValue());
+		}
+
+		public boolean remove(Object o)
+		{
+			if(contains(o))
+			{
+				m.remove(((IntObjectPair<?>) o).getKey());
+				return true;
+			}
+			return false;
+		}
+
+		public int size()
+		{
+			return m.size();
+		}
+
+		public boolean isEmpty()
+		{
+			return m.isEmpty();
+		}
+
+		public void clear()
+		{
+			m.clear();
+		}
+	}
+
+	static final class KeySet extends AbstractIntSet implements NavigableIntSet
+	{
+		private final NavigableIntObjectMap<?> m;
+
+		KeySet(NavigableIntObjectMap<?> map)
+		{
+			m = map;
+		}
+
+		public IntIterator iterator()
+		{
+			if(m instanceof BTreeIntObjectMap)
+			{
+				return ((BTreeIntObjectMap<?>) m).keyIterator();
+			}
+			else
+			{
+				return ((SubMap<?>) m).keyIterator();
+			}
+		}
+
+		@Override
+		public IntSpliterator spliterator()
+		{
+			return new IteratorIntSpliterator(this, IntSpliterator.DISTINCT | IntSpliterator.ORDERED);
+		}
+
+		public IntIterator descendingIterator()
+		{
+			if(m instanceof BTreeIntObjectMap)
+			{
+				return ((BTreeIntObjectMap<?>) m).descendingKeyIterator();
+			}
+			else
+			{
+				return ((SubMap<?>) m).descendingKeyIterator();
+			}
+		}
+
+		public int size()
+		{
+			return m.size();
+		}
+
+		public boolean isEmpty()
+		{
+			return m.isEmpty();
+		}
+
+		public boolean contains(int o)
+		{
+			return m.containsKey(o);
+		}
+
+		public void clear()
+		{
+			m.clear();
+		}
+
+		public int lower(int e)
+		{
+			return m.lowerKey(e);
+		}
+
+		public int floor(int e)
+		{
+			return m.floorKey(e);
+		}
+
+		public int ceiling(int e)
+		{
+			return m.ceilingKey(e);
+		}
+
+		public int higher(int e)
+		{
+			return m.higherKey(e);
+		}
+
+		public int first()
+		{
+			return m.firstKey();
+		}
+
+		public int last()
+		{
+			return m.lastKey();
+		}
+
+		public IntComparator comparator()
+		{
+			return m.comparator();
+		}
+
+		/**
+		 * @throws NoSuchElementException if this set is empty
+		 */
+		public int pollFirst()
+		{
+			IntObjectPair<?> e = m.pollFirstEntry();
+			if(e == null)
+			{
+				throw new NoSuchElementException();
+			}
+			return e.getKey();
+		}
+
+		/**
+		 * @throws NoSuchElementException if this set is empty
+		 */
+		public int pollLast()
+		{
+			IntObjectPair<?> e = m.pollLastEntry();
+			if(e == null)
+			{
+				throw new NoSuchElementException();
+			}
+			return e.getKey();
+		}
+
+		public boolean remove(int o)
+		{
+			int oldSize = size();
+			m.remove(o);
+			return size() != oldSize;
+		}
+
+		public NavigableIntSet subSet(int fromElement, boolean fromInclusive, int toElement, boolean toInclusive)
+		{
+			return new TreeIntSet(m.subMap(fromElement, fromInclusive, toElement, toInclusive));
+		}
+
+		public NavigableIntSet headSet(int toElement, boolean inclusive)
+		{
+			return new TreeIntSet(m.headMap(toElement, inclusive));
+		}
+
+		public NavigableIntSet tailSet(int fromElement, boolean inclusive)
+		{
+			return new TreeIntSet(m.tailMap(fromElement, inclusive));
+		}
+
+		public SortedIntSet subSet(int fromElement, int toElement)
+		{
+			return subSet(fromElement, true, toElement, false);
+		}
+
+		public SortedIntSet headSet(int toElement)
+		{
+			return headSet(toElement, false);
+		}
+
+		public SortedIntSet tailSet(int fromElement)
+		{
+			return tailSet(fromElement, true);
+		}
+
+		public NavigableIntSet descendingSet()
+		{
+			return new TreeIntSet(m.descendingMap());
+		}
+	}
+
+	/**
+	 * Sub map or descending view of the map. Bounds are kept in the order of the backing map,
+	 * <tt>descending</tt> reverses all relative operations.
+	 *
+	 * @serial include
+	 */
+	static final class SubMap<V> extends AbstractIntObjectMap<V> implements NavigableIntObjectMap<V>, java.io.Serializable
+	{
+		private static final long serialVersionUID = -3213596361929862113L;
+
+		/**
+		 * The backing map.
+		 */
+		private final BTreeIntObjectMap<V> m;
+
+		/**
+		 * Endpoints are represented as triples (fromStart, lo,
+		 * loInclusive) and (toEnd, hi, hiInclusive). If fromStart is
+		 * true, then the low (absolute) bound is the start of the
+		 * backing map, and the other values are ignored. Otherwise,
+		 * if loInclusive is true, lo is the inclusive bound, else lo
+		 * is the exclusive bound. Similarly for the upper bound.
+		 */
+		private final int lo, hi;
+		private final boolean fromStart, toEnd;
+		private final boolean loInclusive, hiInclusive;
+		private final boolean descending;
+
+		private transient KeySet navigableKeySet;
+		private transient Set<IntObjectPair<V>> entrySet;
+		private transient NavigableIntObjectMap<V> descendingMap;
+
+		SubMap(BTreeIntObjectMap<V> m, boolean fromStart, int lo, boolean loInclusive, boolean toEnd, int hi, boolean hiInclusive, boolean descending)
+		{
+			if(!fromStart && !toEnd && m.compare(lo, hi) > 0)
+			{
+				throw new IllegalArgumentException("fromKey > toKey");
+			}
+
+			this.m = m;
+			this.fromStart = fromStart;
+			this.lo = lo;
+			this.loInclusive = loInclusive;
+			this.toEnd = toEnd;
+			this.hi = hi;
+			this.hiInclusive = hiInclusive;
+			this.descending = descending;
+		}
+
+		// internal utilities
+
+		private boolean tooLow(int key)
+		{
+			if(!fromStart)
+			{
+				int c = m.compare(key, lo);
+				if(c < 0 || (c == 0 && !loInclusive))
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean tooHigh(int key)
+		{
+			if(!toEnd)
+			{
+				int c = m.compare(key, hi);
+				if(c > 0 || (c == 0 && !hiInclusive))
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean inRange(int key)
+		{
+			return !tooLow(key) && !tooHigh(key);
+		}
+
+		private boolean inClosedRange(int key)
+		{
+			return (fromStart || m.compare(key, lo) >= 0) && (toEnd || m.compare(hi, key) >= 0);
+		}
+
+		private boolean inRange(int key, boolean inclusive)
+		{
+			return inclusive ? inRange(key) : inClosedRange(key);
+		}
+
+		// absolute navigation, in the order of the backing map
+
+		private Cursor<V> absLowest()
+		{
+			Cursor<V> c = fromStart ? m.first() : m.near(lo, loInclusive ? GE : GT);
+			return c == null || tooHigh(c.key()) ? null : c;
+		}
+
+		private Cursor<V> absHighest()
+		{
+			Cursor<V> c = toEnd ? m.last() : m.near(hi, hiInclusive ? LE : LT);
+			return c == null || tooLow(c.key()) ? null : c;
+		}
+
+		private Cursor<V> absCeiling(int key)
+		{
+			if(tooLow(key))
+			{
+				return absLowest();
+			}
+			Cursor<V> c = m.near(key, GE);
+			return c == null || tooHigh(c.key()) ? null : c;
+		}
+
+		private Cursor<V> absHigher(int key)
+		{
+			if(tooLow(key))
+			{
+				return absLowest();
+			}
+			Cursor<V> c = m.near(key, GT);
+			return c == null || tooHigh(c.key()) ? null : c;
+		}
+
+		private Cursor<V> absFloor(int key)
+		{
+			if(tooHigh(key))
+			{
+				return absHighest();
+			}
+			Cursor<V> c = m.near(key, LE);
+			return c == null || tooLow(c.key()) ? null : c;
+		}
+
+		private Cursor<V> absLower(int key)
+		{
+			if(tooHigh(key))
+			{
+				return absHighest();
+			}
+			Cursor<V> c = m.near(key, LT);
+			return c == null || tooLow(c.key()) ? null : c;
+		}
+
+		// navigation in the order of this view
+
+		private Cursor<V> lowest()
+		{
+			return descending ? absHighest() : absLowest();
+		}
+
+		private Cursor<V> highest()
+		{
+			return descending ? absLowest() : absHighest();
+		}
+
+		private Cursor<V> ceiling(int key)
+		{
+			return descending ? absFloor(key) : absCeiling(key);
+		}
+
+		private Cursor<V> higher(int key)
+		{
+			return descending ? absLower(key) : absHigher(key);
+		}
+
+		private Cursor<V> floor(int key)
+		{
+			return descending ? absCeiling(key) : absFloor(key);
+		}
+
+		private Cursor<V> lower(int key)
+		{
+			return descending ? absHigher(key) : absLower(key);
+		}
+
+		// public methods
+
+		public boolean isEmpty()
+		{
+			return (fromStart && toEnd) ? m.isEmpty() : absLowest() == null;
+		}
+
+		public int size()
+		{
+			if(fromStart && toEnd)
+			{
+				return m.size();
+			}
+
+			Cursor<V> c = absLowest();
+			if(c == null)
+			{
+				return 0;
+			}
+
+			int count = 0;
+			Leaf<V> leaf = c.leaf;
+			int index = c.index;
+			while(leaf != null)
+			{
+				if(!tooHigh(leaf.keys[leaf.size - 1]))
+				{
+					count += leaf.size - index;
+				}
+				else
+				{
+					while(index < leaf.size && !tooHigh(leaf.keys[index]))
+					{
+						count++;
+						index++;
+					}
+					break;
+				}
+				leaf = leaf.next;
+				index = 0;
+			}
+			return count;
+		}
+
+		public boolean containsKey(int key)
+		{
+			return inRange(key) && m.containsKey(key);
+		}
+
+		public V put(int key, V value)
+		{
+			if(!inRange(key))
+			{
+				throw new IllegalArgumentException("key out of range");
+			}
+			return m.put(key, value);
+		}
+
+		public V get(int key)
+		{
+			return !inRange(key) ? null : m.get(key);
+		}
+
+		public V remove(int key)
+		{
+			return !inRange(key) ? null : m.remove(key);
+		}
+
+		public void clear()
+		{
+			if(fromStart && toEnd)
+			{
+				m.clear();
+				return;
+			}
+
+			Cursor<V> c;
+			while((c = absLowest()) != null)
+			{
+				m.remove(c.key());
+			}
+		}
+
+		public IntComparator comparator()
+		{
+			if(!descending)
+			{
+				return m.comparator();
+			}
+			IntComparator c = m.comparator();
+			return Comparators.reverseOrder(c == null ? Comparators.DEFAULT_INT_COMPARATOR : c);
+		}
+
+		public IntObjectPair<V> ceilingEntry(int key)
+		{
+			return exportEntry(ceiling(key));
+		}
+
+		public int ceilingKey(int key)
+		{
+			return key(ceiling(key));
+		}
+
+		public IntObjectPair<V> higherEntry(int key)
+		{
+			return exportEntry(higher(key));
+		}
+
+		public int higherKey(int key)
+		{
+			return key(higher(key));
+		}
+
+		public IntObjectPair<V> floorEntry(int key)
+		{
+			return exportEntry(floor(key));
+		}
+
+		public int floorKey(int key)
+		{
+			return key(floor(key));
+		}
+
+		public IntObjectPair<V> lowerEntry(int key)
+		{
+			return exportEntry(lower(key));
+		}
+
+		public int lowerKey(int key)
+		{
+			return key(lower(key));
+		}
+
+		public int firstKey()
+		{
+			return key(lowest());
+		}
+
+		public int lastKey()
+		{
+			return key(highest());
+		}
+
+		public IntObjectPair<V> firstEntry()
+		{
+			return exportEntry(lowest());
+		}
+
+		public IntObjectPair<V> lastEntry()
+		{
+			return exportEntry(highest());
+		}
+
+		public IntObjectPair<V> pollFirstEntry()
+		{
+			Cursor<V> c = lowest();
+			IntObjectPair<V> result = exportEntry(c);
+			if(c != null)
+			{
+				m.remove(c.key());
+			}
+			return result;
+		}
+
+		public IntObjectPair<V> pollLastEntry()
+		{
+			Cursor<V> c = highest();
+			IntObjectPair<V> result = exportEntry(c);
+			if(c != null)
+			{
+				m.remove(c.key());
+			}
+			return result;
+		}
+
+		// Views
+
+		public IntSet keySet()
+		{
+			return navigableKeySet();
+		}
+
+		public NavigableIntSet navigableKeySet()
+		{
+			KeySet nksv = navigableKeySet;
+			return (nksv != null) ? nksv : (navigableKeySet = new KeySet(this));
+		}
+
+		public NavigableIntSet descendingKeySet()
+		{
+			return descendingMap().navigableKeySet();
+		}
+
+		public Collection<V> values()
+		{
+			Collection<V> vs = values;
+			return (vs != null) ? vs : (values = new Values<V>(this));
+		}
+
+		public Set<IntObjectPair<V>> entrySet()
+		{
+			Set<IntObjectPair<V>> es = entrySet;
+			return (es != null) ? es : (entrySet = new EntrySet<V>(this));
+		}
+
+		public NavigableIntObjectMap<V> descendingMap()
+		{
+			NavigableIntObjectMap<V> mv = descendingMap;
+			return (mv != null) ? mv : (descendingMap = new SubMap<V>(m, fromStart, lo, loInclusive, toEnd, hi, hiInclusive, !descending));
+		}
+
+		public NavigableIntObjectMap<V> subMap(int fromKey, boolean fromInclusive, int toKey, boolean toInclusive)
+		{
+			if(!inRange(fromKey, fromInclusive))
+			{
+				throw new IllegalArgumentException("fromKey out of range");
+			}
+			if(!inRange(toKey, toInclusive))
+			{
+				throw new IllegalArgumentException("toKey out of range");
+			}
+			if(descending)
+			{
+				return new SubMap<V>(m, false, toKey, toInclusive, false, fromKey, fromInclusive, true);
+			}
+			return new SubMap<V>(m, false, fromKey, fromInclusive, false, toKey, toInclusive, false);
+		}
+
+		public NavigableIntObjectMap<V> headMap(int toKey, boolean inclusive)
+		{
+			if(!inRange(toKey, inclusive))
+			{
+				throw new IllegalArgumentException("toKey out of range");
+			}
+			if(descending)
+			{
+				return new SubMap<V>(m, false, toKey, inclusive, toEnd, hi, hiInclusive, true);
+			}
+			return new SubMap<V>(m, fromStart, lo, loInclusive, false, toKey, inclusive, false);
+		}
+
+		public NavigableIntObjectMap<V> tailMap(int fromKey, boolean inclusive)
+		{
+			if(!inRange(fromKey, inclusive))
+			{
+				throw new IllegalArgumentException("fromKey out of range");
+			}
+			if(descending)
+			{
+				return new SubMap<V>(m, fromStart, lo, loInclusive, false, fromKey, inclusive, true);
+			}
+			return new SubMap<V>(m, false, fromKey, inclusive, toEnd, hi, hiInclusive, false);
+		}
+
+		public SortedIntObjectMap<V> subMap(int fromKey, int toKey)
+		{
+			return subMap(fromKey, true, toKey, false);
+		}
+
+		public SortedIntObjectMap<V> headMap(int toKey)
+		{
+			return headMap(toKey, false);
+		}
+
+		public SortedIntObjectMap<V> tailMap(int fromKey)
+		{
+			return tailMap(fromKey, true);
+		}
+
+		// iterators
+
+		IntIterator keyIterator()
+		{
+			return descending ? m.new KeyIterator(absHighest(), true, !fromStart, lo, loInclusive) : m.new KeyIterator(absLowest(), false, !toEnd, hi, hiInclusive);
+		}
+
+		IntIterator descendingKeyIterator()
+		{
+			return descending ? m.new KeyIterator(absLowest(), false, !toEnd, hi, hiInclusive) : m.new KeyIterator(absHighest(), true, !fromStart, lo, loInclusive);
+		}
+
+		Iterator<V> valueIterator()
+		{
+			return descending ? m.new ValueIterator(absHighest(), true, !fromStart, lo, loInclusive) : m.new ValueIterator(absLowest(), false, !toEnd, hi, hiInclusive);
+		}
+
+		Iterator<IntObjectPair<V>> entryIterator()
+		{
+			return descending ? m.new EntryIterator(absHighest(), true, !fromStart, lo, loInclusive) : m.new EntryIterator(absLowest(), false, !toEnd, hi, hiInclusive);
+		}
+	}
+
+	/**
+	 * Save the state of the <tt>BTreeIntObjectMap</tt> instance to a stream (i.e.,
+	 * serialize it).
+	 *
+	 * @serialData The <i>size</i> of the map (the number of key-value
+	 * mappings) is emitted (int), followed by the key (int)
+	 * and value (Object) for each key-value mapping represented
+	 * by the map. The key-value mappings are emitted in
+	 * key-order (as determined by the map's comparator,
+	 * or by the keys' natural ordering if the map has no
+	 * comparator).
+	 */
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException
+	{
+		// Write out the Comparator and any hidden stuff
+		s.defaultWriteObject();
+
+		s.writeInt(size);
+		for(Leaf<V> leaf = head; leaf != null; leaf = leaf.next)
+		{
+			for(int i = 0; i < leaf.size; i++)
+			{
+				s.writeInt(leaf.keys[i]);
+				s.writeObject(leaf.values[i]);
+			}
+		}
+	}
+
+	/**
+	 * Reconstitute the <tt>BTreeIntObjectMap</tt> instance from a stream (i.e.,
+	 * deserialize it).
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException
+	{
+		// Read in the Comparator and any hidden stuff
+		s.defaultReadObject();
+
+		init();
+		int size = s.readInt();
+		for(int i = 0; i < size; i++)
+		{
+			int key = s.readInt();
+			put(key, (V) s.readObject());
+		}
+	}
+}
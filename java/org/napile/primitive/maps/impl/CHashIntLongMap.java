@@ -28,11 +28,18 @@ import java.util.concurrent.locks.ReentrantLock;
 
 import org.napile.pair.primitive.IntLongPair;
 import org.napile.pair.primitive.impl.IntLongPairImpl;
+import org.napile.primitive.MemoryEstimator;
 import org.napile.primitive.Variables;
 import org.napile.primitive.collections.LongCollection;
 import org.napile.primitive.collections.abstracts.AbstractLongCollection;
+import org.napile.primitive.functions.IntLongProcedure;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.LongBinaryOperator;
+import org.napile.primitive.functions.LongProcedure;
 import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.IntSpliterator;
 import org.napile.primitive.iterators.LongIterator;
+import org.napile.primitive.iterators.impl.IteratorIntSpliterator;
 import org.napile.primitive.maps.CIntLongMap;
 import org.napile.primitive.maps.IntLongMap;
 import org.napile.primitive.maps.abstracts.AbstractIntLongMap;
@@ -163,6 +170,13 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 	 */
 	final Segment[] segments;
 
+	/**
+	 * The value returned if there is no mapping for key.
+	 *
+	 * @serial
+	 */
+	final long noEntryValue;
+
 	transient IntSet keySet;
 	transient Set<IntLongPair> entrySet;
 	transient LongCollection values;
@@ -316,9 +330,18 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 		 */
 		final float loadFactor;
 
-		Segment(int initialCapacity, float lf)
+		/**
+		 * The value returned if there is no mapping for key. Replicated
+		 * from outer object, like load factor.
+		 *
+		 * @serial
+		 */
+		final long noEntryValue;
+
+		Segment(int initialCapacity, float lf, long noEntryValue)
 		{
 			loadFactor = lf;
+			this.noEntryValue = noEntryValue;
 			setTable(HashEntry.newArray(initialCapacity));
 		}
 
@@ -368,7 +391,7 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 
 		/* Specialized implementations of map methods */
 
-		long get(int key, int hash)
+		long get(int key, int hash, long defaultValue)
 		{
 			if(count != 0)
 			{ // read-volatile
@@ -382,7 +405,7 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 					e = e.next;
 				}
 			}
-			return Variables.RETURN_LONG_VALUE_IF_NOT_FOUND;
+			return defaultValue;
 		}
 
 		boolean containsKey(int key, int hash)
@@ -455,7 +478,7 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 					e = e.next;
 				}
 
-				long oldValue = Variables.RETURN_LONG_VALUE_IF_NOT_FOUND;
+				long oldValue = noEntryValue;
 				if(e != null)
 				{
 					oldValue = e.value;
@@ -500,7 +523,7 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 				}
 				else
 				{
-					oldValue = Variables.RETURN_LONG_VALUE_IF_NOT_FOUND;
+					oldValue = noEntryValue;
 					++modCount;
 					tab[index] = new HashEntry(key, first, value);
 					count = c; // write-volatile
@@ -513,6 +536,50 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 			}
 		}
 
+		/**
+		 * Combines value of key with given value in one pass under lock.
+		 * If function is null, values are added. Absent key is mapped to
+		 * given value, as if it was mapped to zero before (for adding).
+		 *
+		 * @return old value if <tt>returnOld</tt>, else new value
+		 */
+		long merge(int key, int hash, long value, LongBinaryOperator function, boolean returnOld)
+		{
+			lock();
+			try
+			{
+				HashEntry e = getFirst(hash);
+				while(e != null && key != e.key)
+				{
+					e = e.next;
+				}
+
+				if(e != null)
+				{
+					long oldValue = e.value;
+					long newValue = function == null ? oldValue + value : function.applyAsLong(oldValue, value);
+					e.value = newValue;
+					return returnOld ? oldValue : newValue;
+				}
+
+				int c = count;
+				if(c++ > threshold) // ensure capacity
+				{
+					rehash();
+				}
+				HashEntry[] tab = table;
+				int index = hash & (tab.length - 1);
+				++modCount;
+				tab[index] = new HashEntry(key, tab[index], value);
+				count = c; // write-volatile
+				return returnOld ? 0 : value;
+			}
+			finally
+			{
+				unlock();
+			}
+		}
+
 		void rehash()
 		{
 			HashEntry[] oldTable = table;
@@ -598,7 +665,7 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 				while(e != null && key != e.key)
 					e = e.next;
 
-				long oldValue = Variables.RETURN_LONG_VALUE_IF_NOT_FOUND;
+				long oldValue = noEntryValue;
 				if(e != null)
 				{
 					oldValue = e.value;
@@ -718,7 +785,7 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 
 	/**
 	 * Creates a new, empty map with the specified initial
-	 * capacity, load factor and concurrency level.
+	 * capacity, load factor, concurrency level and value, which represents absence of mapping.
 	 *
 	 * @param initialCapacity  the initial capacity. The implementation
 	 *                         performs internal sizing to accommodate this many elements.
@@ -728,11 +795,13 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 	 * @param concurrencyLevel the estimated number of concurrently
 	 *                         updating threads. The implementation performs internal sizing
 	 *                         to try to accommodate this many threads.
+	 * @param noEntryValue	 the value returned by <tt>get</tt>, <tt>put</tt>, <tt>remove</tt>
+	 *                         and <tt>replace</tt> if there is no mapping for key
 	 * @throws IllegalArgumentException if the initial capacity is
 	 *                                  negative or the load factor or concurrencyLevel are
 	 *                                  nonpositive.
 	 */
-	public CHashIntLongMap(int initialCapacity, float loadFactor, int concurrencyLevel)
+	public CHashIntLongMap(int initialCapacity, float loadFactor, int concurrencyLevel, long noEntryValue)
 	{
 		if(!(loadFactor > 0) || initialCapacity < 0 || concurrencyLevel <= 0)
 		{
@@ -773,8 +842,30 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 
 		for(int i = 0; i < this.segments.length; ++i)
 		{
-			this.segments[i] = new Segment(cap, loadFactor);
+			this.segments[i] = new Segment(cap, loadFactor, noEntryValue);
 		}
+		this.noEntryValue = noEntryValue;
+	}
+
+	/**
+	 * Creates a new, empty map with the specified initial
+	 * capacity, load factor and concurrency level.
+	 *
+	 * @param initialCapacity  the initial capacity. The implementation
+	 *                         performs internal sizing to accommodate this many elements.
+	 * @param loadFactor	   the load factor threshold, used to control resizing.
+	 *                         Resizing may be performed when the average number of elements per
+	 *                         bin exceeds this threshold.
+	 * @param concurrencyLevel the estimated number of concurrently
+	 *                         updating threads. The implementation performs internal sizing
+	 *                         to try to accommodate this many threads.
+	 * @throws IllegalArgumentException if the initial capacity is
+	 *                                  negative or the load factor or concurrencyLevel are
+	 *                                  nonpositive.
+	 */
+	public CHashIntLongMap(int initialCapacity, float loadFactor, int concurrencyLevel)
+	{
+		this(initialCapacity, loadFactor, concurrencyLevel, Variables.RETURN_LONG_VALUE_IF_NOT_FOUND);
 	}
 
 	/**
@@ -828,7 +919,7 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 	 */
 	public CHashIntLongMap(IntLongMap m)
 	{
-		this(Math.max((int) (m.size() / DEFAULT_LOAD_FACTOR) + 1, DEFAULT_INITIAL_CAPACITY), DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+		this(Math.max((int) (m.size() / DEFAULT_LOAD_FACTOR) + 1, DEFAULT_INITIAL_CAPACITY), DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL, m.getNoEntryValue());
 		putAll(m);
 	}
 
@@ -874,6 +965,21 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 		return true;
 	}
 
+	/**
+	 * Returns an estimate of heap size, retained by this map: the segments with
+	 * their locks and tables, and the entries. Values are not counted. The result
+	 * is not exact, if the map is modified concurrently.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		long bytes = MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.sizeOf(segments);
+		for(Segment segment : segments)
+			bytes += MemoryEstimator.sizeOf(segment) + MemoryEstimator.sizeOf(segment.table) + segment.count * MemoryEstimator.instanceSize(HashEntry.class);
+		return bytes;
+	}
+
 	/**
 	 * Returns the number of key-value mappings in this map.  If the
 	 * map contains more than <tt>Integer.MAX_VALUE</tt> elements, returns
@@ -944,19 +1050,40 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 
 	/**
 	 * Returns the value to which the specified key is mapped,
-	 * or {@code null} if this map contains no mapping for the key.
+	 * or {@link #getNoEntryValue()} if this map contains no mapping for the key.
 	 * <p/>
 	 * <p>More formally, if this map contains a mapping from a key
 	 * {@code k} to a value {@code v} such that {@code key.equals(k)},
 	 * then this method returns {@code v}; otherwise it returns
-	 * {@code null}.  (There can be at most one such mapping.)
-	 *
-	 * @throws NullPointerException if the specified key is null
+	 * {@link #getNoEntryValue()}.  (There can be at most one such mapping.)
 	 */
 	public long get(int key)
 	{
 		int hash = hash(key);
-		return segmentFor(hash).get(key, hash);
+		return segmentFor(hash).get(key, hash, noEntryValue);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getOrDefault(int key, long defaultValue)
+	{
+		int hash = hash(key);
+		return segmentFor(hash).get(key, hash, defaultValue);
+	}
+
+	/**
+	 * Returns the value, which is returned by <tt>get</tt>, <tt>put</tt>, <tt>remove</tt>
+	 * and <tt>replace</tt> if there is no mapping for the key. It's set in constructor, and
+	 * {@link Variables#RETURN_LONG_VALUE_IF_NOT_FOUND} by default.
+	 *
+	 * @return the value that represents absence of mapping
+	 */
+	@Override
+	public long getNoEntryValue()
+	{
+		return noEntryValue;
 	}
 
 	/**
@@ -1148,6 +1275,83 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 		return segmentFor(hash).replace(key, hash, value);
 	}
 
+	/**
+	 * Atomically adds the given value to the value of key, and returns updated value.
+	 * If key is not mapped, it is mapped to <tt>delta</tt>, as if previous value was zero.
+	 * Lookup and update are performed in one pass under segment lock, so this method
+	 * is preferred over loop of <tt>get</tt> and <tt>replace(key, old, new)</tt>.
+	 *
+	 * @param key   key with which the value is associated
+	 * @param delta the value to add
+	 * @return the updated value
+	 */
+	public long addAndGet(int key, long delta)
+	{
+		int hash = hash(key);
+		return segmentFor(hash).merge(key, hash, delta, null, false);
+	}
+
+	/**
+	 * Atomically adds the given value to the value of key, and returns previous value.
+	 * If key is not mapped, it is mapped to <tt>delta</tt>, and zero is returned.
+	 *
+	 * @param key   key with which the value is associated
+	 * @param delta the value to add
+	 * @return the previous value, or zero if there was no mapping for key
+	 */
+	public long getAndAdd(int key, long delta)
+	{
+		int hash = hash(key);
+		return segmentFor(hash).merge(key, hash, delta, null, true);
+	}
+
+	/**
+	 * Atomically increments by one the value of key.
+	 *
+	 * @param key key with which the value is associated
+	 * @return the updated value
+	 * @see #addAndGet(int, long)
+	 */
+	public long incrementAndGet(int key)
+	{
+		return addAndGet(key, 1L);
+	}
+
+	/**
+	 * Atomically decrements by one the value of key.
+	 *
+	 * @param key key with which the value is associated
+	 * @return the updated value
+	 * @see #addAndGet(int, long)
+	 */
+	public long decrementAndGet(int key)
+	{
+		return addAndGet(key, -1L);
+	}
+
+	/**
+	 * If the specified key is not mapped, associates it with the given value.
+	 * Otherwise, replaces the value with the result of given function,
+	 * applied to old value and given value. Whole operation is performed
+	 * atomically under segment lock, so function should be short and simple, and
+	 * must not try to update other mappings of this map.
+	 *
+	 * @param key	  key with which the resulting value is to be associated
+	 * @param value	the value to be merged with the existing value
+	 * @param function the function to recompute a value if present
+	 * @return the new value associated with the specified key
+	 * @throws NullPointerException if the function is null
+	 */
+	public long merge(int key, long value, LongBinaryOperator function)
+	{
+		if(function == null)
+		{
+			throw new NullPointerException();
+		}
+		int hash = hash(key);
+		return segmentFor(hash).merge(key, hash, value, function, false);
+	}
+
 	/**
 	 * Removes all of the mappings from this map.
 	 */
@@ -1158,6 +1362,99 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 			segments[i].clear();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Like iterators of this map, this method is weakly consistent:
+	 * it never locks the map, and never throws {@link java.util.ConcurrentModificationException}.
+	 */
+	@Override
+	public boolean forEachEntry(IntLongProcedure procedure)
+	{
+		final Segment[] segments = this.segments;
+		for(int i = segments.length - 1; i >= 0; i--)
+		{
+			Segment seg = segments[i];
+			if(seg.count != 0) // read-volatile
+			{
+				HashEntry[] tab = seg.table;
+				for(int j = tab.length - 1; j >= 0; j--)
+				{
+					for(HashEntry e = tab[j]; e != null; e = e.next)
+					{
+						if(!procedure.execute(e.key, e.value))
+						{
+							return false;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Like iterators of this map, this method is weakly consistent:
+	 * it never locks the map, and never throws {@link java.util.ConcurrentModificationException}.
+	 */
+	@Override
+	public boolean forEachKey(IntProcedure procedure)
+	{
+		final Segment[] segments = this.segments;
+		for(int i = segments.length - 1; i >= 0; i--)
+		{
+			Segment seg = segments[i];
+			if(seg.count != 0) // read-volatile
+			{
+				HashEntry[] tab = seg.table;
+				for(int j = tab.length - 1; j >= 0; j--)
+				{
+					for(HashEntry e = tab[j]; e != null; e = e.next)
+					{
+						if(!procedure.execute(e.key))
+						{
+							return false;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Like iterators of this map, this method is weakly consistent:
+	 * it never locks the map, and never throws {@link java.util.ConcurrentModificationException}.
+	 */
+	@Override
+	public boolean forEachValue(LongProcedure procedure)
+	{
+		final Segment[] segments = this.segments;
+		for(int i = segments.length - 1; i >= 0; i--)
+		{
+			Segment seg = segments[i];
+			if(seg.count != 0) // read-volatile
+			{
+				HashEntry[] tab = seg.table;
+				for(int j = tab.length - 1; j >= 0; j--)
+				{
+					for(HashEntry e = tab[j]; e != null; e = e.next)
+					{
+						if(!procedure.execute(e.value))
+						{
+							return false;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Returns a {@link java.util.Set} view of the keys contained in this map.
 	 * The set is backed by the map, so changes to the map are
@@ -1362,6 +1659,12 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 			return new KeyIterator();
 		}
 
+		@Override
+		public IntSpliterator spliterator()
+		{
+			return new IteratorIntSpliterator(this, IntSpliterator.CONCURRENT | IntSpliterator.DISTINCT);
+		}
+
 		public int size()
 		{
 			return CHashIntLongMap.this.size();
@@ -1453,8 +1756,8 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 	 * stream (i.e., serialize it).
 	 *
 	 * @param s the stream
-	 * @serialData the key (Object) and value (Object)
-	 * for each key-value mapping, followed by a null pair.
+	 * @serialData the <tt>true</tt> marker (boolean), key (int) and value (long)
+	 * for each key-value mapping, followed by a <tt>false</tt> marker.
 	 * The key-value mappings are emitted in no particular order.
 	 */
 	private void writeObject(java.io.ObjectOutputStream s) throws IOException
@@ -1472,8 +1775,9 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 				{
 					for(HashEntry e = tab[i]; e != null; e = e.next)
 					{
+						s.writeBoolean(true);
 						s.writeInt(e.key);
-						s.writeObject(e.value);
+						s.writeLong(e.value);
 					}
 				}
 			}
@@ -1482,10 +1786,15 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 				seg.unlock();
 			}
 		}
-		s.writeObject(null);
-		s.writeObject(null);
+		s.writeBoolean(false);
 	}
 
+	/**
+	 * Declared since the serial form holds the no entry value and primitive key-value pairs;
+	 * streams written before can not be read back.
+	 */
+	private static final long serialVersionUID = -6410957216342881077L;
+
 	/**
 	 * Reconstitute the <tt>ConcurrentHashMap</tt> instance from a
 	 * stream (i.e., deserialize it).
@@ -1503,18 +1812,11 @@ public class CHashIntLongMap extends AbstractIntLongMap implements CIntLongMap,
 		}
 
 		// Read the keys and values, and put the mappings in the table
-		for(; ;)
+		while(s.readBoolean())
 		{
-			try
-			{
-				int key = s.readInt();
-				long value = s.readLong();
-				put(key, value);
-			}
-			catch(IOException e)
-			{
-				break;
-			}
+			int key = s.readInt();
+			long value = s.readLong();
+			put(key, value);
 		}
 	}
 }
@@ -28,19 +28,37 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.AbstractCollection;
 import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.napile.pair.primitive.IntObjectPair;
 import org.napile.pair.primitive.impl.IntObjectPairImpl;
+import org.napile.primitive.MemoryEstimator;
+import org.napile.primitive.Pools;
+import org.napile.primitive.functions.IntObjectFunction;
+import org.napile.primitive.functions.IntObjectProcedure;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.IntToLongFunction;
+import org.napile.primitive.functions.LongBinaryOperator;
+import org.napile.primitive.functions.ObjectBinaryOperator;
+import org.napile.primitive.functions.ObjectProcedure;
 import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.IntSpliterator;
+import org.napile.primitive.iterators.impl.IteratorIntSpliterator;
 import org.napile.primitive.maps.CIntObjectMap;
 import org.napile.primitive.maps.IntObjectMap;
 import org.napile.primitive.maps.abstracts.AbstractIntObjectMap;
@@ -830,6 +848,21 @@ public class CHashIntObjectMap<V> extends AbstractIntObjectMap<V> implements CIn
 		return true;
 	}
 
+	/**
+	 * Returns an estimate of heap size, retained by this map: the segments with
+	 * their locks and tables, and the entries. Values are not counted. The result
+	 * is not exact, if the map is modified concurrently.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		long bytes = MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.sizeOf(segments);
+		for(Segment<V> segment : segments)
+			bytes += MemoryEstimator.sizeOf(segment) + MemoryEstimator.sizeOf(segment.table) + segment.count * MemoryEstimator.instanceSize(HashEntry.class);
+		return bytes;
+	}
+
 	/**
 	 * Returns the number of key-value mappings in this map.  If the
 	 * map contains more than <tt>Integer.MAX_VALUE</tt> elements, returns
@@ -1134,6 +1167,248 @@ public class CHashIntObjectMap<V> extends AbstractIntObjectMap<V> implements CIn
 			segments[i].clear();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Like iterators of this map, this method is weakly consistent:
+	 * it never locks the map, and never throws {@link java.util.ConcurrentModificationException}.
+	 */
+	@Override
+	public boolean forEachEntry(IntObjectProcedure<? super V> procedure)
+	{
+		final Segment<V>[] segments = this.segments;
+		for(int i = segments.length - 1; i >= 0; i--)
+		{
+			Segment<V> seg = segments[i];
+			if(seg.count != 0) // read-volatile
+			{
+				HashEntry<V>[] tab = seg.table;
+				for(int j = tab.length - 1; j >= 0; j--)
+				{
+					for(HashEntry<V> e = tab[j]; e != null; e = e.next)
+					{
+						V v = e.value;
+						if(v == null) // see Segment.readValueUnderLock
+						{
+							v = seg.readValueUnderLock(e);
+						}
+						if(!procedure.execute(e.key, v))
+						{
+							return false;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Like iterators of this map, this method is weakly consistent:
+	 * it never locks the map, and never throws {@link java.util.ConcurrentModificationException}.
+	 */
+	@Override
+	public boolean forEachKey(IntProcedure procedure)
+	{
+		final Segment<V>[] segments = this.segments;
+		for(int i = segments.length - 1; i >= 0; i--)
+		{
+			Segment<V> seg = segments[i];
+			if(seg.count != 0) // read-volatile
+			{
+				HashEntry<V>[] tab = seg.table;
+				for(int j = tab.length - 1; j >= 0; j--)
+				{
+					for(HashEntry<V> e = tab[j]; e != null; e = e.next)
+					{
+						if(!procedure.execute(e.key))
+						{
+							return false;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Like iterators of this map, this method is weakly consistent:
+	 * it never locks the map, and never throws {@link java.util.ConcurrentModificationException}.
+	 */
+	@Override
+	public boolean forEachValue(ObjectProcedure<? super V> procedure)
+	{
+		final Segment<V>[] segments = this.segments;
+		for(int i = segments.length - 1; i >= 0; i--)
+		{
+			Segment<V> seg = segments[i];
+			if(seg.count != 0) // read-volatile
+			{
+				HashEntry<V>[] tab = seg.table;
+				for(int j = tab.length - 1; j >= 0; j--)
+				{
+					for(HashEntry<V> e = tab[j]; e != null; e = e.next)
+					{
+						V v = e.value;
+						if(v == null) // see Segment.readValueUnderLock
+						{
+							v = seg.readValueUnderLock(e);
+						}
+						if(!procedure.execute(v))
+						{
+							return false;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Performs the given procedure for each mapping, splitting the traversal
+	 * across a {@link ForkJoinPool} when the map holds at least
+	 * <tt>parallelismThreshold</tt> entries. The procedure may be invoked
+	 * concurrently from several threads and in no particular order.
+	 * If it returns <tt>false</tt> the remaining work is abandoned as soon
+	 * as practical, though other threads may still deliver a few mappings.
+	 * <p/>
+	 * <p>Like iterators of this map, this method is weakly consistent:
+	 * it never locks the map, and never throws {@link java.util.ConcurrentModificationException}.
+	 *
+	 * @param parallelismThreshold the (estimated) number of elements needed
+	 *                             for this operation to be executed in parallel;
+	 *                             use {@link Long#MAX_VALUE} to stay in the calling thread
+	 * @param procedure            the procedure
+	 * @return <tt>false</tt> if the procedure stopped the traversal, <tt>true</tt> otherwise
+	 * @throws NullPointerException if the procedure is null
+	 */
+	public boolean forEach(long parallelismThreshold, IntObjectProcedure<? super V> procedure)
+	{
+		if(procedure == null)
+		{
+			throw new NullPointerException();
+		}
+		return invoke(parallelismThreshold, new ForEachTask<V>(procedure, new AtomicBoolean()));
+	}
+
+	/**
+	 * Returns the result of accumulating all values using the given reducer
+	 * to combine them, or <tt>null</tt> if the map is empty. The reducer
+	 * must be associative, since the order of combination is not defined.
+	 * Traversal is parallel under the same conditions as
+	 * {@link #forEach(long, IntObjectProcedure)}.
+	 *
+	 * @param parallelismThreshold the (estimated) number of elements needed
+	 *                             for this operation to be executed in parallel
+	 * @param reducer              a commutative associative combining function
+	 * @return the result of accumulating all values
+	 * @throws NullPointerException if the reducer is null
+	 */
+	public V reduceValues(long parallelismThreshold, ObjectBinaryOperator<V> reducer)
+	{
+		if(reducer == null)
+		{
+			throw new NullPointerException();
+		}
+		return invoke(parallelismThreshold, new ReduceValuesTask<V>(reducer));
+	}
+
+	/**
+	 * Returns the result of accumulating the given transformation of all
+	 * keys using the given reducer to combine values, and the given basis
+	 * as an identity value. Traversal is parallel under the same conditions
+	 * as {@link #forEach(long, IntObjectProcedure)}.
+	 *
+	 * @param parallelismThreshold the (estimated) number of elements needed
+	 *                             for this operation to be executed in parallel
+	 * @param transformer          a function returning the transformation for a key
+	 * @param basis                the identity (initial default value) for the reduction
+	 * @param reducer              a commutative associative combining function
+	 * @return the result of accumulating the given transformation of all keys
+	 * @throws NullPointerException if the transformer or reducer is null
+	 */
+	public long reduceKeysToLong(long parallelismThreshold, IntToLongFunction transformer, long basis, LongBinaryOperator reducer)
+	{
+		if(transformer == null || reducer == null)
+		{
+			throw new NullPointerException();
+		}
+		return invoke(parallelismThreshold, new ReduceKeysToLongTask<V>(transformer, basis, reducer));
+	}
+
+	/**
+	 * Returns a non-null result from applying the given search function on
+	 * each mapping, or <tt>null</tt> if none. Upon success, further element
+	 * processing is suppressed and the results of any other parallel
+	 * invocations of the search function are ignored, so when several
+	 * mappings match, any one of the results may be returned.
+	 *
+	 * @param parallelismThreshold the (estimated) number of elements needed
+	 *                             for this operation to be executed in parallel
+	 * @param searchFunction       a function returning a non-null result on success, else null
+	 * @return a non-null result from applying the given search function on
+	 *         each mapping, or null if none
+	 * @throws NullPointerException if the search function is null
+	 */
+	public <R> R search(long parallelismThreshold, IntObjectFunction<? super V, ? extends R> searchFunction)
+	{
+		if(searchFunction == null)
+		{
+			throw new NullPointerException();
+		}
+		return invoke(parallelismThreshold, new SearchTask<V, R>(searchFunction, new AtomicReference<R>()));
+	}
+
+	/**
+	 * Cuts the segment tables into bin ranges and runs the task over them,
+	 * in the calling thread when the map is smaller than the threshold.
+	 */
+	private <R> R invoke(long parallelismThreshold, BulkTask<V, R> task)
+	{
+		final Segment<V>[] segments = this.segments;
+		long n = 0;
+		for(Segment<V> segment : segments)
+		{
+			n += segment.count; // read-volatile
+		}
+
+		final boolean parallel = n >= parallelismThreshold && n > 1;
+		// the pool is not touched by a sequential operation, so it is never created for one
+		final long pieces = parallel ? Pools.current().getParallelism() << 2 : 1;
+
+		List<Slice<V>> slices = new ArrayList<Slice<V>>();
+		for(Segment<V> segment : segments)
+		{
+			int c = segment.count; // read-volatile
+			if(c == 0)
+			{
+				continue;
+			}
+			HashEntry<V>[] tab = segment.table;
+			long k = Math.max(1, Math.min((c * pieces + n - 1) / Math.max(n, 1), c / Math.max(parallelismThreshold, 1)));
+			k = Math.min(k, tab.length);
+			for(long i = 0; i < k; i++)
+			{
+				slices.add(new Slice<V>(segment, tab, (int) (tab.length * i / k), (int) (tab.length * (i + 1) / k)));
+			}
+		}
+
+		task.slices = Slice.toArray(slices);
+		task.lo = 0;
+		task.hi = task.slices.length;
+		if(!parallel || task.hi < 2)
+		{
+			return task.sequential();
+		}
+		return ForkJoinTask.inForkJoinPool() ? task.invoke() : Pools.current().invoke(task);
+	}
+
 	/**
 	 * Returns a {@link Set} view of the keys contained in this map.
 	 * The set is backed by the map, so changes to the map are
@@ -1201,6 +1476,293 @@ public class CHashIntObjectMap<V> extends AbstractIntObjectMap<V> implements CIn
 	}
 
 
+	/* ---------------- Parallel Bulk Operations -------------- */
+
+	/**
+	 * A range of bins of a segment table, captured when a bulk operation starts.
+	 * Like iterators, traversal of a captured table is weakly consistent.
+	 */
+	static final class Slice<V>
+	{
+		final Segment<V> segment;
+		final HashEntry<V>[] tab;
+		final int lo;
+		final int hi;
+
+		Slice(Segment<V> segment, HashEntry<V>[] tab, int lo, int hi)
+		{
+			this.segment = segment;
+			this.tab = tab;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		V valueOf(HashEntry<V> e)
+		{
+			V v = e.value;
+			if(v == null) // see Segment.readValueUnderLock
+			{
+				v = segment.readValueUnderLock(e);
+			}
+			return v;
+		}
+
+		@SuppressWarnings("unchecked")
+		static <V> Slice<V>[] toArray(List<Slice<V>> list)
+		{
+			return list.toArray((Slice<V>[]) new Slice<?>[list.size()]);
+		}
+	}
+
+	/**
+	 * Base of the parallel bulk operations: splits its range of slices in
+	 * halves until a single slice is left, and combines the partial results.
+	 */
+	abstract static class BulkTask<V, R> extends RecursiveTask<R>
+	{
+		private static final long serialVersionUID = 7412098745212093781L;
+
+		Slice<V>[] slices;
+		int lo;
+		int hi;
+
+		final BulkTask<V, R> split(int lo, int hi)
+		{
+			BulkTask<V, R> task = newTask();
+			task.slices = slices;
+			task.lo = lo;
+			task.hi = hi;
+			return task;
+		}
+
+		@Override
+		protected final R compute()
+		{
+			if(hi - lo <= 1)
+			{
+				return sequential();
+			}
+			int mid = (lo + hi) >>> 1;
+			BulkTask<V, R> right = split(mid, hi);
+			right.fork();
+			R result = split(lo, mid).compute();
+			return combine(result, right.join());
+		}
+
+		final R sequential()
+		{
+			R result = identity();
+			for(int i = lo; i < hi; i++)
+			{
+				result = combine(result, compute(slices[i]));
+			}
+			return result;
+		}
+
+		abstract BulkTask<V, R> newTask();
+
+		abstract R identity();
+
+		abstract R compute(Slice<V> slice);
+
+		abstract R combine(R left, R right);
+	}
+
+	static final class ForEachTask<V> extends BulkTask<V, Boolean>
+	{
+		private static final long serialVersionUID = -2374021981043627219L;
+
+		final IntObjectProcedure<? super V> procedure;
+		final AtomicBoolean stopped;
+
+		ForEachTask(IntObjectProcedure<? super V> procedure, AtomicBoolean stopped)
+		{
+			this.procedure = procedure;
+			this.stopped = stopped;
+		}
+
+		@Override
+		BulkTask<V, Boolean> newTask()
+		{
+			return new ForEachTask<V>(procedure, stopped);
+		}
+
+		@Override
+		Boolean identity()
+		{
+			return Boolean.TRUE;
+		}
+
+		@Override
+		Boolean compute(Slice<V> slice)
+		{
+			final HashEntry<V>[] tab = slice.tab;
+			for(int j = slice.lo; j < slice.hi && !stopped.get(); j++)
+			{
+				for(HashEntry<V> e = tab[j]; e != null; e = e.next)
+				{
+					if(!procedure.execute(e.key, slice.valueOf(e)))
+					{
+						stopped.set(true);
+						return Boolean.FALSE;
+					}
+				}
+			}
+			return !stopped.get();
+		}
+
+		@Override
+		Boolean combine(Boolean left, Boolean right)
+		{
+			return left && right;
+		}
+	}
+
+	static final class ReduceValuesTask<V> extends BulkTask<V, V>
+	{
+		private static final long serialVersionUID = 6110596373227066553L;
+
+		final ObjectBinaryOperator<V> reducer;
+
+		ReduceValuesTask(ObjectBinaryOperator<V> reducer)
+		{
+			this.reducer = reducer;
+		}
+
+		@Override
+		BulkTask<V, V> newTask()
+		{
+			return new ReduceValuesTask<V>(reducer);
+		}
+
+		@Override
+		V identity()
+		{
+			return null;
+		}
+
+		@Override
+		V compute(Slice<V> slice)
+		{
+			V result = null;
+			final HashEntry<V>[] tab = slice.tab;
+			for(int j = slice.lo; j < slice.hi; j++)
+			{
+				for(HashEntry<V> e = tab[j]; e != null; e = e.next)
+				{
+					result = combine(result, slice.valueOf(e));
+				}
+			}
+			return result;
+		}
+
+		@Override
+		V combine(V left, V right)
+		{
+			return left == null ? right : right == null ? left : reducer.apply(left, right);
+		}
+	}
+
+	static final class ReduceKeysToLongTask<V> extends BulkTask<V, Long>
+	{
+		private static final long serialVersionUID = -1869553513516427153L;
+
+		final IntToLongFunction transformer;
+		final long basis;
+		final LongBinaryOperator reducer;
+
+		ReduceKeysToLongTask(IntToLongFunction transformer, long basis, LongBinaryOperator reducer)
+		{
+			this.transformer = transformer;
+			this.basis = basis;
+			this.reducer = reducer;
+		}
+
+		@Override
+		BulkTask<V, Long> newTask()
+		{
+			return new ReduceKeysToLongTask<V>(transformer, basis, reducer);
+		}
+
+		@Override
+		Long identity()
+		{
+			return basis;
+		}
+
+		@Override
+		Long compute(Slice<V> slice)
+		{
+			long result = basis;
+			final HashEntry<V>[] tab = slice.tab;
+			for(int j = slice.lo; j < slice.hi; j++)
+			{
+				for(HashEntry<V> e = tab[j]; e != null; e = e.next)
+				{
+					result = reducer.applyAsLong(result, transformer.applyAsLong(e.key));
+				}
+			}
+			return result;
+		}
+
+		@Override
+		Long combine(Long left, Long right)
+		{
+			return reducer.applyAsLong(left, right);
+		}
+	}
+
+	static final class SearchTask<V, R> extends BulkTask<V, R>
+	{
+		private static final long serialVersionUID = 4571224085470493817L;
+
+		final IntObjectFunction<? super V, ? extends R> searchFunction;
+		final AtomicReference<R> result;
+
+		SearchTask(IntObjectFunction<? super V, ? extends R> searchFunction, AtomicReference<R> result)
+		{
+			this.searchFunction = searchFunction;
+			this.result = result;
+		}
+
+		@Override
+		BulkTask<V, R> newTask()
+		{
+			return new SearchTask<V, R>(searchFunction, result);
+		}
+
+		@Override
+		R identity()
+		{
+			return null;
+		}
+
+		@Override
+		R compute(Slice<V> slice)
+		{
+			final HashEntry<V>[] tab = slice.tab;
+			for(int j = slice.lo; j < slice.hi && result.get() == null; j++)
+			{
+				for(HashEntry<V> e = tab[j]; e != null; e = e.next)
+				{
+					R r = searchFunction.apply(e.key, slice.valueOf(e));
+					if(r != null)
+					{
+						result.compareAndSet(null, r);
+						return result.get();
+					}
+				}
+			}
+			return result.get();
+		}
+
+		@Override
+		R combine(R left, R right)
+		{
+			return left != null ? left : right;
+		}
+	}
+
 	/* ---------------- Iterator Support -------------- */
 
 	abstract class HashIterator
@@ -1343,6 +1905,12 @@ public class CHashIntObjectMap<V> extends AbstractIntObjectMap<V> implements CIn
 			return new KeyIterator();
 		}
 
+		@Override
+		public IntSpliterator spliterator()
+		{
+			return new IteratorIntSpliterator(this, IntSpliterator.CONCURRENT | IntSpliterator.DISTINCT);
+		}
+
 		public int size()
 		{
 			return CHashIntObjectMap.this.size();
@@ -0,0 +1,1876 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.maps.impl;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.napile.HashUtils;
+import org.napile.pair.primitive.IntObjectPair;
+import org.napile.pair.primitive.impl.IntObjectPairImpl;
+import org.napile.primitive.MemoryEstimator;
+import org.napile.primitive.functions.IntObjectProcedure;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.ObjectProcedure;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.IntSpliterator;
+import org.napile.primitive.iterators.impl.IteratorIntSpliterator;
+import org.napile.primitive.maps.CIntObjectMap;
+import org.napile.primitive.maps.IntObjectMap;
+import org.napile.primitive.maps.abstracts.AbstractIntObjectMap;
+import org.napile.primitive.sets.IntSet;
+import org.napile.primitive.sets.abstracts.AbstractIntSet;
+
+/**
+ * A hash table supporting full concurrency of retrievals and
+ * high expected concurrency for updates. This class obeys the
+ * same functional specification as {@link CHashIntObjectMap}, but
+ * instead of fixed count of <tt>Segment</tt> locks it uses
+ * CAS for insertion into empty bin, and lock of the first node of bin
+ * for other updates. So count of concurrent writers is limited only by count of bins,
+ * and there is no <tt>concurrencyLevel</tt> to guess.
+ * <p/>
+ * <p> Retrieval operations (including <tt>get</tt>) generally do not
+ * block, so may overlap with update operations (including
+ * <tt>put</tt> and <tt>remove</tt>). Retrievals reflect the results
+ * of the most recently <em>completed</em> update operations holding
+ * upon their onset.  For aggregate operations such as <tt>putAll</tt>
+ * and <tt>clear</tt>, concurrent retrievals may reflect insertion or
+ * removal of only some entries.  Similarly, Iterators
+ * return elements reflecting the state of the hash table
+ * at some point at or since the creation of the iterator.
+ * They do <em>not</em> throw {@link ConcurrentModificationException}.
+ * However, iterators are designed to be used by only one thread at a time.
+ * <p/>
+ * <p> When table is resized, all threads which try to update it help to move bins
+ * to the new table, so resizing not stop the world.  Element count is kept in
+ * striped counter cells, so <tt>size()</tt> never lock and writers not contend
+ * on a single counter.  Bear in mind that the results of aggregate status methods
+ * including <tt>size</tt> and <tt>isEmpty</tt> are typically useful only when
+ * a map is not undergoing concurrent updates in other threads.
+ * <p/>
+ * <p> Like {@link java.util.Hashtable} but unlike {@link java.util.HashMap}, this class
+ * does <em>not</em> allow <tt>null</tt> to be used as a value.
+ *
+ * @param <V> the type of mapped values
+ * @author VISTALL
+ * @date 14:20/18.10.2026
+ * @see CHashIntObjectMap
+ */
+public class CHashIntObjectMapV8<V> extends AbstractIntObjectMap<V> implements CIntObjectMap<V>, Serializable
+{
+	private static final long serialVersionUID = 7249069246763182397L;
+
+	/*
+	 * Overview (short version of ConcurrentHashMap from JDK 8, written by
+	 * Doug Lea and released to the public domain as part of JSR-166):
+	 *
+	 * The table is lazily initialized to a power-of-two size upon the
+	 * first insertion.  Each bin in the table normally contains a
+	 * list of Nodes.  Insertion of the first node in an empty bin is
+	 * performed by just CASing it to the bin.  Other update operations
+	 * (insert, delete, and replace) require locks - we use the first
+	 * node of a bin list itself as a lock for that bin.
+	 *
+	 * The table is resized when occupancy exceeds a percentage
+	 * threshold (nominally, 0.75).  Any thread noticing an overfull
+	 * bin may assist in resizing after the initiating thread
+	 * allocates and sets up the replacement array.  Bins are transferred
+	 * one by one from the end of table, and replaced by ForwardingNode,
+	 * which forwards lookups and updates to the next table.
+	 *
+	 * Element count is maintained using a specialization of
+	 * LongAdder - base counter plus table of counter cells, which is
+	 * created on contention.
+	 */
+
+	/* ---------------- Constants -------------- */
+
+	/**
+	 * The largest possible table capacity.
+	 */
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	/**
+	 * The default initial table capacity.  Must be a power of 2
+	 * (i.e., at least 1) and at most MAXIMUM_CAPACITY.
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * The load factor for this table. Overrides of this value in
+	 * constructors affect only the initial table capacity.
+	 */
+	private static final float LOAD_FACTOR = 0.75f;
+
+	/**
+	 * Minimum number of rebinnings per transfer step. Ranges are
+	 * subdivided to allow multiple resizer threads.
+	 */
+	private static final int MIN_TRANSFER_STRIDE = 16;
+
+	/**
+	 * The number of bits used for generation stamp in sizeCtl.
+	 */
+	private static final int RESIZE_STAMP_BITS = 16;
+
+	/**
+	 * The maximum number of threads that can help resize.
+	 */
+	private static final int MAX_RESIZERS = (1 << (32 - RESIZE_STAMP_BITS)) - 1;
+
+	/**
+	 * The bit shift for recording size stamp in sizeCtl.
+	 */
+	private static final int RESIZE_STAMP_SHIFT = 32 - RESIZE_STAMP_BITS;
+
+	/**
+	 * Hash of forwarding nodes
+	 */
+	static final int MOVED = -1;
+
+	/**
+	 * Usable bits of normal node hash
+	 */
+	static final int HASH_BITS = 0x7fffffff;
+
+	/**
+	 * Number of CPUS, to place bounds on some sizings
+	 */
+	static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+	/* ---------------- Nodes -------------- */
+
+	/**
+	 * Key-value entry.  Nodes with negative hash
+	 * fields are special, and contain null keys and values (but are never exported).
+	 */
+	static class Node<V>
+	{
+		final int hash;
+		final int key;
+		volatile V val;
+		volatile Node<V> next;
+
+		Node(int hash, int key, V val, Node<V> next)
+		{
+			this.hash = hash;
+			this.key = key;
+			this.val = val;
+			this.next = next;
+		}
+
+		/**
+		 * Virtualized support for map.get()
+		 */
+		Node<V> find(int h, int k)
+		{
+			Node<V> e = this;
+			do
+			{
+				if(e.hash == h && e.key == k)
+				{
+					return e;
+				}
+			}
+			while((e = e.next) != null);
+			return null;
+		}
+	}
+
+	/**
+	 * A node inserted at head of bins during transfer operations.
+	 */
+	static final class ForwardingNode<V> extends Node<V>
+	{
+		final AtomicReferenceArray<Node<V>> nextTable;
+
+		ForwardingNode(AtomicReferenceArray<Node<V>> tab)
+		{
+			super(MOVED, 0, null, null);
+			this.nextTable = tab;
+		}
+
+		@Override
+		Node<V> find(int h, int k)
+		{
+			// loop to avoid arbitrarily deep recursion on forwarding nodes
+			outer:
+			for(AtomicReferenceArray<Node<V>> tab = nextTable; ; )
+			{
+				Node<V> e;
+				int n;
+				if(tab == null || (n = tab.length()) == 0 || (e = tab.get((n - 1) & h)) == null)
+				{
+					return null;
+				}
+				for(; ;)
+				{
+					int eh;
+					if((eh = e.hash) == h && e.key == k)
+					{
+						return e;
+					}
+					if(eh < 0)
+					{
+						if(e instanceof ForwardingNode)
+						{
+							tab = ((ForwardingNode<V>) e).nextTable;
+							continue outer;
+						}
+						else
+						{
+							return e.find(h, k);
+						}
+					}
+					if((e = e.next) == null)
+					{
+						return null;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * A padded cell for distributing counts.
+	 */
+	static final class CounterCell
+	{
+		volatile long p0, p1, p2, p3, p4, p5, p6;
+		volatile long value;
+		volatile long q0, q1, q2, q3, q4, q5, q6;
+
+		CounterCell(long x)
+		{
+			value = x;
+		}
+
+		static final AtomicLongFieldUpdater<CounterCell> valueUpdater = AtomicLongFieldUpdater.newUpdater(CounterCell.class, "value");
+
+		boolean cas(long cmp, long val)
+		{
+			return valueUpdater.compareAndSet(this, cmp, val);
+		}
+	}
+
+	/**
+	 * Per-thread hash code, used to select counter cell
+	 */
+	static final class CounterHashCode
+	{
+		private static final AtomicInteger seedGenerator = new AtomicInteger();
+
+		int code;
+
+		CounterHashCode()
+		{
+			int h = seedGenerator.addAndGet(0x61c88647);
+			code = (h == 0) ? 1 : h; // Avoid zero to allow xorShift rehash
+		}
+
+		int advance()
+		{
+			int h = code;
+			h ^= h << 13;
+			h ^= h >>> 17;
+			h ^= h << 5;
+			return code = h;
+		}
+	}
+
+	static final ThreadLocal<CounterHashCode> threadHashCode = new ThreadLocal<CounterHashCode>()
+	{
+		@Override
+		protected CounterHashCode initialValue()
+		{
+			return new CounterHashCode();
+		}
+	};
+
+	/* ---------------- Static utilities -------------- */
+
+	static int spread(int key)
+	{
+		return HashUtils.mix(key) & HASH_BITS;
+	}
+
+	/**
+	 * Returns a power of two table size for the given desired capacity.
+	 */
+	private static int tableSizeFor(int c)
+	{
+		int n = c - 1;
+		n |= n >>> 1;
+		n |= n >>> 2;
+		n |= n >>> 4;
+		n |= n >>> 8;
+		n |= n >>> 16;
+		return (n < 0) ? 1 : (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
+	}
+
+	/**
+	 * Returns the stamp bits for resizing a table of size n.
+	 * Must be negative when shifted left by RESIZE_STAMP_SHIFT.
+	 */
+	static int resizeStamp(int n)
+	{
+		return Integer.numberOfLeadingZeros(n) | (1 << (RESIZE_STAMP_BITS - 1));
+	}
+
+	/* ---------------- Fields -------------- */
+
+	/**
+	 * The array of bins. Lazily initialized upon first insertion.
+	 * Size is always a power of two.
+	 */
+	transient volatile AtomicReferenceArray<Node<V>> table;
+
+	/**
+	 * The next table to use; non-null only while resizing.
+	 */
+	private transient volatile AtomicReferenceArray<Node<V>> nextTable;
+
+	/**
+	 * Base counter value, used mainly when there is no contention,
+	 * but also as a fallback during table initialization
+	 * races. Updated via CAS.
+	 */
+	private transient volatile long baseCount;
+
+	/**
+	 * Table initialization and resizing control.  When negative, the
+	 * table is being initialized or resized: -1 for initialization,
+	 * else -(1 + the number of active resizing threads).  Otherwise,
+	 * when table is null, holds the initial table size to use upon
+	 * creation, or 0 for default. After initialization, holds the
+	 * next element count value upon which to resize the table.
+	 */
+	private transient volatile int sizeCtl;
+
+	/**
+	 * The next table index (plus one) to split while resizing.
+	 */
+	private transient volatile int transferIndex;
+
+	/**
+	 * Spinlock (locked via CAS) used when resizing and/or creating CounterCells.
+	 */
+	private transient volatile int cellsBusy;
+
+	/**
+	 * Table of counter cells. When non-null, size is a power of 2.
+	 */
+	private transient volatile CounterCell[] counterCells;
+
+	private static final AtomicLongFieldUpdater<CHashIntObjectMapV8<?>> baseCountUpdater = longUpdater("baseCount");
+	private static final AtomicIntegerFieldUpdater<CHashIntObjectMapV8<?>> sizeCtlUpdater = intUpdater("sizeCtl");
+	private static final AtomicIntegerFieldUpdater<CHashIntObjectMapV8<?>> transferIndexUpdater = intUpdater("transferIndex");
+	private static final AtomicIntegerFieldUpdater<CHashIntObjectMapV8<?>> cellsBusyUpdater = intUpdater("cellsBusy");
+
+	// the class literal is raw, so the updaters are retyped for the wildcard map type
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static AtomicLongFieldUpdater<CHashIntObjectMapV8<?>> longUpdater(String fieldName)
+	{
+		return (AtomicLongFieldUpdater) AtomicLongFieldUpdater.newUpdater(CHashIntObjectMapV8.class, fieldName);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static AtomicIntegerFieldUpdater<CHashIntObjectMapV8<?>> intUpdater(String fieldName)
+	{
+		return (AtomicIntegerFieldUpdater) AtomicIntegerFieldUpdater.newUpdater(CHashIntObjectMapV8.class, fieldName);
+	}
+
+	// views
+	private transient Set<IntObjectPair<V>> entrySet;
+
+	/* ---------------- Public operations -------------- */
+
+	/**
+	 * Creates a new, empty map with the default initial table size (16).
+	 */
+	public CHashIntObjectMapV8()
+	{
+	}
+
+	/**
+	 * Creates a new, empty map with an initial table size
+	 * accommodating the specified number of elements without the need
+	 * to dynamically resize.
+	 *
+	 * @param initialCapacity The implementation performs internal
+	 *                        sizing to accommodate this many elements.
+	 * @throws IllegalArgumentException if the initial capacity of
+	 *                                  elements is negative
+	 */
+	public CHashIntObjectMapV8(int initialCapacity)
+	{
+		this(initialCapacity, LOAD_FACTOR, 1);
+	}
+
+	/**
+	 * Creates a new map with the same mappings as the given map.
+	 *
+	 * @param m the map
+	 */
+	public CHashIntObjectMapV8(IntObjectMap<? extends V> m)
+	{
+		this.sizeCtl = DEFAULT_CAPACITY;
+		putAll(m);
+	}
+
+	/**
+	 * Creates a new, empty map with an initial table size based on
+	 * the given number of elements ({@code initialCapacity}) and
+	 * initial table density ({@code loadFactor}).
+	 *
+	 * @param initialCapacity the initial capacity
+	 * @param loadFactor	  the load factor (table density) for
+	 *                        establishing the initial table size
+	 * @throws IllegalArgumentException if the initial capacity of
+	 *                                  elements is negative or the load factor is nonpositive
+	 */
+	public CHashIntObjectMapV8(int initialCapacity, float loadFactor)
+	{
+		this(initialCapacity, loadFactor, 1);
+	}
+
+	/**
+	 * Creates a new, empty map with an initial table size based on
+	 * the given number of elements ({@code initialCapacity}), table
+	 * density ({@code loadFactor}), and number of concurrently
+	 * updating threads ({@code concurrencyLevel}).
+	 * Concurrency level is used only as sizing hint, and kept for compatibility
+	 * with {@link CHashIntObjectMap} constructors.
+	 *
+	 * @param initialCapacity  the initial capacity
+	 * @param loadFactor	   the load factor (table density) for
+	 *                         establishing the initial table size
+	 * @param concurrencyLevel the estimated number of concurrently
+	 *                         updating threads
+	 * @throws IllegalArgumentException if the initial capacity is
+	 *                                  negative or the load factor or concurrencyLevel are
+	 *                                  nonpositive
+	 */
+	public CHashIntObjectMapV8(int initialCapacity, float loadFactor, int concurrencyLevel)
+	{
+		if(!(loadFactor > 0.0f) || initialCapacity < 0 || concurrencyLevel <= 0)
+		{
+			throw new IllegalArgumentException();
+		}
+		if(initialCapacity < concurrencyLevel)   // Use at least as many bins
+		{
+			initialCapacity = concurrencyLevel;   // as estimated threads
+		}
+		long size = (long) (1.0 + (long) initialCapacity / loadFactor);
+		this.sizeCtl = (size >= (long) MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : tableSizeFor((int) size);
+	}
+
+	// Original (since JDK1.2) Map methods
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int size()
+	{
+		long n = sumCount();
+		return ((n < 0L) ? 0 : (n > (long) Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) n);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isEmpty()
+	{
+		return sumCount() <= 0L; // ignore transient negative values
+	}
+
+	/**
+	 * Returns an estimate of heap size, retained by this map: the tables, the
+	 * nodes and the counter cells. Values are not counted. The result is not exact,
+	 * if the map is modified concurrently.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		long bytes = MemoryEstimator.shallowSizeOf(this) + sizeOf(table) + sizeOf(nextTable);
+		bytes += Math.max(sumCount(), 0L) * MemoryEstimator.instanceSize(Node.class);
+		CounterCell[] as = counterCells;
+		if(as != null)
+		{
+			bytes += MemoryEstimator.sizeOf(as);
+			for(CounterCell a : as)
+				if(a != null)
+					bytes += MemoryEstimator.instanceSize(CounterCell.class);
+		}
+		return bytes;
+	}
+
+	private static long sizeOf(AtomicReferenceArray<?> array)
+	{
+		return array == null ? 0 : MemoryEstimator.shallowSizeOf(array) + MemoryEstimator.arraySize(array.length(), MemoryEstimator.REFERENCE_SIZE);
+	}
+
+	/**
+	 * Returns the number of mappings. This method should be used
+	 * instead of {@link #size} because a map may contain more mappings
+	 * than can be represented as an int. The value returned is an
+	 * estimate; the actual count may differ if there are concurrent
+	 * insertions or removals.
+	 *
+	 * @return the number of mappings
+	 */
+	public long mappingCount()
+	{
+		long n = sumCount();
+		return (n < 0L) ? 0L : n; // ignore transient negative values
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped,
+	 * or {@code null} if this map contains no mapping for the key.
+	 *
+	 * @param key the key
+	 */
+	public V get(int key)
+	{
+		AtomicReferenceArray<Node<V>> tab;
+		Node<V> e, p;
+		int n, eh;
+		int h = spread(key);
+		if((tab = table) != null && (n = tab.length()) > 0 && (e = tab.get((n - 1) & h)) != null)
+		{
+			if((eh = e.hash) == h)
+			{
+				if(e.key == key)
+				{
+					return e.val;
+				}
+			}
+			else if(eh < 0)
+			{
+				return (p = e.find(h, key)) != null ? p.val : null;
+			}
+			while((e = e.next) != null)
+			{
+				if(e.hash == h && e.key == key)
+				{
+					return e.val;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Tests if the specified key is a key in this table.
+	 *
+	 * @param key possible key
+	 * @return {@code true} if and only if the specified key is a key
+	 *         in this table
+	 */
+	public boolean containsKey(int key)
+	{
+		return get(key) != null;
+	}
+
+	/**
+	 * Returns {@code true} if this map maps one or more keys to the
+	 * specified value. Note: This method may require a full traversal
+	 * of the map, and is much slower than method {@code containsKey}.
+	 *
+	 * @param value value whose presence in this map is to be tested
+	 * @return {@code true} if this map maps one or more keys to the
+	 *         specified value
+	 * @throws NullPointerException if the specified value is null
+	 */
+	public boolean containsValue(Object value)
+	{
+		if(value == null)
+		{
+			throw new NullPointerException();
+		}
+		AtomicReferenceArray<Node<V>> t;
+		if((t = table) != null)
+		{
+			Traverser<V> it = new Traverser<V>(t, t.length(), 0, t.length());
+			for(Node<V> p; (p = it.advance()) != null; )
+			{
+				V v;
+				if((v = p.val) == value || (v != null && value.equals(v)))
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Maps the specified key to the specified value in this table.
+	 * The value can not be null.
+	 *
+	 * @param key   key with which the specified value is to be associated
+	 * @param value value to be associated with the specified key
+	 * @return the previous value associated with {@code key}, or
+	 *         {@code null} if there was no mapping for {@code key}
+	 * @throws NullPointerException if the specified value is null
+	 */
+	public V put(int key, V value)
+	{
+		return putVal(key, value, false);
+	}
+
+	/**
+	 * Implementation for put and putIfAbsent
+	 */
+	final V putVal(int key, V value, boolean onlyIfAbsent)
+	{
+		if(value == null)
+		{
+			throw new NullPointerException();
+		}
+		int hash = spread(key);
+		int binCount = 0;
+		for(AtomicReferenceArray<Node<V>> tab = table; ; )
+		{
+			Node<V> f;
+			int n, i, fh;
+			V fv;
+			if(tab == null || (n = tab.length()) == 0)
+			{
+				tab = initTable();
+			}
+			else if((f = tab.get(i = (n - 1) & hash)) == null)
+			{
+				if(tab.compareAndSet(i, null, new Node<V>(hash, key, value, null)))
+				{
+					break;                   // no lock when adding to empty bin
+				}
+			}
+			else if((fh = f.hash) == MOVED)
+			{
+				tab = helpTransfer(tab, f);
+			}
+			else if(onlyIfAbsent && fh == hash && f.key == key && (fv = f.val) != null)
+			{
+				return fv;   // check first node without acquiring lock
+			}
+			else
+			{
+				V oldVal = null;
+				synchronized(f)
+				{
+					if(tab.get(i) == f)
+					{
+						binCount = 1;
+						for(Node<V> e = f; ; ++binCount)
+						{
+							if(e.hash == hash && e.key == key)
+							{
+								oldVal = e.val;
+								if(!onlyIfAbsent)
+								{
+									e.val = value;
+								}
+								break;
+							}
+							Node<V> pred = e;
+							if((e = e.next) == null)
+							{
+								pred.next = new Node<V>(hash, key, value, null);
+								break;
+							}
+						}
+					}
+				}
+				if(binCount != 0)
+				{
+					if(oldVal != null)
+					{
+						return oldVal;
+					}
+					break;
+				}
+			}
+		}
+		addCount(1L, binCount);
+		return null;
+	}
+
+	/**
+	 * Copies all of the mappings from the specified map to this one.
+	 * These mappings replace any mappings that this map had for any of the
+	 * keys currently in the specified map.
+	 *
+	 * @param m mappings to be stored in this map
+	 */
+	public void putAll(IntObjectMap<? extends V> m)
+	{
+		tryPresize(m.size());
+		for(IntObjectPair<? extends V> e : m.entrySet())
+		{
+			putVal(e.getKey(), e.getValue(), false);
+		}
+	}
+
+	/**
+	 * Removes the key (and its corresponding value) from this map.
+	 * This method does nothing if the key is not in the map.
+	 *
+	 * @param key the key that needs to be removed
+	 * @return the previous value associated with {@code key}, or
+	 *         {@code null} if there was no mapping for {@code key}
+	 */
+	public V remove(int key)
+	{
+		return replaceNode(key, null, null);
+	}
+
+	/**
+	 * Implementation for the four public remove/replace methods:
+	 * Replaces node value with v, conditional upon match of cv if
+	 * non-null.  If resulting value is null, delete.
+	 */
+	final V replaceNode(int key, V value, Object cv)
+	{
+		int hash = spread(key);
+		for(AtomicReferenceArray<Node<V>> tab = table; ; )
+		{
+			Node<V> f;
+			int n, i, fh;
+			if(tab == null || (n = tab.length()) == 0 || (f = tab.get(i = (n - 1) & hash)) == null)
+			{
+				break;
+			}
+			else if((fh = f.hash) == MOVED)
+			{
+				tab = helpTransfer(tab, f);
+			}
+			else
+			{
+				V oldVal = null;
+				boolean validated = false;
+				synchronized(f)
+				{
+					if(tab.get(i) == f)
+					{
+						if(fh >= 0)
+						{
+							validated = true;
+							for(Node<V> e = f, pred = null; ; )
+							{
+								if(e.hash == hash && e.key == key)
+								{
+									V ev = e.val;
+									if(cv == null || cv == ev || (ev != null && cv.equals(ev)))
+									{
+										oldVal = ev;
+										if(value != null)
+										{
+											e.val = value;
+										}
+										else if(pred != null)
+										{
+											pred.next = e.next;
+										}
+										else
+										{
+											tab.set(i, e.next);
+										}
+									}
+									break;
+								}
+								pred = e;
+								if((e = e.next) == null)
+								{
+									break;
+								}
+							}
+						}
+					}
+				}
+				if(validated)
+				{
+					if(oldVal != null)
+					{
+						if(value == null)
+						{
+							addCount(-1L, -1);
+						}
+						return oldVal;
+					}
+					break;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Removes all of the mappings from this map.
+	 */
+	public void clear()
+	{
+		long delta = 0L; // negative number of deletions
+		int i = 0;
+		AtomicReferenceArray<Node<V>> tab = table;
+		while(tab != null && i < tab.length())
+		{
+			int fh;
+			Node<V> f = tab.get(i);
+			if(f == null)
+			{
+				++i;
+			}
+			else if((fh = f.hash) == MOVED)
+			{
+				tab = helpTransfer(tab, f);
+				i = 0; // restart
+			}
+			else
+			{
+				synchronized(f)
+				{
+					if(tab.get(i) == f)
+					{
+						Node<V> p = (fh >= 0 ? f : null);
+						while(p != null)
+						{
+							--delta;
+							p = p.next;
+						}
+						tab.set(i++, null);
+					}
+				}
+			}
+		}
+		if(delta != 0L)
+		{
+			addCount(delta, -1);
+		}
+	}
+
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Like iterators of this map, this method is weakly consistent,
+	 * and never throws {@link ConcurrentModificationException}.
+	 */
+	@Override
+	public boolean forEachEntry(IntObjectProcedure<? super V> procedure)
+	{
+		AtomicReferenceArray<Node<V>> t;
+		if((t = table) != null)
+		{
+			Traverser<V> it = new Traverser<V>(t, t.length(), 0, t.length());
+			for(Node<V> p; (p = it.advance()) != null; )
+			{
+				if(!procedure.execute(p.key, p.val))
+				{
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Like iterators of this map, this method is weakly consistent,
+	 * and never throws {@link ConcurrentModificationException}.
+	 */
+	@Override
+	public boolean forEachKey(IntProcedure procedure)
+	{
+		AtomicReferenceArray<Node<V>> t;
+		if((t = table) != null)
+		{
+			Traverser<V> it = new Traverser<V>(t, t.length(), 0, t.length());
+			for(Node<V> p; (p = it.advance()) != null; )
+			{
+				if(!procedure.execute(p.key))
+				{
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Like iterators of this map, this method is weakly consistent,
+	 * and never throws {@link ConcurrentModificationException}.
+	 */
+	@Override
+	public boolean forEachValue(ObjectProcedure<? super V> procedure)
+	{
+		AtomicReferenceArray<Node<V>> t;
+		if((t = table) != null)
+		{
+			Traverser<V> it = new Traverser<V>(t, t.length(), 0, t.length());
+			for(Node<V> p; (p = it.advance()) != null; )
+			{
+				if(!procedure.execute(p.val))
+				{
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	// CIntObjectMap methods
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return the previous value associated with the specified key,
+	 *         or {@code null} if there was no mapping for the key
+	 * @throws NullPointerException if the specified value is null
+	 */
+	public V putIfAbsent(int key, V value)
+	{
+		return putVal(key, value, true);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean remove(int key, Object value)
+	{
+		return value != null && replaceNode(key, null, value) != null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws NullPointerException if any of the values are null
+	 */
+	public boolean replace(int key, V oldValue, V newValue)
+	{
+		if(oldValue == null || newValue == null)
+		{
+			throw new NullPointerException();
+		}
+		return replaceNode(key, newValue, oldValue) != null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @return the previous value associated with the specified key,
+	 *         or {@code null} if there was no mapping for the key
+	 * @throws NullPointerException if the specified value is null
+	 */
+	public V replace(int key, V value)
+	{
+		if(value == null)
+		{
+			throw new NullPointerException();
+		}
+		return replaceNode(key, value, null);
+	}
+
+	/* ---------------- Table Initialization and Resizing -------------- */
+
+	/**
+	 * Initializes table, using the size recorded in sizeCtl.
+	 */
+	private AtomicReferenceArray<Node<V>> initTable()
+	{
+		AtomicReferenceArray<Node<V>> tab;
+		int sc;
+		while((tab = table) == null || tab.length() == 0)
+		{
+			if((sc = sizeCtl) < 0)
+			{
+				Thread.yield(); // lost initialization race; just spin
+			}
+			else if(sizeCtlUpdater.compareAndSet(this, sc, -1))
+			{
+				try
+				{
+					if((tab = table) == null || tab.length() == 0)
+					{
+						int n = (sc > 0) ? sc : DEFAULT_CAPACITY;
+						table = tab = new AtomicReferenceArray<Node<V>>(n);
+						sc = n - (n >>> 2);
+					}
+				}
+				finally
+				{
+					sizeCtl = sc;
+				}
+				break;
+			}
+		}
+		return tab;
+	}
+
+	/**
+	 * Adds to count, and if table is too small and not already
+	 * resizing, initiates transfer. If already resizing, helps
+	 * perform transfer if work is available.  Rechecks occupancy
+	 * after a transfer to see if another resize is already needed
+	 * because resizings are lagging additions.
+	 *
+	 * @param x	 the count to add
+	 * @param check if <0, don't check resize, if <= 1 only check if uncontended
+	 */
+	private void addCount(long x, int check)
+	{
+		CounterCell[] as;
+		long b, s;
+		if((as = counterCells) != null || !baseCountUpdater.compareAndSet(this, b = baseCount, s = b + x))
+		{
+			CounterCell a;
+			long v;
+			int m;
+			boolean uncontended = true;
+			if(as == null || (m = as.length - 1) < 0 || (a = as[threadHashCode.get().code & m]) == null || !(uncontended = a.cas(v = a.value, v + x)))
+			{
+				fullAddCount(x, uncontended);
+				return;
+			}
+			if(check <= 1)
+			{
+				return;
+			}
+			s = sumCount();
+		}
+		if(check >= 0)
+		{
+			AtomicReferenceArray<Node<V>> tab, nt;
+			int n, sc;
+			while(s >= (long) (sc = sizeCtl) && (tab = table) != null && (n = tab.length()) < MAXIMUM_CAPACITY)
+			{
+				int rs = resizeStamp(n) << RESIZE_STAMP_SHIFT;
+				if(sc < 0)
+				{
+					if(sc == rs + MAX_RESIZERS || sc == rs + 1 || (nt = nextTable) == null || transferIndex <= 0)
+					{
+						break;
+					}
+					if(sizeCtlUpdater.compareAndSet(this, sc, sc + 1))
+					{
+						transfer(tab, nt);
+					}
+				}
+				else if(sizeCtlUpdater.compareAndSet(this, sc, rs + 2))
+				{
+					transfer(tab, null);
+				}
+				s = sumCount();
+			}
+		}
+	}
+
+	/**
+	 * Helps transfer if a resize is in progress.
+	 */
+	final AtomicReferenceArray<Node<V>> helpTransfer(AtomicReferenceArray<Node<V>> tab, Node<V> f)
+	{
+		AtomicReferenceArray<Node<V>> nextTab;
+		int sc;
+		if(tab != null && (f instanceof ForwardingNode) && (nextTab = ((ForwardingNode<V>) f).nextTable) != null)
+		{
+			int rs = resizeStamp(tab.length()) << RESIZE_STAMP_SHIFT;
+			while(nextTab == nextTable && table == tab && (sc = sizeCtl) < 0)
+			{
+				if(sc == rs + MAX_RESIZERS || sc == rs + 1 || transferIndex <= 0)
+				{
+					break;
+				}
+				if(sizeCtlUpdater.compareAndSet(this, sc, sc + 1))
+				{
+					transfer(tab, nextTab);
+					break;
+				}
+			}
+			return nextTab;
+		}
+		return table;
+	}
+
+	/**
+	 * Tries to presize table to accommodate the given number of elements.
+	 *
+	 * @param size number of elements (doesn't need to be perfectly accurate)
+	 */
+	private void tryPresize(int size)
+	{
+		int c = (size >= (MAXIMUM_CAPACITY >>> 1)) ? MAXIMUM_CAPACITY : tableSizeFor(size + (size >>> 1) + 1);
+		int sc;
+		while((sc = sizeCtl) >= 0)
+		{
+			AtomicReferenceArray<Node<V>> tab = table;
+			int n;
+			if(tab == null || (n = tab.length()) == 0)
+			{
+				n = (sc > c) ? sc : c;
+				if(sizeCtlUpdater.compareAndSet(this, sc, -1))
+				{
+					try
+					{
+						if(table == tab)
+						{
+							table = new AtomicReferenceArray<Node<V>>(n);
+							sc = n - (n >>> 2);
+						}
+					}
+					finally
+					{
+						sizeCtl = sc;
+					}
+				}
+			}
+			else if(c <= sc || n >= MAXIMUM_CAPACITY)
+			{
+				break;
+			}
+			else if(tab == table)
+			{
+				int rs = resizeStamp(n);
+				if(sizeCtlUpdater.compareAndSet(this, sc, (rs << RESIZE_STAMP_SHIFT) + 2))
+				{
+					transfer(tab, null);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Moves and/or copies the nodes in each bin to new table.
+	 */
+	private void transfer(AtomicReferenceArray<Node<V>> tab, AtomicReferenceArray<Node<V>> nextTab)
+	{
+		int n = tab.length(), stride;
+		if((stride = (NCPU > 1) ? (n >>> 3) / NCPU : n) < MIN_TRANSFER_STRIDE)
+		{
+			stride = MIN_TRANSFER_STRIDE; // subdivide range
+		}
+		if(nextTab == null)
+		{            // initiating
+			try
+			{
+				nextTab = new AtomicReferenceArray<Node<V>>(n << 1);
+			}
+			catch(Throwable ex)
+			{      // try to cope with OOME
+				sizeCtl = Integer.MAX_VALUE;
+				return;
+			}
+			nextTable = nextTab;
+			transferIndex = n;
+		}
+		int nextn = nextTab.length();
+		ForwardingNode<V> fwd = new ForwardingNode<V>(nextTab);
+		boolean advance = true;
+		boolean finishing = false; // to ensure sweep before committing nextTab
+		for(int i = 0, bound = 0; ; )
+		{
+			Node<V> f;
+			int fh;
+			while(advance)
+			{
+				int nextIndex, nextBound;
+				if(--i >= bound || finishing)
+				{
+					advance = false;
+				}
+				else if((nextIndex = transferIndex) <= 0)
+				{
+					i = -1;
+					advance = false;
+				}
+				else if(transferIndexUpdater.compareAndSet(this, nextIndex, nextBound = (nextIndex > stride ? nextIndex - stride : 0)))
+				{
+					bound = nextBound;
+					i = nextIndex - 1;
+					advance = false;
+				}
+			}
+			if(i < 0 || i >= n || i + n >= nextn)
+			{
+				int sc;
+				if(finishing)
+				{
+					nextTable = null;
+					table = nextTab;
+					sizeCtl = (n << 1) - (n >>> 1);
+					return;
+				}
+				if(sizeCtlUpdater.compareAndSet(this, sc = sizeCtl, sc - 1))
+				{
+					if((sc - 2) != resizeStamp(n) << RESIZE_STAMP_SHIFT)
+					{
+						return;
+					}
+					finishing = advance = true;
+					i = n; // recheck before commit
+				}
+			}
+			else if((f = tab.get(i)) == null)
+			{
+				advance = tab.compareAndSet(i, null, fwd);
+			}
+			else if((fh = f.hash) == MOVED)
+			{
+				advance = true; // already processed
+			}
+			else
+			{
+				synchronized(f)
+				{
+					if(tab.get(i) == f)
+					{
+						Node<V> ln, hn;
+						if(fh >= 0)
+						{
+							int runBit = fh & n;
+							Node<V> lastRun = f;
+							for(Node<V> p = f.next; p != null; p = p.next)
+							{
+								int b = p.hash & n;
+								if(b != runBit)
+								{
+									runBit = b;
+									lastRun = p;
+								}
+							}
+							if(runBit == 0)
+							{
+								ln = lastRun;
+								hn = null;
+							}
+							else
+							{
+								hn = lastRun;
+								ln = null;
+							}
+							for(Node<V> p = f; p != lastRun; p = p.next)
+							{
+								int ph = p.hash;
+								int pk = p.key;
+								V pv = p.val;
+								if((ph & n) == 0)
+								{
+									ln = new Node<V>(ph, pk, pv, ln);
+								}
+								else
+								{
+									hn = new Node<V>(ph, pk, pv, hn);
+								}
+							}
+							nextTab.set(i, ln);
+							nextTab.set(i + n, hn);
+							tab.set(i, fwd);
+							advance = true;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/* ---------------- Counter support -------------- */
+
+	final long sumCount()
+	{
+		CounterCell[] as = counterCells;
+		CounterCell a;
+		long sum = baseCount;
+		if(as != null)
+		{
+			for(int i = 0; i < as.length; ++i)
+			{
+				if((a = as[i]) != null)
+				{
+					sum += a.value;
+				}
+			}
+		}
+		return sum;
+	}
+
+	// See LongAdder version for explanation
+	private void fullAddCount(long x, boolean wasUncontended)
+	{
+		CounterHashCode hc = threadHashCode.get();
+		int h = hc.code;
+		boolean collide = false;                // True if last slot nonempty
+		for(; ;)
+		{
+			CounterCell[] as;
+			CounterCell a;
+			int n;
+			long v;
+			if((as = counterCells) != null && (n = as.length) > 0)
+			{
+				if((a = as[(n - 1) & h]) == null)
+				{
+					if(cellsBusy == 0)
+					{            // Try to attach new Cell
+						CounterCell r = new CounterCell(x); // Optimistic create
+						if(cellsBusy == 0 && cellsBusyUpdater.compareAndSet(this, 0, 1))
+						{
+							boolean created = false;
+							try
+							{               // Recheck under lock
+								CounterCell[] rs;
+								int m, j;
+								if((rs = counterCells) != null && (m = rs.length) > 0 && rs[j = (m - 1) & h] == null)
+								{
+									rs[j] = r;
+									created = true;
+								}
+							}
+							finally
+							{
+								cellsBusy = 0;
+							}
+							if(created)
+							{
+								break;
+							}
+							continue;           // Slot is now non-empty
+						}
+					}
+					collide = false;
+				}
+				else if(!wasUncontended)       // CAS already known to fail
+				{
+					wasUncontended = true;      // Continue after rehash
+				}
+				else if(a.cas(v = a.value, v + x))
+				{
+					break;
+				}
+				else if(counterCells != as || n >= NCPU)
+				{
+					collide = false;            // At max size or stale
+				}
+				else if(!collide)
+				{
+					collide = true;
+				}
+				else if(cellsBusy == 0 && cellsBusyUpdater.compareAndSet(this, 0, 1))
+				{
+					try
+					{
+						if(counterCells == as)
+						{// Expand table unless stale
+							CounterCell[] rs = new CounterCell[n << 1];
+							System.arraycopy(as, 0, rs, 0, n);
+							counterCells = rs;
+						}
+					}
+					finally
+					{
+						cellsBusy = 0;
+					}
+					collide = false;
+					continue;                   // Retry with expanded table
+				}
+				h = hc.advance();
+			}
+			else if(cellsBusy == 0 && counterCells == as && cellsBusyUpdater.compareAndSet(this, 0, 1))
+			{
+				boolean init = false;
+				try
+				{                           // Initialize table
+					if(counterCells == as)
+					{
+						CounterCell[] rs = new CounterCell[2];
+						rs[h & 1] = new CounterCell(x);
+						counterCells = rs;
+						init = true;
+					}
+				}
+				finally
+				{
+					cellsBusy = 0;
+				}
+				if(init)
+				{
+					break;
+				}
+			}
+			else if(baseCountUpdater.compareAndSet(this, v = baseCount, v + x))
+			{
+				break;                          // Fall back on using base
+			}
+		}
+	}
+
+	/* ----------------Table Traversal -------------- */
+
+	/**
+	 * Records the table, its length, and current traversal index for a
+	 * traverser that must process a region of a forwarded table before
+	 * proceeding with current table.
+	 */
+	static final class TableStack<V>
+	{
+		int length;
+		int index;
+		AtomicReferenceArray<Node<V>> tab;
+		TableStack<V> next;
+	}
+
+	/**
+	 * Encapsulates traversal for methods such as containsValue; also
+	 * serves as a base class for other iterators.
+	 * <p/>
+	 * Method advance visits once each still-valid node that was
+	 * reachable upon iterator construction. It might miss some that
+	 * were added to a bin after the bin was visited, which is OK wrt
+	 * consistency guarantees. Maintaining this property in the face
+	 * of possible ongoing resizes requires a fair amount of
+	 * bookkeeping state that is difficult to optimize away amidst
+	 * volatile accesses.
+	 */
+	static class Traverser<V>
+	{
+		AtomicReferenceArray<Node<V>> tab;        // current table; updated if resized
+		Node<V> next;         // the next entry to use
+		TableStack<V> stack, spare; // to save/restore on ForwardingNodes
+		int index;              // index of bin to use next
+		int baseIndex;          // current index of initial table
+		int baseLimit;          // index bound for initial table
+		final int baseSize;     // initial table size
+
+		Traverser(AtomicReferenceArray<Node<V>> tab, int size, int index, int limit)
+		{
+			this.tab = tab;
+			this.baseSize = size;
+			this.baseIndex = this.index = index;
+			this.baseLimit = limit;
+			this.next = null;
+		}
+
+		/**
+		 * Advances if possible, returning next valid node, or null if none.
+		 */
+		final Node<V> advance()
+		{
+			Node<V> e;
+			if((e = next) != null)
+			{
+				e = e.next;
+			}
+			for(; ;)
+			{
+				AtomicReferenceArray<Node<V>> t;
+				int i, n;  // must use locals in checks
+				if(e != null)
+				{
+					return next = e;
+				}
+				if(baseIndex >= baseLimit || (t = tab) == null || (n = t.length()) <= (i = index) || i < 0)
+				{
+					return next = null;
+				}
+				if((e = t.get(i)) != null && e.hash < 0)
+				{
+					if(e instanceof ForwardingNode)
+					{
+						tab = ((ForwardingNode<V>) e).nextTable;
+						e = null;
+						pushState(t, i, n);
+						continue;
+					}
+					else
+					{
+						e = null;
+					}
+				}
+				if(stack != null)
+				{
+					recoverState(n);
+				}
+				else if((index = i + baseSize) >= n)
+				{
+					index = ++baseIndex; // visit upper slots if present
+				}
+			}
+		}
+
+		/**
+		 * Saves traversal state upon encountering a forwarding node.
+		 */
+		private void pushState(AtomicReferenceArray<Node<V>> t, int i, int n)
+		{
+			TableStack<V> s = spare;  // reuse if possible
+			if(s != null)
+			{
+				spare = s.next;
+			}
+			else
+			{
+				s = new TableStack<V>();
+			}
+			s.tab = t;
+			s.length = n;
+			s.index = i;
+			s.next = stack;
+			stack = s;
+		}
+
+		/**
+		 * Possibly pops traversal state.
+		 *
+		 * @param n length of current table
+		 */
+		private void recoverState(int n)
+		{
+			TableStack<V> s;
+			int len;
+			while((s = stack) != null && (index += (len = s.length)) >= n)
+			{
+				n = len;
+				index = s.index;
+				tab = s.tab;
+				s.tab = null;
+				TableStack<V> next = s.next;
+				s.next = spare; // save for reuse
+				stack = next;
+				spare = s;
+			}
+			if(s == null && (index += baseSize) >= n)
+			{
+				index = ++baseIndex;
+			}
+		}
+	}
+
+	/**
+	 * Base of key, value, and entry Iterators. Adds fields to
+	 * Traverser to support iterator.remove.
+	 */
+	abstract class BaseIterator extends Traverser<V>
+	{
+		Node<V> lastReturned;
+
+		BaseIterator(AtomicReferenceArray<Node<V>> tab)
+		{
+			super(tab, tab == null ? 0 : tab.length(), 0, tab == null ? 0 : tab.length());
+			advance();
+		}
+
+		public final boolean hasNext()
+		{
+			return next != null;
+		}
+
+		final Node<V> nextNode()
+		{
+			Node<V> p;
+			if((p = next) == null)
+			{
+				throw new NoSuchElementException();
+			}
+			lastReturned = p;
+			advance();
+			return p;
+		}
+
+		public final void remove()
+		{
+			Node<V> p;
+			if((p = lastReturned) == null)
+			{
+				throw new IllegalStateException();
+			}
+			lastReturned = null;
+			replaceNode(p.key, null, null);
+		}
+	}
+
+	final class KeyIterator extends BaseIterator implements IntIterator
+	{
+		KeyIterator()
+		{
+			super(table);
+		}
+
+		public int next()
+		{
+			return nextNode().key;
+		}
+	}
+
+	final class ValueIterator extends BaseIterator implements Iterator<V>
+	{
+		ValueIterator()
+		{
+			super(table);
+		}
+
+		public V next()
+		{
+			return nextNode().val;
+		}
+	}
+
+	final class EntryIterator extends BaseIterator implements Iterator<IntObjectPair<V>>
+	{
+		EntryIterator()
+		{
+			super(table);
+		}
+
+		public IntObjectPair<V> next()
+		{
+			Node<V> p = nextNode();
+			return new WriteThroughEntry(p.key, p.val);
+		}
+	}
+
+	/**
+	 * Custom Entry class used by EntryIterator.next(), that relays
+	 * setValue changes to the underlying map.
+	 */
+	final class WriteThroughEntry extends IntObjectPairImpl<V>
+	{
+		WriteThroughEntry(int k, V v)
+		{
+			super(k, v);
+		}
+
+		@Override
+		public V setValue(V value)
+		{
+			if(value == null)
+			{
+				throw new NullPointerException();
+			}
+			V v = super.setValue(value);
+			CHashIntObjectMapV8.this.put(getKey(), value);
+			return v;
+		}
+	}
+
+	/* ---------------- Views -------------- */
+
+	/**
+	 * Returns a {@link IntSet} view of the keys contained in this map.
+	 * The set is backed by the map, so changes to the map are
+	 * reflected in the set, and vice-versa.  The set supports element
+	 * removal, but does not support the <tt>add</tt> or
+	 * <tt>addAll</tt> operations.
+	 * <p/>
+	 * <p>The view's <tt>iterator</tt> is a "weakly consistent" iterator
+	 * that will never throw {@link ConcurrentModificationException}.
+	 */
+	public IntSet keySet()
+	{
+		IntSet ks = keySet;
+		return (ks != null) ? ks : (keySet = new KeySet());
+	}
+
+	/**
+	 * Returns a {@link Collection} view of the values contained in this map.
+	 * The collection is backed by the map, so changes to the map are
+	 * reflected in the collection, and vice-versa.  The collection
+	 * supports element removal, but does not support the <tt>add</tt> or
+	 * <tt>addAll</tt> operations.
+	 */
+	public Collection<V> values()
+	{
+		Collection<V> vs = values;
+		return (vs != null) ? vs : (values = new Values());
+	}
+
+	/**
+	 * Returns a {@link Set} view of the mappings contained in this map.
+	 * The set is backed by the map, so changes to the map are
+	 * reflected in the set, and vice-versa.  The set supports element
+	 * removal, but does not support the <tt>add</tt> or
+	 * <tt>addAll</tt> operations.
+	 */
+	public Set<IntObjectPair<V>> entrySet()
+	{
+		Set<IntObjectPair<V>> es = entrySet;
+		return (es != null) ? es : (entrySet = new EntrySet());
+	}
+
+	final class KeySet extends AbstractIntSet
+	{
+		public IntIterator iterator()
+		{
+			return new KeyIterator();
+		}
+
+		@Override
+		public IntSpliterator spliterator()
+		{
+			return new IteratorIntSpliterator(this, IntSpliterator.CONCURRENT | IntSpliterator.DISTINCT);
+		}
+
+		public int size()
+		{
+			return CHashIntObjectMapV8.this.size();
+		}
+
+		public boolean contains(int o)
+		{
+			return CHashIntObjectMapV8.this.containsKey(o);
+		}
+
+		public boolean remove(int o)
+		{
+			return CHashIntObjectMapV8.this.remove(o) != null;
+		}
+
+		public void clear()
+		{
+			CHashIntObjectMapV8.this.clear();
+		}
+	}
+
+	final class Values extends AbstractCollection<V>
+	{
+		public Iterator<V> iterator()
+		{
+			return new ValueIterator();
+		}
+
+		public int size()
+		{
+			return CHashIntObjectMapV8.this.size();
+		}
+
+		public boolean contains(Object o)
+		{
+			return CHashIntObjectMapV8.this.containsValue(o);
+		}
+
+		public void clear()
+		{
+			CHashIntObjectMapV8.this.clear();
+		}
+	}
+
+	final class EntrySet extends AbstractSet<IntObjectPair<V>>
+	{
+		public Iterator<IntObjectPair<V>> iterator()
+		{
+			return new EntryIterator();
+		}
+
+		public boolean contains(Object o)
+		{
+			if(!(o instanceof IntObjectPair))
+			{
+				return false;
+			}
+			IntObjectPair<?> e = (IntObjectPair<?>) o;
+			V v = CHashIntObjectMapV8.this.get(e.getKey());
+			return v != null && v.equals(e.getValue());
+		}
+
+		public boolean remove(Object o)
+		{
+			if(!(o instanceof IntObjectPair))
+			{
+				return false;
+			}
+			IntObjectPair<?> e = (IntObjectPair<?>) o;
+			return CHashIntObjectMapV8.this.remove(e.getKey(), e.getValue());
+		}
+
+		public int size()
+		{
+			return CHashIntObjectMapV8.this.size();
+		}
+
+		public void clear()
+		{
+			CHashIntObjectMapV8.this.clear();
+		}
+	}
+
+	/* ---------------- Serialization Support -------------- */
+
+	/**
+	 * Saves the state of the map to a stream (i.e., serializes it).
+	 *
+	 * @param s the stream
+	 * @serialData the value (Object) and key (int)
+	 * for each key-value mapping, followed by a null value.
+	 * The key-value mappings are emitted in no particular order.
+	 */
+	private void writeObject(java.io.ObjectOutputStream s) throws IOException
+	{
+		s.defaultWriteObject();
+
+		AtomicReferenceArray<Node<V>> t;
+		if((t = table) != null)
+		{
+			Traverser<V> it = new Traverser<V>(t, t.length(), 0, t.length());
+			for(Node<V> p; (p = it.advance()) != null; )
+			{
+				s.writeObject(p.val);
+				s.writeInt(p.key);
+			}
+		}
+		s.writeObject(null);
+	}
+
+	/**
+	 * Reconstitutes the map from a stream (that is, deserializes it).
+	 *
+	 * @param s the stream
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(java.io.ObjectInputStream s) throws IOException, ClassNotFoundException
+	{
+		s.defaultReadObject();
+
+		sizeCtl = 0;
+		for(; ;)
+		{
+			V value = (V) s.readObject();
+			if(value == null)
+			{
+				break;
+			}
+			int key = s.readInt();
+			putVal(key, value, false);
+		}
+	}
+}
@@ -24,7 +24,6 @@
  */
 package org.napile.primitive.maps.impl;
 
-import java.io.IOException;
 import java.util.AbstractCollection;
 import java.util.AbstractSet;
 import java.util.ArrayList;
@@ -42,9 +41,15 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import org.napile.pair.primitive.IntObjectPair;
 import org.napile.pair.primitive.impl.ImmutableIntObjectPairImpl;
 import org.napile.primitive.Comparators;
+import org.napile.primitive.MemoryEstimator;
 import org.napile.primitive.collections.IntCollection;
 import org.napile.primitive.comparators.IntComparator;
+import org.napile.primitive.functions.IntObjectProcedure;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.ObjectProcedure;
 import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.IntSpliterator;
+import org.napile.primitive.iterators.impl.IteratorIntSpliterator;
 import org.napile.primitive.maps.CNavigableIntObjectMap;
 import org.napile.primitive.maps.IntObjectMap;
 import org.napile.primitive.maps.SortedIntObjectMap;
@@ -344,6 +349,12 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 	 */
 	private static final Object BASE_HEADER = new Object();
 
+	/**
+	 * Max count of nodes, which putAllSorted passes from the node of the previous key,
+	 * before it searches the key from the head.
+	 */
+	private static final int SORTED_PUT_STEPS = 32;
+
 	/**
 	 * The topmost head index of the skiplist.
 	 */
@@ -1018,6 +1029,197 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 		}
 	}
 
+	/**
+	 * Insertion method of putAllSorted. Like doPut, but continues the search
+	 * from the node of the previous key, if it is not deleted and the key is
+	 * near enough to it.
+	 *
+	 * @param hint  the node of a lesser key, or null
+	 * @param kkey  the key
+	 * @param value the value that must be associated with key
+	 * @return the node holding the key
+	 */
+	private Node<V> doPutSorted(Node<V> hint, int kkey, V value)
+	{
+		for(; ;)
+		{
+			Node<V> b;
+			int steps;
+			if(hint != null && hint.value != null)
+			{
+				b = hint;
+				steps = SORTED_PUT_STEPS;
+			}
+			else
+			{
+				b = findPredecessor(kkey);
+				steps = Integer.MAX_VALUE;
+			}
+			hint = null; // retries search from the head
+			Node<V> n = b.next;
+			for(; ;)
+			{
+				if(n != null)
+				{
+					Node<V> f = n.next;
+					if(n != b.next)			   // inconsistent read
+					{
+						break;
+					}
+
+					Object v = n.value;
+					if(v == null)
+					{			   // n is deleted
+						n.helpDelete(b, f);
+						break;
+					}
+					if(v == n || b.value == null) // b is deleted
+					{
+						break;
+					}
+					int c = compare(kkey, n.key);
+					if(c > 0)
+					{
+						if(--steps == 0)   // too far from the hint
+						{
+							break;
+						}
+						b = n;
+						n = f;
+						continue;
+					}
+					if(c == 0)
+					{
+						if(n.casValue(v, value))
+						{
+							return n;
+						}
+						else
+						{
+							break; // restart if lost race to replace value
+						}
+					}
+					// else c < 0; fall through
+				}
+
+				Node<V> z = new Node<V>(kkey, value, n);
+				if(!b.casNext(n, z))
+				{
+					break;		 // restart if lost race to append to b
+				}
+				int level = randomLevel();
+				if(level > 0)
+				{
+					insertIndex(z, level);
+				}
+				return z;
+			}
+		}
+	}
+
+	/**
+	 * Bulk load method of putAllSorted. Builds the nodes and index nodes
+	 * of the given mappings aside, in one pass, and then links them to the
+	 * base-level header and head index nodes.
+	 *
+	 * @param keys   the keys, in ascending order
+	 * @param values the values
+	 * @return false if the map is not empty, so nothing was linked
+	 */
+	private boolean buildSorted(int[] keys, V[] values)
+	{
+		// mappings are merged into a non empty map, so nothing is built for it
+		if(head.node.next != null)
+		{
+			return false;
+		}
+
+		Node<V> first = null;
+		Node<V> basepred = null;
+
+		// Track the leftmost and the current rightmost index node at each
+		// level. Level 0 is not used.
+		ArrayList<Index<V>> firsts = new ArrayList<Index<V>>();
+		ArrayList<Index<V>> preds = new ArrayList<Index<V>>();
+		firsts.add(null);
+		preds.add(null);
+
+		for(int i = 0; i < keys.length; i++)
+		{
+			Node<V> z = new Node<V>(keys[i], values[i], null);
+			if(basepred == null)
+			{
+				first = z;
+			}
+			else
+			{
+				basepred.next = z;
+			}
+			basepred = z;
+
+			int j = randomLevel();
+			if(j > preds.size())
+			{
+				j = preds.size();
+			}
+			Index<V> idx = null;
+			for(int l = 1; l <= j; ++l)
+			{
+				idx = new Index<V>(z, idx, null);
+				if(l < preds.size())
+				{
+					preds.get(l).right = idx;
+					preds.set(l, idx);
+				}
+				else
+				{
+					firsts.add(idx);
+					preds.add(idx);
+				}
+			}
+		}
+
+		// all nodes become visible at once, unless a concurrent insert made the map not empty
+		if(!head.node.casNext(null, first))
+		{
+			return false;
+		}
+
+		int levels = firsts.size() - 1;
+		HeadIndex<V> oldh;
+		for(; ;)
+		{
+			oldh = head;
+			if(oldh.level >= levels)
+			{
+				break;
+			}
+			HeadIndex<V> newh = oldh;
+			for(int j = oldh.level + 1; j <= levels; ++j)
+			{
+				newh = new HeadIndex<V>(oldh.node, newh, firsts.get(j), j);
+			}
+			if(casHead(oldh, newh))
+			{
+				break;
+			}
+		}
+
+		// If other threads have already indexed their new nodes at some level,
+		// the index nodes built here stay reachable only from the upper levels.
+		// This costs some search steps, but never a wrong result.
+		Index<V> q = oldh;
+		for(int j = oldh.level; j > 0; --j)
+		{
+			if(j <= levels)
+			{
+				q.casRight(null, firsts.get(j));
+			}
+			q = q.down;
+		}
+		return true;
+	}
+
 	/**
 	 * Returns a random level for inserting a new node.
 	 * Hardwired to k=1, p=0.5, max 31 (see above and
@@ -1719,6 +1921,24 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 		buildFromSorted(m);
 	}
 
+	/**
+	 * Constructs a new map containing the given mappings, sorted according
+	 * to the {@linkplain Comparable natural ordering} of the keys. The map
+	 * is built in one linear pass, see {@link #putAllSorted(int[], Object[])}.
+	 *
+	 * @param keys   the keys, in strictly ascending order
+	 * @param values the values, <tt>values[i]</tt> is associated with <tt>keys[i]</tt>
+	 * @throws NullPointerException	 if any of arrays or values is null
+	 * @throws IllegalArgumentException if the arrays differ in length,
+	 *                                  or keys are not in strictly ascending order
+	 */
+	public CTreeIntObjectMap(int[] keys, V[] values)
+	{
+		this.comparator = null;
+		initialize();
+		putAllSorted(keys, values);
+	}
+
 	/**
 	 * Returns a shallow copy of this <tt>CTreeIntObjectMap</tt>
 	 * instance. (The keys and values themselves are not cloned.)
@@ -1822,9 +2042,9 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 	/**
 	 * Save the state of this map to a stream.
 	 *
-	 * @serialData The key (Object) and value (Object) for each
+	 * @serialData <tt>true</tt> (boolean), the key (int) and value (Object) for each
 	 * key-value mapping represented by the map, followed by
-	 * <tt>null</tt>. The key-value mappings are emitted in key-order
+	 * <tt>false</tt>. The key-value mappings are emitted in key-order
 	 * (as determined by the Comparator, or by the keys' natural
 	 * ordering if no Comparator).
 	 */
@@ -1833,17 +2053,18 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 		// Write out the Comparator and any hidden stuff
 		s.defaultWriteObject();
 
-		// Write out keys and values (alternating)
+		// Write out keys and values (alternating), each pair is preceded by true
 		for(Node<V> n = findFirst(); n != null; n = n.next)
 		{
 			V v = n.getValidValue();
 			if(v != null)
 			{
-				s.writeObject(n.key);
+				s.writeBoolean(true);
+				s.writeInt(n.key);
 				s.writeObject(v);
 			}
 		}
-		s.writeObject(null);
+		s.writeBoolean(false);
 	}
 
 	/**
@@ -1878,17 +2099,9 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 			q = q.down;
 		}
 
-		for(; ;)
+		while(s.readBoolean())
 		{
-			int key = 0;
-			try
-			{
-				key = s.readInt();
-			}
-			catch(IOException e)
-			{
-				break;
-			}
+			int key = s.readInt();
 			Object v = s.readObject();
 			if(v == null)
 			{
@@ -1986,6 +2199,56 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 		return doPut(key, value, false);
 	}
 
+	/**
+	 * Copies the given mappings to this map. Keys must be in strictly
+	 * ascending order, as determined by the comparator of this map (or
+	 * the natural ordering of keys).
+	 * <p/>
+	 * <p>If this map is empty, the nodes and index nodes of all mappings are
+	 * built in one linear pass and then linked to the map. Otherwise the
+	 * mappings are merged into the map: a key is searched from the node of
+	 * the previous key, instead of the head of the skip list.
+	 * <p/>
+	 * <p>Like {@link #putAll}, this operation is not atomic for concurrent
+	 * readers and writers: if the mappings are merged, they may see only
+	 * some of them.
+	 *
+	 * @param keys   the keys, in strictly ascending order
+	 * @param values the values, <tt>values[i]</tt> is associated with <tt>keys[i]</tt>
+	 * @throws NullPointerException	 if any of arrays or values is null
+	 * @throws IllegalArgumentException if the arrays differ in length,
+	 *                                  or keys are not in strictly ascending order
+	 */
+	public void putAllSorted(int[] keys, V[] values)
+	{
+		if(keys.length != values.length)
+		{
+			throw new IllegalArgumentException("keys.length != values.length");
+		}
+		for(int i = 0; i < keys.length; i++)
+		{
+			if(values[i] == null)
+			{
+				throw new NullPointerException();
+			}
+			if(i > 0 && compare(keys[i - 1], keys[i]) >= 0)
+			{
+				throw new IllegalArgumentException("keys are not in strictly ascending order");
+			}
+		}
+
+		if(keys.length == 0 || buildSorted(keys, values))
+		{
+			return;
+		}
+
+		Node<V> b = null;
+		for(int i = 0; i < keys.length; i++)
+		{
+			b = doPutSorted(b, keys[i], values[i]);
+		}
+	}
+
 	/**
 	 * Removes the mapping for the specified key from this map if present.
 	 *
@@ -2057,6 +2320,68 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 		return (count >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) count;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Mappings are processed in the order of keys, by the walk over
+	 * the base-level nodes. Like iterators of this map, this method is
+	 * weakly consistent, and never throws {@link ConcurrentModificationException}.
+	 */
+	@Override
+	public boolean forEachEntry(IntObjectProcedure<? super V> procedure)
+	{
+		for(Node<V> n = findFirst(); n != null; n = n.next)
+		{
+			V v = n.getValidValue();
+			if(v != null && !procedure.execute(n.key, v))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Keys are processed in their order, by the walk over the
+	 * base-level nodes. Like iterators of this map, this method is
+	 * weakly consistent, and never throws {@link ConcurrentModificationException}.
+	 */
+	@Override
+	public boolean forEachKey(IntProcedure procedure)
+	{
+		for(Node<V> n = findFirst(); n != null; n = n.next)
+		{
+			if(n.getValidValue() != null && !procedure.execute(n.key))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Values are processed in the order of their keys, by the walk
+	 * over the base-level nodes. Like iterators of this map, this method is
+	 * weakly consistent, and never throws {@link ConcurrentModificationException}.
+	 */
+	@Override
+	public boolean forEachValue(ObjectProcedure<? super V> procedure)
+	{
+		for(Node<V> n = findFirst(); n != null; n = n.next)
+		{
+			V v = n.getValidValue();
+			if(v != null && !procedure.execute(v))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Returns <tt>true</tt> if this map contains no key-value mappings.
 	 *
@@ -2067,6 +2392,30 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 		return findFirst() == null;
 	}
 
+	/**
+	 * Returns an estimate of heap size, retained by this map: the base-level
+	 * nodes (including deletion markers) and the index levels. Values are not
+	 * counted. The result is not exact, if the map is modified concurrently.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		long nodes = 0;
+		for(Node<V> n = head.node; n != null; n = n.next)
+			nodes++;
+
+		long indexes = 0;
+		long heads = 0;
+		for(Index<V> h = head; h != null; h = h.down)
+		{
+			heads++;
+			for(Index<V> q = h.right; q != null; q = q.right)
+				indexes++;
+		}
+		return MemoryEstimator.shallowSizeOf(this) + nodes * MemoryEstimator.instanceSize(Node.class) + indexes * MemoryEstimator.instanceSize(Index.class) + heads * MemoryEstimator.instanceSize(HeadIndex.class);
+	}
+
 	/**
 	 * Removes all of the mappings from this map.
 	 */
@@ -2176,7 +2525,7 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 	public CNavigableIntObjectMap<V> descendingMap()
 	{
 		CNavigableIntObjectMap<V> dm = descendingMap;
-		return (dm != null) ? dm : (descendingMap = new SubMap<V>(this, 0, false, 0, false, true));
+		return (dm != null) ? dm : (descendingMap = new SubMap<V>(this, true, 0, false, true, 0, false, true));
 	}
 
 	public NavigableIntSet descendingKeySet()
@@ -2382,7 +2731,7 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 	 */
 	public CNavigableIntObjectMap<V> subMap(int fromKey, boolean fromInclusive, int toKey, boolean toInclusive)
 	{
-		return new SubMap<V>(this, fromKey, fromInclusive, toKey, toInclusive, false);
+		return new SubMap<V>(this, false, fromKey, fromInclusive, false, toKey, toInclusive, false);
 	}
 
 	/**
@@ -2392,7 +2741,7 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 	 */
 	public CNavigableIntObjectMap<V> headMap(int toKey, boolean inclusive)
 	{
-		return new SubMap<V>(this, 0, false, toKey, inclusive, false);
+		return new SubMap<V>(this, true, 0, false, false, toKey, inclusive, false);
 	}
 
 	/**
@@ -2402,7 +2751,7 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 	 */
 	public CNavigableIntObjectMap<V> tailMap(int fromKey, boolean inclusive)
 	{
-		return new SubMap<V>(this, fromKey, inclusive, 0, false, false);
+		return new SubMap<V>(this, false, fromKey, inclusive, true, 0, false, false);
 	}
 
 	/**
@@ -2852,6 +3201,12 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 			}
 		}
 
+		@Override
+		public IntSpliterator spliterator()
+		{
+			return new IteratorIntSpliterator(this, IntSpliterator.CONCURRENT | IntSpliterator.DISTINCT | IntSpliterator.ORDERED);
+		}
+
 		public boolean equals(Object o)
 		{
 			if(o == this)
@@ -3084,11 +3439,19 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 		 */
 		private final CTreeIntObjectMap<V> m;
 		/**
-		 * lower bound key, or null if from start
+		 * true if there is no lower bound
+		 */
+		private final boolean fromStart;
+		/**
+		 * lower bound key, ignored if from start
 		 */
 		private final int lo;
 		/**
-		 * upper bound key, or null if to end
+		 * true if there is no upper bound
+		 */
+		private final boolean toEnd;
+		/**
+		 * upper bound key, ignored if to end
 		 */
 		private final int hi;
 		/**
@@ -3112,14 +3475,16 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 		/**
 		 * Creates a new submap, initializing all fields
 		 */
-		SubMap(CTreeIntObjectMap<V> map, int fromKey, boolean fromInclusive, int toKey, boolean toInclusive, boolean isDescending)
+		SubMap(CTreeIntObjectMap<V> map, boolean fromStart, int fromKey, boolean fromInclusive, boolean toEnd, int toKey, boolean toInclusive, boolean isDescending)
 		{
-			if(map.compare(fromKey, toKey) > 0)
+			if(!fromStart && !toEnd && map.compare(fromKey, toKey) > 0)
 			{
 				throw new IllegalArgumentException("inconsistent range");
 			}
 			this.m = map;
+			this.fromStart = fromStart;
 			this.lo = fromKey;
+			this.toEnd = toEnd;
 			this.hi = toKey;
 			this.loInclusive = fromInclusive;
 			this.hiInclusive = toInclusive;
@@ -3130,21 +3495,26 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 
 		private boolean tooLow(int key)
 		{
-			int c = m.compare(key, lo);
-			if(c < 0 || (c == 0 && !loInclusive))
+			if(!fromStart)
 			{
-				return true;
+				int c = m.compare(key, lo);
+				if(c < 0 || (c == 0 && !loInclusive))
+				{
+					return true;
+				}
 			}
-
 			return false;
 		}
 
 		private boolean tooHigh(int key)
 		{
-			int c = m.compare(key, hi);
-			if(c > 0 || (c == 0 && !hiInclusive))
+			if(!toEnd)
 			{
-				return true;
+				int c = m.compare(key, hi);
+				if(c > 0 || (c == 0 && !hiInclusive))
+				{
+					return true;
+				}
 			}
 			return false;
 		}
@@ -3171,10 +3541,10 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 			{
 				return false;
 			}
-			/*if(hi == 0)
+			if(toEnd)
 			{
 				return true;
-			} */
+			}
 			int k = n.key;
 			/*if(k == 0) // pass by markers and headers
 			{
@@ -3194,12 +3564,11 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 		 */
 		private CTreeIntObjectMap.Node<V> loNode()
 		{
-			/*if(lo == 0)
+			if(fromStart)
 			{
 				return m.findFirst();
 			}
-			else */
-			if(loInclusive)
+			else if(loInclusive)
 			{
 				return m.findNear(lo, m.GT | m.EQ);
 			}
@@ -3215,12 +3584,11 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 		 */
 		private CTreeIntObjectMap.Node<V> hiNode()
 		{
-			/*if(hi == null)
+			if(toEnd)
 			{
 				return m.findLast();
 			}
-			else */
-			if(hiInclusive)
+			else if(hiInclusive)
 			{
 				return m.findNear(hi, m.LT | m.EQ);
 			}
@@ -3555,10 +3923,13 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 		 * Utility to create submaps, where given bounds override
 		 * unbounded(null) ones and/or are checked against bounded ones.
 		 */
-		private SubMap<V> newSubMap(int fromKey, boolean fromInclusive, int toKey, boolean toInclusive)
+		private SubMap<V> newSubMap(boolean fromStart, int fromKey, boolean fromInclusive, boolean toEnd, int toKey, boolean toInclusive)
 		{
 			if(isDescending)
 			{ // flip senses
+				boolean ts = fromStart;
+				fromStart = toEnd;
+				toEnd = ts;
 				int tk = fromKey;
 				fromKey = toKey;
 				toKey = tk;
@@ -3566,14 +3937,15 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 				fromInclusive = toInclusive;
 				toInclusive = ti;
 			}
-			//if(lo != null)
+			if(!this.fromStart)
 			{
-				/*if(fromKey == null)
+				if(fromStart)
 				{
+					fromStart = false;
 					fromKey = lo;
 					fromInclusive = loInclusive;
 				}
-				else */
+				else
 				{
 					int c = m.compare(fromKey, lo);
 					if(c < 0 || (c == 0 && !loInclusive && fromInclusive))
@@ -3582,14 +3954,15 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 					}
 				}
 			}
-			//if(hi != null)
+			if(!this.toEnd)
 			{
-				/*if(toKey == null)
+				if(toEnd)
 				{
+					toEnd = false;
 					toKey = hi;
 					toInclusive = hiInclusive;
 				}
-				else*/
+				else
 				{
 					int c = m.compare(toKey, hi);
 					if(c > 0 || (c == 0 && !hiInclusive && toInclusive))
@@ -3598,22 +3971,22 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 					}
 				}
 			}
-			return new SubMap<V>(m, fromKey, fromInclusive, toKey, toInclusive, isDescending);
+			return new SubMap<V>(m, fromStart, fromKey, fromInclusive, toEnd, toKey, toInclusive, isDescending);
 		}
 
 		public SubMap<V> subMap(int fromKey, boolean fromInclusive, int toKey, boolean toInclusive)
 		{
-			return newSubMap(fromKey, fromInclusive, toKey, toInclusive);
+			return newSubMap(false, fromKey, fromInclusive, false, toKey, toInclusive);
 		}
 
 		public SubMap<V> headMap(int toKey, boolean inclusive)
 		{
-			return newSubMap(0, false, toKey, inclusive);
+			return newSubMap(true, 0, false, false, toKey, inclusive);
 		}
 
 		public SubMap<V> tailMap(int fromKey, boolean inclusive)
 		{
-			return newSubMap(fromKey, inclusive, 0, false);
+			return newSubMap(false, fromKey, inclusive, true, 0, false);
 		}
 
 		public SubMap<V> subMap(int fromKey, int toKey)
@@ -3633,7 +4006,7 @@ public class CTreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements CNa
 
 		public SubMap<V> descendingMap()
 		{
-			return new SubMap<V>(m, lo, loInclusive, hi, hiInclusive, !isDescending);
+			return new SubMap<V>(m, fromStart, lo, loInclusive, toEnd, hi, hiInclusive, !isDescending);
 		}
 
 		/* ----------------  Relational methods -------------- */
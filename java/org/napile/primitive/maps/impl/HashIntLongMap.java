@@ -29,9 +29,13 @@ import java.util.Set;
 import org.napile.HashUtils;
 import org.napile.pair.primitive.IntLongPair;
 import org.napile.pair.primitive.impl.IntLongPairImpl;
+import org.napile.primitive.MemoryEstimator;
 import org.napile.primitive.Variables;
 import org.napile.primitive.collections.LongCollection;
 import org.napile.primitive.collections.abstracts.AbstractLongCollection;
+import org.napile.primitive.functions.IntLongProcedure;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.LongProcedure;
 import org.napile.primitive.iterators.IntIterator;
 import org.napile.primitive.iterators.LongIterator;
 import org.napile.primitive.maps.IntLongMap;
@@ -174,6 +178,13 @@ public class HashIntLongMap extends AbstractIntLongMap implements IntLongMap, Cl
 	 */
 	final float loadFactor;
 
+	/**
+	 * The value which is returned if there is no mapping for key.
+	 *
+	 * @serial
+	 */
+	final long noEntryValue;
+
 	/**
 	 * The number of times this HashMap has been structurally modified
 	 * Structural modifications are those that change the number of mappings in
@@ -185,14 +196,16 @@ public class HashIntLongMap extends AbstractIntLongMap implements IntLongMap, Cl
 
 	/**
 	 * Constructs an empty <tt>HashMap</tt> with the specified initial
-	 * capacity and load factor.
+	 * capacity, load factor and value, which represents absence of mapping.
 	 *
 	 * @param initialCapacity the initial capacity
 	 * @param loadFactor	  the load factor
+	 * @param noEntryValue	the value returned by <tt>get</tt>, <tt>put</tt> and
+	 *                        <tt>remove</tt> if there is no mapping for key
 	 * @throws IllegalArgumentException if the initial capacity is negative
 	 *                                  or the load factor is nonpositive
 	 */
-	public HashIntLongMap(int initialCapacity, float loadFactor)
+	public HashIntLongMap(int initialCapacity, float loadFactor, long noEntryValue)
 	{
 		if(initialCapacity < 0)
 		{
@@ -215,11 +228,26 @@ public class HashIntLongMap extends AbstractIntLongMap implements IntLongMap, Cl
 		}
 
 		this.loadFactor = loadFactor;
+		this.noEntryValue = noEntryValue;
 		threshold = (int) (capacity * loadFactor);
 		table = new Entry[capacity];
 		init();
 	}
 
+	/**
+	 * Constructs an empty <tt>HashMap</tt> with the specified initial
+	 * capacity and load factor.
+	 *
+	 * @param initialCapacity the initial capacity
+	 * @param loadFactor	  the load factor
+	 * @throws IllegalArgumentException if the initial capacity is negative
+	 *                                  or the load factor is nonpositive
+	 */
+	public HashIntLongMap(int initialCapacity, float loadFactor)
+	{
+		this(initialCapacity, loadFactor, Variables.RETURN_LONG_VALUE_IF_NOT_FOUND);
+	}
+
 	/**
 	 * Constructs an empty <tt>HashMap</tt> with the specified initial
 	 * capacity and the default load factor (0.75).
@@ -239,6 +267,7 @@ public class HashIntLongMap extends AbstractIntLongMap implements IntLongMap, Cl
 	public HashIntLongMap()
 	{
 		this.loadFactor = DEFAULT_LOAD_FACTOR;
+		this.noEntryValue = Variables.RETURN_LONG_VALUE_IF_NOT_FOUND;
 		threshold = (int) (DEFAULT_INITIAL_CAPACITY * DEFAULT_LOAD_FACTOR);
 		table = new Entry[DEFAULT_INITIAL_CAPACITY];
 		init();
@@ -255,7 +284,7 @@ public class HashIntLongMap extends AbstractIntLongMap implements IntLongMap, Cl
 	 */
 	public HashIntLongMap(IntLongMap m)
 	{
-		this(Math.max((int) (m.size() / DEFAULT_LOAD_FACTOR) + 1, DEFAULT_INITIAL_CAPACITY), DEFAULT_LOAD_FACTOR);
+		this(Math.max((int) (m.size() / DEFAULT_LOAD_FACTOR) + 1, DEFAULT_INITIAL_CAPACITY), DEFAULT_LOAD_FACTOR, m.getNoEntryValue());
 		putAllForCreate(m);
 	}
 
@@ -317,9 +346,20 @@ public class HashIntLongMap extends AbstractIntLongMap implements IntLongMap, Cl
 		return size == 0;
 	}
 
+	/**
+	 * Returns an estimate of heap size, retained by this map: the table and
+	 * the entries. Values are not counted.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.sizeOf(table) + size * MemoryEstimator.instanceSize(Entry.class);
+	}
+
 	/**
 	 * Returns the value to which the specified key is mapped,
-	 * or {@code null} if this map contains no mapping for the key.
+	 * or {@link #getNoEntryValue()} if this map contains no mapping for the key.
 	 * <p/>
 	 * <p>More formally, if this map contains a mapping from a key
 	 * {@code k} to a value {@code v} such that {@code (key==null ? k==null :
@@ -341,7 +381,34 @@ public class HashIntLongMap extends AbstractIntLongMap implements IntLongMap, Cl
 			if(e.hash == hash && e.getKey() == key)
 				return e.getValue();
 
-		return Variables.RETURN_LONG_VALUE_IF_NOT_FOUND;
+		return noEntryValue;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getOrDefault(int key, long defaultValue)
+	{
+		int hash = hash(key);
+		for(Entry e = table[indexFor(hash, table.length)]; e != null; e = e.next)
+			if(e.hash == hash && e.getKey() == key)
+				return e.getValue();
+
+		return defaultValue;
+	}
+
+	/**
+	 * Returns the value, which is returned by <tt>get</tt>, <tt>put</tt> and <tt>remove</tt>
+	 * if there is no mapping for the key. It's set in constructor, and
+	 * {@link Variables#RETURN_LONG_VALUE_IF_NOT_FOUND} by default.
+	 *
+	 * @return the value that represents absence of mapping
+	 */
+	@Override
+	public long getNoEntryValue()
+	{
+		return noEntryValue;
 	}
 
 	/**
@@ -382,7 +449,7 @@ public class HashIntLongMap extends AbstractIntLongMap implements IntLongMap, Cl
 	 * @param key   key with which the specified value is to be associated
 	 * @param value value to be associated with the specified key
 	 * @return the previous value associated with <tt>key</tt>, or
-	 *         <tt>null</tt> if there was no mapping for <tt>key</tt>.
+	 *         {@link #getNoEntryValue()} if there was no mapping for <tt>key</tt>.
 	 *         (A <tt>null</tt> return can also indicate that the map
 	 *         previously associated <tt>null</tt> with <tt>key</tt>.)
 	 */
@@ -402,7 +469,7 @@ public class HashIntLongMap extends AbstractIntLongMap implements IntLongMap, Cl
 
 		modCount++;
 		addEntry(hash, key, value, i);
-		return Variables.RETURN_LONG_VALUE_IF_NOT_FOUND;
+		return noEntryValue;
 	}
 
 	/**
@@ -553,7 +620,7 @@ public class HashIntLongMap extends AbstractIntLongMap implements IntLongMap, Cl
 	 *
 	 * @param key key whose mapping is to be removed from the map
 	 * @return the previous value associated with <tt>key</tt>, or
-	 *         <tt>null</tt> if there was no mapping for <tt>key</tt>.
+	 *         {@link #getNoEntryValue()} if there was no mapping for <tt>key</tt>.
 	 *         (A <tt>null</tt> return can also indicate that the map
 	 *         previously associated <tt>null</tt> with <tt>key</tt>.)
 	 */
@@ -561,7 +628,7 @@ public class HashIntLongMap extends AbstractIntLongMap implements IntLongMap, Cl
 	public long remove(int key)
 	{
 		Entry e = removeEntryForKey(key);
-		return (e == null ? Variables.RETURN_LONG_VALUE_IF_NOT_FOUND : e.getValue());
+		return (e == null ? noEntryValue : e.getValue());
 	}
 
 	/**
@@ -658,6 +725,96 @@ public class HashIntLongMap extends AbstractIntLongMap implements IntLongMap, Cl
 		size = 0;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws ConcurrentModificationException if the map was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEachEntry(IntLongProcedure procedure)
+	{
+		final int expectedModCount = modCount;
+		boolean result = true;
+		Entry[] tab = table;
+		loop:
+		for(int i = 0; i < tab.length; i++)
+		{
+			for(Entry e = tab[i]; e != null; e = e.next)
+			{
+				if(!procedure.execute(e.getKey(), e.getValue()))
+				{
+					result = false;
+					break loop;
+				}
+			}
+		}
+		if(modCount != expectedModCount)
+		{
+			throw new ConcurrentModificationException();
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws ConcurrentModificationException if the map was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEachKey(IntProcedure procedure)
+	{
+		final int expectedModCount = modCount;
+		boolean result = true;
+		Entry[] tab = table;
+		loop:
+		for(int i = 0; i < tab.length; i++)
+		{
+			for(Entry e = tab[i]; e != null; e = e.next)
+			{
+				if(!procedure.execute(e.getKey()))
+				{
+					result = false;
+					break loop;
+				}
+			}
+		}
+		if(modCount != expectedModCount)
+		{
+			throw new ConcurrentModificationException();
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws ConcurrentModificationException if the map was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEachValue(LongProcedure procedure)
+	{
+		final int expectedModCount = modCount;
+		boolean result = true;
+		Entry[] tab = table;
+		loop:
+		for(int i = 0; i < tab.length; i++)
+		{
+			for(Entry e = tab[i]; e != null; e = e.next)
+			{
+				if(!procedure.execute(e.getValue()))
+				{
+					result = false;
+					break loop;
+				}
+			}
+		}
+		if(modCount != expectedModCount)
+		{
+			throw new ConcurrentModificationException();
+		}
+		return result;
+	}
+
 	/**
 	 * Returns <tt>true</tt> if this map maps one or more keys to the
 	 * specified value.
@@ -1193,12 +1350,16 @@ public class HashIntLongMap extends AbstractIntLongMap implements IntLongMap, Cl
 			{
 				IntLongPair e = i.next();
 				s.writeInt(e.getKey());
-				s.writeObject(e.getValue());
+				s.writeLong(e.getValue());
 			}
 		}
 	}
 
-	private static final long serialVersionUID = 362498820763181265L;
+	/**
+	 * Changed when the values started to be written as <tt>long</tt> and the no entry value
+	 * joined the serialized fields; streams of the former form can not be read back.
+	 */
+	private static final long serialVersionUID = 3318452106718954261L;
 
 	/**
 	 * Reconstitute the <tt>HashMap</tt> instance from a stream (i.e.,
@@ -37,6 +37,10 @@ import java.util.Set;
 import org.napile.HashUtils;
 import org.napile.pair.primitive.LongObjectPair;
 import org.napile.pair.primitive.impl.LongObjectPairImpl;
+import org.napile.primitive.MemoryEstimator;
+import org.napile.primitive.functions.LongObjectProcedure;
+import org.napile.primitive.functions.LongProcedure;
+import org.napile.primitive.functions.ObjectProcedure;
 import org.napile.primitive.iterators.LongIterator;
 import org.napile.primitive.maps.LongObjectMap;
 import org.napile.primitive.maps.abstracts.AbstractLongObjectMap;
@@ -316,6 +320,17 @@ public class HashLongObjectMap<V> extends AbstractLongObjectMap<V> implements Lo
 		return size == 0;
 	}
 
+	/**
+	 * Returns an estimate of heap size, retained by this map: the table and
+	 * the entries. Values are not counted.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.sizeOf(table) + size * MemoryEstimator.instanceSize(Entry.class);
+	}
+
 	/**
 	 * Returns the value to which the specified key is mapped,
 	 * or {@code null} if this map contains no mapping for the key.
@@ -662,6 +677,96 @@ public class HashLongObjectMap<V> extends AbstractLongObjectMap<V> implements Lo
 		size = 0;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws ConcurrentModificationException if the map was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEachEntry(LongObjectProcedure<? super V> procedure)
+	{
+		final int expectedModCount = modCount;
+		boolean result = true;
+		Entry<V>[] tab = table;
+		loop:
+		for(int i = 0; i < tab.length; i++)
+		{
+			for(Entry<V> e = tab[i]; e != null; e = e.next)
+			{
+				if(!procedure.execute(e.getKey(), e.getValue()))
+				{
+					result = false;
+					break loop;
+				}
+			}
+		}
+		if(modCount != expectedModCount)
+		{
+			throw new ConcurrentModificationException();
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws ConcurrentModificationException if the map was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEachKey(LongProcedure procedure)
+	{
+		final int expectedModCount = modCount;
+		boolean result = true;
+		Entry<V>[] tab = table;
+		loop:
+		for(int i = 0; i < tab.length; i++)
+		{
+			for(Entry<V> e = tab[i]; e != null; e = e.next)
+			{
+				if(!procedure.execute(e.getKey()))
+				{
+					result = false;
+					break loop;
+				}
+			}
+		}
+		if(modCount != expectedModCount)
+		{
+			throw new ConcurrentModificationException();
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws ConcurrentModificationException if the map was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEachValue(ObjectProcedure<? super V> procedure)
+	{
+		final int expectedModCount = modCount;
+		boolean result = true;
+		Entry<V>[] tab = table;
+		loop:
+		for(int i = 0; i < tab.length; i++)
+		{
+			for(Entry<V> e = tab[i]; e != null; e = e.next)
+			{
+				if(!procedure.execute(e.getValue()))
+				{
+					result = false;
+					break loop;
+				}
+			}
+		}
+		if(modCount != expectedModCount)
+		{
+			throw new ConcurrentModificationException();
+		}
+		return result;
+	}
+
 	/**
 	 * Returns <tt>true</tt> if this map maps one or more keys to the
 	 * specified value.
@@ -0,0 +1,712 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.maps.impl;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import org.napile.pair.primitive.IntLongPair;
+import org.napile.pair.primitive.IntObjectPair;
+import org.napile.pair.primitive.impl.IntLongPairImpl;
+import org.napile.primitive.MemoryEstimator;
+import org.napile.primitive.Variables;
+import org.napile.primitive.functions.IntLongProcedure;
+import org.napile.primitive.functions.IntObjectProcedure;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.LongProcedure;
+import org.napile.primitive.functions.ObjectProcedure;
+import org.napile.primitive.maps.CIntLongMap;
+import org.napile.primitive.maps.IntLongMap;
+import org.napile.primitive.maps.abstracts.AbstractIntLongMap;
+import org.napile.primitive.maps.impl.CHashIntObjectMapV8.CounterCell;
+import org.napile.primitive.maps.impl.CHashIntObjectMapV8.CounterHashCode;
+import org.napile.primitive.sets.IntSet;
+
+/**
+ * Concurrent map of counters. Value of every key is kept in <tt>LongAdder</tt>-like
+ * set of padded cells: under contention, threads which update same key are spread
+ * on different cells, so hot keys not serialize writers on one lock or one cache line.
+ * Price is memory (cells are created only on contention) and that reading of value
+ * need sum of all cells.
+ * <p/>
+ * <p>Method {@link #add(int, long)} (and {@link #increment(int)}, {@link #decrement(int)})
+ * is main method of this map. Methods <tt>get</tt> and {@link #sum(int)}
+ * return current sum, which is not atomic snapshot if there are concurrent updates.
+ * Methods which set value (<tt>put</tt>, <tt>replace</tt>, <tt>remove</tt>) replace whole
+ * counter of key, and updates concurrent with them may be lost.
+ * <p/>
+ * <p>Absent keys are returned as the no-entry value of the map by <tt>get</tt>, which is
+ * {@link Variables#RETURN_LONG_VALUE_IF_NOT_FOUND} unless given to the constructor,
+ * and as zero by {@link #sum(int)}.
+ *
+ * @author VISTALL
+ * @date 14:52/18.10.2026
+ * @see CHashIntLongMap#addAndGet(int, long)
+ */
+public class IntLongAdderMap extends AbstractIntLongMap implements CIntLongMap, Serializable
+{
+	private static final long serialVersionUID = -3208340726546409387L;
+
+	/**
+	 * Striped counter of one key. Cells are initialized on first contention,
+	 * and grow up to count of processors.
+	 */
+	static final class Counter
+	{
+		volatile long base;
+		volatile CounterCell[] cells;
+		volatile int cellsBusy;
+
+		private static final AtomicLongFieldUpdater<Counter> baseUpdater = AtomicLongFieldUpdater.newUpdater(Counter.class, "base");
+		private static final AtomicIntegerFieldUpdater<Counter> cellsBusyUpdater = AtomicIntegerFieldUpdater.newUpdater(Counter.class, "cellsBusy");
+
+		Counter(long value)
+		{
+			base = value;
+		}
+
+		void add(long x)
+		{
+			CounterCell[] as;
+			long b, v;
+			int m;
+			CounterCell a;
+			if((as = cells) != null || !baseUpdater.compareAndSet(this, b = base, b + x))
+			{
+				boolean uncontended = true;
+				if(as == null || (m = as.length - 1) < 0 || (a = as[CHashIntObjectMapV8.threadHashCode.get().code & m]) == null || !(uncontended = a.cas(v = a.value, v + x)))
+				{
+					longAccumulate(x, uncontended);
+				}
+			}
+		}
+
+		long sum()
+		{
+			CounterCell[] as = cells;
+			long sum = base;
+			if(as != null)
+			{
+				for(CounterCell a : as)
+				{
+					if(a != null)
+					{
+						sum += a.value;
+					}
+				}
+			}
+			return sum;
+		}
+
+		long sumThenReset()
+		{
+			CounterCell[] as = cells;
+			long sum = baseUpdater.getAndSet(this, 0L);
+			if(as != null)
+			{
+				for(CounterCell a : as)
+				{
+					if(a != null)
+					{
+						sum += CounterCell.valueUpdater.getAndSet(a, 0L);
+					}
+				}
+			}
+			return sum;
+		}
+
+		/**
+		 * Handles cases of updates involving initialization, resizing,
+		 * creating new cells, and/or contention.
+		 */
+		private void longAccumulate(long x, boolean wasUncontended)
+		{
+			CounterHashCode hc = CHashIntObjectMapV8.threadHashCode.get();
+			int h = hc.code;
+			boolean collide = false;                // True if last slot nonempty
+			for(; ;)
+			{
+				CounterCell[] as;
+				CounterCell a;
+				int n;
+				long v;
+				if((as = cells) != null && (n = as.length) > 0)
+				{
+					if((a = as[(n - 1) & h]) == null)
+					{
+						if(cellsBusy == 0)
+						{       // Try to attach new Cell
+							CounterCell r = new CounterCell(x);   // Optimistically create
+							if(cellsBusy == 0 && cellsBusyUpdater.compareAndSet(this, 0, 1))
+							{
+								boolean created = false;
+								try
+								{               // Recheck under lock
+									CounterCell[] rs;
+									int m, j;
+									if((rs = cells) != null && (m = rs.length) > 0 && rs[j = (m - 1) & h] == null)
+									{
+										rs[j] = r;
+										created = true;
+									}
+								}
+								finally
+								{
+									cellsBusy = 0;
+								}
+								if(created)
+								{
+									break;
+								}
+								continue;           // Slot is now non-empty
+							}
+						}
+						collide = false;
+					}
+					else if(!wasUncontended)       // CAS already known to fail
+					{
+						wasUncontended = true;      // Continue after rehash
+					}
+					else if(a.cas(v = a.value, v + x))
+					{
+						break;
+					}
+					else if(n >= CHashIntObjectMapV8.NCPU || cells != as)
+					{
+						collide = false;            // At max size or stale
+					}
+					else if(!collide)
+					{
+						collide = true;
+					}
+					else if(cellsBusy == 0 && cellsBusyUpdater.compareAndSet(this, 0, 1))
+					{
+						try
+						{
+							if(cells == as)
+							{      // Expand table unless stale
+								CounterCell[] rs = new CounterCell[n << 1];
+								System.arraycopy(as, 0, rs, 0, n);
+								cells = rs;
+							}
+						}
+						finally
+						{
+							cellsBusy = 0;
+						}
+						collide = false;
+						continue;                   // Retry with expanded table
+					}
+					h = hc.advance();
+				}
+				else if(cellsBusy == 0 && cells == as && cellsBusyUpdater.compareAndSet(this, 0, 1))
+				{
+					boolean init = false;
+					try
+					{                           // Initialize table
+						if(cells == as)
+						{
+							CounterCell[] rs = new CounterCell[2];
+							rs[h & 1] = new CounterCell(x);
+							cells = rs;
+							init = true;
+						}
+					}
+					finally
+					{
+						cellsBusy = 0;
+					}
+					if(init)
+					{
+						break;
+					}
+				}
+				else if(baseUpdater.compareAndSet(this, v = base, v + x))
+				{
+					break;                          // Fall back on using base
+				}
+			}
+		}
+	}
+
+	private transient CHashIntObjectMapV8<Counter> map;
+
+	private transient Set<IntLongPair> entrySet;
+
+	/**
+	 * The value which is returned if there is no mapping for key.
+	 *
+	 * @serial
+	 */
+	private final long noEntryValue;
+
+	/**
+	 * Creates a new, empty map with the default initial table size (16).
+	 */
+	public IntLongAdderMap()
+	{
+		map = new CHashIntObjectMapV8<Counter>();
+		noEntryValue = Variables.RETURN_LONG_VALUE_IF_NOT_FOUND;
+	}
+
+	/**
+	 * Creates a new, empty map with an initial table size
+	 * accommodating the specified number of counters without the need
+	 * to dynamically resize.
+	 *
+	 * @param initialCapacity The implementation performs internal
+	 *                        sizing to accommodate this many counters.
+	 * @throws IllegalArgumentException if the initial capacity of
+	 *                                  elements is negative
+	 */
+	public IntLongAdderMap(int initialCapacity)
+	{
+		this(initialCapacity, Variables.RETURN_LONG_VALUE_IF_NOT_FOUND);
+	}
+
+	/**
+	 * Creates a new, empty map with an initial table size
+	 * accommodating the specified number of counters without the need
+	 * to dynamically resize, and the value, which represents absence of mapping.
+	 *
+	 * @param initialCapacity The implementation performs internal
+	 *                        sizing to accommodate this many counters.
+	 * @param noEntryValue    the value returned by <tt>get</tt>, <tt>put</tt>, <tt>remove</tt>,
+	 *                        <tt>putIfAbsent</tt> and <tt>replace</tt> if there is no mapping for key
+	 * @throws IllegalArgumentException if the initial capacity of
+	 *                                  elements is negative
+	 */
+	public IntLongAdderMap(int initialCapacity, long noEntryValue)
+	{
+		map = new CHashIntObjectMapV8<Counter>(initialCapacity);
+		this.noEntryValue = noEntryValue;
+	}
+
+	/**
+	 * Creates a new map with a counter for each mapping of the specified map,
+	 * which starts from the mapped value. The no-entry value is taken from
+	 * the specified map.
+	 *
+	 * @param m the map whose mappings are to be placed in this map
+	 * @throws NullPointerException if the specified map is null
+	 */
+	public IntLongAdderMap(IntLongMap m)
+	{
+		this(m.size(), m.getNoEntryValue());
+		putAll(m);
+	}
+
+	private Counter counter(int key)
+	{
+		Counter c = map.get(key);
+		if(c == null)
+		{
+			Counter n = new Counter(0L);
+			c = map.putIfAbsent(key, n);
+			if(c == null)
+			{
+				c = n;
+			}
+		}
+		return c;
+	}
+
+	/**
+	 * Adds the given value to counter of key. If key is absent, it's mapped to zero before.
+	 *
+	 * @param key key of counter
+	 * @param x   the value to add
+	 */
+	public void add(int key, long x)
+	{
+		counter(key).add(x);
+	}
+
+	/**
+	 * Equivalent to {@code add(key, 1)}.
+	 *
+	 * @param key key of counter
+	 */
+	public void increment(int key)
+	{
+		counter(key).add(1L);
+	}
+
+	/**
+	 * Equivalent to {@code add(key, -1)}.
+	 *
+	 * @param key key of counter
+	 */
+	public void decrement(int key)
+	{
+		counter(key).add(-1L);
+	}
+
+	/**
+	 * Returns the current sum of counter of key, or zero if key is absent.
+	 * The returned value is <em>NOT</em> an atomic snapshot: concurrent updates
+	 * that occur while the sum is being calculated might not be incorporated.
+	 *
+	 * @param key key of counter
+	 * @return the sum
+	 */
+	public long sum(int key)
+	{
+		Counter c = map.get(key);
+		return c == null ? 0L : c.sum();
+	}
+
+	/**
+	 * Returns the current sum of counter of key, and resets it to zero. Key is kept in map.
+	 * This method is intended for use at quiescent points of collecting of metrics:
+	 * concurrent updates that occur while the sum is being calculated are either
+	 * included to result or kept in counter for next call.
+	 *
+	 * @param key key of counter
+	 * @return the sum, or zero if key is absent
+	 */
+	public long sumThenReset(int key)
+	{
+		Counter c = map.get(key);
+		return c == null ? 0L : c.sumThenReset();
+	}
+
+	/**
+	 * Returns the plain copy of current sums of all counters.
+	 *
+	 * @return new map with current sums
+	 */
+	public HashIntLongMap snapshot()
+	{
+		HashIntLongMap result = new HashIntLongMap(Math.max((int) (map.size() / .75f) + 1, 16), .75f, noEntryValue);
+		for(IntObjectPair<Counter> e : map.entrySet())
+		{
+			result.put(e.getKey(), e.getValue().sum());
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the copy of current sums of all counters, and resets counters to zero.
+	 *
+	 * @return new map with sums
+	 * @see #sumThenReset(int)
+	 */
+	public HashIntLongMap snapshotThenReset()
+	{
+		HashIntLongMap result = new HashIntLongMap(Math.max((int) (map.size() / .75f) + 1, 16), .75f, noEntryValue);
+		for(IntObjectPair<Counter> e : map.entrySet())
+		{
+			result.put(e.getKey(), e.getValue().sumThenReset());
+		}
+		return result;
+	}
+
+	@Override
+	public int size()
+	{
+		return map.size();
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return map.isEmpty();
+	}
+
+	/**
+	 * Returns an estimate of heap size, retained by this map: the key map and
+	 * the counters with their cells. The result is not exact, if the map is
+	 * modified concurrently.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		long bytes = MemoryEstimator.shallowSizeOf(this) + map.estimateMemoryBytes();
+		for(Counter counter : map.values())
+		{
+			bytes += MemoryEstimator.instanceSize(Counter.class);
+			CounterCell[] as = counter.cells;
+			if(as != null)
+			{
+				bytes += MemoryEstimator.sizeOf(as);
+				for(CounterCell a : as)
+					if(a != null)
+						bytes += MemoryEstimator.instanceSize(CounterCell.class);
+			}
+		}
+		return bytes;
+	}
+
+	@Override
+	public boolean containsKey(int key)
+	{
+		return map.containsKey(key);
+	}
+
+	@Override
+	public long get(int key)
+	{
+		Counter c = map.get(key);
+		return c == null ? noEntryValue : c.sum();
+	}
+
+	/**
+	 * Returns the value, which is returned by <tt>get</tt>, <tt>put</tt> and <tt>remove</tt>
+	 * if there is no mapping for the key. It's set in constructor, and
+	 * {@link Variables#RETURN_LONG_VALUE_IF_NOT_FOUND} by default.
+	 *
+	 * @return the value that represents absence of mapping
+	 */
+	@Override
+	public long getNoEntryValue()
+	{
+		return noEntryValue;
+	}
+
+	@Override
+	public long getOrDefault(int key, long defaultValue)
+	{
+		Counter c = map.get(key);
+		return c == null ? defaultValue : c.sum();
+	}
+
+	@Override
+	public long put(int key, long value)
+	{
+		Counter c = map.put(key, new Counter(value));
+		return c == null ? noEntryValue : c.sum();
+	}
+
+	@Override
+	public long remove(int key)
+	{
+		Counter c = map.remove(key);
+		return c == null ? noEntryValue : c.sum();
+	}
+
+	@Override
+	public void clear()
+	{
+		map.clear();
+	}
+
+	@Override
+	public long putIfAbsent(int key, long value)
+	{
+		Counter c = map.putIfAbsent(key, new Counter(value));
+		return c == null ? noEntryValue : c.sum();
+	}
+
+	@Override
+	public boolean remove(int key, long value)
+	{
+		Counter c = map.get(key);
+		return c != null && c.sum() == value && map.remove(key, c);
+	}
+
+	@Override
+	public boolean replace(int key, long oldValue, long newValue)
+	{
+		Counter c = map.get(key);
+		return c != null && c.sum() == oldValue && map.replace(key, c, new Counter(newValue));
+	}
+
+	@Override
+	public long replace(int key, long value)
+	{
+		Counter c = map.replace(key, new Counter(value));
+		return c == null ? noEntryValue : c.sum();
+	}
+
+	@Override
+	public boolean forEachEntry(final IntLongProcedure procedure)
+	{
+		return map.forEachEntry(new IntObjectProcedure<Counter>()
+		{
+			@Override
+			public boolean execute(int key, Counter value)
+			{
+				return procedure.execute(key, value.sum());
+			}
+		});
+	}
+
+	@Override
+	public boolean forEachKey(IntProcedure procedure)
+	{
+		return map.forEachKey(procedure);
+	}
+
+	@Override
+	public boolean forEachValue(final LongProcedure procedure)
+	{
+		return map.forEachValue(new ObjectProcedure<Counter>()
+		{
+			@Override
+			public boolean execute(Counter value)
+			{
+				return procedure.execute(value.sum());
+			}
+		});
+	}
+
+	@Override
+	public IntSet keySet()
+	{
+		return map.keySet();
+	}
+
+	@Override
+	public Set<IntLongPair> entrySet()
+	{
+		Set<IntLongPair> es = entrySet;
+		return (es != null) ? es : (entrySet = new EntrySet());
+	}
+
+	/**
+	 * Custom Entry class used by EntryIterator.next(), that relays
+	 * setValue changes to the underlying map.
+	 */
+	final class WriteThroughEntry extends IntLongPairImpl
+	{
+		WriteThroughEntry(int k, long v)
+		{
+			super(k, v);
+		}
+
+		@Override
+		public long setValue(long value)
+		{
+			long v = super.setValue(value);
+			IntLongAdderMap.this.put(getKey(), value);
+			return v;
+		}
+	}
+
+	final class EntryIterator implements Iterator<IntLongPair>
+	{
+		private final Iterator<IntObjectPair<Counter>> it = map.entrySet().iterator();
+
+		@Override
+		public boolean hasNext()
+		{
+			return it.hasNext();
+		}
+
+		@Override
+		public IntLongPair next()
+		{
+			IntObjectPair<Counter> e = it.next();
+			return new WriteThroughEntry(e.getKey(), e.getValue().sum());
+		}
+
+		@Override
+		public void remove()
+		{
+			it.remove();
+		}
+	}
+
+	final class EntrySet extends AbstractSet<IntLongPair>
+	{
+		@Override
+		public Iterator<IntLongPair> iterator()
+		{
+			return new EntryIterator();
+		}
+
+		@Override
+		public boolean contains(Object o)
+		{
+			if(!(o instanceof IntLongPair))
+			{
+				return false;
+			}
+			IntLongPair e = (IntLongPair) o;
+			Counter c = map.get(e.getKey());
+			return c != null && c.sum() == e.getValue();
+		}
+
+		@Override
+		public boolean remove(Object o)
+		{
+			if(!(o instanceof IntLongPair))
+			{
+				return false;
+			}
+			IntLongPair e = (IntLongPair) o;
+			return IntLongAdderMap.this.remove(e.getKey(), e.getValue());
+		}
+
+		@Override
+		public int size()
+		{
+			return IntLongAdderMap.this.size();
+		}
+
+		@Override
+		public void clear()
+		{
+			IntLongAdderMap.this.clear();
+		}
+	}
+
+	/**
+	 * Save the state of the map to a stream (i.e., serialize it).
+	 *
+	 * @param s the stream
+	 * @serialData the number of mappings (int), followed by the key (int)
+	 * and current sum (long) of each counter.
+	 */
+	private void writeObject(java.io.ObjectOutputStream s) throws IOException
+	{
+		HashIntLongMap snapshot = snapshot();
+		s.defaultWriteObject();
+		s.writeInt(snapshot.size());
+		for(IntLongPair e : snapshot.entrySet())
+		{
+			s.writeInt(e.getKey());
+			s.writeLong(e.getValue());
+		}
+	}
+
+	/**
+	 * Reconstitute the map from a stream (i.e., deserialize it).
+	 *
+	 * @param s the stream
+	 */
+	private void readObject(java.io.ObjectInputStream s) throws IOException, ClassNotFoundException
+	{
+		s.defaultReadObject();
+		int size = s.readInt();
+		map = new CHashIntObjectMapV8<Counter>(size);
+		for(int i = 0; i < size; i++)
+		{
+			int key = s.readInt();
+			map.put(key, new Counter(s.readLong()));
+		}
+	}
+}
@@ -0,0 +1,1098 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.maps.impl;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.napile.HashUtils;
+import org.napile.pair.primitive.IntObjectPair;
+import org.napile.primitive.MemoryEstimator;
+import org.napile.primitive.functions.IntObjectProcedure;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.ObjectProcedure;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.lists.impl.ArrayIntList;
+import org.napile.primitive.maps.IntObjectMap;
+import org.napile.primitive.maps.abstracts.AbstractIntObjectMap;
+import org.napile.primitive.sets.IntSet;
+import org.napile.primitive.sets.abstracts.AbstractIntSet;
+
+/**
+ * Hash table based implementation of the <tt>IntObjectMap</tt> interface, which
+ * uses open addressing with linear probing instead of chained entries.
+ * Keys are stored in <tt>int[]</tt> and values in parallel <tt>Object[]</tt>, so the map
+ * does not create any object per mapping.  This class has the same constructors
+ * as {@link HashIntObjectMap}, and can be used as drop-in replacement of it.
+ * <p/>
+ * <p>This implementation permits <tt>null</tt> values.
+ * <p/>
+ * <p>Key <tt>0</tt> is used as free slot marker inside the key array, mapping for
+ * it is stored in additional slot at the end of the arrays.  Removal shifts
+ * following entries of the probe sequence back, so table never contains
+ * "deleted" markers and lookup time does not degrade after many removals.
+ * <p/>
+ * <p>Iteration order is not defined.  Iterators of collection views are
+ * <i>fail-fast</i>, like in {@link HashIntObjectMap}.  Entries returned by
+ * <tt>entrySet()</tt> iterator are created on request, and write through
+ * to the map until the next structural modification.
+ * <p/>
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ *
+ * @author VISTALL
+ * @date 12:05/18.10.2026
+ * @see HashIntObjectMap
+ * @see OpenHashIntLongMap
+ */
+@SuppressWarnings("unchecked")
+public class OpenHashIntObjectMap<V> extends AbstractIntObjectMap<V> implements IntObjectMap<V>, Cloneable, Serializable
+{
+	/**
+	 * The default initial capacity (count of expected elements)
+	 */
+	static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+	/**
+	 * The load factor used when none specified in constructor.
+	 */
+	static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+	/**
+	 * The keys, size is <tt>n + 1</tt>, last slot is used by key 0
+	 */
+	transient int[] keyTable;
+
+	/**
+	 * The values, parallel to keys
+	 */
+	transient Object[] valueTable;
+
+	/**
+	 * Table size (<tt>n</tt>), always power of two
+	 */
+	transient int n;
+
+	/**
+	 * <tt>n - 1</tt>
+	 */
+	transient int mask;
+
+	/**
+	 * Is map contains mapping for key <tt>0</tt>
+	 */
+	transient boolean containsZeroKey;
+
+	/**
+	 * The number of key-value mappings contained in this map.
+	 */
+	transient int size;
+
+	/**
+	 * The next size value at which to resize
+	 */
+	transient int maxFill;
+
+	/**
+	 * The load factor for the hash table.
+	 *
+	 * @serial
+	 */
+	final float loadFactor;
+
+	/**
+	 * The number of times this map has been structurally modified
+	 */
+	transient int modCount;
+
+	/**
+	 * Constructs an empty map with the specified expected
+	 * size and load factor.
+	 *
+	 * @param initialCapacity the expected count of mappings
+	 * @param loadFactor	  the load factor
+	 * @throws IllegalArgumentException if the initial capacity is negative
+	 *                                  or the load factor is not in (0, 1)
+	 */
+	public OpenHashIntObjectMap(int initialCapacity, float loadFactor)
+	{
+		if(initialCapacity < 0)
+		{
+			throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+		}
+		if(loadFactor <= 0 || loadFactor >= 1 || Float.isNaN(loadFactor))
+		{
+			throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+		}
+
+		this.loadFactor = loadFactor;
+		allocate(HashUtils.arraySize(initialCapacity, loadFactor));
+	}
+
+	/**
+	 * Constructs an empty map with the specified expected size and the default load factor (0.75).
+	 *
+	 * @param initialCapacity the expected count of mappings
+	 * @throws IllegalArgumentException if the initial capacity is negative.
+	 */
+	public OpenHashIntObjectMap(int initialCapacity)
+	{
+		this(initialCapacity, DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * Constructs an empty map with the default initial capacity
+	 * (16) and the default load factor (0.75).
+	 */
+	public OpenHashIntObjectMap()
+	{
+		this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+	}
+
+	/**
+	 * Constructs a new map with the same mappings as the
+	 * specified map.
+	 *
+	 * @param m the map whose mappings are to be placed in this map
+	 * @throws NullPointerException if the specified map is null
+	 */
+	public OpenHashIntObjectMap(IntObjectMap<? extends V> m)
+	{
+		this(Math.max(m.size(), DEFAULT_INITIAL_CAPACITY), DEFAULT_LOAD_FACTOR);
+		putAll(m);
+	}
+
+	// internal utilities
+
+	private void allocate(int capacity)
+	{
+		n = capacity;
+		mask = capacity - 1;
+		maxFill = HashUtils.maxFill(capacity, loadFactor);
+		keyTable = new int[capacity + 1];
+		valueTable = new Object[capacity + 1];
+	}
+
+	/**
+	 * Returns slot of key, or -1 if key is not in map
+	 */
+	final int find(int key)
+	{
+		if(key == 0)
+		{
+			return containsZeroKey ? n : -1;
+		}
+
+		final int[] keyTable = this.keyTable;
+		int pos = HashUtils.mix(key) & mask;
+		int k;
+		while((k = keyTable[pos]) != 0)
+		{
+			if(k == key)
+			{
+				return pos;
+			}
+			pos = (pos + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void insert(int pos, int key, V value)
+	{
+		if(pos == n)
+		{
+			containsZeroKey = true;
+		}
+		keyTable[pos] = key;
+		valueTable[pos] = value;
+		modCount++;
+		if(size++ >= maxFill)
+		{
+			rehash(HashUtils.arraySize(size + 1, loadFactor));
+		}
+	}
+
+	/**
+	 * Rehashes the contents of this map into a new table with a larger size.
+	 */
+	void rehash(int newN)
+	{
+		final int[] oldKeys = keyTable;
+		final Object[] oldValues = valueTable;
+		final int oldN = n;
+
+		final int newMask = newN - 1;
+		final int[] newKeys = new int[newN + 1];
+		final Object[] newValues = new Object[newN + 1];
+
+		for(int i = 0; i < oldN; i++)
+		{
+			int k = oldKeys[i];
+			if(k == 0)
+			{
+				continue;
+			}
+
+			int pos = HashUtils.mix(k) & newMask;
+			while(newKeys[pos] != 0)
+			{
+				pos = (pos + 1) & newMask;
+			}
+			newKeys[pos] = k;
+			newValues[pos] = oldValues[i];
+		}
+		newKeys[newN] = 0;
+		newValues[newN] = oldValues[oldN];
+
+		n = newN;
+		mask = newMask;
+		maxFill = HashUtils.maxFill(newN, loadFactor);
+		keyTable = newKeys;
+		valueTable = newValues;
+	}
+
+	/**
+	 * Removes mapping at slot, and shift next entries of probe sequence back
+	 */
+	final void removeAt(int pos)
+	{
+		modCount++;
+		size--;
+		if(pos == n)
+		{
+			containsZeroKey = false;
+			valueTable[n] = null;
+		}
+		else
+		{
+			shiftKeys(pos);
+		}
+	}
+
+	/**
+	 * Shifts left entries with the specified hash code, starting at the specified position,
+	 * and empties the resulting free entry.
+	 */
+	final void shiftKeys(int pos)
+	{
+		final int[] keyTable = this.keyTable;
+		int last, slot, k;
+		for(; ;)
+		{
+			pos = ((last = pos) + 1) & mask;
+			for(; ;)
+			{
+				if((k = keyTable[pos]) == 0)
+				{
+					keyTable[last] = 0;
+					valueTable[last] = null;
+					return;
+				}
+				slot = HashUtils.mix(k) & mask;
+				if(last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos)
+				{
+					break;
+				}
+				pos = (pos + 1) & mask;
+			}
+			keyTable[last] = k;
+			valueTable[last] = valueTable[pos];
+		}
+	}
+
+	/**
+	 * Returns the number of key-value mappings in this map.
+	 *
+	 * @return the number of key-value mappings in this map
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this map contains no key-value mappings.
+	 *
+	 * @return <tt>true</tt> if this map contains no key-value mappings
+	 */
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * Returns an estimate of heap size, retained by this map: the key and
+	 * value tables. Values are not counted.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.sizeOf(keyTable) + MemoryEstimator.sizeOf(valueTable);
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped,
+	 * or {@code null} if this map contains no mapping for the key.
+	 * <p/>
+	 * <p>A return value of {@code null} does not <i>necessarily</i>
+	 * indicate that the map contains no mapping for the key; it's also
+	 * possible that the map explicitly maps the key to {@code null}.
+	 * The {@link #containsKey containsKey} operation may be used to
+	 * distinguish these two cases.
+	 */
+	public V get(int key)
+	{
+		if(key == 0)
+		{
+			return containsZeroKey ? (V) valueTable[n] : null;
+		}
+
+		final int[] keyTable = this.keyTable;
+		int pos = HashUtils.mix(key) & mask;
+		int k;
+		while((k = keyTable[pos]) != 0)
+		{
+			if(k == key)
+			{
+				return (V) valueTable[pos];
+			}
+			pos = (pos + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this map contains a mapping for the
+	 * specified key.
+	 *
+	 * @param key The key whose presence in this map is to be tested
+	 * @return <tt>true</tt> if this map contains a mapping for the specified
+	 *         key.
+	 */
+	public boolean containsKey(int key)
+	{
+		return find(key) >= 0;
+	}
+
+	/**
+	 * Associates the specified value with the specified key in this map.
+	 * If the map previously contained a mapping for the key, the old
+	 * value is replaced.
+	 *
+	 * @param key   key with which the specified value is to be associated
+	 * @param value value to be associated with the specified key
+	 * @return the previous value associated with <tt>key</tt>, or
+	 *         <tt>null</tt> if there was no mapping for <tt>key</tt>.
+	 */
+	public V put(int key, V value)
+	{
+		int pos;
+		if(key == 0)
+		{
+			pos = n;
+			if(containsZeroKey)
+			{
+				V oldValue = (V) valueTable[pos];
+				valueTable[pos] = value;
+				return oldValue;
+			}
+		}
+		else
+		{
+			final int[] keyTable = this.keyTable;
+			pos = HashUtils.mix(key) & mask;
+			int k;
+			while((k = keyTable[pos]) != 0)
+			{
+				if(k == key)
+				{
+					V oldValue = (V) valueTable[pos];
+					valueTable[pos] = value;
+					return oldValue;
+				}
+				pos = (pos + 1) & mask;
+			}
+		}
+
+		insert(pos, key, value);
+		return null;
+	}
+
+	/**
+	 * Copies all of the mappings from the specified map to this map.
+	 * These mappings will replace any mappings that this map had for
+	 * any of the keys currently in the specified map.
+	 *
+	 * @param m mappings to be stored in this map
+	 * @throws NullPointerException if the specified map is null
+	 */
+	public void putAll(IntObjectMap<? extends V> m)
+	{
+		int numKeysToBeAdded = m.size();
+		if(numKeysToBeAdded == 0)
+		{
+			return;
+		}
+
+		// the same idea as in HashIntObjectMap - expand table only once
+		if(size + numKeysToBeAdded > maxFill)
+		{
+			int newN = HashUtils.arraySize(size + numKeysToBeAdded, loadFactor);
+			if(newN > n)
+			{
+				rehash(newN);
+			}
+		}
+
+		for(Iterator<? extends IntObjectPair<? extends V>> i = m.entrySet().iterator(); i.hasNext();)
+		{
+			IntObjectPair<? extends V> e = i.next();
+			put(e.getKey(), e.getValue());
+		}
+	}
+
+	/**
+	 * Removes the mapping for the specified key from this map if present.
+	 *
+	 * @param key key whose mapping is to be removed from the map
+	 * @return the previous value associated with <tt>key</tt>, or
+	 *         <tt>null</tt> if there was no mapping for <tt>key</tt>.
+	 */
+	@Override
+	public V remove(int key)
+	{
+		int pos = find(key);
+		if(pos < 0)
+		{
+			return null;
+		}
+
+		V oldValue = (V) valueTable[pos];
+		removeAt(pos);
+		return oldValue;
+	}
+
+	/**
+	 * Removes all of the mappings from this map.
+	 * The map will be empty after this call returns.
+	 */
+	public void clear()
+	{
+		if(size == 0)
+		{
+			return;
+		}
+
+		modCount++;
+		size = 0;
+		containsZeroKey = false;
+		Arrays.fill(keyTable, 0);
+		Arrays.fill(valueTable, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws ConcurrentModificationException if the map was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEachEntry(IntObjectProcedure<? super V> procedure)
+	{
+		final int expectedModCount = modCount;
+		final int[] keyTable = this.keyTable;
+		final Object[] valueTable = this.valueTable;
+		final int n = this.n;
+		boolean result = true;
+		if(containsZeroKey)
+		{
+			result = procedure.execute(0, (V) valueTable[n]);
+		}
+		for(int i = n - 1; result && i >= 0; i--)
+		{
+			int k = keyTable[i];
+			if(k != 0)
+			{
+				result = procedure.execute(k, (V) valueTable[i]);
+			}
+		}
+		if(modCount != expectedModCount)
+		{
+			throw new ConcurrentModificationException();
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws ConcurrentModificationException if the map was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEachKey(IntProcedure procedure)
+	{
+		final int expectedModCount = modCount;
+		final int[] keyTable = this.keyTable;
+		final int n = this.n;
+		boolean result = true;
+		if(containsZeroKey)
+		{
+			result = procedure.execute(0);
+		}
+		for(int i = n - 1; result && i >= 0; i--)
+		{
+			int k = keyTable[i];
+			if(k != 0)
+			{
+				result = procedure.execute(k);
+			}
+		}
+		if(modCount != expectedModCount)
+		{
+			throw new ConcurrentModificationException();
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws ConcurrentModificationException if the map was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEachValue(ObjectProcedure<? super V> procedure)
+	{
+		final int expectedModCount = modCount;
+		final int[] keyTable = this.keyTable;
+		final Object[] valueTable = this.valueTable;
+		final int n = this.n;
+		boolean result = true;
+		if(containsZeroKey)
+		{
+			result = procedure.execute((V) valueTable[n]);
+		}
+		for(int i = n - 1; result && i >= 0; i--)
+		{
+			int k = keyTable[i];
+			if(k != 0)
+			{
+				result = procedure.execute((V) valueTable[i]);
+			}
+		}
+		if(modCount != expectedModCount)
+		{
+			throw new ConcurrentModificationException();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this map maps one or more keys to the
+	 * specified value.
+	 *
+	 * @param value value whose presence in this map is to be tested
+	 * @return <tt>true</tt> if this map maps one or more keys to the
+	 *         specified value
+	 */
+	public boolean containsValue(Object value)
+	{
+		if(containsZeroKey && eq(value, valueTable[n]))
+		{
+			return true;
+		}
+
+		final int[] keyTable = this.keyTable;
+		final Object[] valueTable = this.valueTable;
+		for(int i = 0; i < n; i++)
+		{
+			if(keyTable[i] != 0 && eq(value, valueTable[i]))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static boolean eq(Object o1, Object o2)
+	{
+		return o1 == null ? o2 == null : o1.equals(o2);
+	}
+
+	/**
+	 * Returns a shallow copy of this map instance
+	 *
+	 * @return a shallow copy of this map
+	 */
+	public Object clone()
+	{
+		OpenHashIntObjectMap<V> result;
+		try
+		{
+			result = (OpenHashIntObjectMap<V>) super.clone();
+		}
+		catch(CloneNotSupportedException e)
+		{
+			throw new InternalError();
+		}
+		result.keyTable = keyTable.clone();
+		result.valueTable = valueTable.clone();
+		result.keySet = null;
+		result.values = null;
+		result.entrySet = null;
+		result.modCount = 0;
+		return result;
+	}
+
+	/**
+	 * Iterator over slots of table. Slots are visited from the end of table to the start, and
+	 * entries, which moved by removal from the start of table to not visited part - are saved to
+	 * separate list
+	 */
+	private abstract class SlotIterator
+	{
+		/**
+		 * Next slot to check, -1 - table is completed, if less - index in wrapped list
+		 */
+		int pos = n;
+		/**
+		 * Last returned slot, -1 if not present, or <tt>Integer.MIN_VALUE</tt> if was returned from wrapped list
+		 */
+		int last = -1;
+		/**
+		 * Count of elements to return
+		 */
+		int c = size;
+		boolean mustReturnZeroKey = containsZeroKey;
+		/**
+		 * Keys, which was moved from start of table to the visited part
+		 */
+		ArrayIntList wrapped;
+		int expectedModCount = modCount;
+
+		public final boolean hasNext()
+		{
+			return c != 0;
+		}
+
+		final int nextSlot()
+		{
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			if(c == 0)
+			{
+				throw new NoSuchElementException();
+			}
+
+			c--;
+			if(mustReturnZeroKey)
+			{
+				mustReturnZeroKey = false;
+				return last = n;
+			}
+
+			final int[] keyTable = OpenHashIntObjectMap.this.keyTable;
+			for(; ;)
+			{
+				if(--pos < 0)
+				{
+					last = Integer.MIN_VALUE;
+					return find(wrapped.get(-pos - 1));
+				}
+				if(keyTable[pos] != 0)
+				{
+					return last = pos;
+				}
+			}
+		}
+
+		/**
+		 * The same as {@link OpenHashIntObjectMap#shiftKeys(int)} but save wrapped keys
+		 */
+		private void shiftKeys(int pos)
+		{
+			final int[] keyTable = OpenHashIntObjectMap.this.keyTable;
+			int last, slot, k;
+			for(; ;)
+			{
+				pos = ((last = pos) + 1) & mask;
+				for(; ;)
+				{
+					if((k = keyTable[pos]) == 0)
+					{
+						keyTable[last] = 0;
+						valueTable[last] = null;
+						return;
+					}
+					slot = HashUtils.mix(k) & mask;
+					if(last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos)
+					{
+						break;
+					}
+					pos = (pos + 1) & mask;
+				}
+				if(pos < last)
+				{
+					if(wrapped == null)
+					{
+						wrapped = new ArrayIntList(2);
+					}
+					wrapped.add(k);
+				}
+				keyTable[last] = k;
+				valueTable[last] = valueTable[pos];
+			}
+		}
+
+		public void remove()
+		{
+			if(last == -1)
+			{
+				throw new IllegalStateException();
+			}
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+
+			if(last == n)
+			{
+				containsZeroKey = false;
+				valueTable[n] = null;
+			}
+			else if(pos >= 0)
+			{
+				shiftKeys(last);
+			}
+			else
+			{
+				// key from wrapped list, position of it is not related to iteration
+				OpenHashIntObjectMap.this.remove(wrapped.get(-pos - 1));
+				expectedModCount = modCount;
+				last = -1;
+				return;
+			}
+
+			size--;
+			modCount++;
+			expectedModCount = modCount;
+			last = -1;
+		}
+	}
+
+	private final class KeyIterator extends SlotIterator implements IntIterator
+	{
+		public int next()
+		{
+			return keyTable[nextSlot()];
+		}
+	}
+
+	private final class ValueIterator extends SlotIterator implements Iterator<V>
+	{
+		public V next()
+		{
+			return (V) valueTable[nextSlot()];
+		}
+	}
+
+	private final class EntryIterator extends SlotIterator implements Iterator<IntObjectPair<V>>
+	{
+		public IntObjectPair<V> next()
+		{
+			return new Entry(nextSlot());
+		}
+	}
+
+	/**
+	 * Entry view of table slot
+	 */
+	private final class Entry implements IntObjectPair<V>
+	{
+		private final int index;
+
+		Entry(int index)
+		{
+			this.index = index;
+		}
+
+		@Override
+		public int getKey()
+		{
+			return keyTable[index];
+		}
+
+		@Override
+		public V getValue()
+		{
+			return (V) valueTable[index];
+		}
+
+		@Override
+		public V setValue(V value)
+		{
+			V oldValue = (V) valueTable[index];
+			valueTable[index] = value;
+			return oldValue;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if(!(o instanceof IntObjectPair))
+			{
+				return false;
+			}
+			IntObjectPair<?> p = (IntObjectPair<?>) o;
+			return p.getKey() == getKey() && eq(p.getValue(), getValue());
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return HashUtils.hashCode(getKey()) ^ HashUtils.hashCode(getValue());
+		}
+
+		@Override
+		public String toString()
+		{
+			return getKey() + "=" + getValue();
+		}
+	}
+
+	// Views
+
+	private transient Set<IntObjectPair<V>> entrySet = null;
+
+	/**
+	 * Returns a {@link IntSet} view of the keys contained in this map.
+	 * The set is backed by the map, so changes to the map are
+	 * reflected in the set, and vice-versa.  It does not support the <tt>add</tt> or <tt>addAll</tt>
+	 * operations.
+	 */
+	public IntSet keySet()
+	{
+		IntSet ks = keySet;
+		return (ks != null ? ks : (keySet = new KeySet()));
+	}
+
+	private final class KeySet extends AbstractIntSet
+	{
+		public IntIterator iterator()
+		{
+			return new KeyIterator();
+		}
+
+		public int size()
+		{
+			return size;
+		}
+
+		public boolean contains(int o)
+		{
+			return containsKey(o);
+		}
+
+		public boolean remove(int o)
+		{
+			int pos = find(o);
+			if(pos < 0)
+			{
+				return false;
+			}
+			removeAt(pos);
+			return true;
+		}
+
+		public void clear()
+		{
+			OpenHashIntObjectMap.this.clear();
+		}
+	}
+
+	/**
+	 * Returns a {@link Collection} view of the values contained in this map.
+	 * The collection is backed by the map, so changes to the map are
+	 * reflected in the collection, and vice-versa.  It does not
+	 * support the <tt>add</tt> or <tt>addAll</tt> operations.
+	 */
+	public Collection<V> values()
+	{
+		Collection<V> vs = values;
+		return (vs != null ? vs : (values = new Values()));
+	}
+
+	private final class Values extends AbstractCollection<V>
+	{
+		public Iterator<V> iterator()
+		{
+			return new ValueIterator();
+		}
+
+		public int size()
+		{
+			return size;
+		}
+
+		public boolean contains(Object o)
+		{
+			return containsValue(o);
+		}
+
+		public void clear()
+		{
+			OpenHashIntObjectMap.this.clear();
+		}
+	}
+
+	/**
+	 * Returns a {@link Set} view of the mappings contained in this map.
+	 * The set is backed by the map, so changes to the map are
+	 * reflected in the set, and vice-versa.  It does not support the
+	 * <tt>add</tt> or <tt>addAll</tt> operations.
+	 *
+	 * @return a set view of the mappings contained in this map
+	 */
+	public Set<IntObjectPair<V>> entrySet()
+	{
+		Set<IntObjectPair<V>> es = entrySet;
+		return es != null ? es : (entrySet = new EntrySet());
+	}
+
+	private final class EntrySet extends AbstractSet<IntObjectPair<V>>
+	{
+		public Iterator<IntObjectPair<V>> iterator()
+		{
+			return new EntryIterator();
+		}
+
+		public boolean contains(Object o)
+		{
+			if(!(o instanceof IntObjectPair))
+			{
+				return false;
+			}
+			IntObjectPair<?> e = (IntObjectPair<?>) o;
+			int pos = find(e.getKey());
+			return pos >= 0 && eq(valueTable[pos], e.getValue());
+		}
+
+		public boolean remove(Object o)
+		{
+			if(!(o instanceof IntObjectPair))
+			{
+				return false;
+			}
+			IntObjectPair<?> e = (IntObjectPair<?>) o;
+			int pos = find(e.getKey());
+			if(pos < 0 || !eq(valueTable[pos], e.getValue()))
+			{
+				return false;
+			}
+			removeAt(pos);
+			return true;
+		}
+
+		public int size()
+		{
+			return size;
+		}
+
+		public void clear()
+		{
+			OpenHashIntObjectMap.this.clear();
+		}
+	}
+
+	/**
+	 * Save the state of the map to a stream (i.e.,
+	 * serialize it).
+	 *
+	 * @serialData The size of the map (the number of key-value
+	 * mappings) is emitted (int), followed by the key (int) and value (Object)
+	 * for each key-value mapping.  The key-value mappings are
+	 * emitted in no particular order.
+	 */
+	private void writeObject(java.io.ObjectOutputStream s) throws IOException
+	{
+		// Write out the loadfactor
+		s.defaultWriteObject();
+
+		// Write out size (number of Mappings)
+		s.writeInt(size);
+
+		if(containsZeroKey)
+		{
+			s.writeInt(0);
+			s.writeObject(valueTable[n]);
+		}
+
+		for(int i = 0; i < n; i++)
+		{
+			if(keyTable[i] != 0)
+			{
+				s.writeInt(keyTable[i]);
+				s.writeObject(valueTable[i]);
+			}
+		}
+	}
+
+	private static final long serialVersionUID = 2870514626410432339L;
+
+	/**
+	 * Reconstitute the map from a stream (i.e.,
+	 * deserialize it).
+	 */
+	private void readObject(java.io.ObjectInputStream s) throws IOException, ClassNotFoundException
+	{
+		// Read in the loadfactor
+		s.defaultReadObject();
+
+		// Read in size (number of Mappings)
+		int size = s.readInt();
+
+		allocate(HashUtils.arraySize(size, loadFactor));
+
+		for(int i = 0; i < size; i++)
+		{
+			int key = s.readInt();
+			V value = (V) s.readObject();
+			put(key, value);
+		}
+		modCount = 0;
+	}
+
+	public int capacity()
+	{
+		return n;
+	}
+
+	public float loadFactor()
+	{
+		return loadFactor;
+	}
+}
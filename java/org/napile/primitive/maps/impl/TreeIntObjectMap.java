@@ -13,8 +13,15 @@ import java.util.Set;
 import org.napile.pair.primitive.IntObjectPair;
 import org.napile.pair.primitive.impl.ImmutableIntObjectPairImpl;
 import org.napile.primitive.Comparators;
+import org.napile.primitive.MemoryEstimator;
 import org.napile.primitive.comparators.IntComparator;
+import org.napile.primitive.functions.IntObjectProcedure;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.functions.ObjectProcedure;
 import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.IntSpliterator;
+import org.napile.primitive.iterators.impl.IteratorIntSpliterator;
+import org.napile.primitive.maps.IndexedNavigableIntObjectMap;
 import org.napile.primitive.maps.IntObjectMap;
 import org.napile.primitive.maps.NavigableIntObjectMap;
 import org.napile.primitive.maps.SortedIntObjectMap;
@@ -85,6 +92,9 @@ import org.napile.primitive.sets.impl.TreeIntSet;
  * method. (Note however that it is possible to change mappings in the
  * associated map using <tt>put</tt>.)
  * <p/>
+ * <p>The map and its submap and descending views are {@link IndexedNavigableIntObjectMap}s:
+ * <tt>rank</tt> and <tt>select</tt> take log(n) time, using the subtree sizes kept in the entries.
+ * <p/>
  * <p>This class is a member of the
  * <a href="{@docRoot}/../technotes/guides/collections/index.html">
  * Java Collections Framework</a>.
@@ -99,7 +109,7 @@ import org.napile.primitive.sets.impl.TreeIntSet;
  * @see org.napile.collections.IntCollection
  * @since 1.2
  */
-public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements NavigableIntObjectMap<V>, Cloneable, java.io.Serializable
+public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements IndexedNavigableIntObjectMap<V>, Cloneable, java.io.Serializable
 {
 	/**
 	 * The comparator used to maintain order in this tree map, or
@@ -214,6 +224,17 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 		return size;
 	}
 
+	/**
+	 * Returns an estimate of heap size, retained by this map: the map object
+	 * and the tree entries. Values are not counted.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this) + size * MemoryEstimator.instanceSize(Entry.class);
+	}
+
 	/**
 	 * Returns <tt>true</tt> if this map contains a mapping for the specified
 	 * key.
@@ -689,6 +710,10 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 		{
 			parent.right = e;
 		}
+		for(Entry<V> a = parent; a != null; a = a.parent)
+		{
+			a.weight++;
+		}
 		fixAfterInsertion(e);
 		size++;
 		modCount++;
@@ -733,6 +758,84 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 		root = null;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Mappings are processed in ascending key order.
+	 *
+	 * @throws ConcurrentModificationException if the map was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEachEntry(IntObjectProcedure<? super V> procedure)
+	{
+		final int expectedModCount = modCount;
+		for(Entry<V> e = getFirstEntry(); e != null; e = successor(e))
+		{
+			boolean next = procedure.execute(e.key, e.value);
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			if(!next)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Mappings are processed in ascending key order.
+	 *
+	 * @throws ConcurrentModificationException if the map was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEachKey(IntProcedure procedure)
+	{
+		final int expectedModCount = modCount;
+		for(Entry<V> e = getFirstEntry(); e != null; e = successor(e))
+		{
+			boolean next = procedure.execute(e.key);
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			if(!next)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Mappings are processed in ascending key order.
+	 *
+	 * @throws ConcurrentModificationException if the map was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEachValue(ObjectProcedure<? super V> procedure)
+	{
+		final int expectedModCount = modCount;
+		for(Entry<V> e = getFirstEntry(); e != null; e = successor(e))
+		{
+			boolean next = procedure.execute(e.value);
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			if(!next)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Returns a shallow copy of this <tt>TreeIntObjectMap</tt> instance. (The keys and
 	 * values themselves are not cloned.)
@@ -916,6 +1019,105 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 		return keyOrNull(getHigherEntry(key));
 	}
 
+	// Order statistics
+
+	/**
+	 * Returns the number of keys in this map, which are less than the given key.
+	 * If the map contains the key, this is the index of it in ascending order,
+	 * otherwise the index at which it would be inserted.
+	 * This operation takes log(n) time.
+	 *
+	 * @param key the key
+	 * @return the number of keys less than <tt>key</tt>
+	 */
+	public int rank(int key)
+	{
+		return headCount(key, false);
+	}
+
+	/**
+	 * Returns the key at the specified position in ascending order of keys.
+	 * This operation takes log(n) time.
+	 *
+	 * @param index index of the key
+	 * @return the key with exactly <tt>index</tt> keys less than it
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
+	 */
+	public int select(int index)
+	{
+		return getEntryAt(index).key;
+	}
+
+	/**
+	 * Returns a key-value mapping at the specified position in ascending order of keys.
+	 * This operation takes log(n) time.
+	 *
+	 * @param index index of the mapping
+	 * @return the mapping, which key has exactly <tt>index</tt> keys less than it
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
+	 */
+	public IntObjectPair<V> selectEntry(int index)
+	{
+		return exportEntry(getEntryAt(index));
+	}
+
+	/**
+	 * Returns the number of keys less than the given key, or less or equal to it
+	 * if <tt>inclusive</tt> is true.
+	 */
+	final int headCount(int key, boolean inclusive)
+	{
+		int count = 0;
+		Entry<V> p = root;
+		while(p != null)
+		{
+			int cmp = compare(key, p.key);
+			if(cmp < 0 || (cmp == 0 && !inclusive))
+			{
+				p = p.left;
+			}
+			else
+			{
+				count += weightOf(p.left) + 1;
+				p = p.right;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the entry at the specified position in ascending order of keys.
+	 *
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	final Entry<V> getEntryAt(int index)
+	{
+		if(index < 0 || index >= size)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		Entry<V> p = root;
+		while(true)
+		{
+			int left = weightOf(p.left);
+			if(index < left)
+			{
+				p = p.left;
+			}
+			else if(index > left)
+			{
+				index -= left + 1;
+				p = p.right;
+			}
+			else
+			{
+				return p;
+			}
+		}
+	}
+
 	// Views
 
 	/**
@@ -1213,6 +1415,12 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 			}
 		}
 
+		@Override
+		public IntSpliterator spliterator()
+		{
+			return new IteratorIntSpliterator(this, IntSpliterator.DISTINCT | IntSpliterator.ORDERED);
+		}
+
 		public IntIterator descendingIterator()
 		{
 			if(m instanceof TreeIntObjectMap)
@@ -1519,7 +1727,7 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 	/**
 	 * @serial include
 	 */
-	static abstract class NavigableSubMap<V> extends AbstractIntObjectMap<V> implements NavigableIntObjectMap<V>, java.io.Serializable
+	static abstract class NavigableSubMap<V> extends AbstractIntObjectMap<V> implements IndexedNavigableIntObjectMap<V>, java.io.Serializable
 	{
 		/**
 		 * The backing map.
@@ -1717,11 +1925,92 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 			return (fromStart && toEnd) ? m.isEmpty() : entrySet().isEmpty();
 		}
 
+		/**
+		 * Returns the number of mappings in this submap. This operation takes log(n) time.
+		 */
 		public int size()
 		{
-			return (fromStart && toEnd) ? m.size() : entrySet().size();
+			return (fromStart && toEnd) ? m.size() : Math.max(absHighCount() - absLowCount(), 0);
+		}
+
+		/**
+		 * Returns the number of keys in this submap, which are before the given key
+		 * in the order of this submap. This operation takes log(n) time.
+		 *
+		 * @param key the key
+		 * @return the number of keys before <tt>key</tt>
+		 * @see TreeIntObjectMap#rank(int)
+		 */
+		public abstract int rank(int key);
+
+		/**
+		 * Returns the key at the specified position in the order of this submap.
+		 * This operation takes log(n) time.
+		 *
+		 * @throws IndexOutOfBoundsException if the index is out of range
+		 *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
+		 * @see TreeIntObjectMap#select(int)
+		 */
+		public final int select(int index)
+		{
+			return subEntryAt(index).key;
+		}
+
+		/**
+		 * Returns a key-value mapping at the specified position in the order of this submap.
+		 * This operation takes log(n) time.
+		 *
+		 * @throws IndexOutOfBoundsException if the index is out of range
+		 *                                   (<tt>index &lt; 0 || index &gt;= size()</tt>)
+		 * @see TreeIntObjectMap#selectEntry(int)
+		 */
+		public final IntObjectPair<V> selectEntry(int index)
+		{
+			return exportEntry(subEntryAt(index));
+		}
+
+		/**
+		 * Returns the number of keys of the backing map, which are below the low bound
+		 */
+		final int absLowCount()
+		{
+			return fromStart ? 0 : m.headCount(lo, !loInclusive);
 		}
 
+		/**
+		 * Returns the number of keys of the backing map, which are below or at the high bound
+		 */
+		final int absHighCount()
+		{
+			return toEnd ? m.size() : m.headCount(hi, hiInclusive);
+		}
+
+		/**
+		 * Bounds <tt>count</tt> by the range of this submap
+		 */
+		final int clampCount(int count)
+		{
+			return Math.min(Math.max(count, 0), size());
+		}
+
+		/**
+		 * Returns the entry at the specified position in the order of this submap.
+		 */
+		final TreeIntObjectMap.Entry<V> subEntryAt(int index)
+		{
+			int size = size();
+			if(index < 0 || index >= size)
+			{
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+			return m.getEntryAt(subAbsIndex(index));
+		}
+
+		/**
+		 * Converts position in the order of this submap to position in the backing map.
+		 */
+		abstract int subAbsIndex(int index);
+
 		public final boolean containsKey(int key)
 		{
 			return inRange(key) && m.containsKey(key);
@@ -1868,26 +2157,9 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 
 		abstract class EntrySetView extends AbstractSet<IntObjectPair<V>>
 		{
-			private transient int size = -1, sizeModCount;
-
 			public int size()
 			{
-				if(fromStart && toEnd)
-				{
-					return m.size();
-				}
-				if(size == -1 || sizeModCount != m.modCount)
-				{
-					sizeModCount = m.modCount;
-					size = 0;
-					Iterator i = iterator();
-					while(i.hasNext())
-					{
-						size++;
-						i.next();
-					}
-				}
-				return size;
+				return NavigableSubMap.this.size();
 			}
 
 			public boolean isEmpty()
@@ -1941,6 +2213,7 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 		{
 			TreeIntObjectMap.Entry<V> lastReturned;
 			TreeIntObjectMap.Entry<V> next;
+			final boolean fenced;
 			final int fenceKey;
 			int expectedModCount;
 
@@ -1949,18 +2222,19 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 				expectedModCount = m.modCount;
 				lastReturned = null;
 				next = first;
-				fenceKey = fence == null ? 0 : fence.key;
+				fenced = fence != null;
+				fenceKey = fenced ? fence.key : 0;
 			}
 
 			public final boolean hasNext()
 			{
-				return next != null && next.key != fenceKey;
+				return next != null && !(fenced && next.key == fenceKey);
 			}
 
 			final TreeIntObjectMap.Entry<V> nextEntry()
 			{
 				TreeIntObjectMap.Entry<V> e = next;
-				if(e == null || e.key == fenceKey)
+				if(e == null || fenced && e.key == fenceKey)
 				{
 					throw new NoSuchElementException();
 				}
@@ -1976,7 +2250,7 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 			final TreeIntObjectMap.Entry<V> prevEntry()
 			{
 				TreeIntObjectMap.Entry<V> e = next;
-				if(e == null || e.key == fenceKey)
+				if(e == null || fenced && e.key == fenceKey)
 				{
 					throw new NoSuchElementException();
 				}
@@ -2153,6 +2427,16 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 			return (mv != null) ? mv : (descendingMapView = new DescendingSubMap<V>(m, fromStart, lo, loInclusive, toEnd, hi, hiInclusive));
 		}
 
+		public int rank(int key)
+		{
+			return clampCount(m.headCount(key, false) - absLowCount());
+		}
+
+		int subAbsIndex(int index)
+		{
+			return absLowCount() + index;
+		}
+
 		IntIterator keyIterator()
 		{
 			return new SubMapKeyIterator(absLowest(), absHighFence());
@@ -2264,6 +2548,16 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 			return (mv != null) ? mv : (descendingMapView = new AscendingSubMap<V>(m, fromStart, lo, loInclusive, toEnd, hi, hiInclusive));
 		}
 
+		public int rank(int key)
+		{
+			return clampCount(absHighCount() - m.headCount(key, true));
+		}
+
+		int subAbsIndex(int index)
+		{
+			return absHighCount() - 1 - index;
+		}
+
 		IntIterator keyIterator()
 		{
 			return new DescendingSubMapKeyIterator(absHighest(), absLowFence());
@@ -2394,6 +2688,10 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 		Entry<V> right = null;
 		Entry<V> parent;
 		boolean color = BLACK;
+		/**
+		 * Count of entries in the subtree rooted at this entry (the entry itself included).
+		 */
+		int weight = 1;
 
 		/**
 		 * Make a new cell with given key, value, and parent, and with
@@ -2597,6 +2895,11 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 		return (p == null) ? null : p.right;
 	}
 
+	private static <V> int weightOf(Entry<V> p)
+	{
+		return (p == null) ? 0 : p.weight;
+	}
+
 	/**
 	 * From CLR
 	 */
@@ -2625,6 +2928,8 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 			}
 			r.left = p;
 			p.parent = r;
+			r.weight = p.weight;
+			p.weight = weightOf(p.left) + weightOf(p.right) + 1;
 		}
 	}
 
@@ -2656,6 +2961,8 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 			}
 			l.right = p;
 			p.parent = l;
+			l.weight = p.weight;
+			p.weight = weightOf(p.left) + weightOf(p.right) + 1;
 		}
 	}
 
@@ -2734,6 +3041,14 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 			p = s;
 		} // p has 2 children
 
+		// p is unlinked below, so it leaves all subtrees of its ancestors. While it is used
+		// as phantom replacement by fixAfterDeletion, it must not be counted by rotations.
+		for(Entry<V> a = p.parent; a != null; a = a.parent)
+		{
+			a.weight--;
+		}
+		p.weight = 0;
+
 		// Start fixup at replacement node, if it exists.
 		Entry<V> replacement = (p.left != null ? p.left : p.right);
 
@@ -2938,7 +3253,6 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 		}
 	}
 
-
 	/**
 	 * Linear time tree building algorithm from sorted data.  Can accept keys
 	 * and/or values from iterator or stream. This leads to too many
@@ -3042,6 +3356,7 @@ public class TreeIntObjectMap<V> extends AbstractIntObjectMap<V> implements Navi
 		}
 
 		Entry<V> middle = new Entry<V>(key, value, null);
+		middle.weight = hi - lo + 1;
 
 		// color nodes in non-full bottommost level red
 		if(level == redLevel)
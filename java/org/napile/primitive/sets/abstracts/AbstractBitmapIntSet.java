@@ -0,0 +1,513 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.sets.abstracts;
+
+import java.util.NoSuchElementException;
+
+import org.napile.primitive.Comparators;
+import org.napile.primitive.comparators.IntComparator;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.IntSpliterator;
+import org.napile.primitive.iterators.impl.IteratorIntSpliterator;
+import org.napile.primitive.sets.NavigableIntSet;
+import org.napile.primitive.sets.SortedIntSet;
+
+/**
+ * Base of the sets which keep their elements in natural order as bits, and
+ * find neighbour elements by bit scans. Subclasses provide the scans, which
+ * return a <tt>long</tt> so that {@link #NONE} can tell there is no such
+ * element; this class builds on them the {@link NavigableIntSet} methods and
+ * the range views.
+ *
+ * @author VISTALL
+ * @date 17:40/18.10.2026
+ */
+public abstract class AbstractBitmapIntSet extends AbstractIntSet implements NavigableIntSet
+{
+	/**
+	 * Result of the navigation helpers, if there is no such element.
+	 */
+	protected static final long NONE = Long.MIN_VALUE;
+
+	protected static int element(long v)
+	{
+		if(v == NONE)
+		{
+			throw new NoSuchElementException();
+		}
+		return (int) v;
+	}
+
+	protected abstract long firstValue();
+
+	protected abstract long lastValue();
+
+	/**
+	 * Returns the least element greater than or equal to the given one, or {@link #NONE}.
+	 */
+	protected abstract long ceilingValue(int e);
+
+	/**
+	 * Returns the greatest element less than or equal to the given one, or {@link #NONE}.
+	 */
+	protected abstract long floorValue(int e);
+
+	/**
+	 * Returns count of elements less than the given one.
+	 */
+	protected abstract int countBelow(int e);
+
+	/**
+	 * Returns an iterator from the given element (or {@link #NONE} for an empty
+	 * one), which stops after the fence element, unless the fence is {@link #NONE}.
+	 */
+	protected abstract IntIterator iterator(long first, boolean descending, long fence);
+
+	final long higherValue(int e)
+	{
+		return e == Integer.MAX_VALUE ? NONE : ceilingValue(e + 1);
+	}
+
+	final long lowerValue(int e)
+	{
+		return e == Integer.MIN_VALUE ? NONE : floorValue(e - 1);
+	}
+
+	/**
+	 * @throws NoSuchElementException {@inheritDoc}
+	 */
+	public int first()
+	{
+		return element(firstValue());
+	}
+
+	/**
+	 * @throws NoSuchElementException {@inheritDoc}
+	 */
+	public int last()
+	{
+		return element(lastValue());
+	}
+
+	/**
+	 * @throws NoSuchElementException if there is no such element
+	 */
+	public int lower(int e)
+	{
+		return element(lowerValue(e));
+	}
+
+	/**
+	 * @throws NoSuchElementException if there is no such element
+	 */
+	public int floor(int e)
+	{
+		return element(floorValue(e));
+	}
+
+	/**
+	 * @throws NoSuchElementException if there is no such element
+	 */
+	public int ceiling(int e)
+	{
+		return element(ceilingValue(e));
+	}
+
+	/**
+	 * @throws NoSuchElementException if there is no such element
+	 */
+	public int higher(int e)
+	{
+		return element(higherValue(e));
+	}
+
+	/**
+	 * @throws NoSuchElementException if this set is empty
+	 */
+	public int pollFirst()
+	{
+		int e = first();
+		remove(e);
+		return e;
+	}
+
+	/**
+	 * @throws NoSuchElementException if this set is empty
+	 */
+	public int pollLast()
+	{
+		int e = last();
+		remove(e);
+		return e;
+	}
+
+	/**
+	 * Always returns <tt>null</tt>, the set uses the natural ordering of its elements.
+	 */
+	public IntComparator comparator()
+	{
+		return null;
+	}
+
+	/**
+	 * Returns an iterator over the elements in this set in ascending order.
+	 *
+	 * @return an iterator over the elements in this set in ascending order
+	 */
+	public IntIterator iterator()
+	{
+		return iterator(firstValue(), false, NONE);
+	}
+
+	/**
+	 * Returns an iterator over the elements in this set in descending order.
+	 *
+	 * @return an iterator over the elements in this set in descending order
+	 */
+	public IntIterator descendingIterator()
+	{
+		return iterator(lastValue(), true, NONE);
+	}
+
+	/**
+	 * Returns a spliterator over the elements in this set in ascending order.
+	 *
+	 * @return a spliterator over the elements in this set
+	 */
+	@Override
+	public IntSpliterator spliterator()
+	{
+		return new IteratorIntSpliterator(this, IntSpliterator.DISTINCT | IntSpliterator.ORDERED);
+	}
+	public NavigableIntSet descendingSet()
+	{
+		return new SubSet(this, true, 0, false, true, 0, false, true);
+	}
+
+	/**
+	 * @throws IllegalArgumentException {@inheritDoc}
+	 */
+	public NavigableIntSet subSet(int fromElement, boolean fromInclusive, int toElement, boolean toInclusive)
+	{
+		return new SubSet(this, false, fromElement, fromInclusive, false, toElement, toInclusive, false);
+	}
+
+	public NavigableIntSet headSet(int toElement, boolean inclusive)
+	{
+		return new SubSet(this, true, 0, false, false, toElement, inclusive, false);
+	}
+
+	public NavigableIntSet tailSet(int fromElement, boolean inclusive)
+	{
+		return new SubSet(this, false, fromElement, inclusive, true, 0, false, false);
+	}
+
+	/**
+	 * @throws IllegalArgumentException {@inheritDoc}
+	 */
+	public SortedIntSet subSet(int fromElement, int toElement)
+	{
+		return subSet(fromElement, true, toElement, false);
+	}
+
+	public SortedIntSet headSet(int toElement)
+	{
+		return headSet(toElement, false);
+	}
+
+	public SortedIntSet tailSet(int fromElement)
+	{
+		return tailSet(fromElement, true);
+	}
+
+	/**
+	 * View of the elements of the set within bounds, possibly in descending order.
+	 * Bounds are absolute, i.e. in ascending order of the backing set.
+	 */
+	static final class SubSet extends AbstractIntSet implements NavigableIntSet, java.io.Serializable
+	{
+		private static final long serialVersionUID = 3873018467372478121L;
+
+		final AbstractBitmapIntSet m;
+
+		final boolean fromStart;
+		final int lo;
+		final boolean loInclusive;
+		final boolean toEnd;
+		final int hi;
+		final boolean hiInclusive;
+		final boolean descending;
+
+		SubSet(AbstractBitmapIntSet m, boolean fromStart, int lo, boolean loInclusive, boolean toEnd, int hi, boolean hiInclusive, boolean descending)
+		{
+			if(!fromStart && !toEnd && lo > hi)
+			{
+				throw new IllegalArgumentException("fromKey > toKey");
+			}
+			this.m = m;
+			this.fromStart = fromStart;
+			this.lo = lo;
+			this.loInclusive = loInclusive;
+			this.toEnd = toEnd;
+			this.hi = hi;
+			this.hiInclusive = hiInclusive;
+			this.descending = descending;
+		}
+
+		boolean tooLow(int e)
+		{
+			return !fromStart && (e < lo || e == lo && !loInclusive);
+		}
+
+		boolean tooHigh(int e)
+		{
+			return !toEnd && (e > hi || e == hi && !hiInclusive);
+		}
+
+		boolean inRange(int e)
+		{
+			return !tooLow(e) && !tooHigh(e);
+		}
+
+		boolean inClosedRange(int e)
+		{
+			return (fromStart || e >= lo) && (toEnd || e <= hi);
+		}
+
+		boolean inRange(int e, boolean inclusive)
+		{
+			return inclusive ? inRange(e) : inClosedRange(e);
+		}
+
+		long absLowest()
+		{
+			long v = fromStart ? m.firstValue() : loInclusive ? m.ceilingValue(lo) : m.higherValue(lo);
+			return v == NONE || tooHigh((int) v) ? NONE : v;
+		}
+
+		long absHighest()
+		{
+			long v = toEnd ? m.lastValue() : hiInclusive ? m.floorValue(hi) : m.lowerValue(hi);
+			return v == NONE || tooLow((int) v) ? NONE : v;
+		}
+
+		long absCeiling(int e)
+		{
+			if(tooLow(e))
+			{
+				return absLowest();
+			}
+			long v = m.ceilingValue(e);
+			return v == NONE || tooHigh((int) v) ? NONE : v;
+		}
+
+		long absHigher(int e)
+		{
+			if(tooLow(e))
+			{
+				return absLowest();
+			}
+			long v = m.higherValue(e);
+			return v == NONE || tooHigh((int) v) ? NONE : v;
+		}
+
+		long absFloor(int e)
+		{
+			if(tooHigh(e))
+			{
+				return absHighest();
+			}
+			long v = m.floorValue(e);
+			return v == NONE || tooLow((int) v) ? NONE : v;
+		}
+
+		long absLower(int e)
+		{
+			if(tooHigh(e))
+			{
+				return absHighest();
+			}
+			long v = m.lowerValue(e);
+			return v == NONE || tooLow((int) v) ? NONE : v;
+		}
+
+		public int size()
+		{
+			int from = fromStart ? 0 : m.countBelow(lo) + (!loInclusive && m.contains(lo) ? 1 : 0);
+			int to = toEnd ? m.size() : m.countBelow(hi) + (hiInclusive && m.contains(hi) ? 1 : 0);
+			return Math.max(to - from, 0);
+		}
+
+		@Override
+		public boolean isEmpty()
+		{
+			return absLowest() == NONE;
+		}
+
+		@Override
+		public boolean contains(int o)
+		{
+			return inRange(o) && m.contains(o);
+		}
+
+		@Override
+		public boolean add(int e)
+		{
+			if(!inRange(e))
+			{
+				throw new IllegalArgumentException("key out of range");
+			}
+			return m.add(e);
+		}
+
+		@Override
+		public boolean remove(int o)
+		{
+			return inRange(o) && m.remove(o);
+		}
+
+		public IntIterator iterator()
+		{
+			return descending ? m.iterator(absHighest(), true, absLowest()) : m.iterator(absLowest(), false, absHighest());
+		}
+
+		public IntIterator descendingIterator()
+		{
+			return descending ? m.iterator(absLowest(), false, absHighest()) : m.iterator(absHighest(), true, absLowest());
+		}
+
+		@Override
+		public IntSpliterator spliterator()
+		{
+			return new IteratorIntSpliterator(this, IntSpliterator.DISTINCT | IntSpliterator.ORDERED);
+		}
+
+		public IntComparator comparator()
+		{
+			return descending ? Comparators.reverseOrder(Comparators.DEFAULT_INT_COMPARATOR) : null;
+		}
+
+		public int first()
+		{
+			return element(descending ? absHighest() : absLowest());
+		}
+
+		public int last()
+		{
+			return element(descending ? absLowest() : absHighest());
+		}
+
+		public int lower(int e)
+		{
+			return element(descending ? absHigher(e) : absLower(e));
+		}
+
+		public int floor(int e)
+		{
+			return element(descending ? absCeiling(e) : absFloor(e));
+		}
+
+		public int ceiling(int e)
+		{
+			return element(descending ? absFloor(e) : absCeiling(e));
+		}
+
+		public int higher(int e)
+		{
+			return element(descending ? absLower(e) : absHigher(e));
+		}
+
+		public int pollFirst()
+		{
+			int e = first();
+			m.remove(e);
+			return e;
+		}
+
+		public int pollLast()
+		{
+			int e = last();
+			m.remove(e);
+			return e;
+		}
+
+		public NavigableIntSet descendingSet()
+		{
+			return new SubSet(m, fromStart, lo, loInclusive, toEnd, hi, hiInclusive, !descending);
+		}
+
+		public NavigableIntSet subSet(int fromElement, boolean fromInclusive, int toElement, boolean toInclusive)
+		{
+			if(!inRange(fromElement, fromInclusive))
+			{
+				throw new IllegalArgumentException("fromKey out of range");
+			}
+			if(!inRange(toElement, toInclusive))
+			{
+				throw new IllegalArgumentException("toKey out of range");
+			}
+			if(descending)
+			{
+				return new SubSet(m, false, toElement, toInclusive, false, fromElement, fromInclusive, true);
+			}
+			return new SubSet(m, false, fromElement, fromInclusive, false, toElement, toInclusive, false);
+		}
+
+		public NavigableIntSet headSet(int toElement, boolean inclusive)
+		{
+			if(!inRange(toElement, inclusive))
+			{
+				throw new IllegalArgumentException("toKey out of range");
+			}
+			if(descending)
+			{
+				return new SubSet(m, false, toElement, inclusive, toEnd, hi, hiInclusive, true);
+			}
+			return new SubSet(m, fromStart, lo, loInclusive, false, toElement, inclusive, false);
+		}
+
+		public NavigableIntSet tailSet(int fromElement, boolean inclusive)
+		{
+			if(!inRange(fromElement, inclusive))
+			{
+				throw new IllegalArgumentException("fromKey out of range");
+			}
+			if(descending)
+			{
+				return new SubSet(m, fromStart, lo, loInclusive, false, fromElement, inclusive, true);
+			}
+			return new SubSet(m, false, fromElement, inclusive, toEnd, hi, hiInclusive, false);
+		}
+
+		public SortedIntSet subSet(int fromElement, int toElement)
+		{
+			return subSet(fromElement, true, toElement, false);
+		}
+
+		public SortedIntSet headSet(int toElement)
+		{
+			return headSet(toElement, false);
+		}
+
+		public SortedIntSet tailSet(int fromElement)
+		{
+			return tailSet(fromElement, true);
+		}
+	}
+}
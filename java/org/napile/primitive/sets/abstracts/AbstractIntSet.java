@@ -27,6 +27,8 @@ package org.napile.primitive.sets.abstracts;
 import org.napile.primitive.collections.IntCollection;
 import org.napile.primitive.collections.abstracts.AbstractIntCollection;
 import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.IntSpliterator;
+import org.napile.primitive.iterators.impl.IteratorIntSpliterator;
 import org.napile.primitive.sets.IntSet;
 
 /**
@@ -145,6 +147,17 @@ public abstract class AbstractIntSet extends AbstractIntCollection implements In
 		return h;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation reports the elements as <tt>DISTINCT</tt>.
+	 */
+	@Override
+	public IntSpliterator spliterator()
+	{
+		return new IteratorIntSpliterator(this, IntSpliterator.DISTINCT);
+	}
+
 	/**
 	 * Removes from this set all of its elements that are contained in the
 	 * specified collection (optional operation).  If the specified
@@ -28,6 +28,8 @@ import org.napile.HashUtils;
 import org.napile.primitive.collections.LongCollection;
 import org.napile.primitive.collections.abstracts.AbstractLongCollection;
 import org.napile.primitive.iterators.LongIterator;
+import org.napile.primitive.iterators.LongSpliterator;
+import org.napile.primitive.iterators.impl.IteratorLongSpliterator;
 import org.napile.primitive.sets.IntSet;
 import org.napile.primitive.sets.LongSet;
 
@@ -95,7 +97,7 @@ public abstract class AbstractLongSet extends AbstractLongCollection implements
 			return true;
 		}
 
-		if(!(o instanceof IntSet))
+		if(!(o instanceof LongSet))
 		{
 			return false;
 		}
@@ -147,6 +149,17 @@ public abstract class AbstractLongSet extends AbstractLongCollection implements
 		return HashUtils.hashCode(h);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation reports the elements as <tt>DISTINCT</tt>.
+	 */
+	@Override
+	public LongSpliterator spliterator()
+	{
+		return new IteratorLongSpliterator(this, LongSpliterator.DISTINCT);
+	}
+
 	/**
 	 * Removes from this set all of its elements that are contained in the
 	 * specified collection (optional operation).  If the specified
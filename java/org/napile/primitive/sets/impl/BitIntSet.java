@@ -0,0 +1,655 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.sets.impl;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+import org.napile.primitive.MemoryEstimator;
+import org.napile.primitive.collections.IntCollection;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.sets.abstracts.AbstractBitmapIntSet;
+
+/**
+ * A {@link org.napile.primitive.sets.NavigableIntSet} of non-negative
+ * elements, kept as bits of a <tt>long[]</tt> array, like {@link java.util.BitSet}.
+ * It suits the elements from a known range <tt>[0, N)</tt>, like ids or slot
+ * numbers: the set takes <tt>N / 8</tt> bytes, whatever count of elements
+ * it holds, and there is no hashing. The array grows as needed to hold the
+ * greatest element added.
+ * <p/>
+ * <p><tt>contains</tt>, <tt>add</tt> and <tt>remove</tt> take constant time;
+ * <tt>size</tt> is cached. The navigation methods and the iterators scan the
+ * words for set bits, 64 elements at a time. {@link #containsAll},
+ * {@link #addAll}, {@link #retainAll} and {@link #removeAll} with another
+ * <tt>BitIntSet</tt> combine the arrays word by word.
+ * <p/>
+ * <p>Adding a negative element throws {@link IllegalArgumentException}.
+ * Methods which return an element (like {@link #ceiling(int)}) throw
+ * {@link NoSuchElementException} if there is no such element.
+ * <p/>
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access a set concurrently, and at least one of the
+ * threads modifies the set, it <i>must</i> be synchronized externally.
+ * <p/>
+ * <p>The iterators returned by this class's <tt>iterator</tt> method are
+ * <i>fail-fast</i>: if the set is modified at any time after the iterator is
+ * created, in any way except through the iterator's own <tt>remove</tt>
+ * method, the iterator will throw a {@link ConcurrentModificationException}.
+ *
+ * @author VISTALL
+ * @date 18:10/18.10.2026
+ * @see RoaringIntSet
+ * @see HashIntSet
+ */
+public class BitIntSet extends AbstractBitmapIntSet implements Cloneable, java.io.Serializable
+{
+	private static final long serialVersionUID = 2786305624153785036L;
+
+	private transient long[] words;
+
+	/**
+	 * Count of set bits
+	 */
+	private transient int size;
+
+	private transient int modCount;
+
+	/**
+	 * Constructs a new, empty set, for elements less than 64.
+	 */
+	public BitIntSet()
+	{
+		this(64);
+	}
+
+	/**
+	 * Constructs a new, empty set, which holds elements from <tt>0</tt> to
+	 * <tt>nbits - 1</tt> without growing.
+	 *
+	 * @param nbits the initial range of elements
+	 * @throws IllegalArgumentException if <tt>nbits</tt> is negative
+	 */
+	public BitIntSet(int nbits)
+	{
+		if(nbits < 0)
+		{
+			throw new IllegalArgumentException("Illegal Capacity: " + nbits);
+		}
+		words = new long[wordIndex(nbits - 1) + 1];
+	}
+
+	/**
+	 * Constructs a new set containing the elements in the specified collection.
+	 *
+	 * @param c the collection whose elements are to be placed into this set
+	 * @throws NullPointerException if the specified collection is null
+	 * @throws IllegalArgumentException if the collection contains a negative element
+	 */
+	public BitIntSet(IntCollection c)
+	{
+		this();
+		addAll(c);
+	}
+
+	private static int wordIndex(int e)
+	{
+		return e >> 6;
+	}
+
+	private void ensureWords(int count)
+	{
+		if(words.length < count)
+		{
+			words = Arrays.copyOf(words, Math.max(words.length * 2, count));
+		}
+	}
+
+	/**
+	 * Returns count of words up to the last non-zero one.
+	 */
+	private int wordsInUse()
+	{
+		int i = words.length;
+		while(i > 0 && words[i - 1] == 0)
+		{
+			i--;
+		}
+		return i;
+	}
+
+	private void recount()
+	{
+		int count = 0;
+		for(long word : words)
+		{
+			count += Long.bitCount(word);
+		}
+		size = count;
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	@Override
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.sizeOf(words);
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this set contains the specified element.
+	 *
+	 * @param o element whose presence in this set is to be tested
+	 * @return <tt>true</tt> if this set contains the specified element
+	 */
+	@Override
+	public boolean contains(int o)
+	{
+		if(o < 0)
+		{
+			return false;
+		}
+		int i = wordIndex(o);
+		return i < words.length && (words[i] & 1L << o) != 0;
+	}
+
+	/**
+	 * Adds the specified element to this set if it is not already present.
+	 *
+	 * @param e element to be added to this set
+	 * @return <tt>true</tt> if this set did not already contain the specified element
+	 * @throws IllegalArgumentException if the element is negative
+	 */
+	@Override
+	public boolean add(int e)
+	{
+		if(e < 0)
+		{
+			throw new IllegalArgumentException("Negative element: " + e);
+		}
+		int i = wordIndex(e);
+		ensureWords(i + 1);
+		long word = words[i];
+		long bit = 1L << e;
+		if((word & bit) != 0)
+		{
+			return false;
+		}
+		words[i] = word | bit;
+		size++;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Removes the specified element from this set if it is present.
+	 *
+	 * @param o element to be removed from this set, if present
+	 * @return <tt>true</tt> if the set contained the specified element
+	 */
+	@Override
+	public boolean remove(int o)
+	{
+		if(!contains(o))
+		{
+			return false;
+		}
+		words[wordIndex(o)] &= ~(1L << o);
+		size--;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Removes all of the elements from this set. The array of words keeps its length.
+	 */
+	@Override
+	public void clear()
+	{
+		Arrays.fill(words, 0);
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Returns the least element greater than or equal to <tt>from</tt>, or
+	 * <tt>-1</tt> if there is no such element.
+	 *
+	 * @param from the element to start from
+	 * @return the next element, or <tt>-1</tt>
+	 * @throws IndexOutOfBoundsException if <tt>from</tt> is negative
+	 */
+	public int nextSetBit(int from)
+	{
+		if(from < 0)
+		{
+			throw new IndexOutOfBoundsException("from < 0: " + from);
+		}
+		int i = wordIndex(from);
+		if(i >= words.length)
+		{
+			return -1;
+		}
+		long word = words[i] & (-1L << from);
+		while(word == 0)
+		{
+			if(++i == words.length)
+			{
+				return -1;
+			}
+			word = words[i];
+		}
+		return (i << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+	/**
+	 * Returns the greatest element less than or equal to <tt>from</tt>, or
+	 * <tt>-1</tt> if there is no such element.
+	 *
+	 * @param from the element to start from
+	 * @return the previous element, or <tt>-1</tt>
+	 */
+	public int previousSetBit(int from)
+	{
+		if(from < 0)
+		{
+			return -1;
+		}
+		int i = wordIndex(from);
+		long word;
+		if(i >= words.length)
+		{
+			i = words.length - 1;
+			if(i < 0)
+			{
+				return -1;
+			}
+			word = words[i];
+		}
+		else
+		{
+			word = words[i] & (-1L >>> (63 - (from & 63)));
+		}
+		while(word == 0)
+		{
+			if(--i < 0)
+			{
+				return -1;
+			}
+			word = words[i];
+		}
+		return (i << 6) + 63 - Long.numberOfLeadingZeros(word);
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this set contains all of the elements of the
+	 * specified collection. If the collection is a <tt>BitIntSet</tt>, the
+	 * words are compared.
+	 *
+	 * @param c collection to be checked for containment in this set
+	 * @return <tt>true</tt> if this set contains all of the elements of the specified collection
+	 * @throws NullPointerException if the specified collection is null
+	 */
+	@Override
+	public boolean containsAll(IntCollection c)
+	{
+		if(!(c instanceof BitIntSet))
+		{
+			return super.containsAll(c);
+		}
+		final long[] other = ((BitIntSet) c).words;
+		for(int i = 0; i < other.length; i++)
+		{
+			long word = i < words.length ? words[i] : 0;
+			if((other[i] & ~word) != 0)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds all of the elements in the specified collection to this set.
+	 * If the collection is a <tt>BitIntSet</tt>, the words are or-ed.
+	 *
+	 * @param c collection containing elements to be added to this set
+	 * @return <tt>true</tt> if this set changed as a result of the call
+	 * @throws NullPointerException if the specified collection is null
+	 * @throws IllegalArgumentException if the collection contains a negative element
+	 */
+	@Override
+	public boolean addAll(IntCollection c)
+	{
+		if(!(c instanceof BitIntSet))
+		{
+			return super.addAll(c);
+		}
+		final BitIntSet o = (BitIntSet) c;
+		final int count = o.wordsInUse();
+		ensureWords(count);
+		final long[] words = this.words;
+		final long[] other = o.words;
+		for(int i = 0; i < count; i++)
+		{
+			words[i] |= other[i];
+		}
+		return updateSize();
+	}
+
+	/**
+	 * Retains only the elements in this set that are contained in the
+	 * specified collection. If the collection is a <tt>BitIntSet</tt>, the
+	 * words are and-ed.
+	 *
+	 * @param c collection containing elements to be retained in this set
+	 * @return <tt>true</tt> if this set changed as a result of the call
+	 * @throws NullPointerException if the specified collection is null
+	 */
+	@Override
+	public boolean retainAll(IntCollection c)
+	{
+		if(!(c instanceof BitIntSet))
+		{
+			return super.retainAll(c);
+		}
+		final long[] words = this.words;
+		final long[] other = ((BitIntSet) c).words;
+		for(int i = 0; i < words.length; i++)
+		{
+			words[i] &= i < other.length ? other[i] : 0;
+		}
+		return updateSize();
+	}
+
+	/**
+	 * Removes from this set all of its elements that are contained in the
+	 * specified collection. If the collection is a <tt>BitIntSet</tt>, its
+	 * words are cleared in the words of this set.
+	 *
+	 * @param c collection containing elements to be removed from this set
+	 * @return <tt>true</tt> if this set changed as a result of the call
+	 * @throws NullPointerException if the specified collection is null
+	 */
+	@Override
+	public boolean removeAll(IntCollection c)
+	{
+		if(!(c instanceof BitIntSet))
+		{
+			return super.removeAll(c);
+		}
+		final long[] words = this.words;
+		final long[] other = ((BitIntSet) c).words;
+		for(int i = Math.min(words.length, other.length) - 1; i >= 0; i--)
+		{
+			words[i] &= ~other[i];
+		}
+		return updateSize();
+	}
+
+	/**
+	 * Recounts the bits after a bulk operation, which either only adds or only removes elements.
+	 *
+	 * @return <tt>true</tt> if the count changed
+	 */
+	private boolean updateSize()
+	{
+		int oldSize = size;
+		recount();
+		if(size == oldSize)
+		{
+			return false;
+		}
+		modCount++;
+		return true;
+	}
+
+	protected final long firstValue()
+	{
+		int e = nextSetBit(0);
+		return e < 0 ? NONE : e;
+	}
+
+	protected final long lastValue()
+	{
+		int e = previousSetBit(Integer.MAX_VALUE);
+		return e < 0 ? NONE : e;
+	}
+
+	protected final long ceilingValue(int e)
+	{
+		int next = nextSetBit(Math.max(e, 0));
+		return next < 0 ? NONE : next;
+	}
+
+	protected final long floorValue(int e)
+	{
+		int previous = previousSetBit(e);
+		return previous < 0 ? NONE : previous;
+	}
+
+	protected final int countBelow(int e)
+	{
+		if(e <= 0)
+		{
+			return 0;
+		}
+		int end = wordIndex(e);
+		if(end >= words.length)
+		{
+			return size;
+		}
+		int count = Long.bitCount(words[end] & ((1L << e) - 1));
+		for(int i = 0; i < end; i++)
+		{
+			count += Long.bitCount(words[i]);
+		}
+		return count;
+	}
+
+	protected final IntIterator iterator(long first, boolean descending, long fence)
+	{
+		return new Itr(first, descending, fence);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation walks over the words without an iterator.
+	 *
+	 * @throws ConcurrentModificationException if the set was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEach(IntProcedure procedure)
+	{
+		final int expectedModCount = modCount;
+		final long[] words = this.words;
+		for(int i = 0; i < words.length; i++)
+		{
+			for(long word = words[i]; word != 0; word &= word - 1)
+			{
+				if(!procedure.execute((i << 6) + Long.numberOfTrailingZeros(word)))
+				{
+					return false;
+				}
+				if(modCount != expectedModCount)
+				{
+					throw new ConcurrentModificationException();
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int[] toArray()
+	{
+		final int[] a = new int[size];
+		final long[] words = this.words;
+		int n = 0;
+		for(int i = 0; i < words.length; i++)
+		{
+			for(long word = words[i]; word != 0; word &= word - 1)
+			{
+				a[n++] = (i << 6) + Long.numberOfTrailingZeros(word);
+			}
+		}
+		return a;
+	}
+
+	/**
+	 * Returns a copy of this set.
+	 *
+	 * @return a copy of this set
+	 */
+	public Object clone()
+	{
+		try
+		{
+			BitIntSet clone = (BitIntSet) super.clone();
+			clone.words = words.clone();
+			clone.modCount = 0;
+			return clone;
+		}
+		catch(CloneNotSupportedException e)
+		{
+			throw new InternalError();
+		}
+	}
+
+	/**
+	 * Iterator over the elements between the first one and the optional fence
+	 * (inclusive), which finds the next element by bit scan.
+	 */
+	final class Itr implements IntIterator
+	{
+		private final boolean descending;
+		private final int fence;
+		/**
+		 * Next element, -1 if there is none
+		 */
+		private int next;
+		private int lastReturned = -1;
+		private int expectedModCount = modCount;
+
+		Itr(long first, boolean descending, long fence)
+		{
+			this.descending = descending;
+			this.fence = fence == NONE ? descending ? 0 : Integer.MAX_VALUE : (int) fence;
+			next = first == NONE ? -1 : (int) first;
+		}
+
+		public boolean hasNext()
+		{
+			return next >= 0;
+		}
+
+		public int next()
+		{
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			int e = next;
+			if(e < 0)
+			{
+				throw new NoSuchElementException();
+			}
+			if(descending)
+			{
+				next = e <= fence ? -1 : previousSetBit(e - 1);
+				if(next < fence)
+				{
+					next = -1;
+				}
+			}
+			else
+			{
+				next = e >= fence ? -1 : nextSetBit(e + 1);
+				if(next > fence)
+				{
+					next = -1;
+				}
+			}
+			lastReturned = e;
+			return e;
+		}
+
+		public void remove()
+		{
+			if(lastReturned < 0)
+			{
+				throw new IllegalStateException();
+			}
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			BitIntSet.this.remove(lastReturned);
+			lastReturned = -1;
+			expectedModCount = modCount;
+		}
+	}
+
+	/**
+	 * Save the state of the set to a stream: the count of words and the
+	 * words, up to the last non-zero one.
+	 */
+	private void writeObject(ObjectOutputStream s) throws IOException
+	{
+		s.defaultWriteObject();
+
+		int count = wordsInUse();
+		s.writeInt(count);
+		for(int i = 0; i < count; i++)
+		{
+			s.writeLong(words[i]);
+		}
+	}
+
+	/**
+	 * Reconstitute the set from a stream.
+	 */
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException
+	{
+		s.defaultReadObject();
+
+		int count = s.readInt();
+		words = new long[Math.max(count, 1)];
+		for(int i = 0; i < count; i++)
+		{
+			words[i] = s.readLong();
+		}
+		recount();
+	}
+}
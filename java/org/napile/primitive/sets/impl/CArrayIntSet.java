@@ -27,7 +27,9 @@ package org.napile.primitive.sets.impl;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.napile.primitive.MemoryEstimator;
 import org.napile.primitive.collections.IntCollection;
+import org.napile.primitive.functions.IntProcedure;
 import org.napile.primitive.iterators.IntIterator;
 import org.napile.primitive.lists.impl.CArrayIntList;
 import org.napile.primitive.sets.IntSet;
@@ -128,6 +130,17 @@ public class CArrayIntSet extends AbstractIntSet implements java.io.Serializable
 		return al.isEmpty();
 	}
 
+	/**
+	 * Returns an estimate of heap size, retained by this set: the set object
+	 * and its backing list.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this) + al.estimateMemoryBytes();
+	}
+
 	/**
 	 * Returns <tt>true</tt> if this set contains the specified element.
 	 * More formally, returns <tt>true</tt> if and only if this set
@@ -345,6 +358,17 @@ public class CArrayIntSet extends AbstractIntSet implements java.io.Serializable
 		return al.iterator();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>The procedure is executed over the snapshot of the state of the set.
+	 */
+	@Override
+	public boolean forEach(IntProcedure procedure)
+	{
+		return al.forEach(procedure);
+	}
+
 	/**
 	 * Compares the specified object with this set for equality.
 	 * Returns {@code true} if the specified object is the same object
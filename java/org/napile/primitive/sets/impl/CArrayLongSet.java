@@ -27,7 +27,9 @@ package org.napile.primitive.sets.impl;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.napile.primitive.MemoryEstimator;
 import org.napile.primitive.collections.LongCollection;
+import org.napile.primitive.functions.LongProcedure;
 import org.napile.primitive.iterators.IntIterator;
 import org.napile.primitive.iterators.LongIterator;
 import org.napile.primitive.lists.impl.CArrayLongList;
@@ -129,6 +131,17 @@ public class CArrayLongSet extends AbstractLongSet implements java.io.Serializab
 		return al.isEmpty();
 	}
 
+	/**
+	 * Returns an estimate of heap size, retained by this set: the set object
+	 * and its backing list.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this) + al.estimateMemoryBytes();
+	}
+
 	/**
 	 * Returns <tt>true</tt> if this set contains the specified element.
 	 * More formally, returns <tt>true</tt> if and only if this set
@@ -346,6 +359,17 @@ public class CArrayLongSet extends AbstractLongSet implements java.io.Serializab
 		return al.iterator();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>The procedure is executed over the snapshot of the state of the set.
+	 */
+	@Override
+	public boolean forEach(LongProcedure procedure)
+	{
+		return al.forEach(procedure);
+	}
+
 	/**
 	 * Compares the specified object with this set for equality.
 	 * Returns {@code true} if the specified object is the same object
@@ -0,0 +1,454 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.sets.impl;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.napile.primitive.MemoryEstimator;
+import org.napile.primitive.collections.IntCollection;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.IntSpliterator;
+import org.napile.primitive.iterators.impl.IteratorIntSpliterator;
+import org.napile.primitive.sets.abstracts.AbstractIntSet;
+
+/**
+ * A concurrent {@link org.napile.primitive.sets.IntSet} of non-negative
+ * elements, kept as bits of <tt>long</tt> words. The words are grouped in
+ * segments of {@value #SEGMENT_BITS} bits, which are allocated when the
+ * first element of their range is added, so the set suits dense domains
+ * like sequence numbers, whatever their range.
+ * <p/>
+ * <p><tt>contains</tt> takes constant time and never blocks; <tt>add</tt>
+ * and <tt>remove</tt> flip the bit with a compare-and-set, and return
+ * whether it was them which changed it. Only allocation of a segment takes
+ * a lock. Iterators are <i>weakly consistent</i>, returning elements in
+ * ascending order, reflecting the state of the set at some point at or since
+ * the creation of the iterator. They do <em>not</em> throw {@link
+ * java.util.ConcurrentModificationException}, and may proceed concurrently
+ * with other operations.
+ * <p/>
+ * <p>Beware that, unlike in most collections, the <tt>size</tt>
+ * method is <em>not</em> a constant-time operation: it counts the bits of
+ * all the segments, and the result may be inaccurate if the set is
+ * modified meanwhile. The bulk operations <tt>addAll</tt>,
+ * <tt>removeAll</tt>, <tt>retainAll</tt>, <tt>containsAll</tt> and
+ * <tt>clear</tt> are <em>not</em> guaranteed to be performed atomically.
+ * <p/>
+ * <p>Adding a negative element throws {@link IllegalArgumentException}.
+ *
+ * @author VISTALL
+ * @date 18:45/18.10.2026
+ * @see BitIntSet
+ * @see CTreeIntSet
+ */
+public class CBitIntSet extends AbstractIntSet implements java.io.Serializable
+{
+	private static final long serialVersionUID = -1507418523390658232L;
+
+	static final int SEGMENT_SHIFT = 16;
+
+	/**
+	 * Count of elements in segment.
+	 */
+	static final int SEGMENT_BITS = 1 << SEGMENT_SHIFT;
+
+	static final int SEGMENT_WORDS = SEGMENT_BITS >> 6;
+
+	/**
+	 * Count of segments to hold all non-negative ints.
+	 */
+	static final int MAX_SEGMENTS = 1 << (31 - SEGMENT_SHIFT);
+
+	/**
+	 * Segments by index, <tt>null</tt> for ranges without elements.
+	 * Replaced by a longer copy under lock, segments are installed under
+	 * the same lock, and are never removed.
+	 */
+	private transient volatile AtomicReferenceArray<AtomicLongArray> segments;
+
+	/**
+	 * Constructs a new, empty set.
+	 */
+	public CBitIntSet()
+	{
+		this(SEGMENT_BITS);
+	}
+
+	/**
+	 * Constructs a new, empty set, which has room for segments of elements
+	 * from <tt>0</tt> to <tt>nbits - 1</tt> without growing.
+	 *
+	 * @param nbits the expected range of elements
+	 * @throws IllegalArgumentException if <tt>nbits</tt> is negative
+	 */
+	public CBitIntSet(int nbits)
+	{
+		if(nbits < 0)
+		{
+			throw new IllegalArgumentException("Illegal Capacity: " + nbits);
+		}
+		segments = new AtomicReferenceArray<AtomicLongArray>(Math.max(((nbits - 1) >> SEGMENT_SHIFT) + 1, 1));
+	}
+
+	/**
+	 * Constructs a new set containing the elements in the specified collection.
+	 *
+	 * @param c the collection whose elements are to be placed into this set
+	 * @throws NullPointerException if the specified collection is null
+	 * @throws IllegalArgumentException if the collection contains a negative element
+	 */
+	public CBitIntSet(IntCollection c)
+	{
+		this();
+		addAll(c);
+	}
+
+	/**
+	 * Returns segment of the element, or <tt>null</tt> if there is none.
+	 */
+	private AtomicLongArray segmentFor(int e)
+	{
+		final AtomicReferenceArray<AtomicLongArray> segments = this.segments;
+		int i = e >>> SEGMENT_SHIFT;
+		return i < segments.length() ? segments.get(i) : null;
+	}
+
+	/**
+	 * Returns segment of the element, allocating it if needed.
+	 */
+	private AtomicLongArray ensureSegmentFor(int e)
+	{
+		AtomicLongArray segment = segmentFor(e);
+		return segment != null ? segment : allocateSegment(e >>> SEGMENT_SHIFT);
+	}
+
+	private synchronized AtomicLongArray allocateSegment(int index)
+	{
+		AtomicReferenceArray<AtomicLongArray> segments = this.segments;
+		if(index >= segments.length())
+		{
+			int length = Math.min(Math.max(segments.length() * 2, index + 1), MAX_SEGMENTS);
+			AtomicReferenceArray<AtomicLongArray> grown = new AtomicReferenceArray<AtomicLongArray>(length);
+			for(int i = 0; i < segments.length(); i++)
+			{
+				grown.set(i, segments.get(i));
+			}
+			this.segments = segments = grown;
+		}
+		AtomicLongArray segment = segments.get(index);
+		if(segment == null)
+		{
+			segment = new AtomicLongArray(SEGMENT_WORDS);
+			segments.set(index, segment);
+		}
+		return segment;
+	}
+
+	private static int wordIndex(int e)
+	{
+		return (e >> 6) & (SEGMENT_WORDS - 1);
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this set contains the specified element.
+	 *
+	 * @param o element whose presence in this set is to be tested
+	 * @return <tt>true</tt> if this set contains the specified element
+	 */
+	@Override
+	public boolean contains(int o)
+	{
+		if(o < 0)
+		{
+			return false;
+		}
+		AtomicLongArray segment = segmentFor(o);
+		return segment != null && (segment.get(wordIndex(o)) & 1L << o) != 0;
+	}
+
+	/**
+	 * Adds the specified element to this set if it is not already present.
+	 *
+	 * @param e element to be added to this set
+	 * @return <tt>true</tt> if this set did not already contain the specified element
+	 * @throws IllegalArgumentException if the element is negative
+	 */
+	@Override
+	public boolean add(int e)
+	{
+		if(e < 0)
+		{
+			throw new IllegalArgumentException("Negative element: " + e);
+		}
+		final AtomicLongArray segment = ensureSegmentFor(e);
+		final int i = wordIndex(e);
+		final long bit = 1L << e;
+		for(; ; )
+		{
+			long word = segment.get(i);
+			if((word & bit) != 0)
+			{
+				return false;
+			}
+			if(segment.compareAndSet(i, word, word | bit))
+			{
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Removes the specified element from this set if it is present.
+	 *
+	 * @param o element to be removed from this set, if present
+	 * @return <tt>true</tt> if the set contained the specified element
+	 */
+	@Override
+	public boolean remove(int o)
+	{
+		if(o < 0)
+		{
+			return false;
+		}
+		final AtomicLongArray segment = segmentFor(o);
+		if(segment == null)
+		{
+			return false;
+		}
+		final int i = wordIndex(o);
+		final long bit = 1L << o;
+		for(; ; )
+		{
+			long word = segment.get(i);
+			if((word & bit) == 0)
+			{
+				return false;
+			}
+			if(segment.compareAndSet(i, word, word & ~bit))
+			{
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Removes all of the elements from this set. The segments stay allocated.
+	 */
+	@Override
+	public void clear()
+	{
+		final AtomicReferenceArray<AtomicLongArray> segments = this.segments;
+		for(int i = 0; i < segments.length(); i++)
+		{
+			AtomicLongArray segment = segments.get(i);
+			if(segment != null)
+			{
+				for(int j = 0; j < SEGMENT_WORDS; j++)
+				{
+					segment.set(j, 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of elements in this set. Beware that this method
+	 * counts the bits of all the segments, and the result may be inaccurate
+	 * if the set is modified meanwhile.
+	 *
+	 * @return the number of elements in this set
+	 */
+	public int size()
+	{
+		final AtomicReferenceArray<AtomicLongArray> segments = this.segments;
+		int count = 0;
+		for(int i = 0; i < segments.length(); i++)
+		{
+			AtomicLongArray segment = segments.get(i);
+			if(segment != null)
+			{
+				for(int j = 0; j < SEGMENT_WORDS; j++)
+				{
+					count += Long.bitCount(segment.get(j));
+				}
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return nextSetBit(0) < 0;
+	}
+
+	@Override
+	public long estimateMemoryBytes()
+	{
+		final AtomicReferenceArray<AtomicLongArray> segments = this.segments;
+		long bytes = MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.shallowSizeOf(segments) + MemoryEstimator.arraySize(segments.length(), MemoryEstimator.REFERENCE_SIZE);
+		for(int i = 0; i < segments.length(); i++)
+		{
+			if(segments.get(i) != null)
+			{
+				bytes += MemoryEstimator.shallowSizeOf(segments.get(i)) + MemoryEstimator.arraySize(SEGMENT_WORDS, 8);
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns the least element greater than or equal to <tt>from</tt>, or
+	 * <tt>-1</tt> if there is no such element.
+	 *
+	 * @param from the element to start from
+	 * @return the next element, or <tt>-1</tt>
+	 * @throws IndexOutOfBoundsException if <tt>from</tt> is negative
+	 */
+	public int nextSetBit(int from)
+	{
+		if(from < 0)
+		{
+			throw new IndexOutOfBoundsException("from < 0: " + from);
+		}
+		final AtomicReferenceArray<AtomicLongArray> segments = this.segments;
+		int s = from >>> SEGMENT_SHIFT;
+		int w = wordIndex(from);
+		long mask = -1L << from;
+		for(; s < segments.length(); s++, w = 0, mask = -1L)
+		{
+			AtomicLongArray segment = segments.get(s);
+			if(segment == null)
+			{
+				continue;
+			}
+			for(; w < SEGMENT_WORDS; w++, mask = -1L)
+			{
+				long word = segment.get(w) & mask;
+				if(word != 0)
+				{
+					return (s << SEGMENT_SHIFT) + (w << 6) + Long.numberOfTrailingZeros(word);
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns an iterator over the elements in this set in ascending order.
+	 * The iterator is weakly consistent.
+	 *
+	 * @return an iterator over the elements in this set in ascending order
+	 */
+	public IntIterator iterator()
+	{
+		return new Itr();
+	}
+
+	@Override
+	public IntSpliterator spliterator()
+	{
+		return new IteratorIntSpliterator(this, IntSpliterator.CONCURRENT | IntSpliterator.DISTINCT | IntSpliterator.ORDERED);
+	}
+
+	@Override
+	public boolean forEach(IntProcedure procedure)
+	{
+		for(int e = nextSetBit(0); e >= 0; e = e == Integer.MAX_VALUE ? -1 : nextSetBit(e + 1))
+		{
+			if(!procedure.execute(e))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Iterator, which finds the next element by bit scan from the last one.
+	 */
+	final class Itr implements IntIterator
+	{
+		private int next = nextSetBit(0);
+		private int lastReturned = -1;
+
+		public boolean hasNext()
+		{
+			return next >= 0;
+		}
+
+		public int next()
+		{
+			int e = next;
+			if(e < 0)
+			{
+				throw new NoSuchElementException();
+			}
+			next = e == Integer.MAX_VALUE ? -1 : nextSetBit(e + 1);
+			lastReturned = e;
+			return e;
+		}
+
+		public void remove()
+		{
+			if(lastReturned < 0)
+			{
+				throw new IllegalStateException();
+			}
+			CBitIntSet.this.remove(lastReturned);
+			lastReturned = -1;
+		}
+	}
+
+	/**
+	 * Save the state of the set to a stream: the count of segment slots,
+	 * and the elements in ascending order, followed by <tt>-1</tt>.
+	 */
+	private void writeObject(ObjectOutputStream s) throws IOException
+	{
+		s.defaultWriteObject();
+
+		s.writeInt(segments.length());
+		for(int e = nextSetBit(0); e >= 0; e = e == Integer.MAX_VALUE ? -1 : nextSetBit(e + 1))
+		{
+			s.writeInt(e);
+		}
+		s.writeInt(-1);
+	}
+
+	/**
+	 * Reconstitute the set from a stream.
+	 */
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException
+	{
+		s.defaultReadObject();
+
+		segments = new AtomicReferenceArray<AtomicLongArray>(s.readInt());
+		for(int e = s.readInt(); e >= 0; e = s.readInt())
+		{
+			add(e);
+		}
+	}
+}
@@ -29,19 +29,20 @@ import java.util.Iterator;
 import java.util.NavigableSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListMap;
-import java.util.concurrent.ConcurrentSkipListSet;
 
 import org.napile.pair.primitive.IntObjectPair;
+import org.napile.primitive.MemoryEstimator;
 import org.napile.primitive.collections.IntCollection;
 import org.napile.primitive.comparators.IntComparator;
+import org.napile.primitive.functions.IntProcedure;
 import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.IntSpliterator;
 import org.napile.primitive.maps.CNavigableIntObjectMap;
 import org.napile.primitive.maps.impl.CTreeIntObjectMap;
 import org.napile.primitive.sets.IntSet;
 import org.napile.primitive.sets.NavigableIntSet;
 import org.napile.primitive.sets.SortedIntSet;
 import org.napile.primitive.sets.abstracts.AbstractIntSet;
-import sun.misc.Unsafe;
 
 /**
  * A scalable concurrent {@link NavigableSet} implementation based on
@@ -89,10 +90,10 @@ public class CTreeIntSet extends AbstractIntSet implements NavigableIntSet, Clon
 {
 	/**
 	 * The underlying map. Uses Boolean.TRUE as value for each
-	 * element.  This field is declared final for the sake of thread
-	 * safety, which entails some ugliness in clone()
+	 * element.  This field is not final only because clone() replaces
+	 * it, before the clone is published to any other thread
 	 */
-	private final CNavigableIntObjectMap<Object> m;
+	private CNavigableIntObjectMap<Object> m;
 
 	/**
 	 * Constructs a new, empty set that orders its elements according to
@@ -167,7 +168,7 @@ public class CTreeIntSet extends AbstractIntSet implements NavigableIntSet, Clon
 		try
 		{
 			clone = (CTreeIntSet) super.clone();
-			clone.setMap(new CTreeIntObjectMap<Object>(m));
+			clone.m = new CTreeIntObjectMap<Object>(m);
 		}
 		catch(CloneNotSupportedException e)
 		{
@@ -210,6 +211,17 @@ public class CTreeIntSet extends AbstractIntSet implements NavigableIntSet, Clon
 		return m.isEmpty();
 	}
 
+	/**
+	 * Returns an estimate of heap size, retained by this set: the set object
+	 * and its backing map. Sets which are views of a sub map count only the view.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this) + m.estimateMemoryBytes();
+	}
+
 	/**
 	 * Returns <tt>true</tt> if this set contains the specified element.
 	 * More formally, returns <tt>true</tt> if and only if this set
@@ -282,6 +294,30 @@ public class CTreeIntSet extends AbstractIntSet implements NavigableIntSet, Clon
 		return m.navigableKeySet().iterator();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Elements are visited by {@link CNavigableIntObjectMap#forEachKey} of the backing map,
+	 * so the walk over a {@link CTreeIntObjectMap} creates no entries. Like iterators of this
+	 * set, it is weakly consistent.
+	 */
+	@Override
+	public boolean forEach(IntProcedure procedure)
+	{
+		return m.forEachKey(procedure);
+	}
+
+	/**
+	 * Returns a spliterator over the elements in this set in ascending order.
+	 *
+	 * @return a spliterator over the elements in this set
+	 */
+	@Override
+	public IntSpliterator spliterator()
+	{
+		return m.navigableKeySet().spliterator();
+	}
+
 	/**
 	 * Returns an iterator over the elements in this set in descending order.
 	 *
@@ -515,25 +551,4 @@ public class CTreeIntSet extends AbstractIntSet implements NavigableIntSet, Clon
 	{
 		return new CTreeIntSet(m.descendingMap());
 	}
-
-	// Support for resetting map in clone
-	private static final Unsafe unsafe = Unsafe.getUnsafe();
-	private static final long mapOffset;
-
-	static
-	{
-		try
-		{
-			mapOffset = unsafe.objectFieldOffset(ConcurrentSkipListSet.class.getDeclaredField("m"));
-		}
-		catch(Exception ex)
-		{
-			throw new Error(ex);
-		}
-	}
-
-	private void setMap(CNavigableIntObjectMap<Object> map)
-	{
-		unsafe.putObjectVolatile(this, mapOffset, map);
-	}
 }
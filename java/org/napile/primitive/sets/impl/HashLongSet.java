@@ -24,30 +24,37 @@
  */
 package org.napile.primitive.sets.impl;
 
-import org.napile.primitive.collections.IntCollection;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+import org.napile.HashUtils;
+import org.napile.primitive.MemoryEstimator;
 import org.napile.primitive.collections.LongCollection;
+import org.napile.primitive.functions.LongProcedure;
 import org.napile.primitive.iterators.LongIterator;
-import org.napile.primitive.maps.impl.HashIntObjectMap;
-import org.napile.primitive.maps.impl.HashLongObjectMap;
-import org.napile.primitive.sets.IntSet;
+import org.napile.primitive.iterators.LongSpliterator;
+import org.napile.primitive.lists.impl.ArrayLongList;
+import org.napile.primitive.maps.impl.OpenHashLongObjectMap;
 import org.napile.primitive.sets.LongSet;
 import org.napile.primitive.sets.abstracts.AbstractLongSet;
 
 /**
- * This class implements the <tt>Set</tt> interface, backed by a hash table
- * (actually a <tt>HashMap</tt> instance).  It makes no guarantees as to the
+ * This class implements the <tt>Set</tt> interface, backed by an open addressing
+ * hash table of <tt>long</tt>s (the same table as in {@link OpenHashLongObjectMap}, without values).
+ * Element <tt>0</tt> is used as free slot marker, and stored separately.  So the set does not create any
+ * object per element, and membership test is a probe of single array.
+ * It makes no guarantees as to the
  * iteration order of the set; in particular, it does not guarantee that the
- * order will remain constant over time.  This class permits the <tt>null</tt>
- * element.
+ * order will remain constant over time.
  * <p/>
  * <p>This class offers constant time performance for the basic operations
  * (<tt>add</tt>, <tt>remove</tt>, <tt>contains</tt> and <tt>size</tt>),
  * assuming the hash function disperses the elements properly among the
- * buckets.  Iterating over this set requires time proportional to the sum of
- * the <tt>HashSet</tt> instance's size (the number of elements) plus the
- * "capacity" of the backing <tt>HashMap</tt> instance (the number of
- * buckets).  Thus, it's very important not to set the initial capacity too
+ * buckets.  Iterating over this set requires time proportional to the
+ * "capacity" of the table.  Thus, it's very important not to set the initial capacity too
  * high (or the load factor too low) if iteration performance is important.
+ * Load factor must be less than <tt>1</tt>, because table always contains free slots.
  * <p/>
  * <p><strong>Note that this implementation is not synchronized.</strong>
  * If multiple threads access a hash set concurrently, and at least one of
@@ -55,12 +62,6 @@ import org.napile.primitive.sets.abstracts.AbstractLongSet;
  * This is typically accomplished by synchronizing on some object that
  * naturally encapsulates the set.
  * <p/>
- * If no such object exists, the set should be "wrapped" using the
- * {@link Collections#synchronizedSet Collections.synchronizedSet}
- * method.  This is best done at creation time, to prevent accidental
- * unsynchronized access to the set:<pre>
- *   Set s = Collections.synchronizedSet(new HashSet(...));</pre>
- * <p/>
  * <p>The iterators returned by this class's <tt>iterator</tt> method are
  * <i>fail-fast</i>: if the set is modified at any time after the iterator is
  * created, in any way except through the iterator's own <tt>remove</tt>
@@ -84,31 +85,58 @@ import org.napile.primitive.sets.abstracts.AbstractLongSet;
  * @author Josh Bloch
  * @author Neal Gafter
  * @version %I%, %G%
- * @see	 IntCollection
- * @see	 IntSet
- * @see	 TreeIntSet
- * @see	 HashIntObjectMap
+ * @see	 LongCollection
+ * @see	 LongSet
+ *  * @see	 OpenHashLongObjectMap
  * @since 1.2
  */
 public class HashLongSet extends AbstractLongSet implements LongSet, Cloneable, java.io.Serializable
 {
-	private transient HashLongObjectMap<Object> map;
+	static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+	static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+	/**
+	 * The greatest load factor of the table. Greater ones are reduced to it,
+	 * since one slot must always stay free and probe sequences grow quickly
+	 * in a nearly full table.
+	 */
+	static final float MAX_LOAD_FACTOR = 0.9f;
+
+	/**
+	 * The elements, <tt>0</tt> - is free slot
+	 */
+	private transient long[] table;
 
-	// Dummy value to associate with an Object in the backing Map
-	private static final Object PRESENT = new Object();
+	/**
+	 * Table size, always power of two
+	 */
+	private transient int n;
+
+	private transient int mask;
+
+	private transient boolean containsZero;
+
+	private transient int size;
+
+	private transient int maxFill;
+
+	private transient float loadFactor;
+
+	private transient int modCount;
 
 	/**
-	 * Constructs a new, empty set; the backing <tt>HashMap</tt> instance has
+	 * Constructs a new, empty set; the backing table has
 	 * default initial capacity (16) and load factor (0.75).
 	 */
 	public HashLongSet()
 	{
-		map = new HashLongObjectMap<Object>();
+		this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
 	}
 
 	/**
 	 * Constructs a new set containing the elements in the specified
-	 * collection.  The <tt>HashMap</tt> is created with default load factor
+	 * collection.  The table is created with default load factor
 	 * (0.75) and an initial capacity sufficient to contain the elements in
 	 * the specified collection.
 	 *
@@ -117,35 +145,112 @@ public class HashLongSet extends AbstractLongSet implements LongSet, Cloneable,
 	 */
 	public HashLongSet(LongCollection c)
 	{
-		map = new HashLongObjectMap<Object>(Math.max((int) (c.size() / .75f) + 1, 16));
+		this(Math.max(c.size(), DEFAULT_INITIAL_CAPACITY), DEFAULT_LOAD_FACTOR);
 		addAll(c);
 	}
 
 	/**
-	 * Constructs a new, empty set; the backing <tt>HashMap</tt> instance has
+	 * Constructs a new, empty set; the backing table has
 	 * the specified initial capacity and the specified load factor.
+	 * A load factor greater than {@value #MAX_LOAD_FACTOR} is reduced to it.
 	 *
-	 * @param initialCapacity the initial capacity of the hash map
-	 * @param loadFactor	  the load factor of the hash map
+	 * @param initialCapacity the expected count of elements
+	 * @param loadFactor	  the load factor of the table
 	 * @throws IllegalArgumentException if the initial capacity is less
 	 *                                  than zero, or if the load factor is nonpositive
 	 */
 	public HashLongSet(int initialCapacity, float loadFactor)
 	{
-		map = new HashLongObjectMap<Object>(initialCapacity, loadFactor);
+		if(initialCapacity < 0)
+		{
+			throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+		}
+		if(loadFactor <= 0 || Float.isNaN(loadFactor))
+		{
+			throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+		}
+
+		this.loadFactor = Math.min(loadFactor, MAX_LOAD_FACTOR);
+		allocate(HashUtils.arraySize(initialCapacity, this.loadFactor));
 	}
 
 	/**
-	 * Constructs a new, empty set; the backing <tt>HashMap</tt> instance has
+	 * Constructs a new, empty set; the backing table has
 	 * the specified initial capacity and default load factor (0.75).
 	 *
-	 * @param initialCapacity the initial capacity of the hash table
+	 * @param initialCapacity the expected count of elements
 	 * @throws IllegalArgumentException if the initial capacity is less
 	 *                                  than zero
 	 */
 	public HashLongSet(int initialCapacity)
 	{
-		map = new HashLongObjectMap<Object>(initialCapacity);
+		this(initialCapacity, DEFAULT_LOAD_FACTOR);
+	}
+
+	private void allocate(int capacity)
+	{
+		n = capacity;
+		mask = capacity - 1;
+		maxFill = HashUtils.maxFill(capacity, loadFactor);
+		table = new long[capacity];
+	}
+
+	private void rehash(int newN)
+	{
+		final long[] oldTable = table;
+		final int newMask = newN - 1;
+		final long[] newTable = new long[newN];
+
+		for(int i = 0; i < n; i++)
+		{
+			long k = oldTable[i];
+			if(k == 0)
+			{
+				continue;
+			}
+
+			int pos = HashUtils.mix(k) & newMask;
+			while(newTable[pos] != 0)
+			{
+				pos = (pos + 1) & newMask;
+			}
+			newTable[pos] = k;
+		}
+
+		n = newN;
+		mask = newMask;
+		maxFill = HashUtils.maxFill(newN, loadFactor);
+		table = newTable;
+	}
+
+	/**
+	 * Shifts left elements of probe sequence, starting at the specified position,
+	 * and empties the resulting free slot.
+	 */
+	private void shiftKeys(int pos)
+	{
+		final long[] table = this.table;
+		int last, slot;
+		long k;
+		for(; ;)
+		{
+			pos = ((last = pos) + 1) & mask;
+			for(; ;)
+			{
+				if((k = table[pos]) == 0)
+				{
+					table[last] = 0;
+					return;
+				}
+				slot = HashUtils.mix(k) & mask;
+				if(last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos)
+				{
+					break;
+				}
+				pos = (pos + 1) & mask;
+			}
+			table[last] = k;
+		}
 	}
 
 	/**
@@ -157,7 +262,7 @@ public class HashLongSet extends AbstractLongSet implements LongSet, Cloneable,
 	 */
 	public LongIterator iterator()
 	{
-		return map.keySet().iterator();
+		return new HashIterator();
 	}
 
 	/**
@@ -167,7 +272,7 @@ public class HashLongSet extends AbstractLongSet implements LongSet, Cloneable,
 	 */
 	public int size()
 	{
-		return map.size();
+		return size;
 	}
 
 	/**
@@ -177,28 +282,49 @@ public class HashLongSet extends AbstractLongSet implements LongSet, Cloneable,
 	 */
 	public boolean isEmpty()
 	{
-		return map.isEmpty();
+		return size == 0;
+	}
+
+	/**
+	 * Returns an estimate of heap size, retained by this set: the set object
+	 * and its table.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.sizeOf(table);
 	}
 
 	/**
 	 * Returns <tt>true</tt> if this set contains the specified element.
-	 * More formally, returns <tt>true</tt> if and only if this set
-	 * contains an element <tt>e</tt> such that
-	 * <tt>(o==null&nbsp;?&nbsp;e==null&nbsp;:&nbsp;o.equals(e))</tt>.
 	 *
 	 * @param o element whose presence in this set is to be tested
 	 * @return <tt>true</tt> if this set contains the specified element
 	 */
 	public boolean contains(long o)
 	{
-		return map.containsKey(o);
+		if(o == 0)
+		{
+			return containsZero;
+		}
+
+		final long[] table = this.table;
+		int pos = HashUtils.mix(o) & mask;
+		long k;
+		while((k = table[pos]) != 0)
+		{
+			if(k == o)
+			{
+				return true;
+			}
+			pos = (pos + 1) & mask;
+		}
+		return false;
 	}
 
 	/**
 	 * Adds the specified element to this set if it is not already present.
-	 * More formally, adds the specified element <tt>e</tt> to this set if
-	 * this set contains no element <tt>e2</tt> such that
-	 * <tt>(e==null&nbsp;?&nbsp;e2==null&nbsp;:&nbsp;e.equals(e2))</tt>.
 	 * If this set already contains the element, the call leaves the set
 	 * unchanged and returns <tt>false</tt>.
 	 *
@@ -208,14 +334,41 @@ public class HashLongSet extends AbstractLongSet implements LongSet, Cloneable,
 	 */
 	public boolean add(long e)
 	{
-		return map.put(e, PRESENT) == null;
+		if(e == 0)
+		{
+			if(containsZero)
+			{
+				return false;
+			}
+			containsZero = true;
+		}
+		else
+		{
+			final long[] table = this.table;
+			int pos = HashUtils.mix(e) & mask;
+			long k;
+			while((k = table[pos]) != 0)
+			{
+				if(k == e)
+				{
+					return false;
+				}
+				pos = (pos + 1) & mask;
+			}
+			table[pos] = e;
+		}
+
+		modCount++;
+		if(size++ >= maxFill)
+		{
+			rehash(HashUtils.arraySize(size + 1, loadFactor));
+		}
+		return true;
 	}
 
 	/**
 	 * Removes the specified element from this set if it is present.
-	 * More formally, removes an element <tt>e</tt> such that
-	 * <tt>(o==null&nbsp;?&nbsp;e==null&nbsp;:&nbsp;o.equals(e))</tt>,
-	 * if this set contains such an element.  Returns <tt>true</tt> if
+	 * Returns <tt>true</tt> if
 	 * this set contained the element (or equivalently, if this set
 	 * changed as a result of the call).  (This set will not contain the
 	 * element once the call returns.)
@@ -225,7 +378,37 @@ public class HashLongSet extends AbstractLongSet implements LongSet, Cloneable,
 	 */
 	public boolean remove(long o)
 	{
-		return map.remove(o) == PRESENT;
+		if(o == 0)
+		{
+			if(!containsZero)
+			{
+				return false;
+			}
+			containsZero = false;
+		}
+		else
+		{
+			final long[] table = this.table;
+			int pos = HashUtils.mix(o) & mask;
+			long k;
+			while(true)
+			{
+				if((k = table[pos]) == 0)
+				{
+					return false;
+				}
+				if(k == o)
+				{
+					break;
+				}
+				pos = (pos + 1) & mask;
+			}
+			shiftKeys(pos);
+		}
+
+		modCount++;
+		size--;
+		return true;
 	}
 
 	/**
@@ -234,7 +417,59 @@ public class HashLongSet extends AbstractLongSet implements LongSet, Cloneable,
 	 */
 	public void clear()
 	{
-		map.clear();
+		if(size == 0)
+		{
+			return;
+		}
+
+		modCount++;
+		size = 0;
+		containsZero = false;
+		Arrays.fill(table, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws ConcurrentModificationException if the set was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEach(LongProcedure procedure)
+	{
+		final int expectedModCount = modCount;
+		final long[] table = this.table;
+		final int n = this.n;
+		boolean result = true;
+		if(containsZero)
+		{
+			result = procedure.execute(0);
+		}
+		for(int i = n - 1; result && i >= 0; i--)
+		{
+			long k = table[i];
+			if(k != 0)
+			{
+				result = procedure.execute(k);
+			}
+		}
+		if(modCount != expectedModCount)
+		{
+			throw new ConcurrentModificationException();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a late-binding and fail-fast spliterator over the elements in
+	 * this set, which splits the table in halves and reports <tt>DISTINCT</tt>,
+	 * and <tt>SIZED</tt> until it is split.
+	 *
+	 * @return a spliterator over the elements in this set
+	 */
+	@Override
+	public LongSpliterator spliterator()
+	{
+		return new TableSpliterator(null, 0, -1, false, 0, 0);
 	}
 
 	/**
@@ -248,7 +483,8 @@ public class HashLongSet extends AbstractLongSet implements LongSet, Cloneable,
 		try
 		{
 			HashLongSet newSet = (HashLongSet) super.clone();
-			newSet.map = (HashLongObjectMap<Object>) map.clone();
+			newSet.table = table.clone();
+			newSet.modCount = 0;
 			return newSet;
 		}
 		catch(CloneNotSupportedException e)
@@ -257,14 +493,274 @@ public class HashLongSet extends AbstractLongSet implements LongSet, Cloneable,
 		}
 	}
 
+	public int capacity()
+	{
+		return n;
+	}
+
+	public float loadFactor()
+	{
+		return loadFactor;
+	}
+
+	/**
+	 * Spliterator over a range of table slots; the element <tt>0</tt>, which is not
+	 * kept in the table, goes to the first part. The table is bound at first use.
+	 */
+	private final class TableSpliterator implements LongSpliterator
+	{
+		private long[] table;
+		private int index;
+		/**
+		 * One past last slot, -1 until first use
+		 */
+		private int fence;
+		private boolean zero;
+		private int est;
+		private int expectedModCount;
+
+		TableSpliterator(long[] table, int origin, int fence, boolean zero, int est, int expectedModCount)
+		{
+			this.table = table;
+			this.index = origin;
+			this.fence = fence;
+			this.zero = zero;
+			this.est = est;
+			this.expectedModCount = expectedModCount;
+		}
+
+		private int getFence()
+		{
+			int hi = fence;
+			if(hi < 0)
+			{
+				table = HashLongSet.this.table;
+				zero = containsZero;
+				est = size;
+				expectedModCount = modCount;
+				hi = fence = n;
+			}
+			return hi;
+		}
+
+		public boolean tryAdvance(LongProcedure procedure)
+		{
+			final int hi = getFence();
+			if(zero)
+			{
+				zero = false;
+				procedure.execute(0);
+				checkForComodification();
+				return true;
+			}
+			final long[] table = this.table;
+			while(index < hi)
+			{
+				long k = table[index++];
+				if(k != 0)
+				{
+					procedure.execute(k);
+					checkForComodification();
+					return true;
+				}
+			}
+			return false;
+		}
+
+		public boolean forEachRemaining(LongProcedure procedure)
+		{
+			final int hi = getFence();
+			final long[] table = this.table;
+			boolean result = true;
+			if(zero)
+			{
+				zero = false;
+				result = procedure.execute(0);
+			}
+			int i = index;
+			for(; result && i < hi; i++)
+			{
+				long k = table[i];
+				if(k != 0)
+				{
+					result = procedure.execute(k);
+				}
+			}
+			index = i;
+			checkForComodification();
+			return result;
+		}
+
+		public LongSpliterator trySplit()
+		{
+			int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+			if(lo >= mid)
+			{
+				return null;
+			}
+			TableSpliterator prefix = new TableSpliterator(table, lo, index = mid, zero, est >>>= 1, expectedModCount);
+			zero = false;
+			return prefix;
+		}
+
+		public long estimateSize()
+		{
+			getFence();
+			return est;
+		}
+
+		public int characteristics()
+		{
+			return (fence < 0 || est == size ? SIZED : 0) | DISTINCT;
+		}
+
+		private void checkForComodification()
+		{
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	/**
+	 * Slots are visited from the end of table to the start; elements which removal moves
+	 * from the start of table to the visited part are saved to separate list.
+	 * See {@link OpenHashLongObjectMap} iterators
+	 */
+	private final class HashIterator implements LongIterator
+	{
+		/**
+		 * Next slot to check, if less that zero - index in wrapped list
+		 */
+		int pos = n;
+		/**
+		 * Last returned slot, -1 if not present
+		 */
+		int last = -1;
+		long lastValue;
+		int c = size;
+		boolean mustReturnZero = containsZero;
+		ArrayLongList wrapped;
+		int expectedModCount = modCount;
+
+		public boolean hasNext()
+		{
+			return c != 0;
+		}
+
+		public long next()
+		{
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			if(c == 0)
+			{
+				throw new NoSuchElementException();
+			}
+
+			c--;
+			if(mustReturnZero)
+			{
+				mustReturnZero = false;
+				last = n;
+				return lastValue = 0;
+			}
+
+			final long[] table = HashLongSet.this.table;
+			for(; ;)
+			{
+				if(--pos < 0)
+				{
+					last = Integer.MIN_VALUE;
+					return lastValue = wrapped.get(-pos - 1);
+				}
+				if(table[pos] != 0)
+				{
+					last = pos;
+					return lastValue = table[pos];
+				}
+			}
+		}
+
+		private void shiftKeys(int pos)
+		{
+			final long[] table = HashLongSet.this.table;
+			int last, slot;
+		long k;
+			for(; ;)
+			{
+				pos = ((last = pos) + 1) & mask;
+				for(; ;)
+				{
+					if((k = table[pos]) == 0)
+					{
+						table[last] = 0;
+						return;
+					}
+					slot = HashUtils.mix(k) & mask;
+					if(last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos)
+					{
+						break;
+					}
+					pos = (pos + 1) & mask;
+				}
+				if(pos < last)
+				{
+					if(wrapped == null)
+					{
+						wrapped = new ArrayLongList(2);
+					}
+					wrapped.add(k);
+				}
+				table[last] = k;
+			}
+		}
+
+		public void remove()
+		{
+			if(last == -1)
+			{
+				throw new IllegalStateException();
+			}
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+
+			if(last == n)
+			{
+				containsZero = false;
+			}
+			else if(pos >= 0)
+			{
+				shiftKeys(last);
+			}
+			else
+			{
+				// element from wrapped list, position of it is not related to iteration
+				HashLongSet.this.remove(lastValue);
+				expectedModCount = modCount;
+				last = -1;
+				return;
+			}
+
+			size--;
+			modCount++;
+			expectedModCount = modCount;
+			last = -1;
+		}
+	}
+
 	/**
 	 * Save the state of this <tt>HashSet</tt> instance to a stream (that is,
 	 * serialize it).
 	 *
-	 * @serialData The capacity of the backing <tt>HashMap</tt> instance
+	 * @serialData The capacity of the backing table
 	 * (int), and its load factor (float) are emitted, followed by
 	 * the size of the set (the number of elements it contains)
-	 * (int), followed by all of its elements (each an Object) in
+	 * (int), followed by all of its elements (each a long) in
 	 * no particular order.
 	 */
 	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException
@@ -272,17 +768,24 @@ public class HashLongSet extends AbstractLongSet implements LongSet, Cloneable,
 		// Write out any hidden serialization magic
 		s.defaultWriteObject();
 
-		// Write out HashMap capacity and load factor
-		s.writeInt(map.capacity());
-		s.writeFloat(map.loadFactor());
+		// Write out capacity and load factor
+		s.writeInt(n);
+		s.writeFloat(loadFactor);
 
 		// Write out size
-		s.writeInt(map.size());
+		s.writeInt(size);
 
-		// Write out all elements in the proper order.
-		for(LongIterator i = map.keySet().iterator(); i.hasNext();)
+		// Write out all elements
+		if(containsZero)
+		{
+			s.writeLong(0);
+		}
+		for(int i = 0; i < n; i++)
 		{
-			s.writeLong(i.next());
+			if(table[i] != 0)
+			{
+				s.writeLong(table[i]);
+			}
 		}
 	}
 
@@ -295,20 +798,20 @@ public class HashLongSet extends AbstractLongSet implements LongSet, Cloneable,
 		// Read in any hidden serialization magic
 		s.defaultReadObject();
 
-		// Read in HashMap capacity and load factor and create backing HashMap
-		int capacity = s.readInt();
-		float loadFactor = s.readFloat();
-		//map = (((HashIntSet) this) instanceof LinkedHashSet ? new LinkedHashMap<E, Object>(capacity, loadFactor) : new HashMap<E, Object>(capacity, loadFactor));
-		map = new HashLongObjectMap<Object>(capacity, loadFactor);
+		// Read in capacity and load factor and create backing table
+		s.readInt();
+		loadFactor = s.readFloat();
 
 		// Read in size
 		int size = s.readInt();
 
-		// Read in all elements in the proper order.
+		allocate(HashUtils.arraySize(size, loadFactor));
+
+		// Read in all elements
 		for(int i = 0; i < size; i++)
 		{
-			long e = s.readLong();
-			map.put(e, PRESENT);
+			add(s.readLong());
 		}
+		modCount = 0;
 	}
 }
@@ -0,0 +1,1671 @@
+/*
+ * Primitive Collection Framework for Java
+ * Copyright (C) 2011 napile.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.napile.primitive.sets.impl;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+
+import org.napile.primitive.MemoryEstimator;
+import org.napile.primitive.collections.IntCollection;
+import org.napile.primitive.functions.IntProcedure;
+import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.sets.NavigableIntSet;
+import org.napile.primitive.sets.abstracts.AbstractBitmapIntSet;
+
+/**
+ * A compressed {@link NavigableIntSet} in the manner of Roaring bitmaps.
+ * Elements are grouped by their high 16 bits into chunks, and every chunk
+ * keeps the low 16 bits of its elements in one of three forms:
+ * <ul>
+ * <li>a sorted <tt>char[]</tt> array, while the chunk holds at most {@value #ARRAY_MAX} elements;</li>
+ * <li>a bitmap of 65536 bits (8 KB) for denser chunks;</li>
+ * <li>a list of runs of consecutive values, chosen by {@link #runOptimize()} where it is smaller.</li>
+ * </ul>
+ * A sparse set thus takes about 2 bytes per element and a dense one down
+ * to 1 bit per element, against 4-8 bytes per element (and per free slot)
+ * of the {@link HashIntSet} table.
+ * <p/>
+ * <p>The elements are kept in natural order. <tt>contains</tt>, <tt>add</tt>
+ * and <tt>remove</tt> take log time of the count of chunks plus constant
+ * (bitmap) or log (array, runs) time within chunk. {@link #addAll},
+ * {@link #retainAll} and {@link #removeAll} with another
+ * <tt>RoaringIntSet</tt> combine matching chunks, bitmaps 64 elements per
+ * word operation, without visiting the elements one by one.
+ * <p/>
+ * <p>Methods which return an element (like {@link #ceiling(int)}) throw
+ * {@link NoSuchElementException} if there is no such element.
+ * <p/>
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access a set concurrently, and at least one of the
+ * threads modifies the set, it <i>must</i> be synchronized externally.
+ * <p/>
+ * <p>The iterators returned by this class's <tt>iterator</tt> method are
+ * <i>fail-fast</i>: if the set is modified at any time after the iterator is
+ * created, in any way except through the iterator's own <tt>remove</tt>
+ * method, the iterator will throw a {@link ConcurrentModificationException}.
+ *
+ * @author VISTALL
+ * @date 17:05/18.10.2026
+ * @see HashIntSet
+ * @see TreeIntSet
+ */
+public class RoaringIntSet extends AbstractBitmapIntSet implements Cloneable, java.io.Serializable
+{
+	private static final long serialVersionUID = -6424860227893106153L;
+
+	/**
+	 * Max count of elements in array chunk; an array of that size takes as much memory as a bitmap.
+	 */
+	static final int ARRAY_MAX = 4096;
+
+	/**
+	 * Count of <tt>long</tt> words in bitmap chunk.
+	 */
+	static final int BITMAP_WORDS = 1024;
+
+	/**
+	 * Size of bitmap chunk data, in bytes.
+	 */
+	static final int BITMAP_BYTES = BITMAP_WORDS * 8;
+
+	// chunk kinds in serialized form
+	private static final byte ARRAY = 0;
+	private static final byte BITMAP = 1;
+	private static final byte RUN = 2;
+
+	/**
+	 * High 16 bits of elements of each chunk, with flipped sign bit, so that
+	 * the order of keys is the (signed) order of elements.
+	 */
+	private transient char[] keys;
+
+	private transient Chunk[] chunks;
+
+	private transient int chunkCount;
+
+	private transient int size;
+
+	private transient int modCount;
+
+	/**
+	 * Constructs a new, empty set.
+	 */
+	public RoaringIntSet()
+	{
+		keys = new char[4];
+		chunks = new Chunk[4];
+	}
+
+	/**
+	 * Constructs a new set containing the elements in the specified collection.
+	 *
+	 * @param c the collection whose elements are to be placed into this set
+	 * @throws NullPointerException if the specified collection is null
+	 */
+	public RoaringIntSet(IntCollection c)
+	{
+		this();
+		addAll(c);
+	}
+
+	static int highOf(int e)
+	{
+		return (e >>> 16) ^ 0x8000;
+	}
+
+	static int lowOf(int e)
+	{
+		return e & 0xFFFF;
+	}
+
+	static int join(int high, int low)
+	{
+		return (high ^ 0x8000) << 16 | low;
+	}
+
+	/**
+	 * Returns index of chunk with the given key, or <tt>-(insertion point + 1)</tt>.
+	 */
+	private int chunkIndex(int high)
+	{
+		final char[] keys = this.keys;
+		int lo = 0;
+		int hi = chunkCount - 1;
+		while(lo <= hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			int k = keys[mid];
+			if(k < high)
+			{
+				lo = mid + 1;
+			}
+			else if(k > high)
+			{
+				hi = mid - 1;
+			}
+			else
+			{
+				return mid;
+			}
+		}
+		return -(lo + 1);
+	}
+
+	private void insertChunk(int i, int high, Chunk chunk)
+	{
+		if(chunkCount == keys.length)
+		{
+			int length = chunkCount + (chunkCount >> 1) + 1;
+			keys = Arrays.copyOf(keys, length);
+			chunks = Arrays.copyOf(chunks, length);
+		}
+		System.arraycopy(keys, i, keys, i + 1, chunkCount - i);
+		System.arraycopy(chunks, i, chunks, i + 1, chunkCount - i);
+		keys[i] = (char) high;
+		chunks[i] = chunk;
+		chunkCount++;
+	}
+
+	private void removeChunk(int i)
+	{
+		int moved = chunkCount - i - 1;
+		System.arraycopy(keys, i + 1, keys, i, moved);
+		System.arraycopy(chunks, i + 1, chunks, i, moved);
+		chunks[--chunkCount] = null;
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	@Override
+	public long estimateMemoryBytes()
+	{
+		long bytes = MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.sizeOf(keys) + MemoryEstimator.sizeOf(chunks);
+		for(int i = 0; i < chunkCount; i++)
+		{
+			bytes += chunks[i].estimateMemoryBytes();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this set contains the specified element.
+	 *
+	 * @param o element whose presence in this set is to be tested
+	 * @return <tt>true</tt> if this set contains the specified element
+	 */
+	@Override
+	public boolean contains(int o)
+	{
+		int i = chunkIndex(highOf(o));
+		return i >= 0 && chunks[i].contains(lowOf(o));
+	}
+
+	/**
+	 * Adds the specified element to this set if it is not already present.
+	 *
+	 * @param e element to be added to this set
+	 * @return <tt>true</tt> if this set did not already contain the specified element
+	 */
+	@Override
+	public boolean add(int e)
+	{
+		final int high = highOf(e);
+		final int low = lowOf(e);
+		int i = chunkIndex(high);
+		if(i >= 0)
+		{
+			Chunk chunk = chunks[i];
+			if(chunk.contains(low))
+			{
+				return false;
+			}
+			chunks[i] = chunk.add(low);
+		}
+		else
+		{
+			insertChunk(-(i + 1), high, new ArrayChunk(low));
+		}
+		size++;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Removes the specified element from this set if it is present.
+	 *
+	 * @param o element to be removed from this set, if present
+	 * @return <tt>true</tt> if the set contained the specified element
+	 */
+	@Override
+	public boolean remove(int o)
+	{
+		int i = chunkIndex(highOf(o));
+		if(i < 0)
+		{
+			return false;
+		}
+		Chunk chunk = chunks[i];
+		int low = lowOf(o);
+		if(!chunk.contains(low))
+		{
+			return false;
+		}
+		if(chunk.cardinality() == 1)
+		{
+			removeChunk(i);
+		}
+		else
+		{
+			chunks[i] = chunk.remove(low);
+		}
+		size--;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Removes all of the elements from this set.
+	 */
+	@Override
+	public void clear()
+	{
+		keys = new char[4];
+		chunks = new Chunk[4];
+		chunkCount = 0;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Adds all of the elements in the specified collection to this set.
+	 * If the collection is a <tt>RoaringIntSet</tt>, matching chunks are
+	 * merged, and the other chunks are copied.
+	 *
+	 * @param c collection containing elements to be added to this set
+	 * @return <tt>true</tt> if this set changed as a result of the call
+	 * @throws NullPointerException if the specified collection is null
+	 */
+	@Override
+	public boolean addAll(IntCollection c)
+	{
+		if(!(c instanceof RoaringIntSet))
+		{
+			return super.addAll(c);
+		}
+		final RoaringIntSet o = (RoaringIntSet) c;
+		if(o == this || o.chunkCount == 0)
+		{
+			return false;
+		}
+		char[] newKeys = new char[chunkCount + o.chunkCount];
+		Chunk[] newChunks = new Chunk[newKeys.length];
+		int i = 0, j = 0, n = 0, newSize = 0;
+		while(i < chunkCount || j < o.chunkCount)
+		{
+			int a = i < chunkCount ? keys[i] : Integer.MAX_VALUE;
+			int b = j < o.chunkCount ? o.keys[j] : Integer.MAX_VALUE;
+			Chunk chunk;
+			if(a < b)
+			{
+				chunk = chunks[i++];
+			}
+			else if(a > b)
+			{
+				chunk = o.chunks[j++].copy();
+			}
+			else
+			{
+				chunk = chunks[i++].or(o.chunks[j++]);
+			}
+			newKeys[n] = (char) Math.min(a, b);
+			newChunks[n++] = chunk;
+			newSize += chunk.cardinality();
+		}
+		return replaceChunks(newKeys, newChunks, n, newSize);
+	}
+
+	/**
+	 * Retains only the elements in this set that are contained in the
+	 * specified collection. If the collection is a <tt>RoaringIntSet</tt>,
+	 * matching chunks are intersected, and the other chunks are dropped.
+	 *
+	 * @param c collection containing elements to be retained in this set
+	 * @return <tt>true</tt> if this set changed as a result of the call
+	 * @throws NullPointerException if the specified collection is null
+	 */
+	@Override
+	public boolean retainAll(IntCollection c)
+	{
+		if(!(c instanceof RoaringIntSet))
+		{
+			return super.retainAll(c);
+		}
+		final RoaringIntSet o = (RoaringIntSet) c;
+		if(o == this)
+		{
+			return false;
+		}
+		char[] newKeys = new char[Math.max(Math.min(chunkCount, o.chunkCount), 4)];
+		Chunk[] newChunks = new Chunk[newKeys.length];
+		int i = 0, j = 0, n = 0, newSize = 0;
+		while(i < chunkCount && j < o.chunkCount)
+		{
+			int a = keys[i];
+			int b = o.keys[j];
+			if(a < b)
+			{
+				i++;
+			}
+			else if(a > b)
+			{
+				j++;
+			}
+			else
+			{
+				Chunk chunk = chunks[i++].and(o.chunks[j++]);
+				if(chunk != null)
+				{
+					newKeys[n] = (char) a;
+					newChunks[n++] = chunk;
+					newSize += chunk.cardinality();
+				}
+			}
+		}
+		return replaceChunks(newKeys, newChunks, n, newSize);
+	}
+
+	/**
+	 * Removes from this set all of its elements that are contained in the
+	 * specified collection. If the collection is a <tt>RoaringIntSet</tt>,
+	 * matching chunks are subtracted, and the other chunks are kept.
+	 *
+	 * @param c collection containing elements to be removed from this set
+	 * @return <tt>true</tt> if this set changed as a result of the call
+	 * @throws NullPointerException if the specified collection is null
+	 */
+	@Override
+	public boolean removeAll(IntCollection c)
+	{
+		if(!(c instanceof RoaringIntSet))
+		{
+			return super.removeAll(c);
+		}
+		final RoaringIntSet o = (RoaringIntSet) c;
+		if(o == this)
+		{
+			boolean changed = size != 0;
+			clear();
+			return changed;
+		}
+		char[] newKeys = new char[Math.max(chunkCount, 4)];
+		Chunk[] newChunks = new Chunk[newKeys.length];
+		int i = 0, j = 0, n = 0, newSize = 0;
+		while(i < chunkCount)
+		{
+			int a = keys[i];
+			while(j < o.chunkCount && o.keys[j] < a)
+			{
+				j++;
+			}
+			Chunk chunk = chunks[i++];
+			if(j < o.chunkCount && o.keys[j] == a)
+			{
+				chunk = chunk.andNot(o.chunks[j++]);
+			}
+			if(chunk != null)
+			{
+				newKeys[n] = (char) a;
+				newChunks[n++] = chunk;
+				newSize += chunk.cardinality();
+			}
+		}
+		return replaceChunks(newKeys, newChunks, n, newSize);
+	}
+
+	private boolean replaceChunks(char[] newKeys, Chunk[] newChunks, int newChunkCount, int newSize)
+	{
+		keys = newKeys;
+		chunks = newChunks;
+		chunkCount = newChunkCount;
+		if(newSize == size)
+		{
+			return false;
+		}
+		size = newSize;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Converts every chunk to its smallest form: runs of consecutive values
+	 * are used where they take less memory than an array or a bitmap, and
+	 * arrays are trimmed to their size. Worth calling once a set is loaded
+	 * and will not change much.
+	 *
+	 * @return <tt>true</tt> if any chunk changed its form
+	 */
+	public boolean runOptimize()
+	{
+		boolean changed = false;
+		for(int i = 0; i < chunkCount; i++)
+		{
+			Chunk chunk = chunks[i].optimize();
+			changed |= chunk.getClass() != chunks[i].getClass();
+			chunks[i] = chunk;
+		}
+		return changed;
+	}
+
+	// Navigation helpers, which return NONE if there is no such element
+
+	protected final long firstValue()
+	{
+		return chunkCount == 0 ? NONE : join(keys[0], chunks[0].first());
+	}
+
+	protected final long lastValue()
+	{
+		int i = chunkCount - 1;
+		return i < 0 ? NONE : join(keys[i], chunks[i].last());
+	}
+
+	protected final long ceilingValue(int e)
+	{
+		final int high = highOf(e);
+		int i = chunkIndex(high);
+		if(i >= 0)
+		{
+			int low = chunks[i].ceiling(lowOf(e));
+			if(low >= 0)
+			{
+				return join(high, low);
+			}
+			i++;
+		}
+		else
+		{
+			i = -(i + 1);
+		}
+		return i < chunkCount ? join(keys[i], chunks[i].first()) : NONE;
+	}
+
+	protected final long floorValue(int e)
+	{
+		final int high = highOf(e);
+		int i = chunkIndex(high);
+		if(i >= 0)
+		{
+			int low = chunks[i].floor(lowOf(e));
+			if(low >= 0)
+			{
+				return join(high, low);
+			}
+			i--;
+		}
+		else
+		{
+			i = -(i + 1) - 1;
+		}
+		return i >= 0 ? join(keys[i], chunks[i].last()) : NONE;
+	}
+
+	protected final int countBelow(int e)
+	{
+		final int high = highOf(e);
+		int i = chunkIndex(high);
+		int end = i >= 0 ? i : -(i + 1);
+		int count = 0;
+		for(int j = 0; j < end; j++)
+		{
+			count += chunks[j].cardinality();
+		}
+		if(i >= 0)
+		{
+			count += chunks[i].rank(lowOf(e));
+		}
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>This implementation walks over the chunks without an iterator.
+	 *
+	 * @throws ConcurrentModificationException if the set was structurally modified by procedure
+	 */
+	@Override
+	public boolean forEach(IntProcedure procedure)
+	{
+		final int expectedModCount = modCount;
+		boolean result = true;
+		for(int i = 0; result && i < chunkCount; i++)
+		{
+			result = chunks[i].forEach(join(keys[i], 0), procedure);
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public int[] toArray()
+	{
+		final int[] a = new int[size];
+		forEach(new IntProcedure()
+		{
+			int i;
+
+			public boolean execute(int value)
+			{
+				a[i++] = value;
+				return true;
+			}
+		});
+		return a;
+	}
+
+	/**
+	 * Returns a copy of this set; the chunks are copied too.
+	 *
+	 * @return a copy of this set
+	 */
+	public Object clone()
+	{
+		try
+		{
+			RoaringIntSet clone = (RoaringIntSet) super.clone();
+			clone.keys = keys.clone();
+			clone.chunks = new Chunk[chunks.length];
+			for(int i = 0; i < chunkCount; i++)
+			{
+				clone.chunks[i] = chunks[i].copy();
+			}
+			clone.modCount = 0;
+			return clone;
+		}
+		catch(CloneNotSupportedException e)
+		{
+			throw new InternalError();
+		}
+	}
+
+	protected final IntIterator iterator(long first, boolean descending, long fence)
+	{
+		return new Itr(first, descending, fence);
+	}
+
+	/**
+	 * Iterator over the elements between the first one and the optional fence
+	 * (inclusive). Remembers position as chunk index and low bits of the next
+	 * element, which are found again after removal.
+	 */
+	final class Itr implements IntIterator
+	{
+		private final boolean descending;
+		private final boolean fenced;
+		private final int fence;
+		private int index;
+		/**
+		 * Low bits of next element, -1 if there is none
+		 */
+		private int nextLow = -1;
+		private int lastReturned;
+		private boolean canRemove;
+		private int expectedModCount = modCount;
+
+		Itr(long first, boolean descending, long fence)
+		{
+			this.descending = descending;
+			this.fenced = fence != NONE;
+			this.fence = (int) fence;
+			if(first != NONE)
+			{
+				index = chunkIndex(highOf((int) first));
+				nextLow = lowOf((int) first);
+			}
+		}
+
+		public boolean hasNext()
+		{
+			return nextLow >= 0;
+		}
+
+		public int next()
+		{
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			if(nextLow < 0)
+			{
+				throw new NoSuchElementException();
+			}
+			int e = join(keys[index], nextLow);
+			advance();
+			lastReturned = e;
+			canRemove = true;
+			return e;
+		}
+
+		private void advance()
+		{
+			Chunk chunk = chunks[index];
+			int low;
+			if(descending)
+			{
+				low = nextLow == 0 ? -1 : chunk.floor(nextLow - 1);
+				if(low < 0)
+				{
+					if(--index < 0)
+					{
+						nextLow = -1;
+						return;
+					}
+					low = chunks[index].last();
+				}
+			}
+			else
+			{
+				low = nextLow == 0xFFFF ? -1 : chunk.ceiling(nextLow + 1);
+				if(low < 0)
+				{
+					if(++index >= chunkCount)
+					{
+						nextLow = -1;
+						return;
+					}
+					low = chunks[index].first();
+				}
+			}
+			nextLow = low;
+			if(fenced)
+			{
+				int e = join(keys[index], low);
+				if(descending ? e < fence : e > fence)
+				{
+					nextLow = -1;
+				}
+			}
+		}
+
+		public void remove()
+		{
+			if(!canRemove)
+			{
+				throw new IllegalStateException();
+			}
+			if(modCount != expectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			int next = nextLow < 0 ? 0 : join(keys[index], nextLow);
+			RoaringIntSet.this.remove(lastReturned);
+			if(nextLow >= 0)
+			{
+				index = chunkIndex(highOf(next));
+			}
+			canRemove = false;
+			expectedModCount = modCount;
+		}
+	}
+
+	/* ---------------- Chunks -------------- */
+
+	/**
+	 * Low 16 bits of elements with the same high bits. Chunks are never empty;
+	 * mutators return the chunk which holds the result, which may be of another kind.
+	 */
+	abstract static class Chunk
+	{
+		abstract int cardinality();
+
+		abstract boolean contains(int low);
+
+		/**
+		 * Adds a value, which is not present.
+		 */
+		abstract Chunk add(int low);
+
+		/**
+		 * Removes a value, which is present and is not the last one.
+		 */
+		abstract Chunk remove(int low);
+
+		/**
+		 * Returns the least value greater than or equal to the given one, or -1.
+		 */
+		abstract int ceiling(int low);
+
+		/**
+		 * Returns the greatest value less than or equal to the given one, or -1.
+		 */
+		abstract int floor(int low);
+
+		abstract int first();
+
+		abstract int last();
+
+		/**
+		 * Returns count of values less than the given one.
+		 */
+		abstract int rank(int low);
+
+		abstract boolean forEach(int base, IntProcedure procedure);
+
+		/**
+		 * Returns a new bitmap of the values.
+		 */
+		abstract long[] toWords();
+
+		abstract Chunk copy();
+
+		/**
+		 * Returns the chunk of the smallest kind, holding the same values.
+		 */
+		abstract Chunk optimize();
+
+		abstract long estimateMemoryBytes();
+
+		abstract void write(ObjectOutputStream s) throws IOException;
+
+		final Chunk or(Chunk o)
+		{
+			if(this instanceof ArrayChunk && o instanceof ArrayChunk && cardinality() + o.cardinality() <= ARRAY_MAX)
+			{
+				return ((ArrayChunk) this).merge((ArrayChunk) o);
+			}
+			long[] words = toWords();
+			long[] other = wordsOf(o);
+			for(int i = 0; i < BITMAP_WORDS; i++)
+			{
+				words[i] |= other[i];
+			}
+			return fromWords(words);
+		}
+
+		/**
+		 * Returns the intersection, or <tt>null</tt> if it is empty.
+		 */
+		final Chunk and(Chunk o)
+		{
+			if(this instanceof ArrayChunk)
+			{
+				return ((ArrayChunk) this).filter(o, true);
+			}
+			if(o instanceof ArrayChunk)
+			{
+				return ((ArrayChunk) o).filter(this, true);
+			}
+			long[] words = toWords();
+			long[] other = wordsOf(o);
+			for(int i = 0; i < BITMAP_WORDS; i++)
+			{
+				words[i] &= other[i];
+			}
+			return fromWords(words);
+		}
+
+		/**
+		 * Returns the difference, or <tt>null</tt> if it is empty.
+		 */
+		final Chunk andNot(Chunk o)
+		{
+			if(this instanceof ArrayChunk)
+			{
+				return ((ArrayChunk) this).filter(o, false);
+			}
+			long[] words = toWords();
+			long[] other = wordsOf(o);
+			for(int i = 0; i < BITMAP_WORDS; i++)
+			{
+				words[i] &= ~other[i];
+			}
+			return fromWords(words);
+		}
+
+		static long[] wordsOf(Chunk chunk)
+		{
+			return chunk instanceof BitmapChunk ? ((BitmapChunk) chunk).words : chunk.toWords();
+		}
+
+		/**
+		 * Returns an array or bitmap chunk of the given bitmap, or <tt>null</tt> if it is empty.
+		 */
+		static Chunk fromWords(long[] words)
+		{
+			int cardinality = 0;
+			for(long word : words)
+			{
+				cardinality += Long.bitCount(word);
+			}
+			if(cardinality == 0)
+			{
+				return null;
+			}
+			if(cardinality <= ARRAY_MAX)
+			{
+				return new ArrayChunk(words, cardinality);
+			}
+			return new BitmapChunk(words, cardinality);
+		}
+
+		static Chunk read(ObjectInputStream s) throws IOException
+		{
+			byte kind = s.readByte();
+			int count = s.readInt();
+			switch(kind)
+			{
+				case ARRAY:
+				{
+					char[] content = new char[count];
+					for(int i = 0; i < count; i++)
+					{
+						content[i] = s.readChar();
+					}
+					return new ArrayChunk(content, count);
+				}
+				case BITMAP:
+				{
+					long[] words = new long[BITMAP_WORDS];
+					for(int i = 0; i < BITMAP_WORDS; i++)
+					{
+						words[i] = s.readLong();
+					}
+					return new BitmapChunk(words, count);
+				}
+				case RUN:
+				{
+					char[] runs = new char[count * 2];
+					int cardinality = 0;
+					for(int i = 0; i < runs.length; i += 2)
+					{
+						runs[i] = s.readChar();
+						runs[i + 1] = s.readChar();
+						cardinality += runs[i + 1] + 1;
+					}
+					return new RunChunk(runs, count, cardinality);
+				}
+				default:
+					throw new IOException("Unknown chunk kind " + kind);
+			}
+		}
+
+		/**
+		 * Returns first set bit at or after the given one, or -1.
+		 */
+		static int nextSetBit(long[] words, int from)
+		{
+			int i = from >>> 6;
+			long word = words[i] & (-1L << from);
+			while(word == 0)
+			{
+				if(++i == BITMAP_WORDS)
+				{
+					return -1;
+				}
+				word = words[i];
+			}
+			return (i << 6) + Long.numberOfTrailingZeros(word);
+		}
+
+		/**
+		 * Returns first clear bit at or after the given one, or 65536.
+		 */
+		static int nextClearBit(long[] words, int from)
+		{
+			int i = from >>> 6;
+			long word = ~words[i] & (-1L << from);
+			while(word == 0)
+			{
+				if(++i == BITMAP_WORDS)
+				{
+					return BITMAP_WORDS << 6;
+				}
+				word = ~words[i];
+			}
+			return (i << 6) + Long.numberOfTrailingZeros(word);
+		}
+
+		/**
+		 * Sets the bits from <tt>from</tt> to <tt>to</tt>, both inclusive.
+		 */
+		static void setRange(long[] words, int from, int to)
+		{
+			int fromWord = from >>> 6;
+			int toWord = to >>> 6;
+			long fromMask = -1L << from;
+			long toMask = -1L >>> (63 - (to & 63));
+			if(fromWord == toWord)
+			{
+				words[fromWord] |= fromMask & toMask;
+				return;
+			}
+			words[fromWord] |= fromMask;
+			for(int i = fromWord + 1; i < toWord; i++)
+			{
+				words[i] = -1L;
+			}
+			words[toWord] |= toMask;
+		}
+
+		static int countRuns(long[] words)
+		{
+			int runs = 0;
+			long previous = 0;
+			for(long word : words)
+			{
+				runs += Long.bitCount(word & ~(word << 1 | previous >>> 63));
+				previous = word;
+			}
+			return runs;
+		}
+	}
+
+	/**
+	 * Sorted array of values.
+	 */
+	static final class ArrayChunk extends Chunk
+	{
+		char[] content;
+		int cardinality;
+
+		ArrayChunk(int low)
+		{
+			content = new char[4];
+			content[0] = (char) low;
+			cardinality = 1;
+		}
+
+		ArrayChunk(char[] content, int cardinality)
+		{
+			this.content = content;
+			this.cardinality = cardinality;
+		}
+
+		ArrayChunk(long[] words, int cardinality)
+		{
+			this(new char[cardinality], cardinality);
+			int n = 0;
+			for(int i = 0; i < BITMAP_WORDS; i++)
+			{
+				for(long word = words[i]; word != 0; word &= word - 1)
+				{
+					content[n++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+				}
+			}
+		}
+
+		int cardinality()
+		{
+			return cardinality;
+		}
+
+		private int indexOf(int low)
+		{
+			return Arrays.binarySearch(content, 0, cardinality, (char) low);
+		}
+
+		boolean contains(int low)
+		{
+			return indexOf(low) >= 0;
+		}
+
+		Chunk add(int low)
+		{
+			if(cardinality == ARRAY_MAX)
+			{
+				long[] words = toWords();
+				words[low >>> 6] |= 1L << low;
+				return new BitmapChunk(words, cardinality + 1);
+			}
+			int i = -(indexOf(low) + 1);
+			if(cardinality == content.length)
+			{
+				int capacity = cardinality < 64 ? cardinality * 2 : cardinality < 1024 ? cardinality * 3 / 2 : cardinality * 5 / 4;
+				content = Arrays.copyOf(content, Math.min(capacity, ARRAY_MAX));
+			}
+			System.arraycopy(content, i, content, i + 1, cardinality - i);
+			content[i] = (char) low;
+			cardinality++;
+			return this;
+		}
+
+		Chunk remove(int low)
+		{
+			int i = indexOf(low);
+			System.arraycopy(content, i + 1, content, i, cardinality - i - 1);
+			cardinality--;
+			return this;
+		}
+
+		int ceiling(int low)
+		{
+			int i = indexOf(low);
+			if(i >= 0)
+			{
+				return low;
+			}
+			i = -(i + 1);
+			return i < cardinality ? content[i] : -1;
+		}
+
+		int floor(int low)
+		{
+			int i = indexOf(low);
+			if(i >= 0)
+			{
+				return low;
+			}
+			i = -(i + 1) - 1;
+			return i >= 0 ? content[i] : -1;
+		}
+
+		int first()
+		{
+			return content[0];
+		}
+
+		int last()
+		{
+			return content[cardinality - 1];
+		}
+
+		int rank(int low)
+		{
+			int i = indexOf(low);
+			return i >= 0 ? i : -(i + 1);
+		}
+
+		boolean forEach(int base, IntProcedure procedure)
+		{
+			final char[] content = this.content;
+			for(int i = 0; i < cardinality; i++)
+			{
+				if(!procedure.execute(base | content[i]))
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		long[] toWords()
+		{
+			long[] words = new long[BITMAP_WORDS];
+			for(int i = 0; i < cardinality; i++)
+			{
+				int low = content[i];
+				words[low >>> 6] |= 1L << low;
+			}
+			return words;
+		}
+
+		Chunk copy()
+		{
+			return new ArrayChunk(Arrays.copyOf(content, cardinality), cardinality);
+		}
+
+		Chunk optimize()
+		{
+			int runs = 0;
+			for(int i = 0; i < cardinality; i++)
+			{
+				if(i == 0 || content[i] != content[i - 1] + 1)
+				{
+					runs++;
+				}
+			}
+			if(runs * 4 < cardinality * 2)
+			{
+				char[] r = new char[runs * 2];
+				int n = -2;
+				for(int i = 0; i < cardinality; i++)
+				{
+					if(i == 0 || content[i] != content[i - 1] + 1)
+					{
+						n += 2;
+						r[n] = content[i];
+					}
+					else
+					{
+						r[n + 1]++;
+					}
+				}
+				return new RunChunk(r, runs, cardinality);
+			}
+			if(content.length != cardinality)
+			{
+				content = Arrays.copyOf(content, cardinality);
+			}
+			return this;
+		}
+
+		/**
+		 * Returns union with another array chunk, which fits into array.
+		 */
+		Chunk merge(ArrayChunk o)
+		{
+			char[] r = new char[cardinality + o.cardinality];
+			int i = 0, j = 0, n = 0;
+			while(i < cardinality && j < o.cardinality)
+			{
+				char a = content[i];
+				char b = o.content[j];
+				if(a < b)
+				{
+					r[n++] = a;
+					i++;
+				}
+				else if(a > b)
+				{
+					r[n++] = b;
+					j++;
+				}
+				else
+				{
+					r[n++] = a;
+					i++;
+					j++;
+				}
+			}
+			while(i < cardinality)
+			{
+				r[n++] = content[i++];
+			}
+			while(j < o.cardinality)
+			{
+				r[n++] = o.content[j++];
+			}
+			return new ArrayChunk(r, n);
+		}
+
+		/**
+		 * Returns values which are (or are not) in another chunk, or <tt>null</tt> if there are none.
+		 */
+		Chunk filter(Chunk o, boolean present)
+		{
+			char[] r = new char[cardinality];
+			int n = 0;
+			for(int i = 0; i < cardinality; i++)
+			{
+				if(o.contains(content[i]) == present)
+				{
+					r[n++] = content[i];
+				}
+			}
+			return n == 0 ? null : new ArrayChunk(r, n);
+		}
+
+		long estimateMemoryBytes()
+		{
+			return MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.sizeOf(content);
+		}
+
+		void write(ObjectOutputStream s) throws IOException
+		{
+			s.writeByte(ARRAY);
+			s.writeInt(cardinality);
+			for(int i = 0; i < cardinality; i++)
+			{
+				s.writeChar(content[i]);
+			}
+		}
+	}
+
+	/**
+	 * Bitmap of all 65536 values.
+	 */
+	static final class BitmapChunk extends Chunk
+	{
+		final long[] words;
+		int cardinality;
+
+		BitmapChunk(long[] words, int cardinality)
+		{
+			this.words = words;
+			this.cardinality = cardinality;
+		}
+
+		int cardinality()
+		{
+			return cardinality;
+		}
+
+		boolean contains(int low)
+		{
+			return (words[low >>> 6] & 1L << low) != 0;
+		}
+
+		Chunk add(int low)
+		{
+			words[low >>> 6] |= 1L << low;
+			cardinality++;
+			return this;
+		}
+
+		Chunk remove(int low)
+		{
+			words[low >>> 6] &= ~(1L << low);
+			if(--cardinality <= ARRAY_MAX)
+			{
+				return new ArrayChunk(words, cardinality);
+			}
+			return this;
+		}
+
+		int ceiling(int low)
+		{
+			return nextSetBit(words, low);
+		}
+
+		int floor(int low)
+		{
+			int i = low >>> 6;
+			long word = words[i] & (-1L >>> (63 - (low & 63)));
+			while(word == 0)
+			{
+				if(--i < 0)
+				{
+					return -1;
+				}
+				word = words[i];
+			}
+			return (i << 6) + 63 - Long.numberOfLeadingZeros(word);
+		}
+
+		int first()
+		{
+			return ceiling(0);
+		}
+
+		int last()
+		{
+			return floor(0xFFFF);
+		}
+
+		int rank(int low)
+		{
+			int i = low >>> 6;
+			int count = Long.bitCount(words[i] & ((1L << low) - 1));
+			while(--i >= 0)
+			{
+				count += Long.bitCount(words[i]);
+			}
+			return count;
+		}
+
+		boolean forEach(int base, IntProcedure procedure)
+		{
+			final long[] words = this.words;
+			for(int i = 0; i < BITMAP_WORDS; i++)
+			{
+				for(long word = words[i]; word != 0; word &= word - 1)
+				{
+					if(!procedure.execute(base | (i << 6) + Long.numberOfTrailingZeros(word)))
+					{
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		long[] toWords()
+		{
+			return words.clone();
+		}
+
+		Chunk copy()
+		{
+			return new BitmapChunk(words.clone(), cardinality);
+		}
+
+		Chunk optimize()
+		{
+			int runs = countRuns(words);
+			if(runs * 4 < BITMAP_BYTES)
+			{
+				char[] r = new char[runs * 2];
+				int n = 0;
+				for(int start = nextSetBit(words, 0); start >= 0; )
+				{
+					int end = nextClearBit(words, start);
+					r[n++] = (char) start;
+					r[n++] = (char) (end - start - 1);
+					start = end > 0xFFFF ? -1 : nextSetBit(words, end);
+				}
+				return new RunChunk(r, runs, cardinality);
+			}
+			return this;
+		}
+
+		long estimateMemoryBytes()
+		{
+			return MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.sizeOf(words);
+		}
+
+		void write(ObjectOutputStream s) throws IOException
+		{
+			s.writeByte(BITMAP);
+			s.writeInt(cardinality);
+			for(long word : words)
+			{
+				s.writeLong(word);
+			}
+		}
+	}
+
+	/**
+	 * Sorted runs of consecutive values, each stored as start and length minus one.
+	 * Converted to array or bitmap as soon as it becomes larger than they are.
+	 */
+	static final class RunChunk extends Chunk
+	{
+		char[] runs;
+		int runCount;
+		int cardinality;
+
+		RunChunk(char[] runs, int runCount, int cardinality)
+		{
+			this.runs = runs;
+			this.runCount = runCount;
+			this.cardinality = cardinality;
+		}
+
+		private int start(int i)
+		{
+			return runs[i << 1];
+		}
+
+		private int end(int i)
+		{
+			return runs[i << 1] + runs[(i << 1) + 1];
+		}
+
+		/**
+		 * Returns index of the last run, which starts at or before the given value, or -1.
+		 */
+		private int runBefore(int low)
+		{
+			int lo = 0;
+			int hi = runCount - 1;
+			while(lo <= hi)
+			{
+				int mid = (lo + hi) >>> 1;
+				if(start(mid) <= low)
+				{
+					lo = mid + 1;
+				}
+				else
+				{
+					hi = mid - 1;
+				}
+			}
+			return hi;
+		}
+
+		private void insertRun(int i, int start, int lengthMinusOne)
+		{
+			if((runCount + 1) * 2 > runs.length)
+			{
+				runs = Arrays.copyOf(runs, Math.max(runs.length * 3 / 2, (runCount + 1) * 2));
+			}
+			System.arraycopy(runs, i * 2, runs, i * 2 + 2, (runCount - i) * 2);
+			runs[i * 2] = (char) start;
+			runs[i * 2 + 1] = (char) lengthMinusOne;
+			runCount++;
+		}
+
+		private void deleteRun(int i)
+		{
+			System.arraycopy(runs, i * 2 + 2, runs, i * 2, (runCount - i - 1) * 2);
+			runCount--;
+		}
+
+		int cardinality()
+		{
+			return cardinality;
+		}
+
+		boolean contains(int low)
+		{
+			int i = runBefore(low);
+			return i >= 0 && low <= end(i);
+		}
+
+		Chunk add(int low)
+		{
+			int i = runBefore(low);
+			boolean joinsPrevious = i >= 0 && end(i) + 1 == low;
+			boolean joinsNext = i + 1 < runCount && start(i + 1) == low + 1;
+			if(joinsPrevious && joinsNext)
+			{
+				runs[i * 2 + 1] = (char) (end(i + 1) - start(i));
+				deleteRun(i + 1);
+			}
+			else if(joinsPrevious)
+			{
+				runs[i * 2 + 1]++;
+			}
+			else if(joinsNext)
+			{
+				runs[i * 2 + 2] = (char) low;
+				runs[i * 2 + 3]++;
+			}
+			else
+			{
+				insertRun(i + 1, low, 0);
+			}
+			cardinality++;
+			return fit();
+		}
+
+		Chunk remove(int low)
+		{
+			int i = runBefore(low);
+			int start = start(i);
+			int end = end(i);
+			if(start == end)
+			{
+				deleteRun(i);
+			}
+			else if(low == start)
+			{
+				runs[i * 2] = (char) (low + 1);
+				runs[i * 2 + 1]--;
+			}
+			else if(low == end)
+			{
+				runs[i * 2 + 1]--;
+			}
+			else
+			{
+				runs[i * 2 + 1] = (char) (low - start - 1);
+				insertRun(i + 1, low + 1, end - low - 1);
+			}
+			cardinality--;
+			return fit();
+		}
+
+		/**
+		 * Returns this chunk, or array or bitmap chunk if it would be smaller.
+		 */
+		private Chunk fit()
+		{
+			if(cardinality <= ARRAY_MAX)
+			{
+				if(runCount * 4 > cardinality * 2)
+				{
+					return new ArrayChunk(toWords(), cardinality);
+				}
+			}
+			else if(runCount * 4 > BITMAP_BYTES)
+			{
+				return new BitmapChunk(toWords(), cardinality);
+			}
+			return this;
+		}
+
+		int ceiling(int low)
+		{
+			int i = runBefore(low);
+			if(i >= 0 && low <= end(i))
+			{
+				return low;
+			}
+			return i + 1 < runCount ? start(i + 1) : -1;
+		}
+
+		int floor(int low)
+		{
+			int i = runBefore(low);
+			return i < 0 ? -1 : Math.min(low, end(i));
+		}
+
+		int first()
+		{
+			return start(0);
+		}
+
+		int last()
+		{
+			return end(runCount - 1);
+		}
+
+		int rank(int low)
+		{
+			int count = 0;
+			for(int i = 0; i < runCount; i++)
+			{
+				int start = start(i);
+				if(start >= low)
+				{
+					break;
+				}
+				count += Math.min(end(i), low - 1) - start + 1;
+			}
+			return count;
+		}
+
+		boolean forEach(int base, IntProcedure procedure)
+		{
+			for(int i = 0; i < runCount; i++)
+			{
+				for(int low = start(i), end = end(i); low <= end; low++)
+				{
+					if(!procedure.execute(base | low))
+					{
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		long[] toWords()
+		{
+			long[] words = new long[BITMAP_WORDS];
+			for(int i = 0; i < runCount; i++)
+			{
+				setRange(words, start(i), end(i));
+			}
+			return words;
+		}
+
+		Chunk copy()
+		{
+			return new RunChunk(Arrays.copyOf(runs, runCount * 2), runCount, cardinality);
+		}
+
+		Chunk optimize()
+		{
+			Chunk chunk = fit();
+			if(chunk == this && runs.length != runCount * 2)
+			{
+				runs = Arrays.copyOf(runs, runCount * 2);
+			}
+			return chunk;
+		}
+
+		long estimateMemoryBytes()
+		{
+			return MemoryEstimator.shallowSizeOf(this) + MemoryEstimator.sizeOf(runs);
+		}
+
+		void write(ObjectOutputStream s) throws IOException
+		{
+			s.writeByte(RUN);
+			s.writeInt(runCount);
+			for(int i = 0; i < runCount * 2; i++)
+			{
+				s.writeChar(runs[i]);
+			}
+		}
+	}
+
+	/**
+	 * Save the state of the set to a stream: the count of chunks,
+	 * and key and content of every chunk.
+	 */
+	private void writeObject(ObjectOutputStream s) throws IOException
+	{
+		s.defaultWriteObject();
+
+		s.writeInt(size);
+		s.writeInt(chunkCount);
+		for(int i = 0; i < chunkCount; i++)
+		{
+			s.writeChar(keys[i]);
+			chunks[i].write(s);
+		}
+	}
+
+	/**
+	 * Reconstitute the set from a stream.
+	 */
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException
+	{
+		s.defaultReadObject();
+
+		size = s.readInt();
+		chunkCount = s.readInt();
+		keys = new char[Math.max(chunkCount, 4)];
+		chunks = new Chunk[keys.length];
+		for(int i = 0; i < chunkCount; i++)
+		{
+			keys[i] = s.readChar();
+			chunks[i] = Chunk.read(s);
+		}
+	}
+}
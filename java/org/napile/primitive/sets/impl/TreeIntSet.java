@@ -25,9 +25,13 @@
 package org.napile.primitive.sets.impl;
 
 import org.napile.pair.primitive.IntObjectPair;
+import org.napile.primitive.MemoryEstimator;
 import org.napile.primitive.collections.IntCollection;
 import org.napile.primitive.comparators.IntComparator;
+import org.napile.primitive.functions.IntProcedure;
 import org.napile.primitive.iterators.IntIterator;
+import org.napile.primitive.iterators.IntSpliterator;
+import org.napile.primitive.maps.IndexedNavigableIntObjectMap;
 import org.napile.primitive.maps.IntObjectMap;
 import org.napile.primitive.maps.NavigableIntObjectMap;
 import org.napile.primitive.maps.impl.TreeIntObjectMap;
@@ -198,6 +202,29 @@ public class TreeIntSet extends AbstractIntSet implements NavigableIntSet, Clone
 		return m.navigableKeySet().iterator();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * <p>Elements are visited by {@link NavigableIntObjectMap#forEachKey} of the backing map,
+	 * so the walk over a {@link TreeIntObjectMap} creates no entries, and is fail-fast like it.
+	 */
+	@Override
+	public boolean forEach(IntProcedure procedure)
+	{
+		return m.forEachKey(procedure);
+	}
+
+	/**
+	 * Returns a spliterator over the elements in this set in ascending order.
+	 *
+	 * @return a spliterator over the elements in this set
+	 */
+	@Override
+	public IntSpliterator spliterator()
+	{
+		return m.navigableKeySet().spliterator();
+	}
+
 	/**
 	 * Returns an iterator over the elements in this set in descending order.
 	 *
@@ -237,6 +264,17 @@ public class TreeIntSet extends AbstractIntSet implements NavigableIntSet, Clone
 		return m.isEmpty();
 	}
 
+	/**
+	 * Returns an estimate of heap size, retained by this set: the set object
+	 * and its backing map. Sets which are views of a sub map count only the view.
+	 *
+	 * @return estimated size in bytes
+	 */
+	public long estimateMemoryBytes()
+	{
+		return MemoryEstimator.shallowSizeOf(this) + m.estimateMemoryBytes();
+	}
+
 	/**
 	 * Returns {@code true} if this set contains the specified element.
 	 * More formally, returns {@code true} if and only if this set
@@ -504,6 +542,56 @@ public class TreeIntSet extends AbstractIntSet implements NavigableIntSet, Clone
 		return (e == null) ? null : e.getKey();
 	}
 
+	// Order statistics
+
+	/**
+	 * Returns the number of elements in this set, which are before the given
+	 * element in the order of this set. If the set contains the element, this
+	 * is the index of it, otherwise the index at which it would be inserted.
+	 * This operation takes log(n) time.
+	 *
+	 * @param e the element
+	 * @return the number of elements before <tt>e</tt>
+	 * @throws UnsupportedOperationException if this set is not backed by an
+	 *                                       {@link IndexedNavigableIntObjectMap}
+	 * @see IndexedNavigableIntObjectMap#rank(int)
+	 */
+	public int rank(int e)
+	{
+		return indexedMap().rank(e);
+	}
+
+	/**
+	 * Returns the element at the specified position in the order of this set.
+	 * This operation takes log(n) time.
+	 *
+	 * @param index index of the element
+	 * @return the element with exactly <tt>index</tt> elements before it
+	 * @throws IndexOutOfBoundsException	 if the index is out of range
+	 *                                       (<tt>index &lt; 0 || index &gt;= size()</tt>)
+	 * @throws UnsupportedOperationException if this set is not backed by an
+	 *                                       {@link IndexedNavigableIntObjectMap}
+	 * @see IndexedNavigableIntObjectMap#select(int)
+	 */
+	public int select(int index)
+	{
+		return indexedMap().select(index);
+	}
+
+	/**
+	 * Returns the backing map, if it supports order statistics
+	 *
+	 * @throws UnsupportedOperationException if it does not
+	 */
+	private IndexedNavigableIntObjectMap<Object> indexedMap()
+	{
+		if(m instanceof IndexedNavigableIntObjectMap)
+		{
+			return (IndexedNavigableIntObjectMap<Object>) m;
+		}
+		throw new UnsupportedOperationException();
+	}
+
 	/**
 	 * Returns a shallow copy of this {@code TreeSet} instance. (The elements
 	 * themselves are not cloned.)